@@ -0,0 +1,151 @@
+package org.tictactoe.game.benchmarks;
+
+import java.util.Random;
+
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+
+/**
+ * Games prepared for the benchmarks.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+final class BenchmarkGames {
+
+	/**
+	 * Maximum number of boxes held by all the random games of a benchmark.
+	 */
+	private static final int MAX_RANDOM_BOXES = 1 << 16;
+
+	/**
+	 * Maximum number of random games of a benchmark.
+	 */
+	private static final int MAX_RANDOM_GAMES = 16;
+
+	/**
+	 * Seed of the random games, so every run plays the same games.
+	 */
+	private static final long RANDOM_SEED = 42;
+
+	/**
+	 * Not instantiable.
+	 */
+	private BenchmarkGames() {
+
+	}
+
+	/**
+	 * Creates the random games for the given table size, as many as fit 
+	 * within MAX_RANDOM_BOXES boxes up to MAX_RANDOM_GAMES, at least one.
+	 * 
+	 * @param tableSize Table size.
+	 * @return Box numbers, x * tableSize + y, of every game in playing order.
+	 */
+	static int [][] randomGames(final int tableSize) {
+
+		final Random random = new Random(RANDOM_SEED);
+
+		final int gamesCount = Math.max(1, 
+				Math.min(MAX_RANDOM_GAMES, MAX_RANDOM_BOXES / (tableSize * tableSize)));
+
+		final int [][] randomGames = new int[gamesCount][];
+
+		for (int gameNumber = 0; gameNumber < gamesCount; gameNumber++) {
+
+			randomGames[gameNumber] = shuffledBoxes(tableSize, random);
+
+		}
+
+		return randomGames;
+
+	}
+
+	/**
+	 * Creates a game where every move of "X" is within the top left to bottom
+	 * right diagonal and the last one is the winner, so every move verifies
+	 * its line, its column and a diagonal.
+	 * 
+	 * @param tableSize Table size.
+	 * @return Box numbers, x * tableSize + y, of the game in playing order.
+	 */
+	static int [] worstCaseWinnerGame(final int tableSize) {
+
+		final int [] boxes = new int[2 * tableSize - 1];
+
+		for (int index = 0; index < tableSize; index++) {
+
+			boxes[2 * index] = index * tableSize + index;
+
+			if (index < tableSize - 1) {
+				boxes[2 * index + 1] = index * tableSize + index + 1;
+			}
+
+		}
+
+		return boxes;
+
+	}
+
+	/**
+	 * Plays the given boxes in order, "X" first, until the game finishes.
+	 * 
+	 * @param ticTacToeGame Game to play, just reset.
+	 * @param boxes Box numbers, x * tableSize + y, in playing order.
+	 * @param tableSize Table size.
+	 * @return The status of the last move.
+	 * @throws NotValidMoveException If a move is not valid.
+	 */
+	static TicTacToeGameStatus play(final TicTacToeGame ticTacToeGame, 
+			final int [] boxes, final int tableSize) throws NotValidMoveException {
+
+		TicTacToeGameStatus gameStatus = TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+
+		boolean xTurn = true;
+
+		for (int index = 0; (index < boxes.length)
+				&& (gameStatus == TicTacToeGameStatus.CONTINUE_NEXT_MOVE); index++) {
+
+			gameStatus = ticTacToeGame.move(boxes[index] / tableSize, 
+					boxes[index] % tableSize, xTurn ? "X" : "O");
+
+			xTurn = !xTurn;
+
+		}
+
+		return gameStatus;
+
+	}
+
+	/**
+	 * Gets every box of a table in random order.
+	 * 
+	 * @param tableSize Table size.
+	 * @param random Random source.
+	 * @return Box numbers, x * tableSize + y.
+	 */
+	private static int [] shuffledBoxes(final int tableSize, final Random random) {
+
+		final int [] boxes = new int[tableSize * tableSize];
+
+		for (int box = 0; box < boxes.length; box++) {
+
+			boxes[box] = box;
+
+		}
+
+		for (int box = boxes.length - 1; box > 0; box--) {
+
+			final int swap = random.nextInt(box + 1);
+			final int aux = boxes[box];
+			boxes[box] = boxes[swap];
+			boxes[swap] = aux;
+
+		}
+
+		return boxes;
+
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.tictactoe.game.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the JMH command line options given, publishing 
+ * the results as JSON and profiling the allocation rate unless other result
+ * format or profilers are requested.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+public final class BenchmarkRunner {
+
+	/**
+	 * File of the results when no other is requested.
+	 */
+	static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	/**
+	 * Not instantiable.
+	 */
+	private BenchmarkRunner() {
+
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 * 
+	 * @param args JMH command line options.
+	 * @throws CommandLineOptionException If the options are not valid.
+	 * @throws IOException If the help can not be printed.
+	 * @throws RunnerException If a benchmark fails.
+	 */
+	public static void main(final String [] args) 
+			throws CommandLineOptionException, IOException, RunnerException {
+
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+		if (commandLineOptions.shouldHelp()) {
+
+			commandLineOptions.showHelp();
+
+			return;
+
+		}
+
+		final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+
+		if (!commandLineOptions.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT_FILE);
+		}
+
+		if (commandLineOptions.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+
+		final Runner runner = new Runner(options.build());
+
+		if (commandLineOptions.shouldList()) {
+
+			runner.list();
+
+		} else {
+
+			runner.run();
+
+		}
+
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.tictactoe.game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+/**
+ * Benchmarks of the throughput of not valid moves, rejected either by 
+ * TicTacToeGame.move or by TicTacToeGame.tryMove.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvalidMoveBenchmark {
+
+	@Param({"3", "4", "8", "64", "512", "4096"})
+	private int tableSize;
+
+	/**
+	 * Reference to the game with "X" in the top left box.
+	 */
+	private TicTacToeGame ticTacToeGame;
+
+	@Setup(Level.Trial)
+	public void setUp() throws NotValidMoveException {
+
+		ticTacToeGame = new TicTacToeGame(tableSize);
+
+		ticTacToeGame.move(0, 0, "X");
+
+	}
+
+	@Benchmark
+	public Object movePositionAlreadyTaken() {
+
+		try {
+
+			return ticTacToeGame.move(0, 0, "O");
+
+		} catch (NotValidMoveException exception) {
+
+			return exception;
+
+		}
+
+	}
+
+	@Benchmark
+	public Object moveUnexpectedMark() {
+
+		try {
+
+			return ticTacToeGame.move(1, 1, "X");
+
+		} catch (NotValidMoveException exception) {
+
+			return exception;
+
+		}
+
+	}
+
+	@Benchmark
+	public TicTacToeMoveResult tryMovePositionAlreadyTaken() {
+
+		return ticTacToeGame.tryMove(0, 0, TicTacToeMark.O);
+
+	}
+
+	@Benchmark
+	public TicTacToeMoveResult tryMoveUnexpectedMark() {
+
+		return ticTacToeGame.tryMove(1, 1, TicTacToeMark.X);
+
+	}
+
+	@Benchmark
+	public TicTacToeMoveResult tryMoveOutOfRange() {
+
+		return ticTacToeGame.tryMove(tableSize, 0, TicTacToeMark.O);
+
+	}
+
+}
@@ -0,0 +1,98 @@
+package org.tictactoe.game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeBoardStorage;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeWinDetection;
+
+/**
+ * Benchmarks of whole games played with TicTacToeGame.move, the reset of the 
+ * table included.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+
+	@Param({"3", "4", "8", "64", "512", "4096"})
+	private int tableSize;
+
+	@Param({"LINE_SCAN", "LINE_COUNTERS"})
+	private TicTacToeWinDetection winDetection;
+
+	/**
+	 * Reference to the game played.
+	 */
+	private TicTacToeGame ticTacToeGame;
+
+	/**
+	 * Reference to the random games to play, in turns.
+	 */
+	private int [][] randomGames;
+
+	/**
+	 * Reference to the next random game to play.
+	 */
+	private int nextRandomGame;
+
+	/**
+	 * Reference to the worst case winner game.
+	 */
+	private int [] worstCaseWinnerGame;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		ticTacToeGame = new TicTacToeGame(tableSize, 
+				TicTacToeBoardStorage.BITBOARD, winDetection);
+
+		randomGames = BenchmarkGames.randomGames(tableSize);
+
+		worstCaseWinnerGame = BenchmarkGames.worstCaseWinnerGame(tableSize);
+
+	}
+
+	@Benchmark
+	public TicTacToeGameStatus fullRandomGame() throws NotValidMoveException {
+
+		final int [] boxes = randomGames[nextRandomGame];
+
+		nextRandomGame = (nextRandomGame + 1) % randomGames.length;
+
+		ticTacToeGame.resetGame(tableSize);
+
+		return BenchmarkGames.play(ticTacToeGame, boxes, tableSize);
+
+	}
+
+	@Benchmark
+	public TicTacToeGameStatus worstCaseWinnerGame() throws NotValidMoveException {
+
+		ticTacToeGame.resetGame(tableSize);
+
+		return BenchmarkGames.play(ticTacToeGame, worstCaseWinnerGame, tableSize);
+
+	}
+
+}
@@ -0,0 +1,299 @@
+package org.tictactoe.game.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.tictactoe.game.TicTacToeLatencySnapshot;
+
+/**
+ * Self-play throughput harness: plays games through TicTacToeGame.move on
+ * every core, a game per thread reset between games, and reports by table
+ * size the games per second, the latency percentiles of move, the bytes
+ * allocated per game and the outcomes.
+ * <p>
+ * Options, all optional:
+ * <pre>
+ *   --sizes 3,4,8,64      table sizes to play
+ *   --games 1000000       games per table size
+ *   --threads N           threads, the available processors by default
+ *   --mode random         random moves, or scripted: the seeded games of the
+ *                         benchmarks, the same outcomes on every run
+ *   --warmup G            games per table size played first and not
+ *                         reported, a tenth of the games by default
+ * </pre>
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class SelfPlayHarness {
+
+	/**
+	 * Default table sizes.
+	 */
+	static final String DEFAULT_TABLE_SIZES = "3,4,8,64";
+
+	/**
+	 * Default games per table size.
+	 */
+	static final long DEFAULT_GAMES = 1000000;
+
+	/**
+	 * Percentiles of the move latencies reported.
+	 */
+	private static final double [] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+	/**
+	 * Not instantiable.
+	 */
+	private SelfPlayHarness() {
+
+	}
+
+	/**
+	 * Runs the harness.
+	 *
+	 * @param args Options of the harness.
+	 * @throws InterruptedException If interrupted while waiting the threads.
+	 * @throws ExecutionException If a game fails.
+	 */
+	public static void main(final String [] args)
+			throws InterruptedException, ExecutionException {
+
+		String tableSizes = DEFAULT_TABLE_SIZES;
+		long games = DEFAULT_GAMES;
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean scripted = false;
+		long warmupGames = -1;
+
+		for (int index = 0; index < args.length; index++) {
+
+			final String option = args[index];
+
+			if ((index + 1 == args.length) || !option.startsWith("--")) {
+
+				printUsage("Missing value of " + option);
+
+				return;
+
+			}
+
+			final String value = args[++index];
+
+			if ("--sizes".equals(option)) {
+
+				tableSizes = value;
+
+			} else if ("--games".equals(option)) {
+
+				games = Long.parseLong(value);
+
+			} else if ("--threads".equals(option)) {
+
+				threads = Integer.parseInt(value);
+
+			} else if ("--mode".equals(option) && ("random".equals(value) || "scripted".equals(value))) {
+
+				scripted = "scripted".equals(value);
+
+			} else if ("--warmup".equals(option)) {
+
+				warmupGames = Long.parseLong(value);
+
+			} else {
+
+				printUsage("Unknown option " + option + " " + value);
+
+				return;
+
+			}
+
+		}
+
+		if ((games < 1) || (threads < 1)) {
+
+			printUsage("Games and threads should be 1 or above");
+
+			return;
+
+		}
+
+		enableAllocationMeasurement();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+
+			System.out.println(String.format(Locale.ROOT,
+					"%d threads, %d games per table size, %s moves", threads, games,
+					scripted ? "scripted" : "random"));
+
+			for (String tableSizeText: tableSizes.split(",")) {
+
+				final int tableSize = Integer.parseInt(tableSizeText.trim());
+
+				final int [][] scripts = scripted ? BenchmarkGames.randomGames(tableSize) : null;
+
+				play(executor, threads, tableSize, (warmupGames < 0) ? games / 10 : warmupGames,
+						scripts);
+
+				final long startNanos = System.nanoTime();
+
+				final SelfPlayResult result = play(executor, threads, tableSize, games, scripts);
+
+				report(tableSize, result, System.nanoTime() - startNanos);
+
+			}
+
+		} finally {
+
+			executor.shutdownNow();
+
+		}
+
+	}
+
+	/**
+	 * Plays games of a table size on every thread.
+	 *
+	 * @param executor Executor of the threads.
+	 * @param threads Threads.
+	 * @param tableSize Table size.
+	 * @param games Games of every thread together.
+	 * @param scripts Box numbers of the scripted games; null for random moves.
+	 * @return The result of every thread added up.
+	 * @throws InterruptedException If interrupted while waiting the threads.
+	 * @throws ExecutionException If a game fails.
+	 */
+	private static SelfPlayResult play(final ExecutorService executor, final int threads,
+			final int tableSize, final long games, final int [][] scripts)
+					throws InterruptedException, ExecutionException {
+
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		final List<Future<SelfPlayResult>> futures = new ArrayList<Future<SelfPlayResult>>();
+
+		for (int thread = 0; thread < threads; thread++) {
+
+			// The remainder of the games is spread over the first threads.
+			final long threadGames = games / threads + ((thread < games % threads) ? 1 : 0);
+
+			futures.add(executor.submit(
+					new SelfPlayWorker(tableSize, threadGames, scripts, startLatch)));
+
+		}
+
+		startLatch.countDown();
+
+		final SelfPlayResult result = new SelfPlayResult();
+
+		for (Future<SelfPlayResult> future: futures) {
+
+			result.add(future.get());
+
+		}
+
+		return result;
+
+	}
+
+	/**
+	 * Prints the report of a table size.
+	 *
+	 * @param tableSize Table size.
+	 * @param result Result of every thread added up.
+	 * @param elapsedNanos Time of the games.
+	 */
+	private static void report(final int tableSize, final SelfPlayResult result,
+			final long elapsedNanos) {
+
+		final double seconds = elapsedNanos / 1e9;
+
+		final long games = result.getGames();
+
+		final StringBuilder report = new StringBuilder();
+
+		report.append(String.format(Locale.ROOT,
+				"%dx%d: %d games in %.3f s, %.0f games/s, %.0f moves/s%n", tableSize, tableSize,
+				games, seconds, games / seconds, result.getMoves() / seconds));
+
+		final TicTacToeLatencySnapshot moveLatencies = result.getMoveLatencies();
+
+		report.append("  move latency ns:");
+
+		for (double percentile: PERCENTILES) {
+
+			report.append(String.format(Locale.ROOT, " p%s=%d",
+					stripZeros(percentile), moveLatencies.getPercentile(percentile)));
+
+		}
+
+		report.append(String.format(Locale.ROOT, " max=%d%n", moveLatencies.getMaxValue()));
+
+		report.append((result.getAllocatedBytes() < 0)
+				? "  allocation: not measured by this JVM\n"
+				: String.format(Locale.ROOT, "  allocation: %.1f bytes/game%n",
+						(double) result.getAllocatedBytes() / games));
+
+		report.append(String.format(Locale.ROOT,
+				"  outcomes: WINNER X %.2f%%, WINNER O %.2f%%, DRAW %.2f%%",
+				100.0 * result.getXWins() / games, 100.0 * result.getOWins() / games,
+				100.0 * result.getDraws() / games));
+
+		System.out.println(report);
+
+	}
+
+	/**
+	 * Enables the measurement of the bytes allocated per thread, on JVMs
+	 * supporting it.
+	 */
+	private static void enableAllocationMeasurement() {
+
+		final java.lang.management.ThreadMXBean threadMXBean =
+				java.lang.management.ManagementFactory.getThreadMXBean();
+
+		if ((threadMXBean instanceof com.sun.management.ThreadMXBean)
+				&& ((com.sun.management.ThreadMXBean) threadMXBean)
+						.isThreadAllocatedMemorySupported()) {
+
+			((com.sun.management.ThreadMXBean) threadMXBean)
+					.setThreadAllocatedMemoryEnabled(true);
+
+		}
+
+	}
+
+	/**
+	 * Formats a percentile without trailing zeros.
+	 *
+	 * @param percentile Percentile.
+	 * @return The text, e.g. "50" or "99.9".
+	 */
+	private static String stripZeros(final double percentile) {
+
+		return (percentile == Math.rint(percentile))
+				? String.valueOf((long) percentile) : String.valueOf(percentile);
+
+	}
+
+	/**
+	 * Prints the usage of the harness.
+	 *
+	 * @param error Error of the options.
+	 */
+	private static void printUsage(final String error) {
+
+		System.err.println(error);
+		System.err.println("Usage: SelfPlayHarness [--sizes " + DEFAULT_TABLE_SIZES
+				+ "] [--games " + DEFAULT_GAMES + "] [--threads N] [--mode random|scripted]"
+				+ " [--warmup G]");
+
+	}
+
+}
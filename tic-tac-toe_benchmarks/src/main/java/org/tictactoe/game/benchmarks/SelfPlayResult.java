@@ -0,0 +1,195 @@
+package org.tictactoe.game.benchmarks;
+
+import org.tictactoe.game.TicTacToeLatencyHistogram;
+import org.tictactoe.game.TicTacToeLatencySnapshot;
+
+/**
+ * Counts of the self-play games of a thread, or of every thread added up.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class SelfPlayResult {
+
+	/**
+	 * Reference to the latencies of the moves.
+	 */
+	private final TicTacToeLatencyHistogram moveLatencies = new TicTacToeLatencyHistogram();
+
+	/**
+	 * Reference to the games played.
+	 */
+	private long games;
+
+	/**
+	 * Reference to the moves played.
+	 */
+	private long moves;
+
+	/**
+	 * Reference to the games won by "X".
+	 */
+	private long xWins;
+
+	/**
+	 * Reference to the games won by "O".
+	 */
+	private long oWins;
+
+	/**
+	 * Reference to the games ended in a draw.
+	 */
+	private long draws;
+
+	/**
+	 * Reference to the bytes allocated by the games; -1 if not measured.
+	 */
+	private long allocatedBytes;
+
+	/**
+	 * Records the latency of a move.
+	 *
+	 * @param nanos Latency of the move.
+	 */
+	void recordMove(final long nanos) {
+
+		moveLatencies.record(nanos);
+
+		moves++;
+
+	}
+
+	/**
+	 * Records a game finished.
+	 *
+	 * @param winnerMark "X" or "O" for a winner; null for a draw.
+	 */
+	void recordGame(final String winnerMark) {
+
+		games++;
+
+		if (winnerMark == null) {
+
+			draws++;
+
+		} else if ("X".equals(winnerMark)) {
+
+			xWins++;
+
+		} else {
+
+			oWins++;
+
+		}
+
+	}
+
+	/**
+	 * Sets the bytes allocated by the games.
+	 *
+	 * @param allocatedBytes Bytes allocated; -1 if not measured.
+	 */
+	void setAllocatedBytes(final long allocatedBytes) {
+
+		this.allocatedBytes = allocatedBytes;
+
+	}
+
+	/**
+	 * Adds the counts of another result.
+	 *
+	 * @param result Result to add.
+	 */
+	void add(final SelfPlayResult result) {
+
+		moveLatencies.add(result.moveLatencies.snapshot());
+
+		games += result.games;
+		moves += result.moves;
+		xWins += result.xWins;
+		oWins += result.oWins;
+		draws += result.draws;
+
+		allocatedBytes = ((allocatedBytes < 0) || (result.allocatedBytes < 0))
+				? -1 : allocatedBytes + result.allocatedBytes;
+
+	}
+
+	/**
+	 * Gets the latencies of the moves.
+	 *
+	 * @return A snapshot of the histogram.
+	 */
+	TicTacToeLatencySnapshot getMoveLatencies() {
+
+		return moveLatencies.snapshot();
+
+	}
+
+	/**
+	 * Gets the games played.
+	 *
+	 * @return Games.
+	 */
+	long getGames() {
+
+		return games;
+
+	}
+
+	/**
+	 * Gets the moves played.
+	 *
+	 * @return Moves.
+	 */
+	long getMoves() {
+
+		return moves;
+
+	}
+
+	/**
+	 * Gets the games won by "X".
+	 *
+	 * @return Games.
+	 */
+	long getXWins() {
+
+		return xWins;
+
+	}
+
+	/**
+	 * Gets the games won by "O".
+	 *
+	 * @return Games.
+	 */
+	long getOWins() {
+
+		return oWins;
+
+	}
+
+	/**
+	 * Gets the games ended in a draw.
+	 *
+	 * @return Games.
+	 */
+	long getDraws() {
+
+		return draws;
+
+	}
+
+	/**
+	 * Gets the bytes allocated by the games.
+	 *
+	 * @return Bytes; -1 if not measured.
+	 */
+	long getAllocatedBytes() {
+
+		return allocatedBytes;
+
+	}
+
+}
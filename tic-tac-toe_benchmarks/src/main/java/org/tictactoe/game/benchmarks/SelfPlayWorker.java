@@ -0,0 +1,141 @@
+package org.tictactoe.game.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+
+/**
+ * Plays the self-play games of a thread, reusing a single game reset between
+ * them, timing every move.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class SelfPlayWorker implements Callable<SelfPlayResult> {
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the games to play.
+	 */
+	private final long games;
+
+	/**
+	 * Reference to the moves of the scripted games, in playing order; null to
+	 * play random moves.
+	 */
+	private final int [][] scripts;
+
+	/**
+	 * Reference to the latch every worker waits on, to start together.
+	 */
+	private final CountDownLatch startLatch;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param tableSize Table size.
+	 * @param games Games to play.
+	 * @param scripts Box numbers of the scripted games, in playing order; null
+	 *                to play random moves.
+	 * @param startLatch Latch to wait on before the first game.
+	 */
+	SelfPlayWorker(final int tableSize, final long games, final int [][] scripts,
+			final CountDownLatch startLatch) {
+
+		this.tableSize = tableSize;
+		this.games = games;
+		this.scripts = scripts;
+		this.startLatch = startLatch;
+
+	}
+
+	@Override
+	public SelfPlayResult call() throws InterruptedException, NotValidMoveException {
+
+		final SelfPlayResult result = new SelfPlayResult();
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		startLatch.await();
+
+		final long startBytes = allocatedBytes();
+
+		for (long gameNumber = 0; gameNumber < games; gameNumber++) {
+
+			ticTacToeGame.resetGame(tableSize);
+
+			final int [] script = (scripts == null)
+					? null : scripts[(int) (gameNumber % scripts.length)];
+
+			String mark = "X";
+
+			TicTacToeGameStatus gameStatus = TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+
+			for (int move = 0; gameStatus == TicTacToeGameStatus.CONTINUE_NEXT_MOVE; move++) {
+
+				final int box = (script == null)
+						? ticTacToeGame.randomEmptyBox(random) : script[move];
+
+				final long moveStart = System.nanoTime();
+
+				gameStatus = ticTacToeGame.move(box / tableSize, box % tableSize, mark);
+
+				result.recordMove(System.nanoTime() - moveStart);
+
+				if (gameStatus == TicTacToeGameStatus.CONTINUE_NEXT_MOVE) {
+					mark = "X".equals(mark) ? "O" : "X";
+				}
+
+			}
+
+			result.recordGame((gameStatus == TicTacToeGameStatus.WINNER) ? mark : null);
+
+		}
+
+		final long endBytes = allocatedBytes();
+
+		result.setAllocatedBytes(((startBytes < 0) || (endBytes < 0)) ? -1 : endBytes - startBytes);
+
+		return result;
+
+	}
+
+	/**
+	 * Gets the bytes allocated by the current thread, on JVMs measuring them.
+	 *
+	 * @return Bytes allocated; -1 if not measured.
+	 */
+	private static long allocatedBytes() {
+
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+
+			final com.sun.management.ThreadMXBean hotSpotThreadMXBean =
+					(com.sun.management.ThreadMXBean) threadMXBean;
+
+			if (hotSpotThreadMXBean.isThreadAllocatedMemorySupported()
+					&& hotSpotThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+				return hotSpotThreadMXBean.getThreadAllocatedBytes(
+						Thread.currentThread().getId());
+			}
+
+		}
+
+		return -1;
+
+	}
+
+}
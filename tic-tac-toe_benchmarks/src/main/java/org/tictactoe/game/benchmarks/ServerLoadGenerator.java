@@ -0,0 +1,542 @@
+package org.tictactoe.game.benchmarks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.tictactoe.game.GameRegistry;
+import org.tictactoe.game.TicTacToeLatencyHistogram;
+import org.tictactoe.game.TicTacToeLatencySnapshot;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+import org.tictactoe.game.server.TicTacToeProtocol;
+import org.tictactoe.game.server.TicTacToeServer;
+
+/**
+ * Load generator of TicTacToeServer: plays the seeded games of the
+ * benchmarks over many connections, every one pipelining a move of each of
+ * its games per round trip, and reports the requests per second and the
+ * latencies of the round trips.
+ * <p>
+ * Options, all optional:
+ * <pre>
+ *   --host 127.0.0.1      host of the server
+ *   --port P              port of the server; without it a server is started
+ *                         in process on a free port
+ *   --connections 64      connections
+ *   --threads N           threads driving the connections, the available
+ *                         processors by default
+ *   --pipeline 64         games per connection, so requests per round trip
+ *   --size 3              table size of the games
+ *   --seconds 10          time measured, after as much time of warm up
+ * </pre>
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class ServerLoadGenerator {
+
+	/**
+	 * Not instantiable.
+	 */
+	private ServerLoadGenerator() {
+
+	}
+
+	/**
+	 * Runs the load generator.
+	 *
+	 * @param args Options of the load generator.
+	 * @throws IOException If the server cannot be reached.
+	 * @throws InterruptedException If interrupted while waiting the threads.
+	 * @throws ExecutionException If a connection fails.
+	 */
+	public static void main(final String [] args)
+			throws IOException, InterruptedException, ExecutionException {
+
+		String host = "127.0.0.1";
+		int port = -1;
+		int connections = 64;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int pipeline = 64;
+		int tableSize = 3;
+		int seconds = 10;
+
+		for (int index = 0; index + 1 < args.length; index += 2) {
+
+			final String option = args[index];
+			final String value = args[index + 1];
+
+			if ("--host".equals(option)) {
+				host = value;
+			} else if ("--port".equals(option)) {
+				port = Integer.parseInt(value);
+			} else if ("--connections".equals(option)) {
+				connections = Integer.parseInt(value);
+			} else if ("--threads".equals(option)) {
+				threads = Integer.parseInt(value);
+			} else if ("--pipeline".equals(option)) {
+				pipeline = Integer.parseInt(value);
+			} else if ("--size".equals(option)) {
+				tableSize = Integer.parseInt(value);
+			} else if ("--seconds".equals(option)) {
+				seconds = Integer.parseInt(value);
+			} else {
+				printUsage("Unknown option " + option);
+				return;
+			}
+
+		}
+
+		if ((args.length % 2 != 0) || (connections < 1) || (threads < 1) || (pipeline < 1)
+				|| (tableSize < 3) || (seconds < 1)) {
+
+			printUsage("Invalid options");
+
+			return;
+
+		}
+
+		threads = Math.min(threads, connections);
+
+		final TicTacToeServer server = (port < 0) ? new TicTacToeServer(new GameRegistry(),
+				new InetSocketAddress("127.0.0.1", 0)) : null;
+
+		final InetSocketAddress address = (server == null)
+				? new InetSocketAddress(host, port) : server.getLocalAddress();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+
+			System.out.println(String.format(Locale.ROOT,
+					"%s%s, %d connections on %d threads, %d games per connection, %dx%d tables",
+					address, (server == null) ? "" : " (in process)", connections, threads,
+					pipeline, tableSize, tableSize));
+
+			final int [][] scripts = BenchmarkGames.randomGames(tableSize);
+
+			final List<Future<LoadWorker>> futures = new ArrayList<Future<LoadWorker>>();
+
+			final long warmupEndNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+			final long endNanos = warmupEndNanos + TimeUnit.SECONDS.toNanos(seconds);
+
+			for (int thread = 0; thread < threads; thread++) {
+
+				// The remainder of the connections is spread over the first threads.
+				final int threadConnections = connections / threads
+						+ ((thread < connections % threads) ? 1 : 0);
+
+				futures.add(executor.submit(new LoadWorker(address, threadConnections, pipeline,
+						tableSize, scripts, warmupEndNanos, endNanos)));
+
+			}
+
+			final LoadWorker total = new LoadWorker(address, 0, pipeline, tableSize, scripts,
+					warmupEndNanos, endNanos);
+
+			for (Future<LoadWorker> future: futures) {
+
+				total.add(future.get());
+
+			}
+
+			report(total, seconds);
+
+		} finally {
+
+			executor.shutdownNow();
+
+			if (server != null) {
+				server.close();
+			}
+
+		}
+
+	}
+
+	/**
+	 * Prints the report of the time measured.
+	 *
+	 * @param total Counts of every thread added up.
+	 * @param seconds Time measured.
+	 */
+	private static void report(final LoadWorker total, final int seconds) {
+
+		final TicTacToeLatencySnapshot roundTrips = total.roundTrips.snapshot();
+
+		System.out.println(String.format(Locale.ROOT,
+				"%.0f requests/s, %.0f moves/s, %.0f games/s, %d not valid moves%n"
+						+ "  round trip us: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+				(double) total.requests / seconds, (double) total.moves / seconds,
+				(double) total.games / seconds, total.notValidMoves,
+				roundTrips.getPercentile(50) / 1e3, roundTrips.getPercentile(90) / 1e3,
+				roundTrips.getPercentile(99) / 1e3, roundTrips.getPercentile(99.9) / 1e3,
+				roundTrips.getMaxValue() / 1e3));
+
+	}
+
+	/**
+	 * Prints the usage of the load generator.
+	 *
+	 * @param error Error of the options.
+	 */
+	private static void printUsage(final String error) {
+
+		System.err.println(error);
+		System.err.println("Usage: ServerLoadGenerator [--host 127.0.0.1] [--port P]"
+				+ " [--connections 64] [--threads N] [--pipeline 64] [--size 3] [--seconds 10]");
+
+	}
+
+	/**
+	 * Connections of a thread, playing in lockstep: the requests of every
+	 * connection are sent, then their responses received.
+	 */
+	private static final class LoadWorker implements Callable<LoadWorker> {
+
+		/**
+		 * Reference to the address of the server.
+		 */
+		private final InetSocketAddress address;
+
+		/**
+		 * Reference to the connections of the thread.
+		 */
+		private final int connections;
+
+		/**
+		 * Reference to the games per connection.
+		 */
+		private final int pipeline;
+
+		/**
+		 * Reference to the table size of the games.
+		 */
+		private final int tableSize;
+
+		/**
+		 * Reference to the box numbers of the games, in playing order.
+		 */
+		private final int [][] scripts;
+
+		/**
+		 * Reference to the time the measure starts, of System.nanoTime.
+		 */
+		private final long warmupEndNanos;
+
+		/**
+		 * Reference to the time the measure ends, of System.nanoTime.
+		 */
+		private final long endNanos;
+
+		/**
+		 * Reference to the latencies of the round trips measured.
+		 */
+		private final TicTacToeLatencyHistogram roundTrips = new TicTacToeLatencyHistogram();
+
+		/**
+		 * Reference to the requests measured.
+		 */
+		private long requests;
+
+		/**
+		 * Reference to the moves measured.
+		 */
+		private long moves;
+
+		/**
+		 * Reference to the games finished while measuring.
+		 */
+		private long games;
+
+		/**
+		 * Reference to the moves rejected while measuring; none expected.
+		 */
+		private long notValidMoves;
+
+		/**
+		 * The constructor.
+		 *
+		 * @param address Address of the server.
+		 * @param connections Connections of the thread.
+		 * @param pipeline Games per connection.
+		 * @param tableSize Table size of the games.
+		 * @param scripts Box numbers of the games, in playing order.
+		 * @param warmupEndNanos Time the measure starts, of System.nanoTime.
+		 * @param endNanos Time the measure ends, of System.nanoTime.
+		 */
+		private LoadWorker(final InetSocketAddress address, final int connections,
+				final int pipeline, final int tableSize, final int [][] scripts,
+				final long warmupEndNanos, final long endNanos) {
+
+			this.address = address;
+			this.connections = connections;
+			this.pipeline = pipeline;
+			this.tableSize = tableSize;
+			this.scripts = scripts;
+			this.warmupEndNanos = warmupEndNanos;
+			this.endNanos = endNanos;
+
+		}
+
+		@Override
+		public LoadWorker call() throws IOException {
+
+			final SocketChannel [] channels = new SocketChannel[connections];
+
+			final ByteBuffer requestBuffer =
+					ByteBuffer.allocateDirect(pipeline * TicTacToeProtocol.REQUEST_SIZE);
+
+			final ByteBuffer responseBuffer =
+					ByteBuffer.allocateDirect(pipeline * TicTacToeProtocol.RESPONSE_SIZE);
+
+			// Game of every slot, its script and the index of its next move; -1 to reset it.
+			final long [] gameIds = new long[connections * pipeline];
+			final int [] scriptOf = new int[gameIds.length];
+			final int [] nextMove = new int[gameIds.length];
+
+			try {
+
+				for (int connection = 0; connection < connections; connection++) {
+
+					channels[connection] = SocketChannel.open(address);
+
+					for (int game = 0; game < pipeline; game++) {
+
+						TicTacToeProtocol.writeCreate(requestBuffer, tableSize);
+
+					}
+
+					send(channels[connection], requestBuffer);
+
+					receive(channels[connection], responseBuffer);
+
+					for (int game = 0; game < pipeline; game++) {
+
+						final int slot = connection * pipeline + game;
+
+						gameIds[slot] = responseBuffer.getLong();
+
+						responseBuffer.getInt();
+
+						scriptOf[slot] = slot % scripts.length;
+
+					}
+
+				}
+
+				long now = System.nanoTime();
+
+				while (now < endNanos) {
+
+					final long sendNanos = now;
+
+					for (int connection = 0; connection < connections; connection++) {
+
+						for (int game = 0; game < pipeline; game++) {
+
+							writeRequest(requestBuffer, connection * pipeline + game,
+									gameIds, scriptOf, nextMove);
+
+						}
+
+						send(channels[connection], requestBuffer);
+
+					}
+
+					final boolean measured = (sendNanos >= warmupEndNanos);
+
+					for (int connection = 0; connection < connections; connection++) {
+
+						receive(channels[connection], responseBuffer);
+
+						for (int game = 0; game < pipeline; game++) {
+
+							responseBuffer.getLong();
+
+							readResponse(responseBuffer.getInt(), connection * pipeline + game,
+									nextMove, measured);
+
+						}
+
+					}
+
+					now = System.nanoTime();
+
+					if (measured) {
+
+						roundTrips.record(now - sendNanos);
+
+						requests += (long) connections * pipeline;
+
+					}
+
+				}
+
+			} finally {
+
+				for (SocketChannel channel: channels) {
+
+					if (channel != null) {
+						channel.close();
+					}
+
+				}
+
+			}
+
+			return this;
+
+		}
+
+		/**
+		 * Writes the next request of a game.
+		 *
+		 * @param requestBuffer Buffer of the requests.
+		 * @param slot Slot of the game.
+		 * @param gameIds Ids of the games.
+		 * @param scriptOf Script of every game.
+		 * @param nextMove Index of the next move of every game; -1 to reset it.
+		 */
+		private void writeRequest(final ByteBuffer requestBuffer, final int slot,
+				final long [] gameIds, final int [] scriptOf, final int [] nextMove) {
+
+			if (nextMove[slot] < 0) {
+
+				TicTacToeProtocol.writeReset(requestBuffer, gameIds[slot], tableSize);
+
+				return;
+
+			}
+
+			final int box = scripts[scriptOf[slot]][nextMove[slot]];
+
+			TicTacToeProtocol.writeMove(requestBuffer, gameIds[slot], box / tableSize,
+					box % tableSize, ((nextMove[slot] & 1) == 0) ? TicTacToeMark.X : TicTacToeMark.O);
+
+		}
+
+		/**
+		 * Reads the response of a game, moving it to its next request.
+		 *
+		 * @param result Result of the response.
+		 * @param slot Slot of the game.
+		 * @param nextMove Index of the next move of every game; -1 to reset it.
+		 * @param measured True to count the response.
+		 */
+		private void readResponse(final int result, final int slot, final int [] nextMove,
+				final boolean measured) {
+
+			if (nextMove[slot] < 0) {
+
+				nextMove[slot] = 0;
+
+				return;
+
+			}
+
+			final TicTacToeMoveResult moveResult = TicTacToeProtocol.moveResultOf(result);
+
+			if (measured) {
+
+				moves++;
+
+				if ((moveResult == null) || !moveResult.isValidMove()) {
+					notValidMoves++;
+				}
+
+			}
+
+			if (moveResult == TicTacToeMoveResult.CONTINUE_NEXT_MOVE) {
+
+				nextMove[slot]++;
+
+			} else {
+
+				nextMove[slot] = -1;
+
+				if (measured) {
+					games++;
+				}
+
+			}
+
+		}
+
+		/**
+		 * Adds the counts of another thread.
+		 *
+		 * @param worker Counts to add.
+		 */
+		private void add(final LoadWorker worker) {
+
+			roundTrips.add(worker.roundTrips.snapshot());
+
+			requests += worker.requests;
+			moves += worker.moves;
+			games += worker.games;
+			notValidMoves += worker.notValidMoves;
+
+		}
+
+		/**
+		 * Sends the requests written in a buffer, clearing it.
+		 *
+		 * @param channel Channel to send.
+		 * @param requestBuffer Buffer of the requests.
+		 * @throws IOException If the connection failed.
+		 */
+		private static void send(final SocketChannel channel, final ByteBuffer requestBuffer)
+				throws IOException {
+
+			requestBuffer.flip();
+
+			while (requestBuffer.hasRemaining()) {
+
+				channel.write(requestBuffer);
+
+			}
+
+			requestBuffer.clear();
+
+		}
+
+		/**
+		 * Receives the responses of the requests sent, a buffer full of them.
+		 *
+		 * @param channel Channel to receive.
+		 * @param responseBuffer Buffer of the responses, ready to get them.
+		 * @throws IOException If the connection failed or was closed.
+		 */
+		private static void receive(final SocketChannel channel, final ByteBuffer responseBuffer)
+				throws IOException {
+
+			responseBuffer.clear();
+
+			while (responseBuffer.hasRemaining()) {
+
+				if (channel.read(responseBuffer) < 0) {
+					throw new IOException("Connection closed by the server");
+				}
+
+			}
+
+			responseBuffer.flip();
+
+		}
+
+	}
+
+}
@@ -0,0 +1,128 @@
+package org.tictactoe.game.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.solver.TicTacToeSolution;
+import org.tictactoe.game.solver.TicTacToeSolver;
+import org.tictactoe.game.solver.TranspositionTable;
+
+/**
+ * Benchmarks of solving the 4x4 openings to the end, from an empty
+ * transposition table, by ForkJoinPool parallelism; 0 is the sequential
+ * search. The speedup is the time of 0 divided by the time of every
+ * parallelism.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+	/**
+	 * Table size of the openings.
+	 */
+	private static final int TABLE_SIZE = 4;
+
+	@Param({"0", "1", "2", "4", "8", "16", "32"})
+	private int parallelism;
+
+	/**
+	 * First move of the opening: none, a corner, a side or the center.
+	 */
+	@Param({"empty", "corner", "side", "center"})
+	private String opening;
+
+	/**
+	 * Reference to the pool of the parallel searches; null for the sequential
+	 * search.
+	 */
+	private ForkJoinPool forkJoinPool;
+
+	/**
+	 * Reference to the transposition table, cleared before every solve.
+	 */
+	private TranspositionTable transpositionTable;
+
+	/**
+	 * Reference to the solver.
+	 */
+	private TicTacToeSolver solver;
+
+	/**
+	 * Reference to the opening solved.
+	 */
+	private TicTacToeGame ticTacToeGame;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		forkJoinPool = (parallelism > 0) ? new ForkJoinPool(parallelism) : null;
+
+		transpositionTable = new TranspositionTable(TicTacToeSolver.DEFAULT_TABLE_CAPACITY);
+
+		solver = new TicTacToeSolver(transpositionTable, forkJoinPool,
+				TicTacToeSolver.DEFAULT_SPLIT_DEPTH);
+
+		ticTacToeGame = new TicTacToeGame(TABLE_SIZE);
+
+		if ("corner".equals(opening)) {
+
+			ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+
+		} else if ("side".equals(opening)) {
+
+			ticTacToeGame.tryMove(0, 1, TicTacToeMark.X);
+
+		} else if ("center".equals(opening)) {
+
+			ticTacToeGame.tryMove(1, 1, TicTacToeMark.X);
+
+		}
+
+	}
+
+	@Setup(Level.Invocation)
+	public void clearTranspositionTable() {
+
+		transpositionTable.clear();
+
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+
+		if (forkJoinPool != null) {
+			forkJoinPool.shutdown();
+		}
+
+	}
+
+	@Benchmark
+	public TicTacToeSolution solveOpening() {
+
+		return solver.solve(ticTacToeGame);
+
+	}
+
+}
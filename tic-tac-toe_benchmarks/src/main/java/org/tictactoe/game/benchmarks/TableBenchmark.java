@@ -0,0 +1,81 @@
+package org.tictactoe.game.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+
+/**
+ * Benchmarks of TicTacToeGame.resetGame and TicTacToeGame.toString.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableBenchmark {
+
+	@Param({"3", "4", "8", "64", "512", "4096"})
+	private int tableSize;
+
+	/**
+	 * Reference to the game reset on every operation.
+	 */
+	private TicTacToeGame resetGame;
+
+	/**
+	 * Reference to the game printed on every operation, half of its boxes
+	 * used.
+	 */
+	private TicTacToeGame printedGame;
+
+	@Setup(Level.Trial)
+	public void setUp() throws NotValidMoveException {
+
+		resetGame = new TicTacToeGame(tableSize);
+
+		printedGame = new TicTacToeGame(tableSize);
+
+		final int [] boxes = BenchmarkGames.randomGames(tableSize)[0];
+
+		final int [] halfOfBoxes = new int[boxes.length / 2];
+
+		System.arraycopy(boxes, 0, halfOfBoxes, 0, halfOfBoxes.length);
+
+		BenchmarkGames.play(printedGame, halfOfBoxes, tableSize);
+
+	}
+
+	@Benchmark
+	public TicTacToeGame resetGame() {
+
+		resetGame.resetGame(tableSize);
+
+		return resetGame;
+
+	}
+
+	@Benchmark
+	public String toStringGame() {
+
+		return printedGame.toString();
+
+	}
+
+}
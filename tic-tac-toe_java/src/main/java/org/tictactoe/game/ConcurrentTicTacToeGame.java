@@ -0,0 +1,600 @@
+package org.tictactoe.game;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Tic-tac-toe game taking moves from many threads at once without locks, for
+ * players racing to submit their moves; the moves are validated and decided
+ * as TicTacToeGame does, as if applied one after the other.
+ * <p>
+ * The marks are packed 2 bits per box in an AtomicLongArray. The game state
+ * is a single reference to the last move: a move is accepted by swapping in
+ * a pending state with compare and set, so exactly one of the moves racing
+ * for a turn wins it. Any thread finding a pending move helps it to finish,
+ * claiming its box and checking the winner before swapping in its outcome,
+ * so no thread waits for a stalled one and WINNER or DRAW is decided once.
+ * <p>
+ * Allocates the state of every move accepted; for games of a single thread
+ * TicTacToeGame is faster.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class ConcurrentTicTacToeGame {
+
+	/**
+	 * Boxes per element of the packed marks.
+	 */
+	private static final int BOXES_PER_ELEMENT = 32;
+
+	/**
+	 * Biggest table size whose box numbers fit an int.
+	 */
+	private static final int MAX_TABLE_SIZE = 46340;
+
+	/**
+	 * Steps of the X coordinate of the directions of a row: column, line and
+	 * both diagonals.
+	 */
+	private static final int [] X_STEPS = {1, 0, 1, 1};
+
+	/**
+	 * Steps of the Y coordinate of the directions of a row.
+	 */
+	private static final int [] Y_STEPS = {0, 1, 1, -1};
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the marks in a row needed to win.
+	 */
+	private final int winLength;
+
+	/**
+	 * Reference to the marks of the boxes, 2 bits each.
+	 */
+	private final AtomicLongArray marks;
+
+	/**
+	 * Reference to the boxes of the moves accepted, in playing order.
+	 */
+	private final int [] moveBoxes;
+
+	/**
+	 * Reference to the state after the last move accepted.
+	 */
+	private final AtomicReference<MoveState> state;
+
+	/**
+	 * The constructor, for games won by a whole line, column or diagonal.
+	 *
+	 * @param tableSize Table size for the game.
+	 * @throws IllegalArgumentException If the table size is invalid, below 3
+	 *                                  or above 46340.
+	 */
+	public ConcurrentTicTacToeGame(final int tableSize) throws IllegalArgumentException {
+
+		this(tableSize, tableSize);
+
+	}
+
+	/**
+	 * The constructor, for k-in-a-row games.
+	 *
+	 * @param tableSize Table size for the game.
+	 * @param winLength Marks in a row needed to win.
+	 * @throws IllegalArgumentException If the table size is invalid, below 3
+	 *                                  or above 46340, or the win length is
+	 *                                  below 3 or above the table size.
+	 */
+	public ConcurrentTicTacToeGame(final int tableSize, final int winLength)
+			throws IllegalArgumentException {
+
+		if ((tableSize < 3) || (tableSize > MAX_TABLE_SIZE)) {
+			throw new IllegalArgumentException(
+					"Invalid table size, should be from 3 to " + MAX_TABLE_SIZE);
+		}
+
+		if ((winLength < 3) || (winLength > tableSize)) {
+			throw new IllegalArgumentException(
+					"Invalid win length, should be from 3 to the table size");
+		}
+
+		this.tableSize = tableSize;
+
+		this.winLength = winLength;
+
+		final int boxes = tableSize * tableSize;
+
+		this.marks = new AtomicLongArray((boxes + BOXES_PER_ELEMENT - 1) / BOXES_PER_ELEMENT);
+
+		this.moveBoxes = new int[boxes];
+
+		this.state = new AtomicReference<MoveState>(new MoveState(0, TicTacToeMark.EMPTY,
+				TicTacToeGame.NO_BOX, TicTacToeMoveResult.CONTINUE_NEXT_MOVE));
+
+	}
+
+	/**
+	 * Player's move on the tic-tac game table, see
+	 * {@link TicTacToeGame#move(int, int, String)}.
+	 *
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move.
+	 * @return The game status after the move.
+	 * @throws NotValidMoveException If the move is out of table range, the
+	 *                               move is already taken or the mark used
+	 *                               is not the expected.
+	 */
+	public TicTacToeGameStatus move(final int xAxisMove, final int yAxisMove,
+			final String mark) throws NotValidMoveException {
+
+		final TicTacToeMoveResult moveResult =
+				tryMove(xAxisMove, yAxisMove, TicTacToeMark.fromText(mark));
+
+		if (!moveResult.isValidMove()) {
+
+			throw new NotValidMoveException(TicTacToeGame.notValidMoveMessage(moveResult, mark));
+
+		}
+
+		return moveResult.getGameStatus();
+
+	}
+
+	/**
+	 * Player's move on the tic-tac game table, without throwing for not
+	 * valid moves, see {@link TicTacToeGame#tryMove(int, int, String)}.
+	 *
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move, either "X" or "O".
+	 * @return See {@link #tryMove(int, int, byte)}.
+	 */
+	public TicTacToeMoveResult tryMove(final int xAxisMove, final int yAxisMove,
+			final String mark) {
+
+		return tryMove(xAxisMove, yAxisMove, TicTacToeMark.fromText(mark));
+
+	}
+
+	/**
+	 * Player's move on the tic-tac game table, without throwing for not
+	 * valid moves, see {@link TicTacToeGame#tryMove(int, int, byte)}. Of the
+	 * moves racing for the same turn only one is accepted, the others are
+	 * validated again after it.
+	 *
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move, either TicTacToeMark.X or
+	 *             TicTacToeMark.O.
+	 * @return Either TicTacToeMoveResult.MOVE_OUT_OF_RANGE,
+	 *         TicTacToeMoveResult.POSITION_ALREADY_TAKEN,
+	 *         TicTacToeMoveResult.NOT_VALID_MARK or
+	 *         TicTacToeMoveResult.UNEXPECTED_MARK if the move is not valid;
+	 *         the result of the game status otherwise.
+	 */
+	public TicTacToeMoveResult tryMove(final int xAxisMove, final int yAxisMove,
+			final byte mark) {
+
+		if (isOutOfRange(xAxisMove, yAxisMove)) {
+			return TicTacToeMoveResult.MOVE_OUT_OF_RANGE;
+		}
+
+		final int box = xAxisMove * tableSize + yAxisMove;
+
+		while (true) {
+
+			final MoveState currentState = state.get();
+
+			if (currentState.isPending()) {
+
+				help(currentState);
+
+				continue;
+
+			}
+
+			// With no move pending the marks match the state read.
+			if (markOf(box) != TicTacToeMark.EMPTY) {
+
+				return TicTacToeMoveResult.POSITION_ALREADY_TAKEN;
+
+			} else if (!TicTacToeMark.isSupported(mark)) {
+
+				return TicTacToeMoveResult.NOT_VALID_MARK;
+
+			} else if (currentState.previousMark == mark) {
+
+				return TicTacToeMoveResult.UNEXPECTED_MARK;
+
+			} else if (currentState.isGameFinished()) {
+
+				return TicTacToeMoveResult.GAME_ALREADY_FINISHED;
+
+			}
+
+			final MoveState pendingState = new MoveState(currentState.moveCount, mark, box, null);
+
+			if (state.compareAndSet(currentState, pendingState)) {
+
+				return help(pendingState).moveResult;
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Finishes a pending move: claims its box, checks the winner and swaps in
+	 * its outcome, unless another thread already did.
+	 *
+	 * @param pendingState State of the pending move.
+	 * @return The state after the move.
+	 */
+	private MoveState help(final MoveState pendingState) {
+
+		MoveState nextState = pendingState.nextState;
+
+		if (nextState == null) {
+
+			claimBox(pendingState.box, pendingState.previousMark);
+
+			moveBoxes[(int) pendingState.moveCount] = pendingState.box;
+
+			final long moveCount = pendingState.moveCount + 1;
+
+			final TicTacToeMoveResult moveResult;
+
+			if (isWinnerMove(pendingState.box, pendingState.previousMark)) {
+
+				moveResult = TicTacToeMoveResult.WINNER;
+
+			} else if (moveCount == moveBoxes.length) {
+
+				moveResult = TicTacToeMoveResult.DRAW;
+
+			} else {
+
+				moveResult = TicTacToeMoveResult.CONTINUE_NEXT_MOVE;
+
+			}
+
+			// The first outcome set was checked while the move was pending,
+			// the outcomes of helpers late to it are dropped.
+			MoveState.NEXT_STATE.compareAndSet(pendingState, null,
+					new MoveState(moveCount, pendingState.previousMark, TicTacToeGame.NO_BOX,
+							moveResult));
+
+			nextState = pendingState.nextState;
+
+		}
+
+		state.compareAndSet(pendingState, nextState);
+
+		return nextState;
+
+	}
+
+	/**
+	 * Places a mark in a box, if not placed yet.
+	 *
+	 * @param box Box number, x * tableSize + y.
+	 * @param mark Mark to place.
+	 */
+	private void claimBox(final int box, final byte mark) {
+
+		final int element = box / BOXES_PER_ELEMENT;
+
+		final int shift = (box % BOXES_PER_ELEMENT) * 2;
+
+		long elementMarks = marks.get(element);
+
+		while (((elementMarks >>> shift) & 3) == TicTacToeMark.EMPTY) {
+
+			if (marks.compareAndSet(element, elementMarks, elementMarks | ((long) mark << shift))) {
+				return;
+			}
+
+			elementMarks = marks.get(element);
+
+		}
+
+	}
+
+	/**
+	 * Verifies if the move in a box makes a row of the win length.
+	 *
+	 * @param box Box number of the move.
+	 * @param mark Mark of the move.
+	 * @return True if it is the winner; False otherwise.
+	 */
+	private boolean isWinnerMove(final int box, final byte mark) {
+
+		final int xAxisMove = box / tableSize;
+
+		final int yAxisMove = box % tableSize;
+
+		for (int direction = 0; direction < X_STEPS.length; direction++) {
+
+			final int inARow = 1
+					+ countInARow(xAxisMove, yAxisMove, X_STEPS[direction], Y_STEPS[direction], mark)
+					+ countInARow(xAxisMove, yAxisMove, -X_STEPS[direction], -Y_STEPS[direction], mark);
+
+			if (inARow >= winLength) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Counts the marks in a row from a box, the box excluded, up to the win
+	 * length.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @param xStep Step of the X coordinate.
+	 * @param yStep Step of the Y coordinate.
+	 * @param mark Mark to count.
+	 * @return Marks counted.
+	 */
+	private int countInARow(final int xAxisMove, final int yAxisMove, final int xStep,
+			final int yStep, final byte mark) {
+
+		int count = 0;
+
+		int xAxis = xAxisMove + xStep;
+
+		int yAxis = yAxisMove + yStep;
+
+		while ((count < winLength - 1) && !isOutOfRange(xAxis, yAxis)
+				&& (markOf(xAxis * tableSize + yAxis) == mark)) {
+
+			count++;
+
+			xAxis += xStep;
+
+			yAxis += yStep;
+
+		}
+
+		return count;
+
+	}
+
+	/**
+	 * Gets the mark of a box.
+	 *
+	 * @param box Box number, x * tableSize + y.
+	 * @return TicTacToeMark.X, TicTacToeMark.O or TicTacToeMark.EMPTY.
+	 */
+	private byte markOf(final int box) {
+
+		return (byte) ((marks.get(box / BOXES_PER_ELEMENT) >>> ((box % BOXES_PER_ELEMENT) * 2)) & 3);
+
+	}
+
+	/**
+	 * Verifies if the given move is out of range of the table.
+	 *
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @return True if the move is out of range; False otherwise.
+	 */
+	private boolean isOutOfRange(final int xAxisMove, final int yAxisMove) {
+
+		return (xAxisMove < 0) || (xAxisMove >= tableSize)
+				|| (yAxisMove < 0) || (yAxisMove >= tableSize);
+
+	}
+
+	/**
+	 * Gets the state of the last move, finished.
+	 *
+	 * @return The state.
+	 */
+	private MoveState finishedState() {
+
+		final MoveState currentState = state.get();
+
+		return currentState.isPending() ? help(currentState) : currentState;
+
+	}
+
+	/**
+	 * Gets the table size of the game.
+	 *
+	 * @return Number of boxes per line and per column.
+	 */
+	public int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	/**
+	 * Gets the marks in a row needed to win the game.
+	 *
+	 * @return The win length.
+	 */
+	public int getWinLength() {
+
+		return winLength;
+
+	}
+
+	/**
+	 * Gets the mark placed in the given box, moves pending included.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @return TicTacToeMark.X, TicTacToeMark.O or TicTacToeMark.EMPTY.
+	 * @throws IllegalArgumentException If the box is out of range of the table.
+	 */
+	public byte getMark(final int xAxisMove, final int yAxisMove)
+			throws IllegalArgumentException {
+
+		if (isOutOfRange(xAxisMove, yAxisMove)) {
+			throw new IllegalArgumentException("Invalid box, out of range of the table");
+		}
+
+		finishedState();
+
+		return markOf(xAxisMove * tableSize + yAxisMove);
+
+	}
+
+	/**
+	 * Gets the box of a move accepted.
+	 *
+	 * @param index Index of the move, from 0 to the moves placed excluded.
+	 * @return Box number, x * tableSize + y.
+	 * @throws IllegalArgumentException If the index is out of the moves placed.
+	 */
+	public int getMoveBox(final int index) throws IllegalArgumentException {
+
+		if ((index < 0) || (index >= finishedState().moveCount)) {
+			throw new IllegalArgumentException(
+					"Invalid index, should be below the moves placed");
+		}
+
+		return moveBoxes[index];
+
+	}
+
+	/**
+	 * Gets the number of moves placed in the game.
+	 *
+	 * @return Moves placed.
+	 */
+	public long getMoveCount() {
+
+		return finishedState().moveCount;
+
+	}
+
+	/**
+	 * Gets the mark of the last move, so the next move is of the opponent.
+	 *
+	 * @return The mark; TicTacToeMark.EMPTY if no move was placed.
+	 */
+	public byte getPreviousMarkUsed() {
+
+		return finishedState().previousMark;
+
+	}
+
+	/**
+	 * Verifies if the game is already finished.
+	 *
+	 * @return True if the game finished with a winner or a draw; False otherwise.
+	 */
+	public boolean isGameFinished() {
+
+		return finishedState().isGameFinished();
+
+	}
+
+	@Override
+	public String toString() {
+
+		final MoveState currentState = finishedState();
+
+		return "ConcurrentTicTacToeGame [tableSize=" + tableSize + ", winLength=" + winLength
+				+ ", moveCount=" + currentState.moveCount + ", lastMoveResult="
+				+ currentState.moveResult + "]";
+
+	}
+
+	/**
+	 * State of the game after a move, or of a move pending.
+	 */
+	private static final class MoveState {
+
+		/**
+		 * Updater of the state after a move pending.
+		 */
+		private static final AtomicReferenceFieldUpdater<MoveState, MoveState> NEXT_STATE =
+				AtomicReferenceFieldUpdater.newUpdater(MoveState.class, MoveState.class, "nextState");
+
+		/**
+		 * Reference to the moves placed, the pending one excluded.
+		 */
+		private final long moveCount;
+
+		/**
+		 * Reference to the mark of the last move, or of the pending one.
+		 */
+		private final byte previousMark;
+
+		/**
+		 * Reference to the box of the pending move; TicTacToeGame.NO_BOX if
+		 * none.
+		 */
+		private final int box;
+
+		/**
+		 * Reference to the result of the last move; null while pending.
+		 */
+		private final TicTacToeMoveResult moveResult;
+
+		/**
+		 * Reference to the state after the pending move, set once.
+		 */
+		private volatile MoveState nextState;
+
+		/**
+		 * The constructor.
+		 *
+		 * @param moveCount Moves placed.
+		 * @param previousMark Mark of the last move, or of the pending one.
+		 * @param box Box of the pending move; TicTacToeGame.NO_BOX if none.
+		 * @param moveResult Result of the last move; null while pending.
+		 */
+		private MoveState(final long moveCount, final byte previousMark, final int box,
+				final TicTacToeMoveResult moveResult) {
+
+			this.moveCount = moveCount;
+			this.previousMark = previousMark;
+			this.box = box;
+			this.moveResult = moveResult;
+
+		}
+
+		/**
+		 * Verifies if the state is of a move pending.
+		 *
+		 * @return True if pending; False otherwise.
+		 */
+		private boolean isPending() {
+
+			return box != TicTacToeGame.NO_BOX;
+
+		}
+
+		/**
+		 * Verifies if the game finished with the last move.
+		 *
+		 * @return True after WINNER or DRAW; False otherwise.
+		 */
+		private boolean isGameFinished() {
+
+			return (moveResult == TicTacToeMoveResult.WINNER)
+					|| (moveResult == TicTacToeMoveResult.DRAW);
+
+		}
+
+	}
+
+}
@@ -0,0 +1,1183 @@
+package org.tictactoe.game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread safe registry of live tic-tac-toe games, keyed by long ids.
+ * <p>
+ * Games are spread across stripes, each one an open addressing table guarded
+ * by a StampedLock, so lookups are optimistic reads that do not write any
+ * shared memory. Moves of the same game are serialized by the game entry
+ * monitor; moves of different games never wait for each other. Games not
+ * registered, or expired, answer null moves and False resets.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class GameRegistry {
+
+	/**
+	 * Stripes created per available processor by default.
+	 */
+	private static final int STRIPES_PER_PROCESSOR = 4;
+
+	/**
+	 * Id never used by a game, marks the free slots of the stripes.
+	 */
+	private static final long NO_GAME_ID = 0;
+
+	/**
+	 * Reference to the stripes holding the games.
+	 */
+	private final Stripe [] stripes;
+
+	/**
+	 * Reference to the mask to get the stripe of a hashed id.
+	 */
+	private final int stripeMask;
+
+	/**
+	 * Reference to the last game id generated.
+	 */
+	private final AtomicLong gameIdSequence = new AtomicLong();
+
+	/**
+	 * Reference to the count of registered games not finished.
+	 */
+	private final LongAdder activeGames = new LongAdder();
+
+	/**
+	 * Reference to the count of games finished, either WINNER or DRAW.
+	 */
+	private final LongAdder finishedGames = new LongAdder();
+
+	/**
+	 * Reference to the count of games expired.
+	 */
+	private final LongAdder expiredGames = new LongAdder();
+
+	/**
+	 * Reference to the listener of the changes; null if none.
+	 */
+	private final GameRegistryListener listener;
+
+	/**
+	 * The constructor, with stripes for the available processors.
+	 */
+	public GameRegistry() {
+
+		this(Runtime.getRuntime().availableProcessors() * STRIPES_PER_PROCESSOR);
+
+	}
+
+	/**
+	 * The constructor.
+	 *
+	 * @param concurrencyLevel Expected number of threads registering or
+	 *                         expiring games at the same time.
+	 * @throws IllegalArgumentException If the concurrency level is 0 or less.
+	 */
+	public GameRegistry(final int concurrencyLevel) throws IllegalArgumentException {
+
+		this(concurrencyLevel, null);
+
+	}
+
+	/**
+	 * The constructor.
+	 *
+	 * @param concurrencyLevel Expected number of threads registering or
+	 *                         expiring games at the same time.
+	 * @param listener Listener of the changes of the games; null if none.
+	 * @throws IllegalArgumentException If the concurrency level is 0 or less.
+	 */
+	public GameRegistry(final int concurrencyLevel, final GameRegistryListener listener)
+			throws IllegalArgumentException {
+
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException(
+					"Invalid concurrency level, should be 1 or above");
+		}
+
+		final int stripesCount = Integer.highestOneBit((concurrencyLevel << 1) - 1);
+
+		stripes = new Stripe[stripesCount];
+
+		for (int stripe = 0; stripe < stripesCount; stripe++) {
+
+			stripes[stripe] = new Stripe();
+
+		}
+
+		stripeMask = stripesCount - 1;
+
+		this.listener = listener;
+
+	}
+
+	/**
+	 * Creates and registers a new game.
+	 *
+	 * @param tableSize Table size for the game.
+	 * @return The id of the game, above 0.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less.
+	 */
+	public long createGame(final int tableSize) throws IllegalArgumentException {
+
+		final GameEntry entry = new GameEntry(new TicTacToeGame(tableSize));
+
+		long gameId;
+
+		// Locked before it is visible, so no move is notified before the game.
+		synchronized (entry) {
+
+			do {
+
+				gameId = gameIdSequence.incrementAndGet();
+
+			} while (!stripeOf(gameId).putIfAbsent(gameId, entry));
+
+			if (listener != null) {
+				listener.gameCreated(gameId, tableSize);
+			}
+
+			activeGames.increment();
+
+		}
+
+		return gameId;
+
+	}
+
+	/**
+	 * Creates and registers as many new games as ids the given array holds,
+	 * locking every stripe once for all its games.
+	 *
+	 * @param tableSize Table size for the games.
+	 * @param gameIds Array filled with the ids of the games created.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less.
+	 */
+	public void createGames(final int tableSize, final long [] gameIds)
+			throws IllegalArgumentException {
+
+		final GameEntry [] entries = new GameEntry[gameIds.length];
+
+		for (int index = 0; index < gameIds.length; index++) {
+
+			entries[index] = new GameEntry(new TicTacToeGame(tableSize));
+
+		}
+
+		final long firstGameId = gameIdSequence.getAndAdd(gameIds.length) + 1;
+
+		for (int index = 0; index < gameIds.length; index++) {
+
+			gameIds[index] = firstGameId + index;
+
+		}
+
+		final int [] stripeStarts = new int[stripes.length + 1];
+
+		final int [] order = orderByStripe(gameIds, stripeStarts);
+
+		for (int stripe = 0; stripe < stripes.length; stripe++) {
+
+			stripes[stripe].putAllIfAbsent(gameIds, entries, order,
+					stripeStarts[stripe], stripeStarts[stripe + 1], tableSize);
+
+		}
+
+		// Ids taken by games registered with their own id get a new one.
+		for (int index = 0; index < gameIds.length; index++) {
+
+			if (gameIds[index] == NO_GAME_ID) {
+				gameIds[index] = createGame(tableSize);
+			}
+
+		}
+
+	}
+
+	/**
+	 * Registers the given game with the given id. The game should not be used
+	 * afterwards but through this registry, and the id is not generated for
+	 * new games.
+	 *
+	 * @param gameId Id of the game, above 0.
+	 * @param ticTacToeGame The game, new or in progress.
+	 * @return True if the game was registered; False if the id is already
+	 *         taken.
+	 * @throws IllegalArgumentException If the id is 0 or less, or the game is
+	 *                                  null.
+	 */
+	public boolean registerGame(final long gameId, final TicTacToeGame ticTacToeGame)
+			throws IllegalArgumentException {
+
+		if (gameId <= NO_GAME_ID) {
+			throw new IllegalArgumentException("Invalid game id, should be 1 or above");
+		}
+
+		if (ticTacToeGame == null) {
+			throw new IllegalArgumentException("Invalid game, should not be null");
+		}
+
+		final GameEntry entry = new GameEntry(ticTacToeGame);
+
+		synchronized (entry) {
+
+			if (!stripeOf(gameId).putIfAbsent(gameId, entry)) {
+				return false;
+			}
+
+			advanceGameIdSequence(gameId);
+
+			if (listener != null) {
+				listener.gameCreated(gameId, ticTacToeGame.getTableSize());
+			}
+
+			if (!entry.finished) {
+				activeGames.increment();
+			}
+
+		}
+
+		return true;
+
+	}
+
+	/**
+	 * Player's move on the given game, see
+	 * {@link TicTacToeGame#tryMove(int, int, byte)}.
+	 *
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move.
+	 * @return The result of the move; null if the game is not registered.
+	 */
+	public TicTacToeMoveResult tryMove(final long gameId, final int xAxisMove,
+			final int yAxisMove, final byte mark) {
+
+		final GameEntry entry = stripeOf(gameId).get(gameId);
+
+		if (entry == null) {
+			return null;
+		}
+
+		final TicTacToeMoveResult moveResult;
+
+		synchronized (entry) {
+
+			if (entry.expired) {
+				return null;
+			}
+
+			moveResult = entry.ticTacToeGame.tryMove(xAxisMove, yAxisMove, mark);
+
+			entry.lastAccessNanos = System.nanoTime();
+
+			if ((listener != null) && moveResult.isValidMove()
+					&& (moveResult != TicTacToeMoveResult.GAME_ALREADY_FINISHED)) {
+				listener.moveAccepted(gameId, xAxisMove, yAxisMove, mark);
+			}
+
+			if ((moveResult == TicTacToeMoveResult.WINNER)
+					|| (moveResult == TicTacToeMoveResult.DRAW)) {
+
+				entry.finished = true;
+
+				activeGames.decrement();
+
+				finishedGames.increment();
+
+			}
+
+		}
+
+		return moveResult;
+
+	}
+
+	/**
+	 * Player's move on the given game, see
+	 * {@link TicTacToeGame#move(int, int, String)}.
+	 *
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move.
+	 * @return The game status after the move.
+	 * @throws NotValidMoveException If the game is not registered or the move
+	 *                               is not valid.
+	 */
+	public TicTacToeGameStatus move(final long gameId, final int xAxisMove,
+			final int yAxisMove, final String mark) throws NotValidMoveException {
+
+		final TicTacToeMoveResult moveResult =
+				tryMove(gameId, xAxisMove, yAxisMove, TicTacToeMark.fromText(mark));
+
+		if (moveResult == null) {
+			throw new NotValidMoveException("Game not found");
+		}
+
+		if (!moveResult.isValidMove()) {
+
+			throw new NotValidMoveException(
+					TicTacToeGame.notValidMoveMessage(moveResult, mark));
+
+		}
+
+		return moveResult.getGameStatus();
+
+	}
+
+	/**
+	 * Resets the given game for a new game.
+	 *
+	 * @param gameId Id of the game.
+	 * @param tableSize Table size for the new game.
+	 * @return True if the game was reset; False if it is not registered.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less.
+	 */
+	public boolean resetGame(final long gameId, final int tableSize)
+			throws IllegalArgumentException {
+
+		final GameEntry entry = stripeOf(gameId).get(gameId);
+
+		if (entry == null) {
+			return false;
+		}
+
+		synchronized (entry) {
+
+			if (entry.expired) {
+				return false;
+			}
+
+			entry.ticTacToeGame.resetGame(tableSize);
+
+			entry.lastAccessNanos = System.nanoTime();
+
+			if (listener != null) {
+				listener.gameReset(gameId, tableSize);
+			}
+
+			if (entry.finished) {
+
+				entry.finished = false;
+
+				activeGames.increment();
+
+			}
+
+		}
+
+		return true;
+
+	}
+
+	/**
+	 * Verifies if the given game is registered.
+	 *
+	 * @param gameId Id of the game.
+	 * @return True if the game is registered; False otherwise.
+	 */
+	public boolean containsGame(final long gameId) {
+
+		return stripeOf(gameId).get(gameId) != null;
+
+	}
+
+	/**
+	 * Verifies if the given game is finished.
+	 *
+	 * @param gameId Id of the game.
+	 * @return True if the game is registered and finished with a winner or a 
+	 *         draw; False otherwise.
+	 */
+	public boolean isGameFinished(final long gameId) {
+
+		final GameEntry entry = stripeOf(gameId).get(gameId);
+
+		if (entry == null) {
+			return false;
+		}
+
+		synchronized (entry) {
+
+			return entry.finished;
+
+		}
+
+	}
+
+	/**
+	 * Expires the given game, removing it from the registry.
+	 *
+	 * @param gameId Id of the game.
+	 * @return True if the game was expired; False if it is not registered.
+	 */
+	public boolean expireGame(final long gameId) {
+
+		final GameEntry entry = stripeOf(gameId).remove(gameId);
+
+		if (entry == null) {
+			return false;
+		}
+
+		expire(gameId, entry);
+
+		return true;
+
+	}
+
+	/**
+	 * Expires the given games, removing them from the registry, locking every
+	 * stripe once for all its games.
+	 *
+	 * @param gameIds Ids of the games.
+	 * @return Number of games expired.
+	 */
+	public int expireGames(final long [] gameIds) {
+
+		final int [] stripeStarts = new int[stripes.length + 1];
+
+		final int [] order = orderByStripe(gameIds, stripeStarts);
+
+		int expiredCount = 0;
+
+		for (int stripe = 0; stripe < stripes.length; stripe++) {
+
+			expiredCount += stripes[stripe].expireAll(gameIds, order,
+					stripeStarts[stripe], stripeStarts[stripe + 1]);
+
+		}
+
+		return expiredCount;
+
+	}
+
+	/**
+	 * Expires the games without moves nor resets within the given idle time.
+	 *
+	 * @param idleTime Maximum idle time of a game.
+	 * @param timeUnit Unit of the idle time.
+	 * @return Number of games expired.
+	 */
+	public int expireIdleGames(final long idleTime, final TimeUnit timeUnit) {
+
+		final long oldestAccessNanos = System.nanoTime() - timeUnit.toNanos(idleTime);
+
+		int expiredCount = 0;
+
+		for (Stripe stripe: stripes) {
+
+			expiredCount += stripe.expireIdleGames(oldestAccessNanos);
+
+		}
+
+		return expiredCount;
+
+	}
+
+	/**
+	 * Gets the number of registered games.
+	 *
+	 * @return Games registered.
+	 */
+	public int getGameCount() {
+
+		int gameCount = 0;
+
+		for (Stripe stripe: stripes) {
+
+			gameCount += stripe.size();
+
+		}
+
+		return gameCount;
+
+	}
+
+	/**
+	 * Gets the number of registered games not finished.
+	 *
+	 * @return Active games.
+	 */
+	public long getActiveGames() {
+
+		return activeGames.sum();
+
+	}
+
+	/**
+	 * Gets the number of games finished, either WINNER or DRAW, since the
+	 * registry was created.
+	 *
+	 * @return Finished games.
+	 */
+	public long getFinishedGames() {
+
+		return finishedGames.sum();
+
+	}
+
+	/**
+	 * Gets the number of games expired since the registry was created.
+	 *
+	 * @return Expired games.
+	 */
+	public long getExpiredGames() {
+
+		return expiredGames.sum();
+
+	}
+
+	/**
+	 * Marks as expired an entry already removed from its stripe.
+	 *
+	 * @param gameId Id of the game.
+	 * @param entry Entry removed.
+	 */
+	private void expire(final long gameId, final GameEntry entry) {
+
+		synchronized (entry) {
+
+			entry.expired = true;
+
+			if (listener != null) {
+				listener.gameExpired(gameId);
+			}
+
+			if (!entry.finished) {
+				activeGames.decrement();
+			}
+
+		}
+
+		expiredGames.increment();
+
+	}
+
+	/**
+	 * Advances the id sequence up to the given registered id, e.g. replayed 
+	 * from a journal, so it is never generated for a new game.
+	 *
+	 * @param gameId Id of the game registered.
+	 */
+	private void advanceGameIdSequence(final long gameId) {
+
+		long lastGameId = gameIdSequence.get();
+
+		while ((lastGameId < gameId) && !gameIdSequence.compareAndSet(lastGameId, gameId)) {
+
+			lastGameId = gameIdSequence.get();
+
+		}
+
+	}
+
+	/**
+	 * Sorts the indexes of the given ids by stripe, counting sort.
+	 *
+	 * @param gameIds Ids of the games.
+	 * @param stripeStarts Array of the stripes count plus one, filled with the
+	 *                     first position in the order of every stripe and 
+	 *                     the ids count.
+	 * @return Indexes of the ids, the ones of the same stripe together.
+	 */
+	private int [] orderByStripe(final long [] gameIds, final int [] stripeStarts) {
+
+		final int [] stripeIndexes = new int[gameIds.length];
+
+		for (int index = 0; index < gameIds.length; index++) {
+
+			stripeIndexes[index] = stripeIndexOf(gameIds[index]);
+
+			stripeStarts[stripeIndexes[index] + 1]++;
+
+		}
+
+		for (int stripe = 0; stripe < stripes.length; stripe++) {
+
+			stripeStarts[stripe + 1] += stripeStarts[stripe];
+
+		}
+
+		final int [] nextPositions = stripeStarts.clone();
+
+		final int [] order = new int[gameIds.length];
+
+		for (int index = 0; index < gameIds.length; index++) {
+
+			order[nextPositions[stripeIndexes[index]]++] = index;
+
+		}
+
+		return order;
+
+	}
+
+	/**
+	 * Gets the stripe holding the given id.
+	 *
+	 * @param gameId Id of the game.
+	 * @return The stripe.
+	 */
+	private Stripe stripeOf(final long gameId) {
+
+		return stripes[stripeIndexOf(gameId)];
+
+	}
+
+	/**
+	 * Gets the index of the stripe holding the given id.
+	 *
+	 * @param gameId Id of the game.
+	 * @return The index of the stripe.
+	 */
+	private int stripeIndexOf(final long gameId) {
+
+		return (int) (hash(gameId) >>> 32) & stripeMask;
+
+	}
+
+	/**
+	 * Spreads the bits of the given id, so sequential ids spread across
+	 * stripes and slots.
+	 *
+	 * @param gameId Id of the game.
+	 * @return The hash of the id.
+	 */
+	private static long hash(final long gameId) {
+
+		long hash = gameId;
+
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+
+		return hash;
+
+	}
+
+	/**
+	 * Registered game with its serialization state.
+	 */
+	private static final class GameEntry {
+
+		/**
+		 * Reference to the game.
+		 */
+		private final TicTacToeGame ticTacToeGame;
+
+		/**
+		 * Reference to the last time the game was used, from System.nanoTime.
+		 */
+		private volatile long lastAccessNanos;
+
+		/**
+		 * Reference to know if the game finished, guarded by the entry.
+		 */
+		private boolean finished;
+
+		/**
+		 * Reference to know if the game expired, guarded by the entry.
+		 */
+		private boolean expired;
+
+		/**
+		 * The constructor.
+		 *
+		 * @param ticTacToeGame The game.
+		 */
+		private GameEntry(final TicTacToeGame ticTacToeGame) {
+
+			this.ticTacToeGame = ticTacToeGame;
+
+			finished = ticTacToeGame.isGameFinished();
+
+			lastAccessNanos = System.nanoTime();
+
+		}
+
+	}
+
+	/**
+	 * Open addressing table of game entries with linear probing.
+	 */
+	private final class Stripe {
+
+		/**
+		 * Initial number of slots of a stripe.
+		 */
+		private static final int INITIAL_CAPACITY = 16;
+
+		/**
+		 * Reference to the lock guarding the slots.
+		 */
+		private final StampedLock lock = new StampedLock();
+
+		/**
+		 * Reference to the slots, replaced as a whole when growing so
+		 * optimistic readers never see keys and entries of different sizes.
+		 */
+		private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+
+		/**
+		 * Reference to the number of entries, guarded by the lock.
+		 */
+		private int size;
+
+		/**
+		 * Gets the entry of the given id.
+		 *
+		 * @param gameId Id of the game.
+		 * @return The entry; null if the game is not registered.
+		 */
+		private GameEntry get(final long gameId) {
+
+			final long stamp = lock.tryOptimisticRead();
+
+			if (stamp != 0) {
+
+				final GameEntry entry = slots.get(gameId);
+
+				if (lock.validate(stamp)) {
+					return entry;
+				}
+
+			}
+
+			final long readStamp = lock.readLock();
+
+			try {
+
+				return slots.get(gameId);
+
+			} finally {
+
+				lock.unlockRead(readStamp);
+
+			}
+
+		}
+
+		/**
+		 * Adds the given entry if the id is not taken.
+		 *
+		 * @param gameId Id of the game.
+		 * @param entry Entry of the game.
+		 * @return True if the entry was added; False if the id is taken.
+		 */
+		private boolean putIfAbsent(final long gameId, final GameEntry entry) {
+
+			final long stamp = lock.writeLock();
+
+			try {
+
+				if (slots.get(gameId) != null) {
+					return false;
+				}
+
+				if ((size + 1) * 4L > slots.keys.length * 3L) {
+					slots = slots.grow();
+				}
+
+				slots.put(gameId, entry);
+
+				size++;
+
+				return true;
+
+			} finally {
+
+				lock.unlockWrite(stamp);
+
+			}
+
+		}
+
+		/**
+		 * Adds the given new entries whose ids are not taken, notifying them
+		 * before the lock is released so no other thread sees them before.
+		 *
+		 * @param gameIds Ids of the games; the taken ones are set to 
+		 *                NO_GAME_ID.
+		 * @param entries Entries of the games, at the same index as their ids.
+		 * @param order Indexes of the ids, the ones of this stripe together.
+		 * @param from First position in the order of this stripe.
+		 * @param to Position in the order after the last one of this stripe.
+		 * @param tableSize Table size of the games.
+		 */
+		private void putAllIfAbsent(final long [] gameIds, final GameEntry [] entries,
+				final int [] order, final int from, final int to, final int tableSize) {
+
+			if (from == to) {
+				return;
+			}
+
+			final long stamp = lock.writeLock();
+
+			try {
+
+				for (int position = from; position < to; position++) {
+
+					final int index = order[position];
+
+					final long gameId = gameIds[index];
+
+					if (slots.get(gameId) != null) {
+
+						gameIds[index] = NO_GAME_ID;
+
+						continue;
+
+					}
+
+					if ((size + 1) * 4L > slots.keys.length * 3L) {
+						slots = slots.grow();
+					}
+
+					slots.put(gameId, entries[index]);
+
+					size++;
+
+					if (listener != null) {
+						listener.gameCreated(gameId, tableSize);
+					}
+
+					activeGames.increment();
+
+				}
+
+			} finally {
+
+				lock.unlockWrite(stamp);
+
+			}
+
+		}
+
+		/**
+		 * Expires the entries of the given ids.
+		 *
+		 * @param gameIds Ids of the games.
+		 * @param order Indexes of the ids, the ones of this stripe together.
+		 * @param from First position in the order of this stripe.
+		 * @param to Position in the order after the last one of this stripe.
+		 * @return Number of entries expired.
+		 */
+		private int expireAll(final long [] gameIds, final int [] order, final int from,
+				final int to) {
+
+			if (from == to) {
+				return 0;
+			}
+
+			int expiredCount = 0;
+
+			final long stamp = lock.writeLock();
+
+			try {
+
+				for (int position = from; position < to; position++) {
+
+					final long gameId = gameIds[order[position]];
+
+					final GameEntry entry = slots.remove(gameId);
+
+					if (entry != null) {
+
+						size--;
+
+						expiredCount++;
+
+						expire(gameId, entry);
+
+					}
+
+				}
+
+			} finally {
+
+				lock.unlockWrite(stamp);
+
+			}
+
+			return expiredCount;
+
+		}
+
+		/**
+		 * Removes the entry of the given id.
+		 *
+		 * @param gameId Id of the game.
+		 * @return The entry removed; null if the game is not registered.
+		 */
+		private GameEntry remove(final long gameId) {
+
+			final long stamp = lock.writeLock();
+
+			try {
+
+				final GameEntry entry = slots.remove(gameId);
+
+				if (entry != null) {
+					size--;
+				}
+
+				return entry;
+
+			} finally {
+
+				lock.unlockWrite(stamp);
+
+			}
+
+		}
+
+		/**
+		 * Expires the entries not accessed since the given time.
+		 *
+		 * @param oldestAccessNanos Oldest access time kept.
+		 * @return Number of entries expired.
+		 */
+		private int expireIdleGames(final long oldestAccessNanos) {
+
+			int expiredCount = 0;
+
+			final long stamp = lock.writeLock();
+
+			try {
+
+				final Slots currentSlots = slots;
+
+				int slot = 0;
+
+				while (slot < currentSlots.keys.length) {
+
+					final GameEntry entry = currentSlots.entries[slot];
+
+					if ((entry != null)
+							&& (entry.lastAccessNanos - oldestAccessNanos < 0)) {
+
+						final long gameId = currentSlots.keys[slot];
+
+						currentSlots.remove(gameId);
+
+						size--;
+
+						expiredCount++;
+
+						expire(gameId, entry);
+
+						// The removal may shift a later entry into this slot;
+						// one shifted before it is expired on the next call.
+						continue;
+
+					}
+
+					slot++;
+
+				}
+
+			} finally {
+
+				lock.unlockWrite(stamp);
+
+			}
+
+			return expiredCount;
+
+		}
+
+		/**
+		 * Gets the number of entries.
+		 *
+		 * @return Entries of the stripe.
+		 */
+		private int size() {
+
+			final long stamp = lock.readLock();
+
+			try {
+
+				return size;
+
+			} finally {
+
+				lock.unlockRead(stamp);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Keys and entries of a stripe.
+	 */
+	private static final class Slots {
+
+		/**
+		 * Reference to the ids, NO_GAME_ID for free slots.
+		 */
+		private final long [] keys;
+
+		/**
+		 * Reference to the entries, at the same slot as their ids.
+		 */
+		private final GameEntry [] entries;
+
+		/**
+		 * Reference to the mask to get the slot of a hashed id.
+		 */
+		private final int mask;
+
+		/**
+		 * The constructor.
+		 *
+		 * @param capacity Number of slots, a power of two.
+		 */
+		private Slots(final int capacity) {
+
+			keys = new long[capacity];
+			entries = new GameEntry[capacity];
+			mask = capacity - 1;
+
+		}
+
+		/**
+		 * Gets the entry of the given id. Bounded by the number of slots, so
+		 * an optimistic read racing with a writer always returns.
+		 *
+		 * @param gameId Id of the game.
+		 * @return The entry; null if not found.
+		 */
+		private GameEntry get(final long gameId) {
+
+			int slot = (int) hash(gameId) & mask;
+
+			for (int probe = 0; probe < keys.length; probe++) {
+
+				final long key = keys[slot];
+
+				if (key == gameId) {
+
+					return entries[slot];
+
+				} else if (key == NO_GAME_ID) {
+
+					return null;
+
+				}
+
+				slot = (slot + 1) & mask;
+
+			}
+
+			return null;
+
+		}
+
+		/**
+		 * Puts the given entry in the first free slot of its probe sequence.
+		 *
+		 * @param gameId Id of the game, not present.
+		 * @param entry Entry of the game.
+		 */
+		private void put(final long gameId, final GameEntry entry) {
+
+			int slot = (int) hash(gameId) & mask;
+
+			while (keys[slot] != NO_GAME_ID) {
+
+				slot = (slot + 1) & mask;
+
+			}
+
+			entries[slot] = entry;
+			keys[slot] = gameId;
+
+		}
+
+		/**
+		 * Removes the entry of the given id, shifting back the entries of the
+		 * same probe sequence so no tombstones are needed.
+		 *
+		 * @param gameId Id of the game.
+		 * @return The entry removed; null if not found.
+		 */
+		private GameEntry remove(final long gameId) {
+
+			int slot = (int) hash(gameId) & mask;
+
+			while (keys[slot] != gameId) {
+
+				if (keys[slot] == NO_GAME_ID) {
+					return null;
+				}
+
+				slot = (slot + 1) & mask;
+
+			}
+
+			final GameEntry entry = entries[slot];
+
+			int freeSlot = slot;
+			int nextSlot = (slot + 1) & mask;
+
+			while (keys[nextSlot] != NO_GAME_ID) {
+
+				final int homeSlot = (int) hash(keys[nextSlot]) & mask;
+
+				if (((nextSlot - homeSlot) & mask) >= ((nextSlot - freeSlot) & mask)) {
+
+					keys[freeSlot] = keys[nextSlot];
+					entries[freeSlot] = entries[nextSlot];
+
+					freeSlot = nextSlot;
+
+				}
+
+				nextSlot = (nextSlot + 1) & mask;
+
+			}
+
+			keys[freeSlot] = NO_GAME_ID;
+			entries[freeSlot] = null;
+
+			return entry;
+
+		}
+
+		/**
+		 * Creates slots with twice the capacity holding the same entries.
+		 *
+		 * @return The new slots.
+		 */
+		private Slots grow() {
+
+			final Slots grownSlots = new Slots(keys.length << 1);
+
+			for (int slot = 0; slot < keys.length; slot++) {
+
+				if (keys[slot] != NO_GAME_ID) {
+					grownSlots.put(keys[slot], entries[slot]);
+				}
+
+			}
+
+			return grownSlots;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,50 @@
+package org.tictactoe.game;
+
+/**
+ * Listener of the changes of the games of a GameRegistry, e.g. to journal 
+ * them.
+ * <p>
+ * Every method is called while the game is locked, so the calls of the same 
+ * game arrive in the order the changes happen. Implementations should be 
+ * thread safe and quick, as moves of the game wait for them.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+public interface GameRegistryListener {
+
+	/**
+	 * Called when a game is created or registered.
+	 * 
+	 * @param gameId Id of the game.
+	 * @param tableSize Table size of the game.
+	 */
+	void gameCreated(long gameId, int tableSize);
+
+	/**
+	 * Called when a move is placed in a game; not valid moves and moves on 
+	 * finished games are not notified.
+	 * 
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark of the move.
+	 */
+	void moveAccepted(long gameId, int xAxisMove, int yAxisMove, byte mark);
+
+	/**
+	 * Called when a game is reset.
+	 * 
+	 * @param gameId Id of the game.
+	 * @param tableSize Table size for the new game.
+	 */
+	void gameReset(long gameId, int tableSize);
+
+	/**
+	 * Called when a game is expired.
+	 * 
+	 * @param gameId Id of the game.
+	 */
+	void gameExpired(long gameId);
+
+}
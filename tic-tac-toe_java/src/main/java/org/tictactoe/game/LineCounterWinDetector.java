@@ -0,0 +1,127 @@
+package org.tictactoe.game;
+
+import java.util.Arrays;
+
+/**
+ * Win detector that keeps a running count per line, column and diagonal.
+ * <p>
+ * Every "X" adds one and every "O" subtracts one, so a count reaches the 
+ * table size (or its negative) only when the whole line holds the same mark.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+class LineCounterWinDetector implements TicTacToeWinDetector {
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the count of every line.
+	 */
+	private final int [] lineCounts;
+
+	/**
+	 * Reference to the count of every column.
+	 */
+	private final int [] columnCounts;
+
+	/**
+	 * Reference to the count of the top left to bottom right diagonal.
+	 */
+	private int crossToLeftCount;
+
+	/**
+	 * Reference to the count of the top right to bottom left diagonal.
+	 */
+	private int crossToRightCount;
+
+	/**
+	 * The constructor.
+	 * 
+	 * @param tableSize Table size.
+	 */
+	LineCounterWinDetector(final int tableSize) {
+
+		this.tableSize = tableSize;
+
+		lineCounts = new int[tableSize];
+		columnCounts = new int[tableSize];
+
+	}
+
+	@Override
+	public void clear() {
+
+		Arrays.fill(lineCounts, 0);
+		Arrays.fill(columnCounts, 0);
+
+		crossToLeftCount = 0;
+		crossToRightCount = 0;
+
+	}
+
+	@Override
+	public void placeMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		final int weight = weightOf(mark);
+
+		lineCounts[xAxisMove] += weight;
+		columnCounts[yAxisMove] += weight;
+
+		if (xAxisMove == yAxisMove) {
+			crossToLeftCount += weight;
+		}
+
+		if ((xAxisMove + yAxisMove) == (tableSize - 1)) {
+			crossToRightCount += weight;
+		}
+
+	}
+
+	@Override
+	public void removeMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		final int weight = weightOf(mark);
+
+		lineCounts[xAxisMove] -= weight;
+		columnCounts[yAxisMove] -= weight;
+
+		if (xAxisMove == yAxisMove) {
+			crossToLeftCount -= weight;
+		}
+
+		if ((xAxisMove + yAxisMove) == (tableSize - 1)) {
+			crossToRightCount -= weight;
+		}
+
+	}
+
+	@Override
+	public boolean isWinnerMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		final int winnerCount = weightOf(mark) * tableSize;
+
+		return (lineCounts[xAxisMove] == winnerCount)
+				|| (columnCounts[yAxisMove] == winnerCount)
+				|| ((xAxisMove == yAxisMove) && (crossToLeftCount == winnerCount))
+				|| (((xAxisMove + yAxisMove) == (tableSize - 1)) 
+						&& (crossToRightCount == winnerCount));
+
+	}
+
+	/**
+	 * Gets the weight of the given mark within the counts.
+	 * 
+	 * @param mark Mark code.
+	 * @return One for "X"; minus one for "O".
+	 */
+	private int weightOf(final byte mark) {
+
+		return (mark == TicTacToeMark.X) ? 1 : -1;
+
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.tictactoe.game;
+
+/**
+ * Win detector that scans the table on every move.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+class LineScanWinDetector implements TicTacToeWinDetector {
+
+	/**
+	 * Reference to the tic-tac-toe table.
+	 */
+	private final TicTacToeBoard ticTacToeTable;
+
+	/**
+	 * The constructor.
+	 * 
+	 * @param ticTacToeTable Table where the moves are placed.
+	 */
+	LineScanWinDetector(final TicTacToeBoard ticTacToeTable) {
+
+		this.ticTacToeTable = ticTacToeTable;
+
+	}
+
+	@Override
+	public void clear() {
+
+	}
+
+	@Override
+	public void placeMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+	}
+
+	@Override
+	public void removeMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+	}
+
+	@Override
+	public boolean isWinnerMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		boolean winner = false;
+		
+		if (verifyWinnerLinear(xAxisMove, yAxisMove, mark)) {
+			
+			winner = true;
+			
+		} else if (verifyWinnerDiagonal(xAxisMove, yAxisMove, mark)) {
+			
+			winner = true;
+			
+		}
+		
+		return winner;
+
+	}
+
+	/**
+	 * Verifies if the given move is the winner verifying the linear combinations.
+	 * 
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark used for the move.
+	 * @return True if it is the winner; False otherwise.
+	 */
+	private boolean verifyWinnerLinear(final int xAxisMove, 
+			final int yAxisMove, final byte mark) {
+		
+		return ticTacToeTable.isLineComplete(xAxisMove, mark) 
+				|| ticTacToeTable.isColumnComplete(yAxisMove, mark);
+		
+	}
+
+	/**
+	 * Verifies if the given move is the winner verifying the diagonal combinations.
+	 * 
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark used for the move.
+	 * @return True if it is the winner; False otherwise.
+	 */
+	private boolean verifyWinnerDiagonal(int xAxisMove, int yAxisMove, byte mark) {
+		
+		boolean winnerDiagonal = false;
+		
+		if ((xAxisMove == yAxisMove)
+				&& ticTacToeTable.isCrossToLeftComplete(mark)) {
+			
+			winnerDiagonal = true;
+			
+		} else if (((xAxisMove + yAxisMove) == (ticTacToeTable.getTableSize() - 1))
+				&& ticTacToeTable.isCrossToRightComplete(mark)) {
+			
+			winnerDiagonal = true;
+			
+		}
+		
+		return winnerDiagonal;
+		
+	}
+
+}
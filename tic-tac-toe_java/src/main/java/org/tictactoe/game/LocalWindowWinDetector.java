@@ -0,0 +1,119 @@
+package org.tictactoe.game;
+
+/**
+ * Win detector for k-in-a-row games: scans the 4 directions of every move,
+ * up to k - 1 boxes away on each side, so the cost per move is O(k) whatever
+ * the table size and every diagonal is covered.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+class LocalWindowWinDetector implements TicTacToeWinDetector {
+
+	/**
+	 * X steps of the directions: line, column, diagonal and anti-diagonal.
+	 */
+	private static final int [] X_STEPS = {0, 1, 1, 1};
+
+	/**
+	 * Y steps of the directions: line, column, diagonal and anti-diagonal.
+	 */
+	private static final int [] Y_STEPS = {1, 0, 1, -1};
+
+	/**
+	 * Reference to the tic-tac-toe table.
+	 */
+	private final TicTacToeBoard ticTacToeTable;
+
+	/**
+	 * Reference to the marks in a row needed to win.
+	 */
+	private final int winLength;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param ticTacToeTable Table where the moves are placed.
+	 * @param winLength Marks in a row needed to win.
+	 */
+	LocalWindowWinDetector(final TicTacToeBoard ticTacToeTable, final int winLength) {
+
+		this.ticTacToeTable = ticTacToeTable;
+		this.winLength = winLength;
+
+	}
+
+	@Override
+	public void clear() {
+
+	}
+
+	@Override
+	public void placeMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+	}
+
+	@Override
+	public void removeMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+	}
+
+	@Override
+	public boolean isWinnerMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		for (int direction = 0; direction < X_STEPS.length; direction++) {
+
+			final int xStep = X_STEPS[direction];
+			final int yStep = Y_STEPS[direction];
+
+			final int inARow = 1 + countMarks(xAxisMove, yAxisMove, xStep, yStep, mark)
+					+ countMarks(xAxisMove, yAxisMove, -xStep, -yStep, mark);
+
+			if (inARow >= winLength) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Counts the marks in a row next to a move in a direction, up to
+	 * winLength - 1.
+	 *
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param xStep X step of the direction.
+	 * @param yStep Y step of the direction.
+	 * @param mark Mark of the move.
+	 * @return Marks in a row, the move excluded.
+	 */
+	private int countMarks(final int xAxisMove, final int yAxisMove, final int xStep,
+			final int yStep, final byte mark) {
+
+		final int tableSize = ticTacToeTable.getTableSize();
+
+		int count = 0;
+
+		int xAxisBox = xAxisMove + xStep;
+		int yAxisBox = yAxisMove + yStep;
+
+		while ((count < winLength - 1)
+				&& (xAxisBox >= 0) && (xAxisBox < tableSize)
+				&& (yAxisBox >= 0) && (yAxisBox < tableSize)
+				&& (ticTacToeTable.getMark(xAxisBox, yAxisBox) == mark)) {
+
+			count++;
+
+			xAxisBox += xStep;
+			yAxisBox += yStep;
+
+		}
+
+		return count;
+
+	}
+
+}
@@ -0,0 +1,274 @@
+package org.tictactoe.game;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard storage for tables of any size, long[] words per mark.
+ * <p>
+ * Every line starts in a new word, so verifying a line compares whole words
+ * against a full mask; columns and diagonals test one bit per line.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class LongArrayBitTicTacToeBoard implements TicTacToeBoard {
+
+	/**
+	 * Number of boxes held by a word.
+	 */
+	private static final int BITS_PER_WORD = 64;
+
+	/**
+	 * Shift to get the word of a Y coordinate.
+	 */
+	private static final int WORD_SHIFT = 6;
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the number of words used by every line.
+	 */
+	private final int wordsPerLine;
+
+	/**
+	 * Reference to the mask of the last word of every line.
+	 */
+	private final long lastWordMask;
+
+	/**
+	 * Reference to the boxes holding the "X" mark.
+	 */
+	private final long [] xWords;
+
+	/**
+	 * Reference to the boxes holding the "O" mark.
+	 */
+	private final long [] oWords;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param tableSize Table size.
+	 * @throws IllegalArgumentException If the table size is invalid, 0 or less.
+	 */
+	public LongArrayBitTicTacToeBoard(final int tableSize) throws IllegalArgumentException {
+
+		if (tableSize < 1) {
+			throw new IllegalArgumentException(
+					"Invalid table size for a bitboard, should be 1 or above");
+		}
+
+		this.tableSize = tableSize;
+
+		wordsPerLine = (tableSize + BITS_PER_WORD - 1) >>> WORD_SHIFT;
+
+		final int lastWordBits = tableSize - ((wordsPerLine - 1) << WORD_SHIFT);
+
+		lastWordMask = (lastWordBits == BITS_PER_WORD) ? -1L : (1L << lastWordBits) - 1;
+
+		final long totalWords = (long) wordsPerLine * tableSize;
+
+		if (totalWords > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"Invalid table size for a bitboard, too big to be held in memory");
+		}
+
+		xWords = new long[(int) totalWords];
+		oWords = new long[(int) totalWords];
+
+	}
+
+	@Override
+	public int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	@Override
+	public byte getMark(final int xAxisMove, final int yAxisMove) {
+
+		final int word = wordOf(xAxisMove, yAxisMove);
+		final long bit = 1L << yAxisMove;
+
+		if ((xWords[word] & bit) != 0) {
+
+			return TicTacToeMark.X;
+
+		} else if ((oWords[word] & bit) != 0) {
+
+			return TicTacToeMark.O;
+
+		}
+
+		return TicTacToeMark.EMPTY;
+
+	}
+
+	@Override
+	public void setMark(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		final int word = wordOf(xAxisMove, yAxisMove);
+
+		if (mark == TicTacToeMark.X) {
+
+			xWords[word] |= 1L << yAxisMove;
+
+		} else {
+
+			oWords[word] |= 1L << yAxisMove;
+
+		}
+
+	}
+
+	@Override
+	public void clearMark(final int xAxisMove, final int yAxisMove) {
+
+		final int word = wordOf(xAxisMove, yAxisMove);
+
+		xWords[word] &= ~(1L << yAxisMove);
+
+		oWords[word] &= ~(1L << yAxisMove);
+
+	}
+
+	@Override
+	public void clear() {
+
+		Arrays.fill(xWords, 0);
+		Arrays.fill(oWords, 0);
+
+	}
+
+	@Override
+	public boolean isLineComplete(final int xAxisMove, final byte mark) {
+
+		final long [] words = wordsOf(mark);
+
+		if (words == null) {
+			return false;
+		}
+
+		final int firstWord = xAxisMove * wordsPerLine;
+		final int lastWord = firstWord + wordsPerLine - 1;
+
+		for (int word = firstWord; word < lastWord; word++) {
+
+			if (words[word] != -1L) {
+				return false;
+			}
+
+		}
+
+		return (words[lastWord] & lastWordMask) == lastWordMask;
+
+	}
+
+	@Override
+	public boolean isColumnComplete(final int yAxisMove, final byte mark) {
+
+		final long [] words = wordsOf(mark);
+
+		if (words == null) {
+			return false;
+		}
+
+		final long bit = 1L << yAxisMove;
+
+		for (int word = yAxisMove >>> WORD_SHIFT; word < words.length; word += wordsPerLine) {
+
+			if ((words[word] & bit) == 0) {
+				return false;
+			}
+
+		}
+
+		return true;
+
+	}
+
+	@Override
+	public boolean isCrossToLeftComplete(final byte mark) {
+
+		final long [] words = wordsOf(mark);
+
+		if (words == null) {
+			return false;
+		}
+
+		for (int index = 0; index < tableSize; index++) {
+
+			if ((words[wordOf(index, index)] & (1L << index)) == 0) {
+				return false;
+			}
+
+		}
+
+		return true;
+
+	}
+
+	@Override
+	public boolean isCrossToRightComplete(final byte mark) {
+
+		final long [] words = wordsOf(mark);
+
+		if (words == null) {
+			return false;
+		}
+
+		for (int index = 0; index < tableSize; index++) {
+
+			final int yAxisMove = tableSize - 1 - index;
+
+			if ((words[wordOf(index, yAxisMove)] & (1L << yAxisMove)) == 0) {
+				return false;
+			}
+
+		}
+
+		return true;
+
+	}
+
+	/**
+	 * Gets the word holding the given box.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @return The word index; the bit within the word is the Y coordinate
+	 *         modulo 64, which is what a long shift uses.
+	 */
+	private int wordOf(final int xAxisMove, final int yAxisMove) {
+
+		return xAxisMove * wordsPerLine + (yAxisMove >>> WORD_SHIFT);
+
+	}
+
+	/**
+	 * Gets the words of the given mark.
+	 *
+	 * @param mark Mark code.
+	 * @return The words; null if the code is not a mark.
+	 */
+	private long [] wordsOf(final byte mark) {
+
+		if (mark == TicTacToeMark.X) {
+
+			return xWords;
+
+		} else if (mark == TicTacToeMark.O) {
+
+			return oWords;
+
+		}
+
+		return null;
+
+	}
+
+}
@@ -0,0 +1,215 @@
+package org.tictactoe.game;
+
+/**
+ * Bitboard storage for tables up to 8x8, one long bitset per mark.
+ * <p>
+ * The box (x, y) is the bit number x * tableSize + y, so every line, column
+ * and diagonal is a precalculated mask and verifying it is a single AND and
+ * compare.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class LongBitTicTacToeBoard implements TicTacToeBoard {
+
+	/**
+	 * Biggest table size supported by this storage.
+	 */
+	public static final int MAX_TABLE_SIZE = 8;
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the boxes holding the "X" mark.
+	 */
+	private long xBits;
+
+	/**
+	 * Reference to the boxes holding the "O" mark.
+	 */
+	private long oBits;
+
+	/**
+	 * Reference to the mask of the first line.
+	 */
+	private final long lineMask;
+
+	/**
+	 * Reference to the mask of the first column.
+	 */
+	private final long columnMask;
+
+	/**
+	 * Reference to the mask of the top left to bottom right diagonal.
+	 */
+	private final long crossToLeftMask;
+
+	/**
+	 * Reference to the mask of the top right to bottom left diagonal.
+	 */
+	private final long crossToRightMask;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param tableSize Table size.
+	 * @throws IllegalArgumentException If the table size is above 8.
+	 */
+	public LongBitTicTacToeBoard(final int tableSize) throws IllegalArgumentException {
+
+		if ((tableSize < 1) || (tableSize > MAX_TABLE_SIZE)) {
+			throw new IllegalArgumentException(
+					"Invalid table size for a long bitboard, should be 8 or below");
+		}
+
+		this.tableSize = tableSize;
+
+		lineMask = (1L << tableSize) - 1;
+
+		long column = 0;
+		long crossToLeft = 0;
+		long crossToRight = 0;
+
+		for (int index = 0; index < tableSize; index++) {
+
+			column |= 1L << (index * tableSize);
+			crossToLeft |= 1L << (index * tableSize + index);
+			crossToRight |= 1L << (index * tableSize + (tableSize - 1 - index));
+
+		}
+
+		columnMask = column;
+		crossToLeftMask = crossToLeft;
+		crossToRightMask = crossToRight;
+
+	}
+
+	@Override
+	public int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	@Override
+	public byte getMark(final int xAxisMove, final int yAxisMove) {
+
+		final long bit = 1L << (xAxisMove * tableSize + yAxisMove);
+
+		if ((xBits & bit) != 0) {
+
+			return TicTacToeMark.X;
+
+		} else if ((oBits & bit) != 0) {
+
+			return TicTacToeMark.O;
+
+		}
+
+		return TicTacToeMark.EMPTY;
+
+	}
+
+	@Override
+	public void setMark(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		final long bit = 1L << (xAxisMove * tableSize + yAxisMove);
+
+		if (mark == TicTacToeMark.X) {
+
+			xBits |= bit;
+
+		} else {
+
+			oBits |= bit;
+
+		}
+
+	}
+
+	@Override
+	public void clearMark(final int xAxisMove, final int yAxisMove) {
+
+		final long bit = 1L << (xAxisMove * tableSize + yAxisMove);
+
+		xBits &= ~bit;
+
+		oBits &= ~bit;
+
+	}
+
+	@Override
+	public void clear() {
+
+		xBits = 0;
+		oBits = 0;
+
+	}
+
+	@Override
+	public boolean isLineComplete(final int xAxisMove, final byte mark) {
+
+		return isComplete(lineMask << (xAxisMove * tableSize), mark);
+
+	}
+
+	@Override
+	public boolean isColumnComplete(final int yAxisMove, final byte mark) {
+
+		return isComplete(columnMask << yAxisMove, mark);
+
+	}
+
+	@Override
+	public boolean isCrossToLeftComplete(final byte mark) {
+
+		return isComplete(crossToLeftMask, mark);
+
+	}
+
+	@Override
+	public boolean isCrossToRightComplete(final byte mark) {
+
+		return isComplete(crossToRightMask, mark);
+
+	}
+
+	/**
+	 * Verifies if all the boxes of the given mask hold the given mark.
+	 *
+	 * @param mask Boxes to verify.
+	 * @param mark Mark code.
+	 * @return True if every box of the mask holds the mark; False otherwise.
+	 */
+	private boolean isComplete(final long mask, final byte mark) {
+
+		return (bitsOf(mark) & mask) == mask;
+
+	}
+
+	/**
+	 * Gets the bitset of the given mark.
+	 *
+	 * @param mark Mark code.
+	 * @return The bitset; zero if the code is not a mark.
+	 */
+	private long bitsOf(final byte mark) {
+
+		if (mark == TicTacToeMark.X) {
+
+			return xBits;
+
+		} else if (mark == TicTacToeMark.O) {
+
+			return oBits;
+
+		}
+
+		return 0;
+
+	}
+
+}
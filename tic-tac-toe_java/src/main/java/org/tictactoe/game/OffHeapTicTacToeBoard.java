@@ -0,0 +1,317 @@
+package org.tictactoe.game;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Storage for very large tables, 2 bits per box held in direct buffers out of
+ * the Java heap.
+ * <p>
+ * Every line starts in a new long word of 32 boxes and a buffer holds whole
+ * lines, up to 1 GB per buffer, so a 100,000x100,000 table uses 2.5 GB of
+ * direct memory (see -XX:MaxDirectMemorySize) and a few KB of heap. Every
+ * verification is an iterative scan.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class OffHeapTicTacToeBoard implements TicTacToeBoard {
+
+	/**
+	 * Maximum number of bytes of a buffer.
+	 */
+	private static final int MAX_BUFFER_BYTES = 1 << 30;
+
+	/**
+	 * Number of bytes of a word.
+	 */
+	private static final int WORD_BYTES = 8;
+
+	/**
+	 * Shift to get the word of a Y coordinate, 32 boxes per word.
+	 */
+	private static final int WORD_SHIFT = 5;
+
+	/**
+	 * Mask to get the box of a Y coordinate within its word.
+	 */
+	private static final int BOX_MASK = (1 << WORD_SHIFT) - 1;
+
+	/**
+	 * Mask of the 2 bits of a box.
+	 */
+	private static final long MARK_MASK = 3;
+
+	/**
+	 * Word full of "X" marks.
+	 */
+	private static final long X_WORD = 0x5555555555555555L;
+
+	/**
+	 * Word full of "O" marks.
+	 */
+	private static final long O_WORD = 0xAAAAAAAAAAAAAAAAL;
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the number of words used by every line.
+	 */
+	private final int wordsPerLine;
+
+	/**
+	 * Reference to the mask of the boxes used in the last word of every line.
+	 */
+	private final long lastWordMask;
+
+	/**
+	 * Reference to the number of lines held by every buffer.
+	 */
+	private final int linesPerBuffer;
+
+	/**
+	 * Reference to the buffers holding the lines.
+	 */
+	private final ByteBuffer [] buffers;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param tableSize Table size.
+	 * @throws IllegalArgumentException If the table size is invalid, 0 or less.
+	 */
+	public OffHeapTicTacToeBoard(final int tableSize) throws IllegalArgumentException {
+
+		if (tableSize < 1) {
+			throw new IllegalArgumentException(
+					"Invalid table size for an off-heap board, should be 1 or above");
+		}
+
+		this.tableSize = tableSize;
+
+		wordsPerLine = (int) (((long) tableSize + BOX_MASK) >>> WORD_SHIFT);
+
+		final int lastWordBoxes = tableSize - ((wordsPerLine - 1) << WORD_SHIFT);
+
+		lastWordMask = (lastWordBoxes == (BOX_MASK + 1))
+				? -1L : (1L << (lastWordBoxes << 1)) - 1;
+
+		final int lineBytes = wordsPerLine * WORD_BYTES;
+
+		linesPerBuffer = Math.max(1, Math.min(tableSize, MAX_BUFFER_BYTES / lineBytes));
+
+		final int buffersCount = (tableSize + linesPerBuffer - 1) / linesPerBuffer;
+
+		buffers = new ByteBuffer[buffersCount];
+
+		for (int buffer = 0; buffer < buffersCount; buffer++) {
+
+			final int lines = Math.min(linesPerBuffer, tableSize - buffer * linesPerBuffer);
+
+			buffers[buffer] = ByteBuffer.allocateDirect(lines * lineBytes)
+					.order(ByteOrder.nativeOrder());
+
+		}
+
+	}
+
+	@Override
+	public int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	@Override
+	public byte getMark(final int xAxisMove, final int yAxisMove) {
+
+		final long word = getWord(xAxisMove, yAxisMove >>> WORD_SHIFT);
+
+		return (byte) ((word >>> ((yAxisMove & BOX_MASK) << 1)) & MARK_MASK);
+
+	}
+
+	@Override
+	public void setMark(final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		final int wordIndex = yAxisMove >>> WORD_SHIFT;
+
+		final long word = getWord(xAxisMove, wordIndex);
+
+		putWord(xAxisMove, wordIndex,
+				word | ((mark & MARK_MASK) << ((yAxisMove & BOX_MASK) << 1)));
+
+	}
+
+	@Override
+	public void clearMark(final int xAxisMove, final int yAxisMove) {
+
+		final int wordIndex = yAxisMove >>> WORD_SHIFT;
+
+		final long word = getWord(xAxisMove, wordIndex);
+
+		putWord(xAxisMove, wordIndex,
+				word & ~(MARK_MASK << ((yAxisMove & BOX_MASK) << 1)));
+
+	}
+
+	@Override
+	public void clear() {
+
+		for (ByteBuffer buffer: buffers) {
+
+			for (int position = 0; position < buffer.capacity(); position += WORD_BYTES) {
+
+				buffer.putLong(position, 0);
+
+			}
+
+		}
+
+	}
+
+	@Override
+	public boolean isLineComplete(final int xAxisMove, final byte mark) {
+
+		final long fullWord = fullWordOf(mark);
+
+		if (fullWord == 0) {
+			return false;
+		}
+
+		final int lastWord = wordsPerLine - 1;
+
+		for (int wordIndex = 0; wordIndex < lastWord; wordIndex++) {
+
+			if (getWord(xAxisMove, wordIndex) != fullWord) {
+				return false;
+			}
+
+		}
+
+		return (getWord(xAxisMove, lastWord) & lastWordMask) == (fullWord & lastWordMask);
+
+	}
+
+	@Override
+	public boolean isColumnComplete(final int yAxisMove, final byte mark) {
+
+		if (!TicTacToeMark.isSupported(mark)) {
+			return false;
+		}
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			if (getMark(xAxisMove, yAxisMove) != mark) {
+				return false;
+			}
+
+		}
+
+		return true;
+
+	}
+
+	@Override
+	public boolean isCrossToLeftComplete(final byte mark) {
+
+		if (!TicTacToeMark.isSupported(mark)) {
+			return false;
+		}
+
+		for (int index = 0; index < tableSize; index++) {
+
+			if (getMark(index, index) != mark) {
+				return false;
+			}
+
+		}
+
+		return true;
+
+	}
+
+	@Override
+	public boolean isCrossToRightComplete(final byte mark) {
+
+		if (!TicTacToeMark.isSupported(mark)) {
+			return false;
+		}
+
+		for (int index = 0; index < tableSize; index++) {
+
+			if (getMark(index, tableSize - 1 - index) != mark) {
+				return false;
+			}
+
+		}
+
+		return true;
+
+	}
+
+	/**
+	 * Gets a word of the given line.
+	 *
+	 * @param xAxisMove X coordinate of the line.
+	 * @param wordIndex Word within the line.
+	 * @return The word.
+	 */
+	private long getWord(final int xAxisMove, final int wordIndex) {
+
+		return buffers[xAxisMove / linesPerBuffer].getLong(positionOf(xAxisMove, wordIndex));
+
+	}
+
+	/**
+	 * Puts a word of the given line.
+	 *
+	 * @param xAxisMove X coordinate of the line.
+	 * @param wordIndex Word within the line.
+	 * @param word The word.
+	 */
+	private void putWord(final int xAxisMove, final int wordIndex, final long word) {
+
+		buffers[xAxisMove / linesPerBuffer].putLong(positionOf(xAxisMove, wordIndex), word);
+
+	}
+
+	/**
+	 * Gets the position of a word within its buffer.
+	 *
+	 * @param xAxisMove X coordinate of the line.
+	 * @param wordIndex Word within the line.
+	 * @return The byte position.
+	 */
+	private int positionOf(final int xAxisMove, final int wordIndex) {
+
+		return ((xAxisMove % linesPerBuffer) * wordsPerLine + wordIndex) * WORD_BYTES;
+
+	}
+
+	/**
+	 * Gets the word full of the given mark.
+	 *
+	 * @param mark Mark code.
+	 * @return The word; zero if the code is not a mark.
+	 */
+	private static long fullWordOf(final byte mark) {
+
+		if (mark == TicTacToeMark.X) {
+
+			return X_WORD;
+
+		} else if (mark == TicTacToeMark.O) {
+
+			return O_WORD;
+
+		}
+
+		return 0;
+
+	}
+
+}
@@ -0,0 +1,699 @@
+package org.tictactoe.game;
+
+/**
+ * Immutable tic-tac-toe position: the marks, the move count, the mark
+ * expected and the game status. A move returns a new position sharing with
+ * its parent everything but the path to the box changed, so keeping every
+ * position of a match costs O(log n) per move instead of a copy of the
+ * table.
+ * <p>
+ * The marks are packed 2 bits per box, 32 boxes per long, in a trie of
+ * 32-way nodes whose leaves are arrays of 32 longs; empty subtrees are not
+ * allocated, so sparse positions of big tables are small too.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class PersistentTicTacToeBoard {
+
+	/**
+	 * Bits of the children per node of the trie.
+	 */
+	private static final int NODE_BITS = 5;
+
+	/**
+	 * Children per node of the trie, and longs per leaf.
+	 */
+	private static final int NODE_WIDTH = 1 << NODE_BITS;
+
+	/**
+	 * Mask of the child of a node.
+	 */
+	private static final int NODE_MASK = NODE_WIDTH - 1;
+
+	/**
+	 * Boxes per long of the leaves.
+	 */
+	private static final int BOXES_PER_WORD = 32;
+
+	/**
+	 * Biggest table size whose box numbers fit an int.
+	 */
+	private static final int MAX_TABLE_SIZE = 46340;
+
+	/**
+	 * Steps of the X coordinate of the directions of a row: column, line and
+	 * both diagonals.
+	 */
+	private static final int [] X_STEPS = {1, 0, 1, 1};
+
+	/**
+	 * Steps of the Y coordinate of the directions of a row.
+	 */
+	private static final int [] Y_STEPS = {0, 1, 1, -1};
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the marks in a row needed to win.
+	 */
+	private final int winLength;
+
+	/**
+	 * Reference to the levels of nodes above the leaves.
+	 */
+	private final int depth;
+
+	/**
+	 * Reference to the children of the root.
+	 */
+	private final int rootWidth;
+
+	/**
+	 * Reference to the root of the trie: a long[] leaf if depth is 0, an
+	 * Object[] node otherwise; null for an empty table.
+	 */
+	private final Object root;
+
+	/**
+	 * Reference to the moves placed.
+	 */
+	private final long moveCount;
+
+	/**
+	 * Reference to the mark of the last move.
+	 */
+	private final byte previousMarkUsed;
+
+	/**
+	 * Reference to the game status after the last move.
+	 */
+	private final TicTacToeGameStatus gameStatus;
+
+	/**
+	 * The constructor, of an empty table whose games are won by a whole line,
+	 * column or diagonal.
+	 *
+	 * @param tableSize Table size.
+	 * @throws IllegalArgumentException If the table size is invalid, below 3
+	 *                                  or above 46340.
+	 */
+	public PersistentTicTacToeBoard(final int tableSize) throws IllegalArgumentException {
+
+		this(tableSize, tableSize);
+
+	}
+
+	/**
+	 * The constructor, of an empty table for k-in-a-row games.
+	 *
+	 * @param tableSize Table size.
+	 * @param winLength Marks in a row needed to win.
+	 * @throws IllegalArgumentException If the table size is invalid, below 3
+	 *                                  or above 46340, or the win length is
+	 *                                  below 3 or above the table size.
+	 */
+	public PersistentTicTacToeBoard(final int tableSize, final int winLength)
+			throws IllegalArgumentException {
+
+		if ((tableSize < 3) || (tableSize > MAX_TABLE_SIZE)) {
+			throw new IllegalArgumentException(
+					"Invalid table size, should be from 3 to " + MAX_TABLE_SIZE);
+		}
+
+		if ((winLength < 3) || (winLength > tableSize)) {
+			throw new IllegalArgumentException(
+					"Invalid win length, should be from 3 to the table size");
+		}
+
+		this.tableSize = tableSize;
+		this.winLength = winLength;
+
+		final int words = wordsOf(tableSize);
+
+		int wordsPerRootChild = 1;
+
+		int levels = 0;
+
+		while ((long) wordsPerRootChild * NODE_WIDTH < words) {
+
+			wordsPerRootChild *= NODE_WIDTH;
+
+			levels++;
+
+		}
+
+		this.depth = levels;
+		this.rootWidth = (words + wordsPerRootChild - 1) / wordsPerRootChild;
+		this.root = null;
+		this.moveCount = 0;
+		this.previousMarkUsed = TicTacToeMark.EMPTY;
+		this.gameStatus = TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+
+	}
+
+	/**
+	 * The constructor of a position after another one.
+	 *
+	 * @param parent Position before.
+	 * @param root Root of the trie of the position.
+	 * @param moveCount Moves placed.
+	 * @param previousMarkUsed Mark of the last move.
+	 * @param gameStatus Game status after the last move.
+	 */
+	private PersistentTicTacToeBoard(final PersistentTicTacToeBoard parent, final Object root,
+			final long moveCount, final byte previousMarkUsed,
+			final TicTacToeGameStatus gameStatus) {
+
+		this.tableSize = parent.tableSize;
+		this.winLength = parent.winLength;
+		this.depth = parent.depth;
+		this.rootWidth = parent.rootWidth;
+		this.root = root;
+		this.moveCount = moveCount;
+		this.previousMarkUsed = previousMarkUsed;
+		this.gameStatus = gameStatus;
+
+	}
+
+	/**
+	 * Takes the position of a game, visiting every box once.
+	 *
+	 * @param ticTacToeGame The game.
+	 * @return The position.
+	 * @throws IllegalArgumentException If the table size of the game is above
+	 *                                  46340.
+	 */
+	public static PersistentTicTacToeBoard of(final TicTacToeGame ticTacToeGame)
+			throws IllegalArgumentException {
+
+		final int tableSize = ticTacToeGame.getTableSize();
+
+		final PersistentTicTacToeBoard emptyBoard =
+				new PersistentTicTacToeBoard(tableSize, ticTacToeGame.getWinLength());
+
+		Object root = null;
+
+		long word = 0;
+
+		final int boxes = tableSize * tableSize;
+
+		for (int box = 0; box < boxes; box++) {
+
+			final long mark = ticTacToeGame.getMark(box / tableSize, box % tableSize);
+
+			word |= mark << ((box % BOXES_PER_WORD) << 1);
+
+			if (((box % BOXES_PER_WORD) == BOXES_PER_WORD - 1) || (box == boxes - 1)) {
+
+				if (word != 0) {
+					root = emptyBoard.putWord(root, emptyBoard.depth, box / BOXES_PER_WORD,
+							word, emptyBoard.rootWidth, false);
+				}
+
+				word = 0;
+
+			}
+
+		}
+
+		final TicTacToeGameStatus gameStatus;
+
+		if (!ticTacToeGame.isGameFinished()) {
+
+			gameStatus = TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+
+		} else if (ticTacToeGame.getMoveCount() == boxes) {
+
+			// A full table won by its last move is a win, not a draw.
+			gameStatus = emptyBoard.hasRow(root) ? TicTacToeGameStatus.WINNER : TicTacToeGameStatus.DRAW;
+
+		} else {
+
+			gameStatus = TicTacToeGameStatus.WINNER;
+
+		}
+
+		return new PersistentTicTacToeBoard(emptyBoard, root, ticTacToeGame.getMoveCount(),
+				ticTacToeGame.getPreviousMarkUsed(), gameStatus);
+
+	}
+
+	/**
+	 * Gets the position after a move, validated as
+	 * {@link TicTacToeGame#tryMove(int, int, byte)} does; this position is
+	 * not changed.
+	 *
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move, either TicTacToeMark.X or
+	 *             TicTacToeMark.O.
+	 * @return The position after the move; this one if the game is already
+	 *         finished.
+	 * @throws NotValidMoveException If the move is out of table range, the
+	 *                               move is already taken or the mark used
+	 *                               is not the expected.
+	 */
+	public PersistentTicTacToeBoard withMove(final int xAxisMove, final int yAxisMove,
+			final byte mark) throws NotValidMoveException {
+
+		final TicTacToeMoveResult notValidMoveResult;
+
+		if (isOutOfRange(xAxisMove, yAxisMove)) {
+
+			notValidMoveResult = TicTacToeMoveResult.MOVE_OUT_OF_RANGE;
+
+		} else if (getMark(xAxisMove, yAxisMove) != TicTacToeMark.EMPTY) {
+
+			notValidMoveResult = TicTacToeMoveResult.POSITION_ALREADY_TAKEN;
+
+		} else if (!TicTacToeMark.isSupported(mark)) {
+
+			notValidMoveResult = TicTacToeMoveResult.NOT_VALID_MARK;
+
+		} else if (previousMarkUsed == mark) {
+
+			notValidMoveResult = TicTacToeMoveResult.UNEXPECTED_MARK;
+
+		} else if (isGameFinished()) {
+
+			return this;
+
+		} else {
+
+			notValidMoveResult = null;
+
+		}
+
+		if (notValidMoveResult != null) {
+
+			throw new NotValidMoveException(TicTacToeGame.notValidMoveMessage(
+					notValidMoveResult, TicTacToeMark.toText(mark)));
+
+		}
+
+		final int box = xAxisMove * tableSize + yAxisMove;
+
+		final int wordIndex = box / BOXES_PER_WORD;
+
+		final long word = wordOf(root, wordIndex) | ((long) mark << ((box % BOXES_PER_WORD) << 1));
+
+		final Object newRoot = putWord(root, depth, wordIndex, word, rootWidth, true);
+
+		final TicTacToeGameStatus newGameStatus;
+
+		if (isWinnerMove(newRoot, xAxisMove, yAxisMove, mark)) {
+
+			newGameStatus = TicTacToeGameStatus.WINNER;
+
+		} else if (moveCount + 1 == (long) tableSize * tableSize) {
+
+			newGameStatus = TicTacToeGameStatus.DRAW;
+
+		} else {
+
+			newGameStatus = TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+
+		}
+
+		return new PersistentTicTacToeBoard(this, newRoot, moveCount + 1, mark, newGameStatus);
+
+	}
+
+	/**
+	 * Gets the position after a move, see {@link #withMove(int, int, byte)}.
+	 *
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move, either "X" or "O".
+	 * @return The position after the move.
+	 * @throws NotValidMoveException If the move is not valid.
+	 */
+	public PersistentTicTacToeBoard withMove(final int xAxisMove, final int yAxisMove,
+			final String mark) throws NotValidMoveException {
+
+		return withMove(xAxisMove, yAxisMove, TicTacToeMark.fromText(mark));
+
+	}
+
+	/**
+	 * Creates a game in this position, visiting only the marks placed and
+	 * the non empty parts of the trie. The marks of the position are not 
+	 * moves that can be taken back, see {@link TicTacToeGame#enableHistory(int)}.
+	 *
+	 * @return The game.
+	 */
+	public TicTacToeGame toTicTacToeGame() {
+
+		final TicTacToeGame ticTacToeGame = (winLength == tableSize)
+				? new TicTacToeGame(tableSize, TicTacToeBoardStorage.BITBOARD,
+						TicTacToeWinDetection.LINE_COUNTERS)
+				: new TicTacToeGame(tableSize, winLength);
+
+		restoreMarks(ticTacToeGame, root, depth, 0);
+
+		ticTacToeGame.restoreStatus(moveCount, previousMarkUsed, isGameFinished());
+
+		return ticTacToeGame;
+
+	}
+
+	/**
+	 * Gets the mark placed in the given box.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @return TicTacToeMark.X, TicTacToeMark.O or TicTacToeMark.EMPTY.
+	 * @throws IllegalArgumentException If the box is out of range of the table.
+	 */
+	public byte getMark(final int xAxisMove, final int yAxisMove)
+			throws IllegalArgumentException {
+
+		if (isOutOfRange(xAxisMove, yAxisMove)) {
+			throw new IllegalArgumentException("Invalid box, out of range of the table");
+		}
+
+		return markOf(root, xAxisMove * tableSize + yAxisMove);
+
+	}
+
+	/**
+	 * Gets the table size.
+	 *
+	 * @return Number of boxes per line and per column.
+	 */
+	public int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	/**
+	 * Gets the marks in a row needed to win.
+	 *
+	 * @return The win length.
+	 */
+	public int getWinLength() {
+
+		return winLength;
+
+	}
+
+	/**
+	 * Gets the number of moves placed.
+	 *
+	 * @return Moves placed.
+	 */
+	public long getMoveCount() {
+
+		return moveCount;
+
+	}
+
+	/**
+	 * Gets the mark of the last move, so the next move is of the opponent.
+	 *
+	 * @return The mark; TicTacToeMark.EMPTY if no move was placed.
+	 */
+	public byte getPreviousMarkUsed() {
+
+		return previousMarkUsed;
+
+	}
+
+	/**
+	 * Gets the game status after the last move.
+	 *
+	 * @return Either TicTacToeGameStatus.CONTINUE_NEXT_MOVE,
+	 *         TicTacToeGameStatus.WINNER or TicTacToeGameStatus.DRAW.
+	 */
+	public TicTacToeGameStatus getGameStatus() {
+
+		return gameStatus;
+
+	}
+
+	/**
+	 * Verifies if the game is already finished.
+	 *
+	 * @return True if the game finished with a winner or a draw; False otherwise.
+	 */
+	public boolean isGameFinished() {
+
+		return gameStatus != TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+
+	}
+
+	/**
+	 * Gets the longs of the marks of a table.
+	 *
+	 * @param tableSize Table size.
+	 * @return Longs needed.
+	 */
+	private static int wordsOf(final int tableSize) {
+
+		return (tableSize * tableSize + BOXES_PER_WORD - 1) / BOXES_PER_WORD;
+
+	}
+
+	/**
+	 * Gets the mark of a box.
+	 *
+	 * @param trieRoot Root of the trie.
+	 * @param box Box number, x * tableSize + y.
+	 * @return The mark.
+	 */
+	private byte markOf(final Object trieRoot, final int box) {
+
+		return (byte) ((wordOf(trieRoot, box / BOXES_PER_WORD)
+				>>> ((box % BOXES_PER_WORD) << 1)) & 3);
+
+	}
+
+	/**
+	 * Gets a long of the marks.
+	 *
+	 * @param trieRoot Root of the trie.
+	 * @param wordIndex Index of the long.
+	 * @return The long; 0 if its subtree is empty.
+	 */
+	private long wordOf(final Object trieRoot, final int wordIndex) {
+
+		Object node = trieRoot;
+
+		for (int level = depth; (level > 0) && (node != null); level--) {
+
+			node = ((Object []) node)[(wordIndex >>> (NODE_BITS * level)) & NODE_MASK];
+
+		}
+
+		return (node == null) ? 0 : ((long []) node)[wordIndex & NODE_MASK];
+
+	}
+
+	/**
+	 * Sets a long of the marks in a subtree.
+	 *
+	 * @param node Root of the subtree; null if empty.
+	 * @param level Level of the subtree, 0 for a leaf.
+	 * @param wordIndex Index of the long.
+	 * @param word The long.
+	 * @param width Children of the root of the subtree, if allocated.
+	 * @param copy True to copy the path changed, leaving the subtree as it
+	 *             was; False to change it in place.
+	 * @return The root of the subtree changed.
+	 */
+	private Object putWord(final Object node, final int level, final int wordIndex,
+			final long word, final int width, final boolean copy) {
+
+		if (level == 0) {
+
+			final long [] leaf = (node == null)
+					? new long[width] : (copy ? ((long []) node).clone() : (long []) node);
+
+			leaf[wordIndex & NODE_MASK] = word;
+
+			return leaf;
+
+		}
+
+		final Object [] children = (node == null)
+				? new Object[width] : (copy ? ((Object []) node).clone() : (Object []) node);
+
+		final int child = (wordIndex >>> (NODE_BITS * level)) & NODE_MASK;
+
+		children[child] = putWord(children[child], level - 1, wordIndex, word, NODE_WIDTH, copy);
+
+		return children;
+
+	}
+
+	/**
+	 * Places the marks of a subtree in a game.
+	 *
+	 * @param ticTacToeGame The game.
+	 * @param node Root of the subtree; null if empty.
+	 * @param level Level of the subtree, 0 for a leaf.
+	 * @param firstWordIndex Index of the first long of the subtree.
+	 */
+	private void restoreMarks(final TicTacToeGame ticTacToeGame, final Object node,
+			final int level, final int firstWordIndex) {
+
+		if (node == null) {
+			return;
+		}
+
+		if (level > 0) {
+
+			final Object [] children = (Object []) node;
+
+			for (int child = 0; child < children.length; child++) {
+
+				restoreMarks(ticTacToeGame, children[child], level - 1,
+						firstWordIndex + (child << (NODE_BITS * level)));
+
+			}
+
+			return;
+
+		}
+
+		final long [] leaf = (long []) node;
+
+		for (int index = 0; index < leaf.length; index++) {
+
+			long word = leaf[index];
+
+			while (word != 0) {
+
+				// Every box takes 2 bits, the lowest one set is in the lowest box set.
+				final int boxInWord = Long.numberOfTrailingZeros(word) >>> 1;
+
+				final int box = (firstWordIndex + index) * BOXES_PER_WORD + boxInWord;
+
+				ticTacToeGame.restoreMark(box / tableSize, box % tableSize,
+						(byte) ((word >>> (boxInWord << 1)) & 3));
+
+				word &= ~(3L << (boxInWord << 1));
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Verifies if the move in a box makes a row of the win length.
+	 *
+	 * @param trieRoot Root of the trie with the move.
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark of the move.
+	 * @return True if it is the winner; False otherwise.
+	 */
+	private boolean isWinnerMove(final Object trieRoot, final int xAxisMove,
+			final int yAxisMove, final byte mark) {
+
+		for (int direction = 0; direction < X_STEPS.length; direction++) {
+
+			final int inARow = 1
+					+ countInARow(trieRoot, xAxisMove, yAxisMove, X_STEPS[direction],
+							Y_STEPS[direction], mark)
+					+ countInARow(trieRoot, xAxisMove, yAxisMove, -X_STEPS[direction],
+							-Y_STEPS[direction], mark);
+
+			if (inARow >= winLength) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Counts the marks in a row from a box, the box excluded, up to the win
+	 * length.
+	 *
+	 * @param trieRoot Root of the trie.
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @param xStep Step of the X coordinate.
+	 * @param yStep Step of the Y coordinate.
+	 * @param mark Mark to count.
+	 * @return Marks counted.
+	 */
+	private int countInARow(final Object trieRoot, final int xAxisMove, final int yAxisMove,
+			final int xStep, final int yStep, final byte mark) {
+
+		int count = 0;
+
+		int xAxis = xAxisMove + xStep;
+
+		int yAxis = yAxisMove + yStep;
+
+		while ((count < winLength - 1) && !isOutOfRange(xAxis, yAxis)
+				&& (markOf(trieRoot, xAxis * tableSize + yAxis) == mark)) {
+
+			count++;
+
+			xAxis += xStep;
+
+			yAxis += yStep;
+
+		}
+
+		return count;
+
+	}
+
+	/**
+	 * Verifies if any mark makes a row of the win length in a trie.
+	 *
+	 * @param trieRoot Root of the trie.
+	 * @return True if there is a row; False otherwise.
+	 */
+	private boolean hasRow(final Object trieRoot) {
+
+		for (int box = 0; box < tableSize * tableSize; box++) {
+
+			final byte mark = markOf(trieRoot, box);
+
+			if ((mark != TicTacToeMark.EMPTY)
+					&& isWinnerMove(trieRoot, box / tableSize, box % tableSize, mark)) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Verifies if the given box is out of range of the table.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @return True if the box is out of range; False otherwise.
+	 */
+	private boolean isOutOfRange(final int xAxisMove, final int yAxisMove) {
+
+		return (xAxisMove < 0) || (xAxisMove >= tableSize)
+				|| (yAxisMove < 0) || (yAxisMove >= tableSize);
+
+	}
+
+	@Override
+	public String toString() {
+
+		return "PersistentTicTacToeBoard [tableSize=" + tableSize + ", winLength=" + winLength
+				+ ", moveCount=" + moveCount + ", gameStatus=" + gameStatus + "]";
+
+	}
+
+}
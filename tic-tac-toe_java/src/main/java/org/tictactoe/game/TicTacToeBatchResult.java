@@ -0,0 +1,128 @@
+package org.tictactoe.game;
+
+/**
+ * Result of a batch of moves applied to a game, reusable between batches so
+ * applying moves allocates nothing.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeBatchResult {
+
+	/**
+	 * Index reported when every move of the batch is valid.
+	 */
+	public static final int NO_NOT_VALID_MOVE = -1;
+
+	/**
+	 * Reference to the game status after the last valid move.
+	 */
+	private TicTacToeGameStatus gameStatus;
+
+	/**
+	 * Reference to the number of valid moves applied.
+	 */
+	private int appliedMoves;
+
+	/**
+	 * Reference to the index of the first not valid move.
+	 */
+	private int notValidMoveIndex = NO_NOT_VALID_MOVE;
+
+	/**
+	 * Reference to the result of the first not valid move.
+	 */
+	private TicTacToeMoveResult notValidMoveResult;
+
+	/**
+	 * Gets the game status after the last valid move of the batch, or the 
+	 * status of the game before the batch if no move was applied.
+	 * 
+	 * @return The game status.
+	 */
+	public TicTacToeGameStatus getGameStatus() {
+
+		return gameStatus;
+
+	}
+
+	/**
+	 * Gets the number of valid moves applied, the moves after the game 
+	 * finished included.
+	 * 
+	 * @return Valid moves applied.
+	 */
+	public int getAppliedMoves() {
+
+		return appliedMoves;
+
+	}
+
+	/**
+	 * Gets the index, within the arrays of the batch, of the first not valid
+	 * move. The moves after it are not applied.
+	 * 
+	 * @return The index; TicTacToeBatchResult.NO_NOT_VALID_MOVE if every move
+	 *         is valid.
+	 */
+	public int getNotValidMoveIndex() {
+
+		return notValidMoveIndex;
+
+	}
+
+	/**
+	 * Gets the reason why the first not valid move was rejected.
+	 * 
+	 * @return The result of the move; null if every move is valid.
+	 */
+	public TicTacToeMoveResult getNotValidMoveResult() {
+
+		return notValidMoveResult;
+
+	}
+
+	/**
+	 * Verifies if every move of the batch is valid.
+	 * 
+	 * @return True if every move is valid; False otherwise.
+	 */
+	public boolean isValidBatch() {
+
+		return notValidMoveIndex == NO_NOT_VALID_MOVE;
+
+	}
+
+	/**
+	 * Sets the result of a batch.
+	 * 
+	 * @param gameStatus Game status after the last valid move.
+	 * @param appliedMoves Number of valid moves applied.
+	 * @param notValidMoveIndex Index of the first not valid move.
+	 * @param notValidMoveResult Result of the first not valid move.
+	 */
+	void set(final TicTacToeGameStatus gameStatus, final int appliedMoves,
+			final int notValidMoveIndex, final TicTacToeMoveResult notValidMoveResult) {
+
+		this.gameStatus = gameStatus;
+		this.appliedMoves = appliedMoves;
+		this.notValidMoveIndex = notValidMoveIndex;
+		this.notValidMoveResult = notValidMoveResult;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return "TicTacToeBatchResult [gameStatus=" + gameStatus 
+				+ ", appliedMoves=" + appliedMoves
+				+ ", notValidMoveIndex=" + notValidMoveIndex 
+				+ ", notValidMoveResult=" + notValidMoveResult + "]";
+
+	}
+
+}
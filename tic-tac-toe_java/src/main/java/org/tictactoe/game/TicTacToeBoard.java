@@ -0,0 +1,89 @@
+package org.tictactoe.game;
+
+/**
+ * Storage of the boxes of a square tic-tac-toe table.
+ * <p>
+ * Boxes are addressed by X coordinate (line) and Y coordinate (column), both
+ * zero based, and hold one of the TicTacToeMark codes. Implementations do not
+ * validate the coordinates; that is done by the game.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public interface TicTacToeBoard {
+
+	/**
+	 * Gets the table size.
+	 *
+	 * @return Number of boxes per line and per column.
+	 */
+	int getTableSize();
+
+	/**
+	 * Gets the mark placed in the given box.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @return The mark code; TicTacToeMark.EMPTY if the box is empty.
+	 */
+	byte getMark(int xAxisMove, int yAxisMove);
+
+	/**
+	 * Places the given mark in an empty box.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @param mark Mark code, either TicTacToeMark.X or TicTacToeMark.O.
+	 */
+	void setMark(int xAxisMove, int yAxisMove, byte mark);
+
+	/**
+	 * Empties the given box.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 */
+	void clearMark(int xAxisMove, int yAxisMove);
+
+	/**
+	 * Empties all the boxes of the table.
+	 */
+	void clear();
+
+	/**
+	 * Verifies if the whole given line holds the given mark.
+	 *
+	 * @param xAxisMove X coordinate of the line.
+	 * @param mark Mark code.
+	 * @return True if every box of the line holds the mark; False otherwise.
+	 */
+	boolean isLineComplete(int xAxisMove, byte mark);
+
+	/**
+	 * Verifies if the whole given column holds the given mark.
+	 *
+	 * @param yAxisMove Y coordinate of the column.
+	 * @param mark Mark code.
+	 * @return True if every box of the column holds the mark; False otherwise.
+	 */
+	boolean isColumnComplete(int yAxisMove, byte mark);
+
+	/**
+	 * Verifies if the whole diagonal from the top left box to the bottom
+	 * right box holds the given mark.
+	 *
+	 * @param mark Mark code.
+	 * @return True if every box of the diagonal holds the mark; False otherwise.
+	 */
+	boolean isCrossToLeftComplete(byte mark);
+
+	/**
+	 * Verifies if the whole diagonal from the top right box to the bottom
+	 * left box holds the given mark.
+	 *
+	 * @param mark Mark code.
+	 * @return True if every box of the diagonal holds the mark; False otherwise.
+	 */
+	boolean isCrossToRightComplete(byte mark);
+
+}
@@ -0,0 +1,54 @@
+package org.tictactoe.game;
+
+/**
+ * Storages supported for the tic-tac-toe table.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public enum TicTacToeBoardStorage {
+
+	/**
+	 * Packed bitboards: one long per mark up to 8x8, long[] words above that.
+	 */
+	BITBOARD {
+
+		@Override
+		public TicTacToeBoard createBoard(final int tableSize) {
+
+			if (tableSize <= LongBitTicTacToeBoard.MAX_TABLE_SIZE) {
+
+				return new LongBitTicTacToeBoard(tableSize);
+
+			}
+
+			return new LongArrayBitTicTacToeBoard(tableSize);
+
+		}
+
+	},
+
+	/**
+	 * 2 bits per box in direct buffers out of the Java heap, for very large 
+	 * tables.
+	 */
+	OFF_HEAP {
+
+		@Override
+		public TicTacToeBoard createBoard(final int tableSize) {
+
+			return new OffHeapTicTacToeBoard(tableSize);
+
+		}
+
+	};
+
+	/**
+	 * Creates an empty table of this storage.
+	 *
+	 * @param tableSize Table size.
+	 * @return The empty table.
+	 */
+	public abstract TicTacToeBoard createBoard(int tableSize);
+
+}
@@ -0,0 +1,214 @@
+package org.tictactoe.game;
+
+import java.util.Arrays;
+
+/**
+ * Canonical form of a tic-tac-toe position, the same for the 8 orientations of
+ * the position, with the transform taking the original orientation to it.
+ * <p>
+ * Equality and hash code are the ones of the canonical form only, so the
+ * positions of every orientation are the same key of a map; the transform is
+ * for moving boxes between both orientations.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeCanonicalPosition {
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the marks in a row needed to win.
+	 */
+	private final int winLength;
+
+	/**
+	 * Reference to the mark of the last move.
+	 */
+	private final byte previousMarkUsed;
+
+	/**
+	 * Reference to the marks of the canonical form, two bits per box.
+	 */
+	private final long [] cells;
+
+	/**
+	 * Reference to the transform from the original orientation.
+	 */
+	private final int transform;
+
+	/**
+	 * Reference to the hash code of the canonical form.
+	 */
+	private final int hashCode;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param tableSize Table size.
+	 * @param winLength Marks in a row needed to win.
+	 * @param previousMarkUsed Mark of the last move.
+	 * @param cells Marks of the canonical form, two bits per box.
+	 * @param transform Transform from the original orientation.
+	 */
+	TicTacToeCanonicalPosition(final int tableSize, final int winLength,
+			final byte previousMarkUsed, final long [] cells, final int transform) {
+
+		this.tableSize = tableSize;
+		this.winLength = winLength;
+		this.previousMarkUsed = previousMarkUsed;
+		this.cells = cells;
+		this.transform = transform;
+
+		hashCode = 31 * (31 * (31 * tableSize + winLength) + previousMarkUsed)
+				+ Arrays.hashCode(cells);
+
+	}
+
+	/**
+	 * Gets the table size.
+	 *
+	 * @return Table size.
+	 */
+	public int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	/**
+	 * Gets the marks in a row needed to win.
+	 *
+	 * @return Win length.
+	 */
+	public int getWinLength() {
+
+		return winLength;
+
+	}
+
+	/**
+	 * Gets the mark of the last move.
+	 *
+	 * @return The mark; TicTacToeMark.EMPTY if none.
+	 */
+	public byte getPreviousMarkUsed() {
+
+		return previousMarkUsed;
+
+	}
+
+	/**
+	 * Gets the mark of a box of the canonical form.
+	 *
+	 * @param box Box number of the canonical form, x * tableSize + y.
+	 * @return The mark.
+	 * @throws IllegalArgumentException If the box is out of range.
+	 */
+	public byte getMark(final int box) throws IllegalArgumentException {
+
+		if ((box < 0) || (box >= tableSize * tableSize)) {
+			throw new IllegalArgumentException("Invalid box, out of range of the table");
+		}
+
+		return (byte) ((cells[box >>> 5] >>> ((box & 31) << 1)) & 3);
+
+	}
+
+	/**
+	 * Gets the transform from the original orientation to the canonical form.
+	 *
+	 * @return The transform, from 0 to TicTacToeSymmetry.TRANSFORMS - 1.
+	 */
+	public int getTransform() {
+
+		return transform;
+
+	}
+
+	/**
+	 * Moves a box of the original orientation to the canonical form.
+	 *
+	 * @param xAxisMove X coordinate of the original orientation.
+	 * @param yAxisMove Y coordinate of the original orientation.
+	 * @return The box number of the canonical form, x * tableSize + y.
+	 * @throws IllegalArgumentException If the box is out of range.
+	 */
+	public int toCanonicalBox(final int xAxisMove, final int yAxisMove)
+			throws IllegalArgumentException {
+
+		if ((xAxisMove < 0) || (xAxisMove >= tableSize)
+				|| (yAxisMove < 0) || (yAxisMove >= tableSize)) {
+			throw new IllegalArgumentException("Invalid box, out of range of the table");
+		}
+
+		return TicTacToeSymmetry.transformBox(tableSize, transform,
+				xAxisMove * tableSize + yAxisMove);
+
+	}
+
+	/**
+	 * Moves a box of the canonical form back to the original orientation.
+	 *
+	 * @param canonicalBox Box number of the canonical form, x * tableSize + y.
+	 * @return The box number of the original orientation, x * tableSize + y.
+	 * @throws IllegalArgumentException If the box is out of range.
+	 */
+	public int fromCanonicalBox(final int canonicalBox) throws IllegalArgumentException {
+
+		return TicTacToeSymmetry.transformBox(tableSize,
+				TicTacToeSymmetry.inverseOf(transform), canonicalBox);
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+
+		return hashCode;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object object) {
+
+		if (this == object) {
+			return true;
+		}
+
+		if (!(object instanceof TicTacToeCanonicalPosition)) {
+			return false;
+		}
+
+		final TicTacToeCanonicalPosition other = (TicTacToeCanonicalPosition) object;
+
+		return (hashCode == other.hashCode) && (tableSize == other.tableSize)
+				&& (winLength == other.winLength) && (previousMarkUsed == other.previousMarkUsed)
+				&& Arrays.equals(cells, other.cells);
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return "TicTacToeCanonicalPosition [tableSize=" + tableSize + ", winLength=" + winLength
+				+ ", previousMarkUsed="
+				+ TicTacToeMark.toText(previousMarkUsed) + ", transform=" + transform + "]";
+
+	}
+
+}
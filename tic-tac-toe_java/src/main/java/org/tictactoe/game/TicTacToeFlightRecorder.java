@@ -0,0 +1,228 @@
+package org.tictactoe.game;
+
+import jdk.jfr.EventType;
+
+/**
+ * Holder of the flight recorder events of the games. The events are only
+ * created while a recording enables them, and never on a runtime without
+ * the jdk.jfr module, so the games load and run on any Java 8 or later
+ * runtime.
+ * <p>
+ * The games only see the events as plain objects, so no flight recorder
+ * class is linked outside of this holder and the events themselves.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class TicTacToeFlightRecorder {
+
+	/**
+	 * Reference to know if the flight recorder is present in the runtime.
+	 */
+	private static final boolean AVAILABLE = isAvailable();
+
+	/**
+	 * The constructor.
+	 */
+	private TicTacToeFlightRecorder() {
+
+	}
+
+	/**
+	 * Begins the event of a game created or reset.
+	 *
+	 * @return The event begun, null if not recorded.
+	 */
+	static Object beginReset() {
+
+		if (AVAILABLE && EventTypes.RESET.isEnabled()) {
+
+			final TicTacToeGameResetEvent resetEvent = new TicTacToeGameResetEvent();
+
+			resetEvent.begin();
+
+			return resetEvent;
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Ends the event of a game created or reset, if begun.
+	 *
+	 * @param resetEvent Event begun, null if not recorded.
+	 * @param ticTacToeGame Game created or reset.
+	 * @param created True if the game was created, false if reset.
+	 * @param tableAllocated True if a new table was allocated.
+	 * @param boardStorage Board storage of the game.
+	 */
+	static void finishReset(final Object resetEvent, final TicTacToeGame ticTacToeGame,
+			final boolean created, final boolean tableAllocated,
+			final TicTacToeBoardStorage boardStorage) {
+
+		if (resetEvent != null) {
+
+			((TicTacToeGameResetEvent) resetEvent).finish(ticTacToeGame, created,
+					tableAllocated, boardStorage);
+
+		}
+
+	}
+
+	/**
+	 * Begins the event of a move.
+	 *
+	 * @return The event begun, null if not recorded.
+	 */
+	static Object beginMove() {
+
+		if (AVAILABLE && EventTypes.MOVE.isEnabled()) {
+
+			final TicTacToeMoveEvent moveEvent = new TicTacToeMoveEvent();
+
+			moveEvent.begin();
+
+			return moveEvent;
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Ends the event of a move, if begun.
+	 *
+	 * @param moveEvent Event begun, null if not recorded.
+	 * @param ticTacToeGame Game of the move.
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark of the move.
+	 * @param moveResult Result of the move.
+	 */
+	static void finishMove(final Object moveEvent, final TicTacToeGame ticTacToeGame,
+			final int xAxisMove, final int yAxisMove, final byte mark,
+			final TicTacToeMoveResult moveResult) {
+
+		if (moveEvent != null) {
+
+			((TicTacToeMoveEvent) moveEvent).finish(ticTacToeGame, xAxisMove, yAxisMove,
+					mark, moveResult);
+
+		}
+
+	}
+
+	/**
+	 * Begins the event of a winner check.
+	 *
+	 * @return The event begun, null if not recorded.
+	 */
+	static Object beginWinCheck() {
+
+		if (AVAILABLE && EventTypes.WIN_CHECK.isEnabled()) {
+
+			final TicTacToeWinCheckEvent winCheckEvent = new TicTacToeWinCheckEvent();
+
+			winCheckEvent.begin();
+
+			return winCheckEvent;
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Ends the event of a winner check, if begun.
+	 *
+	 * @param winCheckEvent Event begun, null if not recorded.
+	 * @param ticTacToeGame Game of the check.
+	 * @param winDetection Win detection of the game.
+	 * @param winner True if the move checked won the game.
+	 */
+	static void finishWinCheck(final Object winCheckEvent, final TicTacToeGame ticTacToeGame,
+			final TicTacToeWinDetection winDetection, final boolean winner) {
+
+		if (winCheckEvent != null) {
+
+			((TicTacToeWinCheckEvent) winCheckEvent).finish(ticTacToeGame, winDetection, winner);
+
+		}
+
+	}
+
+	/**
+	 * Records the event of a game finished, if enabled.
+	 *
+	 * @param ticTacToeGame Game finished.
+	 * @param gameStatus Either TicTacToeGameStatus.WINNER or
+	 *                   TicTacToeGameStatus.DRAW.
+	 */
+	static void gameFinished(final TicTacToeGame ticTacToeGame,
+			final TicTacToeGameStatus gameStatus) {
+
+		if (AVAILABLE && EventTypes.GAME_FINISHED.isEnabled()) {
+
+			new TicTacToeGameFinishedEvent().finish(ticTacToeGame, gameStatus);
+
+		}
+
+	}
+
+	/**
+	 * Checks if the flight recorder is present in the runtime.
+	 *
+	 * @return True if the jdk.jfr module can be loaded.
+	 */
+	private static boolean isAvailable() {
+
+		try {
+
+			Class.forName("jdk.jfr.Event", false, TicTacToeFlightRecorder.class.getClassLoader());
+
+			return true;
+
+		} catch (ClassNotFoundException | LinkageError e) {
+
+			return false;
+
+		}
+
+	}
+
+	/**
+	 * Types of the events, only loaded if the flight recorder is present.
+	 *
+	 * @author Leo Gutierrez.
+	 *
+	 */
+	private static final class EventTypes {
+
+		/**
+		 * Reference to the type of the game created or reset events.
+		 */
+		static final EventType RESET = EventType.getEventType(TicTacToeGameResetEvent.class);
+
+		/**
+		 * Reference to the type of the move events.
+		 */
+		static final EventType MOVE = EventType.getEventType(TicTacToeMoveEvent.class);
+
+		/**
+		 * Reference to the type of the winner check events.
+		 */
+		static final EventType WIN_CHECK = EventType.getEventType(TicTacToeWinCheckEvent.class);
+
+		/**
+		 * Reference to the type of the game finished events.
+		 */
+		static final EventType GAME_FINISHED =
+				EventType.getEventType(TicTacToeGameFinishedEvent.class);
+
+	}
+
+}
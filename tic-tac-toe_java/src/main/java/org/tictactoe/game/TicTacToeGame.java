@@ -1,11 +1,15 @@
 package org.tictactoe.game;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
 
 /**
  * Tic-tac-toe table game object representation.
+ * <p>
+ * Emits the flight recorder events "org.tictactoe.game.GameReset", 
+ * "org.tictactoe.game.Move", "org.tictactoe.game.WinCheck" and 
+ * "org.tictactoe.game.GameFinished"; the first three only when lasting 1 ms 
+ * or more, unless the recording sets other thresholds.
  * 
  * @author Leo Gutierrez.
  *
@@ -13,36 +17,129 @@ import java.util.List;
 public class TicTacToeGame {
 
 	/**
-	 * Reference to an empty box within tic-tac-toe table.
+	 * Win length of the games won by a whole line, column or diagonal, 
+	 * whatever the table size.
 	 */
-	private static final String EMPTY_BOX = " ";
+	public static final int FULL_LINE = 0;
+
+	/**
+	 * Value of the empty box queries when no box is empty.
+	 */
+	public static final int NO_BOX = -1;
+
+	/**
+	 * Biggest table size whose box numbers fit an int.
+	 */
+	private static final int MAX_INDEXED_TABLE_SIZE = 46340;
+	
+	/**
+	 * Shift of the X coordinate of a move in the history; the Y coordinate 
+	 * is shifted 2 bits, above the mark.
+	 */
+	private static final int HISTORY_X_SHIFT = 33;
+	
+	/**
+	 * Mask of the Y coordinate of a move in the history, once shifted.
+	 */
+	private static final long HISTORY_Y_MASK = (1L << (HISTORY_X_SHIFT - 2)) - 1;
+
+	/**
+	 * Reference to the storage used for the tic-tac-toe table.
+	 */
+	private final TicTacToeBoardStorage boardStorage;
 
 	/**
 	 * Reference to the tic-tac-toe table.
 	 */
-	private String [][] ticTacToeTable;
+	private TicTacToeBoard ticTacToeTable;
+	
+	/**
+	 * Reference to the win detection mode of the game.
+	 */
+	private final TicTacToeWinDetection winDetection;
+	
+	/**
+	 * Reference to the detector verifying the winner moves.
+	 */
+	private TicTacToeWinDetector winDetector;
 	
 	/**
-	 * Reference to the marks supported to use within tic-tac-toe table.
+	 * Reference to the marks in a row needed to win; FULL_LINE for the table
+	 * size.
 	 */
-	private List<String> marksSupported = 
-			new ArrayList<String>(Arrays.asList("X","O"));
+	private final int winLength;
 	
 	/**
 	 * Reference to the previous mark used for next move validation.
 	 */
-	private String previousMarkUsed;
+	private byte previousMarkUsed;
 	
 	/**
 	 * Reference to the total count of move to verify for draws.
 	 */
-	private int moveCount;
+	private long moveCount;
 	
 	/**
 	 * Reference to know if the game is already finished.
 	 */
 	private boolean gameFinished;
 	
+	/**
+	 * Reference to the Zobrist hash of the marks placed.
+	 */
+	private long marksHash;
+	
+	/**
+	 * Reference to the empty boxes, the first emptyBoxCount ones; built on 
+	 * the first empty box query and kept up to date on every move after it.
+	 */
+	private int [] emptyBoxes;
+	
+	/**
+	 * Reference to the position of every empty box in emptyBoxes.
+	 */
+	private int [] emptyBoxPositions;
+	
+	/**
+	 * Reference to the number of empty boxes, once the index is built.
+	 */
+	private int emptyBoxCount;
+	
+	/**
+	 * Reference to know if the empty boxes index matches the table.
+	 */
+	private boolean emptyBoxesIndexed;
+	
+	/**
+	 * Reference to the last moves placed, followed by the moves undone that 
+	 * can be redone, in a ring indexed by (move number - 1) modulo its length;
+	 * packed as x &lt;&lt; 33 | y &lt;&lt; 2 | mark. Null if the history is 
+	 * not enabled, the default.
+	 */
+	private long [] moveHistory;
+	
+	/**
+	 * Reference to the move count when the history started: 0 after a 
+	 * reset, the moves restored from a snapshot or placed before the history 
+	 * was enabled otherwise, moved forward as the oldest moves are dropped.
+	 */
+	private long historyStart;
+	
+	/**
+	 * Reference to the move count after the last move that can be redone.
+	 */
+	private long historyEnd;
+	
+	/**
+	 * Reference to the previous mark used when the history started.
+	 */
+	private byte historyStartMark;
+	
+	/**
+	 * Reference to the metrics recorded of the moves; null if not measured.
+	 */
+	private TicTacToeMetrics metrics;
+	
 	/**
 	 * The constructor.
 	 * 
@@ -51,32 +148,154 @@ public class TicTacToeGame {
 	 */
 	public TicTacToeGame(final int tableSize) throws IllegalArgumentException {
 		
+		this(tableSize, TicTacToeBoardStorage.BITBOARD);
+		
+	}
+
+	/**
+	 * The constructor.
+	 * 
+	 * @param tableSize Table size for the game.
+	 * @param boardStorage Storage to use for the table.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less,
+	 *                                  or the storage is null.
+	 */
+	public TicTacToeGame(final int tableSize, 
+			final TicTacToeBoardStorage boardStorage) throws IllegalArgumentException {
+		
+		this(tableSize, boardStorage, TicTacToeWinDetection.LINE_SCAN);
+		
+	}
+
+	/**
+	 * The constructor.
+	 * 
+	 * @param tableSize Table size for the game.
+	 * @param boardStorage Storage to use for the table.
+	 * @param winDetection Win detection mode to use.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less,
+	 *                                  or the storage or mode are null.
+	 */
+	public TicTacToeGame(final int tableSize, final TicTacToeBoardStorage boardStorage,
+			final TicTacToeWinDetection winDetection) throws IllegalArgumentException {
+		
+		this(tableSize, boardStorage, winDetection, FULL_LINE);
+		
+	}
+
+	/**
+	 * The constructor, for k-in-a-row games detecting the wins with 
+	 * TicTacToeWinDetection.LOCAL_WINDOW.
+	 * 
+	 * @param tableSize Table size for the game.
+	 * @param winLength Marks in a row needed to win.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less,
+	 *                                  or the win length is below 3 or above
+	 *                                  the table size.
+	 */
+	public TicTacToeGame(final int tableSize, final int winLength) 
+			throws IllegalArgumentException {
+		
+		this(tableSize, TicTacToeBoardStorage.BITBOARD, TicTacToeWinDetection.LOCAL_WINDOW, 
+				winLength);
+		
+	}
+
+	/**
+	 * The constructor.
+	 * 
+	 * @param tableSize Table size for the game.
+	 * @param boardStorage Storage to use for the table.
+	 * @param winDetection Win detection mode to use.
+	 * @param winLength Marks in a row needed to win; FULL_LINE for the table 
+	 *                  size, even after resetting it.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less,
+	 *                                  the storage or mode are null, the win
+	 *                                  length is below 3 or above the table 
+	 *                                  size, or the mode only detects whole 
+	 *                                  lines and the win length is not the 
+	 *                                  table size.
+	 */
+	public TicTacToeGame(final int tableSize, final TicTacToeBoardStorage boardStorage,
+			final TicTacToeWinDetection winDetection, final int winLength) 
+					throws IllegalArgumentException {
+		
+		if ((winLength != FULL_LINE) && (winLength < 3)) {
+			throw new IllegalArgumentException("Invalid win length, should be 3 or above");
+		}
+		
+		if (boardStorage == null) {
+			throw new IllegalArgumentException("Invalid board storage, should not be null");
+		}
+		
+		if (winDetection == null) {
+			throw new IllegalArgumentException("Invalid win detection, should not be null");
+		}
+		
+		this.boardStorage = boardStorage;
+		
+		this.winDetection = winDetection;
+		
+		this.winLength = winLength;
+		
+		final Object resetEvent = TicTacToeFlightRecorder.beginReset();
+		
 		initTicTacToeTable(tableSize);
 		
+		TicTacToeFlightRecorder.finishReset(resetEvent, this, true, true, boardStorage);
+		
 	}
 
 	/**
-	 * Resets the tic-tac-toe table for a new game.
+	 * Resets the tic-tac-toe table for a new game. The table is cleared in 
+	 * place if its size does not change.
 	 * 
 	 * @param tableSize Table size for the new game.
 	 */
 	public void resetGame(final int tableSize) {
 
-		initTicTacToeTable(tableSize);
+		final Object resetEvent = TicTacToeFlightRecorder.beginReset();
+		
+		final boolean tableAllocated = (tableSize != ticTacToeTable.getTableSize());
+		
+		if (!tableAllocated) {
+			
+			ticTacToeTable.clear();
+			
+			winDetector.clear();
+			
+		} else {
+			
+			initTicTacToeTable(tableSize);
+			
+		}
 
-		previousMarkUsed = null;
+		previousMarkUsed = TicTacToeMark.EMPTY;
 		
 		moveCount = 0;
 		
 		gameFinished = false;
 		
+		marksHash = 0;
+		
+		emptyBoxesIndexed = false;
+		
+		historyStart = 0;
+		
+		historyEnd = 0;
+		
+		historyStartMark = TicTacToeMark.EMPTY;
+		
+		TicTacToeFlightRecorder.finishReset(resetEvent, this, false, tableAllocated, boardStorage);
+		
 	}
 	
 	/**
 	 * Initializes the tic-tac-toe-table with the given table size.
 	 * 
 	 * @param tableSize Table size.
-	 * @throws IllegalArgumentException If the table size is invalid, 2 or less.
+	 * @throws IllegalArgumentException If the table size is invalid, 2 or less,
+	 *                                  or below the win length.
 	 */
 	private void initTicTacToeTable(final int tableSize) throws IllegalArgumentException {
 		
@@ -85,14 +304,18 @@ public class TicTacToeGame {
 					"Invalid table size, should be 3 or above");
 		}
 		
-		ticTacToeTable = new String[tableSize][tableSize];	
-		
-		for (String [] tableLine: ticTacToeTable) {
-			
-			Arrays.fill(tableLine, EMPTY_BOX);
-			
+		if (winLength > tableSize) {
+			throw new IllegalArgumentException(
+					"Invalid table size, should be the win length or above");
 		}
 		
+		final TicTacToeBoard board = boardStorage.createBoard(tableSize);
+		
+		winDetector = winDetection.createDetector(board, 
+				(winLength == FULL_LINE) ? tableSize : winLength);
+		
+		ticTacToeTable = board;
+		
 	}
 	
 	/**
@@ -110,21 +333,394 @@ public class TicTacToeGame {
 	public TicTacToeGameStatus move(final int xAxisMove, final int yAxisMove, 
 			final String mark) throws NotValidMoveException {
 		
-		validateIfInvalidMove(xAxisMove, yAxisMove, mark);
+		final TicTacToeMoveResult moveResult = 
+				tryMove(xAxisMove, yAxisMove, TicTacToeMark.fromText(mark));
 		
-		if (gameFinished) {
+		if (!moveResult.isValidMove()) {
 			
-			return TicTacToeGameStatus.GAME_ALREADY_FINISHED;
+			throw new NotValidMoveException(notValidMoveMessage(moveResult, mark));
+			
+		}
+		
+		return moveResult.getGameStatus();
+		
+	}
+
+	/**
+	 * Player's move on the tic-tac game table, without throwing for not valid 
+	 * moves. Nothing is allocated for a move unless a flight recording enables 
+	 * the move or winner check events.
+	 * 
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move, either TicTacToeMark.X or 
+	 *             TicTacToeMark.O.
+	 * @return Either TicTacToeMoveResult.MOVE_OUT_OF_RANGE, 
+	 *         TicTacToeMoveResult.POSITION_ALREADY_TAKEN, 
+	 *         TicTacToeMoveResult.NOT_VALID_MARK or 
+	 *         TicTacToeMoveResult.UNEXPECTED_MARK if the move is not valid; 
+	 *         the result of the game status otherwise.
+	 */
+	public TicTacToeMoveResult tryMove(final int xAxisMove, final int yAxisMove, 
+			final byte mark) {
+		
+		final Object moveEvent = TicTacToeFlightRecorder.beginMove();
+		
+		final TicTacToeMoveResult moveResult;
+		
+		if (metrics == null) {
+			
+			moveResult = applyMove(xAxisMove, yAxisMove, mark);
 			
 		} else {
 			
-			placeMoveInTable(xAxisMove, yAxisMove, mark);
+			final long startNanos = System.nanoTime();
+			
+			moveResult = applyMove(xAxisMove, yAxisMove, mark);
+			
+			metrics.recordMove(moveResult, System.nanoTime() - startNanos);
+			
+		}
+		
+		TicTacToeFlightRecorder.finishMove(moveEvent, this, xAxisMove, yAxisMove, mark, moveResult);
+		
+		return moveResult;
+		
+	}
 
-			final TicTacToeGameStatus gameStatus = 
-					updateGameStatus(xAxisMove, yAxisMove, mark);
+	/**
+	 * Validates and places a move.
+	 * 
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move.
+	 * @return See {@link #tryMove(int, int, byte)}.
+	 */
+	private TicTacToeMoveResult applyMove(final int xAxisMove, final int yAxisMove, 
+			final byte mark) {
+		
+		if (isOutOfRange(xAxisMove, yAxisMove)) {
+			
+			return TicTacToeMoveResult.MOVE_OUT_OF_RANGE;
+			
+		} else if (isMoveAlreadyDone(xAxisMove, yAxisMove)) {
+			
+			return TicTacToeMoveResult.POSITION_ALREADY_TAKEN;
+			
+		} else if (!TicTacToeMark.isSupported(mark)) {
+			
+			return TicTacToeMoveResult.NOT_VALID_MARK;
+			
+		} else if (previousMarkUsed == mark) {
+			
+			return TicTacToeMoveResult.UNEXPECTED_MARK;
+			
+		} else if (gameFinished) {
+			
+			return TicTacToeMoveResult.GAME_ALREADY_FINISHED;
+			
+		}
+		
+		placeMoveInTable(xAxisMove, yAxisMove, mark);
+		
+		recordMove(xAxisMove, yAxisMove, mark);
+		
+		return updateGameStatus(xAxisMove, yAxisMove, mark);
+		
+	}
+
+	/**
+	 * Takes back the last move placed, restoring the game as it was before 
+	 * it in constant time: the box, the move count, the mark expected, the 
+	 * finished status, the position hash and the win detection state. The 
+	 * move can be placed again with {@link #redo()} until another move is 
+	 * placed.
+	 * <p>
+	 * Only the moves placed once the history is enabled, see 
+	 * {@link #enableHistory(int)}, and kept by it can be taken back.
+	 * 
+	 * @return True if a move was taken back; False if the history is not 
+	 *         enabled, or no move kept by it is left.
+	 */
+	public boolean undo() {
+		
+		if (moveHistory == null || moveCount == historyStart) {
+			return false;
+		}
+		
+		final long move = moveHistory[historyIndexOf(moveCount)];
+		
+		final int xAxisMove = (int) (move >>> HISTORY_X_SHIFT);
+		final int yAxisMove = (int) ((move >>> 2) & HISTORY_Y_MASK);
+		final byte mark = (byte) (move & 3);
+		
+		ticTacToeTable.clearMark(xAxisMove, yAxisMove);
+		
+		winDetector.removeMove(xAxisMove, yAxisMove, mark);
+		
+		marksHash ^= TicTacToeZobrist.keyOf(ticTacToeTable.getTableSize(), 
+				xAxisMove, yAxisMove, mark);
+		
+		moveCount--;
+		
+		previousMarkUsed = (moveCount == historyStart) 
+				? historyStartMark 
+				: (byte) (moveHistory[historyIndexOf(moveCount)] & 3);
+		
+		// No move follows the one finishing the game.
+		gameFinished = false;
+		
+		if (emptyBoxesIndexed) {
+			addEmptyBox(xAxisMove * ticTacToeTable.getTableSize() + yAxisMove);
+		}
+		
+		return true;
+		
+	}
+
+	/**
+	 * Places again the last move taken back by {@link #undo()}.
+	 * 
+	 * @return True if a move was placed again; False if there is no move 
+	 *         taken back, or another move was placed after it.
+	 */
+	public boolean redo() {
+		
+		if (moveHistory == null || moveCount == historyEnd) {
+			return false;
+		}
+		
+		final long move = moveHistory[historyIndexOf(moveCount + 1)];
+		
+		final int xAxisMove = (int) (move >>> HISTORY_X_SHIFT);
+		final int yAxisMove = (int) ((move >>> 2) & HISTORY_Y_MASK);
+		final byte mark = (byte) (move & 3);
+		
+		placeMoveInTable(xAxisMove, yAxisMove, mark);
+		
+		updateGameStatus(xAxisMove, yAxisMove, mark);
+		
+		return true;
+		
+	}
+
+	/**
+	 * Enables the history of the moves, so they can be taken back with 
+	 * {@link #undo()}, starting from the moves already placed. The history 
+	 * keeps the last moves up to its capacity, dropping the oldest ones, and 
+	 * is kept by the resets of the game. Games without history, the default, 
+	 * record nothing.
+	 * 
+	 * @param capacity Moves kept by the history.
+	 * @throws IllegalArgumentException If the capacity is less than 1.
+	 */
+	public void enableHistory(final int capacity) throws IllegalArgumentException {
+		
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid history capacity, should be greater than 0");
+		}
+		
+		moveHistory = new long[capacity];
+		
+		historyStart = moveCount;
+		
+		historyEnd = moveCount;
+		
+		historyStartMark = previousMarkUsed;
+		
+	}
+
+	/**
+	 * Disables the history of the moves, releasing it.
+	 */
+	public void disableHistory() {
+		
+		moveHistory = null;
+		
+	}
+
+	/**
+	 * Gets the moves kept by the history.
+	 * 
+	 * @return The capacity of the history; 0 if not enabled.
+	 */
+	public int getHistoryCapacity() {
+		
+		return (moveHistory == null) ? 0 : moveHistory.length;
+		
+	}
 
-			return gameStatus;
+	/**
+	 * Records a move just placed in the history, if enabled, dropping the 
+	 * moves that could be redone and, once full, the oldest move.
+	 * 
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark of the move.
+	 */
+	private void recordMove(final int xAxisMove, final int yAxisMove, final byte mark) {
+		
+		if (moveHistory == null) {
+			return;
+		}
+		
+		final int index = historyIndexOf(moveCount);
+		
+		if (moveCount - historyStart > moveHistory.length) {
+			
+			// The slot holds the oldest move, the one the history now starts after.
+			historyStart = moveCount - moveHistory.length;
 			
+			historyStartMark = (byte) (moveHistory[index] & 3);
+			
+		}
+		
+		moveHistory[index] = ((long) xAxisMove << HISTORY_X_SHIFT) 
+				| ((long) yAxisMove << 2) | mark;
+		
+		historyEnd = moveCount;
+		
+	}
+
+	/**
+	 * Gets the index of a move in the history.
+	 * 
+	 * @param moveNumber Number of the move, the move count once placed.
+	 * @return The index.
+	 */
+	private int historyIndexOf(final long moveNumber) {
+		
+		return (int) ((moveNumber - 1) % moveHistory.length);
+		
+	}
+
+	/**
+	 * Player's move on the tic-tac game table, without throwing for not valid 
+	 * moves. Nothing is allocated for a move unless a flight recording enables 
+	 * the move or winner check events.
+	 * 
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move, either "X" or "O".
+	 * @return See {@link #tryMove(int, int, byte)}.
+	 */
+	public TicTacToeMoveResult tryMove(final int xAxisMove, final int yAxisMove, 
+			final String mark) {
+		
+		return tryMove(xAxisMove, yAxisMove, TicTacToeMark.fromText(mark));
+		
+	}
+
+	/**
+	 * Applies a sequence of moves in order, until the first not valid move.
+	 * 
+	 * @param xAxisMoves X coordinates of the moves.
+	 * @param yAxisMoves Y coordinates of the moves.
+	 * @param marks Marks of the moves, either TicTacToeMark.X or 
+	 *              TicTacToeMark.O.
+	 * @param batchResult Result to fill, reused between batches.
+	 * @return The given result, filled.
+	 * @throws IllegalArgumentException If the arrays have different lengths.
+	 */
+	public TicTacToeBatchResult applyMoves(final int [] xAxisMoves, 
+			final int [] yAxisMoves, final byte [] marks, 
+			final TicTacToeBatchResult batchResult) throws IllegalArgumentException {
+		
+		if ((yAxisMoves.length != xAxisMoves.length) || (marks.length != xAxisMoves.length)) {
+			throw new IllegalArgumentException(
+					"Invalid moves, the arrays should have the same length");
+		}
+		
+		return applyMoves(xAxisMoves, yAxisMoves, marks, 0, xAxisMoves.length, batchResult);
+		
+	}
+
+	/**
+	 * Applies a range of a sequence of moves in order, until the first not 
+	 * valid move. Every move goes through {@link #tryMove(int, int, byte)}, 
+	 * so it is measured and recorded as any other move.
+	 * 
+	 * @param xAxisMoves X coordinates of the moves.
+	 * @param yAxisMoves Y coordinates of the moves.
+	 * @param marks Marks of the moves, either TicTacToeMark.X or 
+	 *              TicTacToeMark.O.
+	 * @param offset Index of the first move to apply.
+	 * @param length Number of moves to apply.
+	 * @param batchResult Result to fill, reused between batches.
+	 * @return The given result, filled.
+	 * @throws IllegalArgumentException If the offset or the length are 
+	 *                                  negative, or the range is out of any 
+	 *                                  of the arrays.
+	 */
+	public TicTacToeBatchResult applyMoves(final int [] xAxisMoves, 
+			final int [] yAxisMoves, final byte [] marks, final int offset, 
+			final int length, final TicTacToeBatchResult batchResult) 
+					throws IllegalArgumentException {
+		
+		// Compared against what is left of every array, so it never overflows.
+		if ((offset < 0) || (length < 0) || (offset > xAxisMoves.length)
+				|| (length > xAxisMoves.length - offset) || (length > yAxisMoves.length - offset)
+				|| (length > marks.length - offset)) {
+			throw new IllegalArgumentException(
+					"Invalid range of moves, out of the arrays given");
+		}
+		
+		final int end = offset + length;
+		
+		TicTacToeGameStatus gameStatus = gameFinished 
+				? TicTacToeGameStatus.GAME_ALREADY_FINISHED 
+				: TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+		
+		for (int index = offset; index < end; index++) {
+			
+			final TicTacToeMoveResult moveResult = 
+					tryMove(xAxisMoves[index], yAxisMoves[index], marks[index]);
+			
+			if (!moveResult.isValidMove()) {
+				
+				batchResult.set(gameStatus, index - offset, index, moveResult);
+				
+				return batchResult;
+				
+			}
+			
+			gameStatus = moveResult.getGameStatus();
+			
+		}
+		
+		batchResult.set(gameStatus, length, TicTacToeBatchResult.NO_NOT_VALID_MOVE, null);
+		
+		return batchResult;
+		
+	}
+
+	/**
+	 * Builds the message of a not valid move.
+	 * 
+	 * @param moveResult Result of the not valid move.
+	 * @param mark Mark used in the move.
+	 * @return The message for NotValidMoveException.
+	 */
+	static String notValidMoveMessage(final TicTacToeMoveResult moveResult, 
+			final String mark) {
+		
+		switch (moveResult) {
+		
+			case MOVE_OUT_OF_RANGE:
+				return "Move out of range";
+				
+			case POSITION_ALREADY_TAKEN:
+				return "Position already taken";
+				
+			case NOT_VALID_MARK:
+				return "Not valid mark '" + mark + "'";
+				
+			default:
+				final String nextMarkExpected = TicTacToeMark.toText(
+						TicTacToeMark.opponentOf(TicTacToeMark.fromText(mark)));
+				
+				return "Invalid mark, '" + nextMarkExpected + "' was expected instead";
+				
 		}
 		
 	}
@@ -135,30 +731,51 @@ public class TicTacToeGame {
 	 * @param xAxisMove X coordinate of the move.
 	 * @param yAxisMove Y coordinate of the move.
 	 * @param mark Mark used for the move.
-	 * @return Either TicTacToeGameStatus.DRAW, 
-	 *         TicTacToeGameStatus.CONTINUE_NEXT_MOVE or TicTacToeGameStatus.WINNER.
+	 * @return Either TicTacToeMoveResult.DRAW, 
+	 *         TicTacToeMoveResult.CONTINUE_NEXT_MOVE or TicTacToeMoveResult.WINNER.
 	 */
-	private TicTacToeGameStatus updateGameStatus(final int xAxisMove,
-			final int yAxisMove, final String mark) {
+	private TicTacToeMoveResult updateGameStatus(final int xAxisMove,
+			final int yAxisMove, final byte mark) {
+		
+		final Object winCheckEvent = TicTacToeFlightRecorder.beginWinCheck();
+		
+		final boolean moveOfTheWin;
+		
+		if (metrics == null) {
+			
+			moveOfTheWin = winDetector.isWinnerMove(xAxisMove, yAxisMove, mark);
+			
+		} else {
+			
+			final long startNanos = System.nanoTime();
+			
+			moveOfTheWin = winDetector.isWinnerMove(xAxisMove, yAxisMove, mark);
+			
+			metrics.recordWinCheck(System.nanoTime() - startNanos);
+			
+		}
 		
-		final boolean moveOfTheWin = 
-				verifyIfWinner(xAxisMove, yAxisMove, mark);
+		TicTacToeFlightRecorder.finishWinCheck(winCheckEvent, this, winDetection, moveOfTheWin);
 
 		if (moveOfTheWin) {
 			
 			gameFinished = true;
 			
-			return TicTacToeGameStatus.WINNER;
+			TicTacToeFlightRecorder.gameFinished(this, TicTacToeGameStatus.WINNER);
+			
+			return TicTacToeMoveResult.WINNER;
 			
 		} else if (isADraw()) {
 
 			gameFinished = true;
 
-			return TicTacToeGameStatus.DRAW;
+			TicTacToeFlightRecorder.gameFinished(this, TicTacToeGameStatus.DRAW);
+
+			return TicTacToeMoveResult.DRAW;
 
 		}
 
-		return TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+		return TicTacToeMoveResult.CONTINUE_NEXT_MOVE;
 		
 	}
 
@@ -169,14 +786,23 @@ public class TicTacToeGame {
 	 * @param yAxisMove Y coordinate for the move.
 	 * @param mark Mark used for the move.
 	 */
-	private void placeMoveInTable(int xAxisMove, int yAxisMove, String mark) {
+	private void placeMoveInTable(int xAxisMove, int yAxisMove, byte mark) {
 		
-		ticTacToeTable[xAxisMove][yAxisMove] = mark;
+		ticTacToeTable.setMark(xAxisMove, yAxisMove, mark);
+		
+		winDetector.placeMove(xAxisMove, yAxisMove, mark);
+		
+		marksHash ^= TicTacToeZobrist.keyOf(ticTacToeTable.getTableSize(), 
+				xAxisMove, yAxisMove, mark);
 		
 		previousMarkUsed = mark;
 		
 		moveCount++;
 		
+		if (emptyBoxesIndexed) {
+			removeEmptyBox(xAxisMove * ticTacToeTable.getTableSize() + yAxisMove);
+		}
+		
 	}
 
 	/**
@@ -186,364 +812,400 @@ public class TicTacToeGame {
 	 */
 	private boolean isADraw() {
 		
-		return moveCount == 
-				(ticTacToeTable.length*ticTacToeTable.length);
+		final long tableSize = ticTacToeTable.getTableSize();
+		
+		return moveCount == (tableSize*tableSize);
 		
 	}
 	
 	/**
-	 * Verifies if the move recent placed is the winner one.
+	 * Verifies if the given move is the winner verifying the linear 
+	 * combinations for Y coordinate.
 	 * 
 	 * @param xAxisMove X coordinate for the move.
 	 * @param yAxisMove Y coordinate for the move.
 	 * @param mark Mark used for the move.
 	 * @return True if it is the winner; False otherwise.
 	 */
-	private boolean verifyIfWinner(int xAxisMove, int yAxisMove, String mark) {
+	public boolean verifyWinnerYLinear(int xAxisMove, final int yAxisMove, 
+			final String mark) {
 		
-		boolean winner = false;
+		final byte markCode = TicTacToeMark.fromText(mark);
 		
-		if (verifyWinnerLinear(xAxisMove, yAxisMove, mark)) {
-			
-			winner = true;
-			
-		} else if (verifyWinnerDiagonal(xAxisMove, yAxisMove, mark)) {
+		if (markCode == TicTacToeMark.EMPTY) {
+			return false;
+		}
+		
+		final int tableSize = ticTacToeTable.getTableSize();
+		
+		for (int nextXLinealPosition = xAxisMove; nextXLinealPosition < tableSize; 
+				nextXLinealPosition++) {
 			
-			winner = true;
+			if (ticTacToeTable.getMark(nextXLinealPosition, yAxisMove) != markCode) {
+				return false;
+			}
 			
 		}
 		
-		return winner;
+		return true;
 		
 	}
 	
 	/**
-	 * Verifies if the given move is the winner verifying the linear combinations.
+	 * Verifies if the given move is already taken.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @param mark Mark used for the move.
-	 * @return True if it is the winner; False otherwise.
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @return True if the move is already taken; False otherwise.
 	 */
-	private boolean verifyWinnerLinear(final int xAxisMove, 
-			final int yAxisMove, final String mark) {
-		
-		boolean winnerLineal = false;
+	private boolean isMoveAlreadyDone(int xAxisMove, int yAxisMove) {
 		
-		final int initialYCoordinate = 0;
-		final int initialXCoordinate = 0;
+		return ticTacToeTable.getMark(xAxisMove, yAxisMove) != TicTacToeMark.EMPTY;
 		
-		if (verifyWinnerXLinear(xAxisMove, initialYCoordinate, mark)) {
-
-			winnerLineal = true;
-
-		} else if (verifyWinnerYLinear(initialXCoordinate, yAxisMove, mark)) {
-
-			winnerLineal = true;
-		}
-		
-		return winnerLineal;
 	}
 
 	/**
-	 * Verifies if the given move is the winner verifying the diagonal combinations.
+	 * Verifies if the given move is out of range of the table.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @param mark Mark used for the move.
-	 * @return True if it is the winner; False otherwise.
+	 * @param xAxisMove xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @return True if the move is out of range; False otherwise.
 	 */
-	private boolean verifyWinnerDiagonal(int xAxisMove, int yAxisMove, String mark) {
+	private boolean isOutOfRange(int xAxisMove, int yAxisMove) {
+		 
+		final int ticTacToeTableLowestRange = 0;
+		final int ticTacToeTableMaxRange = ticTacToeTable.getTableSize();
 		
-		boolean winnerDiagonal = false;
+		return ((xAxisMove < ticTacToeTableLowestRange) || (xAxisMove >= ticTacToeTableMaxRange)) || 
+				((yAxisMove < ticTacToeTableLowestRange) || (yAxisMove >= ticTacToeTableMaxRange));
+		
+	}
+	
+	/**
+	 * Gets the table size of the current game.
+	 * 
+	 * @return Number of boxes per line and per column.
+	 */
+	public int getTableSize() {
 		
-		final int initialXCoordinate = 0;
-		final int initialYCoordinate = 0;
-		final int latestXCoordinate = ticTacToeTable.length - 1;
+		return ticTacToeTable.getTableSize();
 		
-		if (isDiagonalMove(xAxisMove, yAxisMove)) {
-			
-			if (verifyWinnerCrossToLeft(initialXCoordinate, initialYCoordinate, mark)) {
-				winnerDiagonal = true;
-			} else if (verifyWinnerCrossToRight(latestXCoordinate, initialYCoordinate, mark)) {
-				winnerDiagonal = true;
-			}
-			
-		}
+	}
+	
+	/**
+	 * Gets the marks in a row needed to win the current game.
+	 * 
+	 * @return The win length; the table size for whole lines.
+	 */
+	public int getWinLength() {
 		
-		return winnerDiagonal;
+		return (winLength == FULL_LINE) ? ticTacToeTable.getTableSize() : winLength;
 		
 	}
 	
 	/**
-	 * Verifies if the given move is the winner verifying the diagonal right 
-	 * to left combination.
+	 * Gets the marks in a row needed to win after resetting the game to the
+	 * given table size.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @param mark Mark used for the move.
-	 * @return True if it is the winner; False otherwise.
+	 * @param tableSize Table size.
+	 * @return The win length; the table size for whole lines.
 	 */
-	private boolean verifyWinnerCrossToRight(int xAxisMove, int yAxisMove, 
-			final String mark) {
+	int getWinLength(final int tableSize) {
 		
-		if (EMPTY_BOX.equals(ticTacToeTable[xAxisMove][yAxisMove])) {
-
-			return false;
-
-		} else if (ticTacToeTable[xAxisMove][yAxisMove].equalsIgnoreCase(mark)){
-
-			final int nextXLinealPosition = --xAxisMove;
-			final int nextYLinealPosition = ++yAxisMove;
-			
-			if ((nextXLinealPosition < 0)
-					|| (nextYLinealPosition >= ticTacToeTable.length)) {
-				return true;
-			} else {
-				return verifyWinnerCrossToRight(nextXLinealPosition, 
-						nextYLinealPosition, mark);
-			}
-
-		} else {
-
-			return false;
-
-		} 
+		return (winLength == FULL_LINE) ? tableSize : winLength;
 		
 	}
 	
 	/**
-	 * Verifies if the given move is the winner verifying the diagonal left 
-	 * to right combination.
+	 * Gets the mark placed in the given box.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @param mark Mark used for the move.
-	 * @return True if it is the winner; False otherwise.
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @return TicTacToeMark.X, TicTacToeMark.O or TicTacToeMark.EMPTY.
+	 * @throws IllegalArgumentException If the box is out of range of the table.
 	 */
-	private boolean verifyWinnerCrossToLeft(int xAxisMove, int yAxisMove, 
-			final String mark) {
+	public byte getMark(final int xAxisMove, final int yAxisMove) 
+			throws IllegalArgumentException {
 		
-		if (EMPTY_BOX.equals(ticTacToeTable[xAxisMove][yAxisMove])) {
-
-			return false;
-
-		} else if (ticTacToeTable[xAxisMove][yAxisMove].equalsIgnoreCase(mark)){
-
-			int nextYLinealPosition = ++yAxisMove;
-			int nextXLinealPosition = ++xAxisMove;
-			
-			if ((nextYLinealPosition >= ticTacToeTable.length)
-					|| (nextXLinealPosition >= ticTacToeTable.length)) {
-				return true;
-			} else {
-				return verifyWinnerCrossToLeft(nextXLinealPosition, 
-						nextYLinealPosition, mark);
-			}
-
-		} else {
-
-			return false;
-
+		if (isOutOfRange(xAxisMove, yAxisMove)) {
+			throw new IllegalArgumentException("Invalid box, out of range of the table");
 		}
 		
+		return ticTacToeTable.getMark(xAxisMove, yAxisMove);
+		
 	}
 	
 	/**
-	 * Verifies if the given move can have diagonal combinations.
+	 * Places a mark restored from a snapshot, without validating it nor 
+	 * updating the game status.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @return True if the move can have diagonal combinations; False otherwise.
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @param mark Mark restored.
 	 */
-	private boolean isDiagonalMove(int xAxisMove, int yAxisMove) {
+	void restoreMark(final int xAxisMove, final int yAxisMove, final byte mark) {
 		
-		boolean equalAxis = false;
+		ticTacToeTable.setMark(xAxisMove, yAxisMove, mark);
 		
-		final int axisDifference = xAxisMove - yAxisMove;
+		winDetector.placeMove(xAxisMove, yAxisMove, mark);
 		
-		final int equalsAxis = 0;
-
-		final int positiveDiagonalMove = ticTacToeTable.length - 1;
-		final int negativeDiagonalMove = 1 - ticTacToeTable.length;
+		marksHash ^= TicTacToeZobrist.keyOf(ticTacToeTable.getTableSize(), 
+				xAxisMove, yAxisMove, mark);
 		
-		if ((axisDifference == equalsAxis) 
-				|| (axisDifference == positiveDiagonalMove) 
-				|| (axisDifference == negativeDiagonalMove)) {
-			
-			equalAxis = true;
-			
+		if (emptyBoxesIndexed) {
+			removeEmptyBox(xAxisMove * ticTacToeTable.getTableSize() + yAxisMove);
 		}
 		
-		return equalAxis;
+	}
+	
+	/**
+	 * Restores the game status from a snapshot, once its marks are restored.
+	 * 
+	 * @param moveCount Moves placed.
+	 * @param previousMarkUsed Mark of the last move; TicTacToeMark.EMPTY if none.
+	 * @param gameFinished If the game is already finished.
+	 */
+	void restoreStatus(final long moveCount, final byte previousMarkUsed, 
+			final boolean gameFinished) {
+		
+		this.moveCount = moveCount;
+		
+		this.previousMarkUsed = previousMarkUsed;
+		
+		this.gameFinished = gameFinished;
+		
+		// The marks restored are not moves that can be undone.
+		historyStart = moveCount;
+		
+		historyEnd = moveCount;
+		
+		historyStartMark = previousMarkUsed;
 		
 	}
 	
 	/**
-	 * Verifies if the given move is the winner verifying the linear 
-	 * combinations for X coordinate.
+	 * Gets the number of empty boxes, indexing them if not indexed yet.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @param mark Mark used for the move.
-	 * @return True if it is the winner; False otherwise.
+	 * @return Empty boxes.
+	 * @throws IllegalArgumentException If the table size is above 46340, so 
+	 *                                  its box numbers do not fit an int.
 	 */
-	private boolean verifyWinnerXLinear(final int xAxisMove, int yAxisMove, 
-			final String mark) {
+	public int getEmptyBoxCount() throws IllegalArgumentException {
 		
-		if (EMPTY_BOX.equals(ticTacToeTable[xAxisMove][yAxisMove])) {
-			
-			return false;
-			
-		} else if (ticTacToeTable[xAxisMove][yAxisMove].equalsIgnoreCase(mark)){
-			
-			int nextYLinealPosition = ++yAxisMove;
-			
-			if (nextYLinealPosition >= ticTacToeTable.length) {
-				return true;
-			} else {
-				return verifyWinnerXLinear(xAxisMove, nextYLinealPosition, mark);
-			}
-			
-		} else {
-			
-			return false;
-			
-		}
+		indexEmptyBoxes();
+		
+		return emptyBoxCount;
 		
 	}
 	
 	/**
-	 * Verifies if the given move is the winner verifying the linear 
-	 * combinations for Y coordinate.
+	 * Gets an empty box. The order of the empty boxes changes on every move.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @param mark Mark used for the move.
-	 * @return True if it is the winner; False otherwise.
+	 * @param index Index from 0 to getEmptyBoxCount() - 1.
+	 * @return The box number, x * tableSize + y.
+	 * @throws IllegalArgumentException If the index is out of range, or the 
+	 *                                  table size is above 46340.
 	 */
-	public boolean verifyWinnerYLinear(int xAxisMove, final int yAxisMove, 
-			final String mark) {
+	public int getEmptyBox(final int index) throws IllegalArgumentException {
 		
-		if (EMPTY_BOX.equals(ticTacToeTable[xAxisMove][yAxisMove])) {
-			
-			return false;
-			
-		} else if (ticTacToeTable[xAxisMove][yAxisMove].equalsIgnoreCase(mark)) {
+		indexEmptyBoxes();
 		
-			int nextXLinealPosition = ++xAxisMove;
-			
-			if (nextXLinealPosition >= ticTacToeTable.length) {
-				return true;
-			} else {
-				return verifyWinnerYLinear(nextXLinealPosition, yAxisMove, mark);
-			}
-			
-		} else {
-			return false;
+		if ((index < 0) || (index >= emptyBoxCount)) {
+			throw new IllegalArgumentException(
+					"Invalid index, should be 0 to the empty boxes - 1");
 		}
 		
+		return emptyBoxes[index];
+		
 	}
 	
 	/**
-	 * Verifies if the given move is valid or not. If it is not valid, it 
-	 * throws NotValidMoveException.
+	 * Picks an empty box at random, in constant time once indexed.
 	 * 
-	 * @param xAxisMove X coordinate for the move.
-	 * @param yAxisMove Y coordinate for the move.
-	 * @param mark Mark used for the move.
-	 * @throws NotValidMoveException If the move is out of range, if already 
-	 *                               done or the mark is not the expected.
+	 * @param random Source of the box.
+	 * @return The box number, x * tableSize + y; NO_BOX if none is empty.
+	 * @throws IllegalArgumentException If the table size is above 46340.
 	 */
-	private void validateIfInvalidMove(int x, int y, String mark)
-			throws NotValidMoveException {
+	public int randomEmptyBox(final Random random) throws IllegalArgumentException {
+		
+		indexEmptyBoxes();
 		
-		verifyIfOutOfRange(x, y);
+		return (emptyBoxCount == 0) ? NO_BOX : emptyBoxes[random.nextInt(emptyBoxCount)];
 		
-		verifyIfMoveAlreadyDone(x, y);
+	}
+	
+	/**
+	 * Gives every empty box to a consumer, without allocating.
+	 * 
+	 * @param consumer Consumer of the box numbers, x * tableSize + y; it 
+	 *                 should not move in this game.
+	 * @throws IllegalArgumentException If the table size is above 46340.
+	 */
+	public void forEachEmptyBox(final IntConsumer consumer) throws IllegalArgumentException {
+		
+		indexEmptyBoxes();
 		
-		verifyIfCorrectMark(mark);
+		for (int index = 0; index < emptyBoxCount; index++) {
+			
+			consumer.accept(emptyBoxes[index]);
+			
+		}
 		
 	}
-
+	
 	/**
-	 * Verifies if the given mark in the move is the expected one.
+	 * Indexes the empty boxes if not indexed yet, reusing the arrays of the 
+	 * previous games of the same table size.
 	 * 
-	 * @param mark Mark to validate.
-	 * @throws NotValidMoveException If it is not a mark expected.
+	 * @throws IllegalArgumentException If the table size is above 46340.
 	 */
-	private void verifyIfCorrectMark(String mark) throws NotValidMoveException {
+	private void indexEmptyBoxes() throws IllegalArgumentException {
+		
+		if (emptyBoxesIndexed) {
+			return;
+		}
+		
+		final int tableSize = ticTacToeTable.getTableSize();
+		
+		if (tableSize > MAX_INDEXED_TABLE_SIZE) {
+			throw new IllegalArgumentException(
+					"Invalid table size for the empty boxes, should be 46340 or below");
+		}
+		
+		final int boxes = tableSize * tableSize;
 		
-		if (!marksSupported.contains(mark)) {
+		if ((emptyBoxes == null) || (emptyBoxes.length != boxes)) {
 			
-			throw new NotValidMoveException("Not valid mark '" + mark + "'");
+			emptyBoxes = new int[boxes];
+			
+			emptyBoxPositions = new int[boxes];
 			
 		}
 		
-		if (previousMarkUsed != null) {
+		emptyBoxCount = 0;
+		
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
 			
-			if (previousMarkUsed.equalsIgnoreCase(mark)) {
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
 				
-				String nextMarkExpected = null;
+				final int box = xAxisMove * tableSize + yAxisMove;
 				
-				final int nextMarkExpectedIndex = marksSupported.indexOf(mark) + 1;
-				
-				if (nextMarkExpectedIndex == marksSupported.size()) {
-					
-					final int initialPosition = 0;
-					nextMarkExpected = marksSupported.get(initialPosition);
+				if (ticTacToeTable.getMark(xAxisMove, yAxisMove) == TicTacToeMark.EMPTY) {
 					
-				} else {
+					emptyBoxPositions[box] = emptyBoxCount;
 					
-					nextMarkExpected = marksSupported.get(nextMarkExpectedIndex);
+					emptyBoxes[emptyBoxCount++] = box;
 					
 				}
 				
-				throw new NotValidMoveException("Invalid mark, '" 
-						+ nextMarkExpected + "' was expected instead");
-				
 			}
 			
 		}
 		
+		emptyBoxesIndexed = true;
+		
 	}
-
+	
 	/**
-	 * Verifies if the given move is already taken.
+	 * Adds a box just emptied to the empty boxes, as the last one.
 	 * 
-	 * @param xAxisMove X coordinate of the move.
-	 * @param yAxisMove Y coordinate of the move.
-	 * @throws NotValidMoveException If the move is already taken.
+	 * @param box Box number, x * tableSize + y.
 	 */
-	private void verifyIfMoveAlreadyDone(int xAxisMove, int yAxisMove)
-			throws NotValidMoveException {
+	private void addEmptyBox(final int box) {
 		
-		if (!EMPTY_BOX.equals(ticTacToeTable[xAxisMove][yAxisMove])) {
-			
-			throw new NotValidMoveException("Position already taken");
-			
-		}
+		emptyBoxPositions[box] = emptyBoxCount;
+		
+		emptyBoxes[emptyBoxCount++] = box;
 		
 	}
-
+	
 	/**
-	 * Verifies if the given move is out of range of the table.
+	 * Removes a box just taken from the empty boxes, moving the last empty 
+	 * box to its position.
 	 * 
-	 * @param xAxisMove xAxisMove X coordinate of the move.
-	 * @param yAxisMove Y coordinate of the move.
-	 * @throws NotValidMoveException If the move is out of range.
+	 * @param box Box number, x * tableSize + y.
 	 */
-	private void verifyIfOutOfRange(int xAxisMove, int yAxisMove) throws NotValidMoveException {
-		 
-		final int ticTacToeTableLowestRange = 0;
-		final int ticTacToeTableMaxRange = ticTacToeTable.length;
+	private void removeEmptyBox(final int box) {
 		
-		if (((xAxisMove < ticTacToeTableLowestRange) || (xAxisMove >= ticTacToeTableMaxRange)) || 
-				((yAxisMove < ticTacToeTableLowestRange) || (yAxisMove >= ticTacToeTableMaxRange))) {
-			
-			throw new NotValidMoveException("Move out of range");
-			
-		}
+		final int position = emptyBoxPositions[box];
+		
+		final int lastBox = emptyBoxes[--emptyBoxCount];
+		
+		emptyBoxes[position] = lastBox;
+		
+		emptyBoxPositions[lastBox] = position;
+		
+	}
+	
+	/**
+	 * Gets the mark of the last move, so the next move is of the opponent.
+	 * 
+	 * @return The mark; TicTacToeMark.EMPTY if no move was placed.
+	 */
+	public byte getPreviousMarkUsed() {
+		
+		return previousMarkUsed;
+		
+	}
+	
+	/**
+	 * Gets the number of moves placed in the current game.
+	 * 
+	 * @return Moves placed.
+	 */
+	public long getMoveCount() {
+		
+		return moveCount;
+		
+	}
+	
+	/**
+	 * Gets the 64 bits Zobrist hash of the current position, the marks placed
+	 * and the player to move, kept up to date on every move.
+	 * 
+	 * @return The hash; equal positions of the same table size have equal 
+	 *         hashes. See {@link TicTacToeZobrist}.
+	 */
+	public long getPositionHash() {
+		
+		return marksHash ^ TicTacToeZobrist.previousMarkKeyOf(
+				ticTacToeTable.getTableSize(), previousMarkUsed);
+		
+	}
+	
+	/**
+	 * Verifies if the current game is already finished.
+	 * 
+	 * @return True if the game finished with a winner or a draw; False otherwise.
+	 */
+	public boolean isGameFinished() {
+		
+		return gameFinished;
+		
+	}
+	
+	/**
+	 * Sets the metrics recording the results and latencies of the moves of 
+	 * this game, from the next move on. The same metrics can be shared by 
+	 * many games.
+	 * 
+	 * @param metrics The metrics; null to stop measuring, the default, so the
+	 *                moves cost nothing more.
+	 */
+	public void setMetrics(final TicTacToeMetrics metrics) {
+		
+		this.metrics = metrics;
+		
+	}
+	
+	/**
+	 * Gets the metrics recording the moves of this game.
+	 * 
+	 * @return The metrics; null if not measured.
+	 */
+	public TicTacToeMetrics getMetrics() {
+		
+		return metrics;
 		
 	}
 	
@@ -554,12 +1216,26 @@ public class TicTacToeGame {
 	@Override
 	public String toString() {
 		
+		final int tableSize = ticTacToeTable.getTableSize();
+		
 		final StringBuilder string = new StringBuilder();
 		
-		for (String [] lineal: ticTacToeTable) {
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+			
+			string.append('[');
+			
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+				
+				if (yAxisMove > 0) {
+					string.append(", ");
+				}
+				
+				string.append(TicTacToeMark.toText(
+						ticTacToeTable.getMark(xAxisMove, yAxisMove)));
+				
+			}
 			
-			string.append(Arrays.toString(lineal));
-			string.append("\n");
+			string.append("]\n");
 			
 		}
 		
@@ -0,0 +1,360 @@
+package org.tictactoe.game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary snapshots of tic-tac-toe games, to cache them or ship them between
+ * nodes.
+ * <p>
+ * A snapshot is a 19 bytes header (version, previous mark, finished flag,
+ * table size, win length and move count) followed by the boxes, 2 bits per 
+ * box and 4 boxes per byte, line by line. Snapshots are read and written at the current
+ * position of the buffer, in the byte order of the buffer.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeGameCodec {
+
+	/**
+	 * Version of the snapshot format.
+	 */
+	public static final byte VERSION = 2;
+
+	/**
+	 * Number of bytes of the header.
+	 */
+	public static final int HEADER_BYTES = 19;
+
+	/**
+	 * Flag of a finished game.
+	 */
+	private static final byte FINISHED_FLAG = 1;
+
+	/**
+	 * Number of boxes per byte.
+	 */
+	private static final int BOXES_PER_BYTE = 4;
+
+	/**
+	 * Mask of the 2 bits of a box.
+	 */
+	private static final int MARK_MASK = 3;
+
+	/**
+	 * Not instantiable.
+	 */
+	private TicTacToeGameCodec() {
+
+	}
+
+	/**
+	 * Gets the number of bytes of the snapshot of a game.
+	 *
+	 * @param tableSize Table size of the game.
+	 * @return Bytes of the snapshot.
+	 * @throws IllegalArgumentException If the snapshot does not fit in a buffer.
+	 */
+	public static int encodedSize(final int tableSize) throws IllegalArgumentException {
+
+		final long boxes = (long) tableSize * tableSize;
+
+		final long bytes = HEADER_BYTES + (boxes + BOXES_PER_BYTE - 1) / BOXES_PER_BYTE;
+
+		if (bytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"Invalid table size for a snapshot, should be 92681 or less");
+		}
+
+		return (int) bytes;
+
+	}
+
+	/**
+	 * Writes the snapshot of a game, advancing the position of the buffer.
+	 *
+	 * @param ticTacToeGame Game to write.
+	 * @param buffer Buffer where the snapshot is written.
+	 * @throws IllegalArgumentException If the buffer has not room for the
+	 *                                  snapshot; nothing is written then.
+	 */
+	public static void encode(final TicTacToeGame ticTacToeGame, final ByteBuffer buffer)
+			throws IllegalArgumentException {
+
+		final int tableSize = ticTacToeGame.getTableSize();
+
+		if (buffer.remaining() < encodedSize(tableSize)) {
+			throw new IllegalArgumentException(
+					"Invalid buffer, should have " + encodedSize(tableSize) + " bytes remaining");
+		}
+
+		buffer.put(VERSION);
+		buffer.put(ticTacToeGame.getPreviousMarkUsed());
+		buffer.put(ticTacToeGame.isGameFinished() ? FINISHED_FLAG : 0);
+		buffer.putInt(tableSize);
+		buffer.putInt(ticTacToeGame.getWinLength());
+		buffer.putLong(ticTacToeGame.getMoveCount());
+
+		int packedBoxes = 0;
+
+		int boxesInByte = 0;
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+				packedBoxes |= ticTacToeGame.getMark(xAxisMove, yAxisMove) << (boxesInByte << 1);
+
+				if (++boxesInByte == BOXES_PER_BYTE) {
+
+					buffer.put((byte) packedBoxes);
+
+					packedBoxes = 0;
+
+					boxesInByte = 0;
+
+				}
+
+			}
+
+		}
+
+		if (boxesInByte > 0) {
+			buffer.put((byte) packedBoxes);
+		}
+
+	}
+
+	/**
+	 * Reads the snapshot of a game, advancing the position of the buffer.
+	 *
+	 * @param buffer Buffer where the snapshot is read.
+	 * @return A new game with the default storage and win detection, 
+	 *         TicTacToeWinDetection.LOCAL_WINDOW for k-in-a-row games.
+	 * @throws IllegalArgumentException If the snapshot is not valid.
+	 */
+	public static TicTacToeGame decode(final ByteBuffer buffer) throws IllegalArgumentException {
+
+		final int tableSize = validate(buffer);
+
+		final TicTacToeWinDetection winDetection = (winLengthOf(buffer) == tableSize)
+				? TicTacToeWinDetection.LINE_SCAN : TicTacToeWinDetection.LOCAL_WINDOW;
+
+		return decode(buffer, tableSize, TicTacToeBoardStorage.BITBOARD, winDetection);
+
+	}
+
+	/**
+	 * Reads the snapshot of a game, advancing the position of the buffer.
+	 *
+	 * @param buffer Buffer where the snapshot is read.
+	 * @param boardStorage Storage to use for the table.
+	 * @param winDetection Win detection mode to use.
+	 * @return A new game.
+	 * @throws IllegalArgumentException If the snapshot is not valid, or the 
+	 *                                  mode only detects whole lines and the
+	 *                                  snapshot is of a k-in-a-row game.
+	 */
+	public static TicTacToeGame decode(final ByteBuffer buffer,
+			final TicTacToeBoardStorage boardStorage,
+			final TicTacToeWinDetection winDetection) throws IllegalArgumentException {
+
+		return decode(buffer, validate(buffer), boardStorage, winDetection);
+
+	}
+
+	/**
+	 * Reads the snapshot of a game into an existing game, e.g. one taken from
+	 * a TicTacToeGamePool, advancing the position of the buffer.
+	 *
+	 * @param buffer Buffer where the snapshot is read.
+	 * @param ticTacToeGame Game to overwrite.
+	 * @return The given game.
+	 * @throws IllegalArgumentException If the snapshot is not valid, or its
+	 *                                  win length is not the one of the game;
+	 *                                  the game is not changed then.
+	 */
+	public static TicTacToeGame decode(final ByteBuffer buffer,
+			final TicTacToeGame ticTacToeGame) throws IllegalArgumentException {
+
+		final int tableSize = validate(buffer);
+
+		if (ticTacToeGame.getWinLength(tableSize) != winLengthOf(buffer)) {
+			throw new IllegalArgumentException(
+					"Invalid game, its win length is not the one of the snapshot");
+		}
+
+		ticTacToeGame.resetGame(tableSize);
+
+		decodeBoxes(buffer, ticTacToeGame);
+
+		return ticTacToeGame;
+
+	}
+
+	/**
+	 * Creates a game from a snapshot already validated.
+	 *
+	 * @param buffer Buffer where the snapshot is read.
+	 * @param tableSize Table size of the snapshot.
+	 * @param boardStorage Storage to use for the table.
+	 * @param winDetection Win detection mode to use.
+	 * @return A new game.
+	 * @throws IllegalArgumentException If the mode only detects whole lines 
+	 *                                  and the snapshot is of a k-in-a-row 
+	 *                                  game.
+	 */
+	private static TicTacToeGame decode(final ByteBuffer buffer, final int tableSize,
+			final TicTacToeBoardStorage boardStorage,
+			final TicTacToeWinDetection winDetection) throws IllegalArgumentException {
+
+		final int winLength = winLengthOf(buffer);
+
+		final TicTacToeGame ticTacToeGame = (winLength == tableSize)
+				? new TicTacToeGame(tableSize, boardStorage, winDetection)
+				: new TicTacToeGame(tableSize, boardStorage, winDetection, winLength);
+
+		decodeBoxes(buffer, ticTacToeGame);
+
+		return ticTacToeGame;
+
+	}
+
+	/**
+	 * Gets the win length of the snapshot at the position of the buffer.
+	 *
+	 * @param buffer Buffer where the snapshot is read.
+	 * @return The win length.
+	 */
+	private static int winLengthOf(final ByteBuffer buffer) {
+
+		return buffer.getInt(buffer.position() + 7);
+
+	}
+
+	/**
+	 * Validates the whole snapshot at the position of the buffer, without
+	 * moving it, so no game is changed by a snapshot not valid.
+	 *
+	 * @param buffer Buffer where the snapshot is read.
+	 * @return The table size of the snapshot.
+	 * @throws IllegalArgumentException If the header, the status or a box are 
+	 *                                  not valid, or the snapshot is truncated.
+	 */
+	private static int validate(final ByteBuffer buffer) throws IllegalArgumentException {
+
+		final int position = buffer.position();
+
+		if (buffer.remaining() < HEADER_BYTES) {
+			throw new IllegalArgumentException("Invalid snapshot, truncated header");
+		}
+
+		if (buffer.get(position) != VERSION) {
+			throw new IllegalArgumentException(
+					"Invalid snapshot version, should be " + VERSION);
+		}
+
+		final int tableSize = buffer.getInt(position + 3);
+
+		if ((tableSize < 3) || (buffer.remaining() < encodedSize(tableSize))) {
+			throw new IllegalArgumentException("Invalid snapshot, truncated boxes");
+		}
+
+		final int winLength = buffer.getInt(position + 7);
+
+		if ((winLength < 3) || (winLength > tableSize)) {
+			throw new IllegalArgumentException("Invalid snapshot, not valid win length");
+		}
+
+		final byte previousMarkUsed = buffer.get(position + 1);
+
+		if ((previousMarkUsed != TicTacToeMark.EMPTY)
+				&& !TicTacToeMark.isSupported(previousMarkUsed)) {
+			throw new IllegalArgumentException("Invalid snapshot, not valid previous mark");
+		}
+
+		final long boxes = (long) tableSize * tableSize;
+
+		final int boxesPosition = position + HEADER_BYTES;
+
+		long marksCount = 0;
+
+		for (long box = 0; box < boxes; box++) {
+
+			final byte mark = (byte) ((buffer.get(boxesPosition + (int) (box / BOXES_PER_BYTE))
+					>>> ((box % BOXES_PER_BYTE) << 1)) & MARK_MASK);
+
+			if (mark == TicTacToeMark.EMPTY) {
+				continue;
+			}
+
+			if (!TicTacToeMark.isSupported(mark)) {
+				throw new IllegalArgumentException("Invalid snapshot, not valid mark");
+			}
+
+			marksCount++;
+
+		}
+
+		if (marksCount != buffer.getLong(position + 11)) {
+			throw new IllegalArgumentException(
+					"Invalid snapshot, move count does not match the marks");
+		}
+
+		return tableSize;
+
+	}
+
+	/**
+	 * Reads the status and the boxes of a snapshot already validated into a 
+	 * game already reset to the table size of the snapshot.
+	 *
+	 * @param buffer Buffer where the snapshot is read.
+	 * @param ticTacToeGame Game to fill.
+	 */
+	private static void decodeBoxes(final ByteBuffer buffer,
+			final TicTacToeGame ticTacToeGame) {
+
+		buffer.get();
+
+		final byte previousMarkUsed = buffer.get();
+
+		final boolean gameFinished = (buffer.get() & FINISHED_FLAG) != 0;
+
+		final int tableSize = buffer.getInt();
+
+		buffer.getInt();
+
+		final long moveCount = buffer.getLong();
+
+		int packedBoxes = 0;
+
+		int boxesInByte = BOXES_PER_BYTE;
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+				if (boxesInByte == BOXES_PER_BYTE) {
+
+					packedBoxes = buffer.get();
+
+					boxesInByte = 0;
+
+				}
+
+				final byte mark = (byte) ((packedBoxes >>> (boxesInByte++ << 1)) & MARK_MASK);
+
+				if (mark != TicTacToeMark.EMPTY) {
+					ticTacToeGame.restoreMark(xAxisMove, yAxisMove, mark);
+				}
+
+			}
+
+		}
+
+		ticTacToeGame.restoreStatus(moveCount, previousMarkUsed, gameFinished);
+
+	}
+
+}
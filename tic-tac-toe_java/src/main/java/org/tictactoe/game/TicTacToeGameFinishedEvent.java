@@ -0,0 +1,67 @@
+package org.tictactoe.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a game finished with a winner or a draw.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+@Name("org.tictactoe.game.GameFinished")
+@Label("Tic-Tac-Toe Game Finished")
+@Category("Tic-Tac-Toe")
+@Description("Game finished with a winner or a draw")
+@StackTrace(false)
+final class TicTacToeGameFinishedEvent extends jdk.jfr.Event {
+
+	/**
+	 * Reference to the table size of the game.
+	 */
+	@Label("Table Size")
+	int tableSize;
+
+	/**
+	 * Reference to the status the game finished with.
+	 */
+	@Label("Game Status")
+	String gameStatus;
+
+	/**
+	 * Reference to the mark of the last move, the winner one if any.
+	 */
+	@Label("Last Mark")
+	String lastMark;
+
+	/**
+	 * Reference to the moves placed in the game.
+	 */
+	@Label("Moves")
+	long moveCount;
+
+	/**
+	 * Commits the event if recorded.
+	 * 
+	 * @param ticTacToeGame Game finished.
+	 * @param gameStatus Status the game finished with.
+	 */
+	void finish(final TicTacToeGame ticTacToeGame, final TicTacToeGameStatus gameStatus) {
+		
+		if (shouldCommit()) {
+			
+			this.tableSize = ticTacToeGame.getTableSize();
+			this.gameStatus = gameStatus.name();
+			this.lastMark = TicTacToeMark.toText(ticTacToeGame.getPreviousMarkUsed());
+			this.moveCount = ticTacToeGame.getMoveCount();
+			
+			commit();
+			
+		}
+		
+	}
+
+}
@@ -0,0 +1,301 @@
+package org.tictactoe.game;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread safe pool of games keyed by table size, so finished games 
+ * are recycled instead of allocated for every match.
+ * <p>
+ * Games are reset when released, so an acquired game is always ready for a 
+ * new match. Acquiring and releasing allocate nothing once every table size 
+ * used has been seen.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+public class TicTacToeGamePool {
+
+	/**
+	 * Reference to the maximum number of idle games kept per table size.
+	 */
+	private final int maxIdleGamesPerSize;
+
+	/**
+	 * Reference to the storage of the games created.
+	 */
+	private final TicTacToeBoardStorage boardStorage;
+
+	/**
+	 * Reference to the win detection mode of the games created.
+	 */
+	private final TicTacToeWinDetection winDetection;
+
+	/**
+	 * Reference to the idle games of every table size seen, replaced as a 
+	 * whole when a new table size is seen.
+	 */
+	private volatile IdleGames [] idleGamesBySize = new IdleGames[0];
+
+	/**
+	 * Reference to the count of games acquired from the pool.
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Reference to the count of games created because the pool was empty.
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Reference to the count of games released but not kept, the pool full.
+	 */
+	private final LongAdder discarded = new LongAdder();
+
+	/**
+	 * The constructor, for games with the default storage and win detection.
+	 * 
+	 * @param maxIdleGamesPerSize Maximum number of idle games kept per table 
+	 *                            size.
+	 * @throws IllegalArgumentException If the maximum is 0 or less.
+	 */
+	public TicTacToeGamePool(final int maxIdleGamesPerSize) throws IllegalArgumentException {
+
+		this(maxIdleGamesPerSize, TicTacToeBoardStorage.BITBOARD, 
+				TicTacToeWinDetection.LINE_SCAN);
+
+	}
+
+	/**
+	 * The constructor.
+	 * 
+	 * @param maxIdleGamesPerSize Maximum number of idle games kept per table 
+	 *                            size.
+	 * @param boardStorage Storage of the games created.
+	 * @param winDetection Win detection mode of the games created.
+	 * @throws IllegalArgumentException If the maximum is 0 or less, or the 
+	 *                                  storage or mode are null.
+	 */
+	public TicTacToeGamePool(final int maxIdleGamesPerSize, 
+			final TicTacToeBoardStorage boardStorage, 
+			final TicTacToeWinDetection winDetection) throws IllegalArgumentException {
+
+		if (maxIdleGamesPerSize < 1) {
+			throw new IllegalArgumentException(
+					"Invalid maximum of idle games, should be 1 or above");
+		}
+
+		if (boardStorage == null) {
+			throw new IllegalArgumentException("Invalid board storage, should not be null");
+		}
+
+		if (winDetection == null) {
+			throw new IllegalArgumentException("Invalid win detection, should not be null");
+		}
+
+		this.maxIdleGamesPerSize = maxIdleGamesPerSize;
+
+		this.boardStorage = boardStorage;
+
+		this.winDetection = winDetection;
+
+	}
+
+	/**
+	 * Acquires a game ready for a new match, recycled if possible.
+	 * 
+	 * @param tableSize Table size for the game.
+	 * @return The game.
+	 * @throws IllegalArgumentException If the table size is invalid, 3 or less.
+	 */
+	public TicTacToeGame acquire(final int tableSize) throws IllegalArgumentException {
+
+		final IdleGames idleGames = findIdleGames(tableSize);
+
+		if (idleGames != null) {
+
+			final TicTacToeGame ticTacToeGame = idleGames.games.poll();
+
+			if (ticTacToeGame != null) {
+
+				hits.increment();
+
+				return ticTacToeGame;
+
+			}
+
+		}
+
+		final TicTacToeGame ticTacToeGame = 
+				new TicTacToeGame(tableSize, boardStorage, winDetection);
+
+		misses.increment();
+
+		return ticTacToeGame;
+
+	}
+
+	/**
+	 * Releases a game no longer used, resetting it for a new match. The game 
+	 * should have been acquired from this pool and should not be used 
+	 * afterwards.
+	 * 
+	 * @param ticTacToeGame The game.
+	 * @return True if the game is kept by the pool; False if the pool of its
+	 *         table size is full.
+	 */
+	public boolean release(final TicTacToeGame ticTacToeGame) {
+
+		final int tableSize = ticTacToeGame.getTableSize();
+
+		ticTacToeGame.resetGame(tableSize);
+
+		if (idleGamesOf(tableSize).games.offer(ticTacToeGame)) {
+			return true;
+		}
+
+		discarded.increment();
+
+		return false;
+
+	}
+
+	/**
+	 * Gets the number of games acquired from the pool.
+	 * 
+	 * @return Pool hits.
+	 */
+	public long getHits() {
+
+		return hits.sum();
+
+	}
+
+	/**
+	 * Gets the number of games created because the pool was empty.
+	 * 
+	 * @return Pool misses.
+	 */
+	public long getMisses() {
+
+		return misses.sum();
+
+	}
+
+	/**
+	 * Gets the number of games released but not kept, the pool full.
+	 * 
+	 * @return Games discarded.
+	 */
+	public long getDiscarded() {
+
+		return discarded.sum();
+
+	}
+
+	/**
+	 * Gets the number of idle games kept for the given table size.
+	 * 
+	 * @param tableSize Table size.
+	 * @return Idle games.
+	 */
+	public int getIdleGames(final int tableSize) {
+
+		final IdleGames idleGames = findIdleGames(tableSize);
+
+		return (idleGames == null) ? 0 : idleGames.games.size();
+
+	}
+
+	/**
+	 * Finds the idle games of the given table size.
+	 * 
+	 * @param tableSize Table size.
+	 * @return The idle games; null if the table size was never released.
+	 */
+	private IdleGames findIdleGames(final int tableSize) {
+
+		for (IdleGames idleGames: idleGamesBySize) {
+
+			if (idleGames.tableSize == tableSize) {
+				return idleGames;
+			}
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Gets the idle games of the given table size, created if needed.
+	 * 
+	 * @param tableSize Table size.
+	 * @return The idle games.
+	 */
+	private IdleGames idleGamesOf(final int tableSize) {
+
+		final IdleGames idleGames = findIdleGames(tableSize);
+
+		if (idleGames != null) {
+			return idleGames;
+		}
+
+		synchronized (this) {
+
+			final IdleGames currentIdleGames = findIdleGames(tableSize);
+
+			if (currentIdleGames != null) {
+				return currentIdleGames;
+			}
+
+			final IdleGames [] grownIdleGamesBySize = 
+					new IdleGames[idleGamesBySize.length + 1];
+
+			System.arraycopy(idleGamesBySize, 0, grownIdleGamesBySize, 0, 
+					idleGamesBySize.length);
+
+			final IdleGames newIdleGames = new IdleGames(tableSize, maxIdleGamesPerSize);
+
+			grownIdleGamesBySize[idleGamesBySize.length] = newIdleGames;
+
+			idleGamesBySize = grownIdleGamesBySize;
+
+			return newIdleGames;
+
+		}
+
+	}
+
+	/**
+	 * Idle games of a table size.
+	 */
+	private static final class IdleGames {
+
+		/**
+		 * Reference to the table size.
+		 */
+		private final int tableSize;
+
+		/**
+		 * Reference to the idle games.
+		 */
+		private final ArrayBlockingQueue<TicTacToeGame> games;
+
+		/**
+		 * The constructor.
+		 * 
+		 * @param tableSize Table size.
+		 * @param maxIdleGames Maximum number of idle games.
+		 */
+		private IdleGames(final int tableSize, final int maxIdleGames) {
+
+			this.tableSize = tableSize;
+
+			games = new ArrayBlockingQueue<TicTacToeGame>(maxIdleGames);
+
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.tictactoe.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of a game created or reset, lasting the threshold or
+ * more; the table is allocated in both unless reset to the same size.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+@Name("org.tictactoe.game.GameReset")
+@Label("Tic-Tac-Toe Game Created or Reset")
+@Category("Tic-Tac-Toe")
+@Description("Game created, or reset for a new game")
+@Threshold("1 ms")
+final class TicTacToeGameResetEvent extends jdk.jfr.Event {
+
+	/**
+	 * Reference to the table size of the new game.
+	 */
+	@Label("Table Size")
+	int tableSize;
+
+	/**
+	 * Reference to know if the game was created rather than reset.
+	 */
+	@Label("Created")
+	boolean created;
+
+	/**
+	 * Reference to know if the table was allocated rather than cleared.
+	 */
+	@Label("Table Allocated")
+	boolean tableAllocated;
+
+	/**
+	 * Reference to the storage of the table.
+	 */
+	@Label("Board Storage")
+	String boardStorage;
+
+	/**
+	 * Ends the event, committing it if recorded and over the threshold.
+	 * 
+	 * @param ticTacToeGame Game created or reset.
+	 * @param created True if the game was created.
+	 * @param tableAllocated True if the table was allocated.
+	 * @param boardStorage Storage of the table.
+	 */
+	void finish(final TicTacToeGame ticTacToeGame, final boolean created, final boolean tableAllocated,
+			final TicTacToeBoardStorage boardStorage) {
+		
+		end();
+		
+		if (shouldCommit()) {
+			
+			this.tableSize = ticTacToeGame.getTableSize();
+			this.created = created;
+			this.tableAllocated = tableAllocated;
+			this.boardStorage = boardStorage.name();
+			
+			commit();
+			
+		}
+		
+	}
+
+}
@@ -0,0 +1,169 @@
+package org.tictactoe.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, recorded by any number of
+ * threads at once. The buckets are log-linear: a bucket per nanosecond below
+ * 64 ns, then 32 buckets per power of two, so a percentile is within 3% of
+ * the latency recorded.
+ * <p>
+ * Threads measuring hot loops may record in histograms of their own, added
+ * up once finished, so they do not share the buckets.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeLatencyHistogram {
+
+	/**
+	 * Latencies below it have a bucket each.
+	 */
+	static final int EXACT_VALUES = 64;
+
+	/**
+	 * Bits of the buckets per power of two.
+	 */
+	static final int SUB_BUCKET_BITS = 5;
+
+	/**
+	 * Buckets per power of two.
+	 */
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Buckets of every latency up to Long.MAX_VALUE.
+	 */
+	static final int BUCKETS = EXACT_VALUES + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/**
+	 * Reference to the count of every bucket.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Reference to the sum of the latencies recorded.
+	 */
+	private final LongAdder totalValue = new LongAdder();
+
+	/**
+	 * Reference to the biggest latency recorded.
+	 */
+	private final AtomicLong maxValue = new AtomicLong();
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param nanos Latency, negatives counted as 0.
+	 */
+	public void record(final long nanos) {
+
+		final long value = Math.max(0, nanos);
+
+		counts.incrementAndGet(bucketOf(value));
+
+		totalValue.add(value);
+
+		long max = maxValue.get();
+
+		while ((value > max) && !maxValue.compareAndSet(max, value)) {
+			max = maxValue.get();
+		}
+
+	}
+
+	/**
+	 * Takes a snapshot of the latencies recorded so far. Latencies recorded
+	 * while taking it may be left out of some of its values.
+	 *
+	 * @return The snapshot.
+	 */
+	public TicTacToeLatencySnapshot snapshot() {
+
+		final long [] bucketCounts = new long[BUCKETS];
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+
+			bucketCounts[bucket] = counts.get(bucket);
+
+		}
+
+		return new TicTacToeLatencySnapshot(bucketCounts, totalValue.sum(), maxValue.get());
+
+	}
+
+	/**
+	 * Adds the latencies of a snapshot, e.g. of the histogram of another 
+	 * thread.
+	 *
+	 * @param snapshot Snapshot to add.
+	 */
+	public void add(final TicTacToeLatencySnapshot snapshot) {
+
+		final long [] snapshotCounts = snapshot.getCounts();
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+
+			if (snapshotCounts[bucket] != 0) {
+				counts.addAndGet(bucket, snapshotCounts[bucket]);
+			}
+
+		}
+
+		totalValue.add(snapshot.getTotalValue());
+
+		final long value = snapshot.getMaxValue();
+
+		long max = maxValue.get();
+
+		while ((value > max) && !maxValue.compareAndSet(max, value)) {
+			max = maxValue.get();
+		}
+
+	}
+
+	/**
+	 * Gets the bucket of a latency.
+	 *
+	 * @param value Latency, 0 or above.
+	 * @return The bucket.
+	 */
+	static int bucketOf(final long value) {
+
+		if (value < EXACT_VALUES) {
+			return (int) value;
+		}
+
+		// Keeps the 6 highest bits: the highest one and the sub-bucket.
+		final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+
+		return EXACT_VALUES + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+
+	}
+
+	/**
+	 * Gets the biggest latency of a bucket.
+	 *
+	 * @param bucket The bucket.
+	 * @return Latency in nanoseconds.
+	 */
+	static long highestValueOf(final int bucket) {
+
+		if (bucket < EXACT_VALUES) {
+			return bucket;
+		}
+
+		final int shift = (bucket - EXACT_VALUES) / SUB_BUCKETS + 1;
+
+		final long top = SUB_BUCKETS + (bucket - EXACT_VALUES) % SUB_BUCKETS;
+
+		final long highestValue = ((top + 1) << shift) - 1;
+
+		// The last bucket ends at Long.MAX_VALUE, past which the shift wraps.
+		return (highestValue < 0) ? Long.MAX_VALUE : highestValue;
+
+	}
+
+}
@@ -0,0 +1,160 @@
+package org.tictactoe.game;
+
+/**
+ * Snapshot of the latencies recorded by a TicTacToeLatencyHistogram, e.g. 
+ * by a phase of the moves, in nanoseconds.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeLatencySnapshot {
+
+	/**
+	 * Reference to the count of every bucket.
+	 */
+	private final long [] counts;
+
+	/**
+	 * Reference to the latencies recorded.
+	 */
+	private final long totalCount;
+
+	/**
+	 * Reference to the sum of the latencies recorded.
+	 */
+	private final long totalValue;
+
+	/**
+	 * Reference to the biggest latency recorded.
+	 */
+	private final long maxValue;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param counts Count of every bucket, owned by the snapshot.
+	 * @param totalValue Sum of the latencies recorded.
+	 * @param maxValue Biggest latency recorded.
+	 */
+	TicTacToeLatencySnapshot(final long [] counts, final long totalValue,
+			final long maxValue) {
+
+		long totalCount = 0;
+
+		for (long count: counts) {
+
+			totalCount += count;
+
+		}
+
+		this.counts = counts;
+		this.totalCount = totalCount;
+		this.totalValue = totalValue;
+		this.maxValue = maxValue;
+
+	}
+
+	/**
+	 * Gets the latencies recorded.
+	 *
+	 * @return Latencies recorded.
+	 */
+	public long getTotalCount() {
+
+		return totalCount;
+
+	}
+
+	/**
+	 * Gets the biggest latency recorded.
+	 *
+	 * @return Latency in nanoseconds; 0 if nothing recorded.
+	 */
+	public long getMaxValue() {
+
+		return maxValue;
+
+	}
+
+	/**
+	 * Gets the mean of the latencies recorded.
+	 *
+	 * @return Latency in nanoseconds; 0 if nothing recorded.
+	 */
+	public double getMean() {
+
+		return (totalCount == 0) ? 0 : (double) totalValue / totalCount;
+
+	}
+
+	/**
+	 * Gets the latency of a percentile.
+	 *
+	 * @param percentile Percentile, from 0 to 100.
+	 * @return The biggest latency of the bucket of the percentile, within 3%
+	 *         of the latencies recorded in it; 0 if nothing recorded.
+	 * @throws IllegalArgumentException If the percentile is below 0 or above
+	 *                                  100.
+	 */
+	public long getPercentile(final double percentile) throws IllegalArgumentException {
+
+		if (!(percentile >= 0) || (percentile > 100)) {
+			throw new IllegalArgumentException(
+					"Invalid percentile, should be from 0 to 100");
+		}
+
+		if (totalCount == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+
+		long count = 0;
+
+		for (int bucket = 0; bucket < counts.length; bucket++) {
+
+			count += counts[bucket];
+
+			if (count >= rank) {
+				return Math.min(maxValue, TicTacToeLatencyHistogram.highestValueOf(bucket));
+			}
+
+		}
+
+		return maxValue;
+
+	}
+
+	/**
+	 * Gets the count of every bucket.
+	 *
+	 * @return The counts, owned by the snapshot.
+	 */
+	long [] getCounts() {
+
+		return counts;
+
+	}
+
+	/**
+	 * Gets the sum of the latencies recorded.
+	 *
+	 * @return Latency in nanoseconds.
+	 */
+	long getTotalValue() {
+
+		return totalValue;
+
+	}
+
+	@Override
+	public String toString() {
+
+		return "TicTacToeLatencySnapshot [totalCount=" + totalCount + ", mean="
+				+ Math.round(getMean()) + ", p50=" + getPercentile(50) + ", p99="
+				+ getPercentile(99) + ", p999=" + getPercentile(99.9)
+				+ ", maxValue=" + maxValue + "]";
+
+	}
+
+}
@@ -0,0 +1,117 @@
+package org.tictactoe.game;
+
+/**
+ * Primitive codes for the marks placed within a tic-tac-toe table.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeMark {
+
+	/**
+	 * Code of an empty box within tic-tac-toe table.
+	 */
+	public static final byte EMPTY = 0;
+
+	/**
+	 * Code of the "X" mark.
+	 */
+	public static final byte X = 1;
+
+	/**
+	 * Code of the "O" mark.
+	 */
+	public static final byte O = 2;
+
+	/**
+	 * Text used for an empty box within tic-tac-toe table.
+	 */
+	public static final String EMPTY_TEXT = " ";
+
+	/**
+	 * Text used for the "X" mark.
+	 */
+	public static final String X_TEXT = "X";
+
+	/**
+	 * Text used for the "O" mark.
+	 */
+	public static final String O_TEXT = "O";
+
+	/**
+	 * Not instantiable.
+	 */
+	private TicTacToeMark() {
+
+	}
+
+	/**
+	 * Gets the code of the given mark text.
+	 *
+	 * @param mark Mark text, either "X" or "O".
+	 * @return The mark code; TicTacToeMark.EMPTY if the mark is not supported.
+	 */
+	public static byte fromText(final String mark) {
+
+		if (X_TEXT.equals(mark)) {
+
+			return X;
+
+		} else if (O_TEXT.equals(mark)) {
+
+			return O;
+
+		}
+
+		return EMPTY;
+
+	}
+
+	/**
+	 * Gets the text of the given mark code.
+	 *
+	 * @param mark Mark code.
+	 * @return The mark text; the empty box text if the code is not a mark.
+	 */
+	public static String toText(final byte mark) {
+
+		if (mark == X) {
+
+			return X_TEXT;
+
+		} else if (mark == O) {
+
+			return O_TEXT;
+
+		}
+
+		return EMPTY_TEXT;
+
+	}
+
+	/**
+	 * Verifies if the given code is a supported mark.
+	 *
+	 * @param mark Mark code.
+	 * @return True if it is either TicTacToeMark.X or TicTacToeMark.O;
+	 *         False otherwise.
+	 */
+	public static boolean isSupported(final byte mark) {
+
+		return (mark == X) || (mark == O);
+
+	}
+
+	/**
+	 * Gets the mark expected after the given one.
+	 *
+	 * @param mark Mark code, either TicTacToeMark.X or TicTacToeMark.O.
+	 * @return The opponent mark code.
+	 */
+	public static byte opponentOf(final byte mark) {
+
+		return (mark == X) ? O : X;
+
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.tictactoe.game;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the moves of one or more games: a counter of every move result,
+ * the not valid moves by reason included, and the latencies of the moves and
+ * of their winner checks.
+ * <p>
+ * Thread safe and lock-free, so a single instance can be shared by every game
+ * of a process. Games without metrics, the default, measure nothing.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeMetrics {
+
+	/**
+	 * Reference to the move results, in declaration order.
+	 */
+	private static final TicTacToeMoveResult [] MOVE_RESULTS = TicTacToeMoveResult.values();
+
+	/**
+	 * Reference to the counter of every move result, by ordinal.
+	 */
+	private final LongAdder [] moveResultCounters = new LongAdder[MOVE_RESULTS.length];
+
+	/**
+	 * Reference to the latencies of the moves.
+	 */
+	private final TicTacToeLatencyHistogram moveLatencies = new TicTacToeLatencyHistogram();
+
+	/**
+	 * Reference to the latencies of the winner checks.
+	 */
+	private final TicTacToeLatencyHistogram winCheckLatencies = new TicTacToeLatencyHistogram();
+
+	/**
+	 * The constructor.
+	 */
+	public TicTacToeMetrics() {
+
+		for (int ordinal = 0; ordinal < moveResultCounters.length; ordinal++) {
+
+			moveResultCounters[ordinal] = new LongAdder();
+
+		}
+
+	}
+
+	/**
+	 * Records a move.
+	 *
+	 * @param moveResult Result of the move.
+	 * @param nanos Latency of the move.
+	 */
+	void recordMove(final TicTacToeMoveResult moveResult, final long nanos) {
+
+		moveResultCounters[moveResult.ordinal()].increment();
+
+		moveLatencies.record(nanos);
+
+	}
+
+	/**
+	 * Records a winner check of a move.
+	 *
+	 * @param nanos Latency of the check.
+	 */
+	void recordWinCheck(final long nanos) {
+
+		winCheckLatencies.record(nanos);
+
+	}
+
+	/**
+	 * Takes a snapshot of the metrics recorded so far. Moves recorded while
+	 * taking it may be left out of some of its values.
+	 *
+	 * @return The snapshot.
+	 */
+	public TicTacToeMetricsSnapshot snapshot() {
+
+		final long [] moveResultCounts = new long[MOVE_RESULTS.length];
+
+		for (int ordinal = 0; ordinal < moveResultCounts.length; ordinal++) {
+
+			moveResultCounts[ordinal] = moveResultCounters[ordinal].sum();
+
+		}
+
+		return new TicTacToeMetricsSnapshot(moveResultCounts, moveLatencies.snapshot(),
+				winCheckLatencies.snapshot());
+
+	}
+
+}
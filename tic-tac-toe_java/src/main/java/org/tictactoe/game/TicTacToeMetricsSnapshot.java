@@ -0,0 +1,190 @@
+package org.tictactoe.game;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the metrics of the moves, see TicTacToeMetrics.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeMetricsSnapshot {
+
+	/**
+	 * Percentiles exported of every latency.
+	 */
+	private static final double [] EXPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+	/**
+	 * Reference to the count of every move result, by ordinal.
+	 */
+	private final long [] moveResultCounts;
+
+	/**
+	 * Reference to the latencies of the moves.
+	 */
+	private final TicTacToeLatencySnapshot moveLatencies;
+
+	/**
+	 * Reference to the latencies of the winner checks.
+	 */
+	private final TicTacToeLatencySnapshot winCheckLatencies;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param moveResultCounts Count of every move result, by ordinal.
+	 * @param moveLatencies Latencies of the moves.
+	 * @param winCheckLatencies Latencies of the winner checks.
+	 */
+	TicTacToeMetricsSnapshot(final long [] moveResultCounts,
+			final TicTacToeLatencySnapshot moveLatencies,
+			final TicTacToeLatencySnapshot winCheckLatencies) {
+
+		this.moveResultCounts = moveResultCounts;
+		this.moveLatencies = moveLatencies;
+		this.winCheckLatencies = winCheckLatencies;
+
+	}
+
+	/**
+	 * Gets the moves with a result.
+	 *
+	 * @param moveResult Result of the moves, e.g.
+	 *                   TicTacToeMoveResult.POSITION_ALREADY_TAKEN for the
+	 *                   moves rejected because the box is taken.
+	 * @return Moves counted.
+	 */
+	public long getMoveCount(final TicTacToeMoveResult moveResult) {
+
+		return moveResultCounts[moveResult.ordinal()];
+
+	}
+
+	/**
+	 * Gets the moves of every result.
+	 *
+	 * @return Moves counted.
+	 */
+	public long getMoveCount() {
+
+		long moveCount = 0;
+
+		for (long count: moveResultCounts) {
+
+			moveCount += count;
+
+		}
+
+		return moveCount;
+
+	}
+
+	/**
+	 * Gets the not valid moves, of every reason.
+	 *
+	 * @return Moves counted.
+	 */
+	public long getNotValidMoveCount() {
+
+		long notValidMoveCount = 0;
+
+		for (TicTacToeMoveResult moveResult: TicTacToeMoveResult.values()) {
+
+			if (!moveResult.isValidMove()) {
+				notValidMoveCount += moveResultCounts[moveResult.ordinal()];
+			}
+
+		}
+
+		return notValidMoveCount;
+
+	}
+
+	/**
+	 * Gets the latencies of the moves, the not valid ones included.
+	 *
+	 * @return The latencies.
+	 */
+	public TicTacToeLatencySnapshot getMoveLatencies() {
+
+		return moveLatencies;
+
+	}
+
+	/**
+	 * Gets the latencies of the winner checks, one per move placed.
+	 *
+	 * @return The latencies.
+	 */
+	public TicTacToeLatencySnapshot getWinCheckLatencies() {
+
+		return winCheckLatencies;
+
+	}
+
+	/**
+	 * Exports the snapshot as flat named values to scrape, in a stable order:
+	 * "moves.&lt;result&gt;" for the count of every move result, and
+	 * "move.latency.&lt;value&gt;" and "winCheck.latency.&lt;value&gt;" for
+	 * the count, mean, max and percentiles (e.g. "p99.9") of the latencies in
+	 * nanoseconds.
+	 *
+	 * @return The values by name.
+	 */
+	public Map<String, Number> toMap() {
+
+		final Map<String, Number> values = new LinkedHashMap<String, Number>();
+
+		for (TicTacToeMoveResult moveResult: TicTacToeMoveResult.values()) {
+
+			values.put("moves." + moveResult.name(), moveResultCounts[moveResult.ordinal()]);
+
+		}
+
+		putLatencies(values, "move.latency.", moveLatencies);
+
+		putLatencies(values, "winCheck.latency.", winCheckLatencies);
+
+		return values;
+
+	}
+
+	/**
+	 * Exports the values of some latencies.
+	 *
+	 * @param values Values by name to fill.
+	 * @param prefix Prefix of the names.
+	 * @param latencies The latencies.
+	 */
+	private static void putLatencies(final Map<String, Number> values, final String prefix,
+			final TicTacToeLatencySnapshot latencies) {
+
+		values.put(prefix + "count", latencies.getTotalCount());
+
+		values.put(prefix + "mean", latencies.getMean());
+
+		values.put(prefix + "max", latencies.getMaxValue());
+
+		for (double percentile: EXPORTED_PERCENTILES) {
+
+			final String name = (percentile == Math.rint(percentile))
+					? String.valueOf((long) percentile) : String.valueOf(percentile);
+
+			values.put(prefix + "p" + name, latencies.getPercentile(percentile));
+
+		}
+
+	}
+
+	@Override
+	public String toString() {
+
+		return "TicTacToeMetricsSnapshot [moveCount=" + getMoveCount()
+				+ ", notValidMoveCount=" + getNotValidMoveCount() + ", moveLatencies="
+				+ moveLatencies + ", winCheckLatencies=" + winCheckLatencies + "]";
+
+	}
+
+}
@@ -0,0 +1,90 @@
+package org.tictactoe.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of a move, valid or not, lasting the threshold or 
+ * more.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+@Name("org.tictactoe.game.Move")
+@Label("Tic-Tac-Toe Move")
+@Category("Tic-Tac-Toe")
+@Description("Move tried on a game, placed or rejected")
+@Threshold("1 ms")
+@StackTrace(false)
+final class TicTacToeMoveEvent extends jdk.jfr.Event {
+
+	/**
+	 * Reference to the table size of the game.
+	 */
+	@Label("Table Size")
+	int tableSize;
+
+	/**
+	 * Reference to the X coordinate of the move.
+	 */
+	@Label("X Axis Move")
+	int xAxisMove;
+
+	/**
+	 * Reference to the Y coordinate of the move.
+	 */
+	@Label("Y Axis Move")
+	int yAxisMove;
+
+	/**
+	 * Reference to the mark of the move, empty if not valid.
+	 */
+	@Label("Mark")
+	String mark;
+
+	/**
+	 * Reference to know if the move was placed.
+	 */
+	@Label("Accepted")
+	boolean accepted;
+
+	/**
+	 * Reference to the result of the move, the reason of the rejected ones.
+	 */
+	@Label("Result")
+	String result;
+
+	/**
+	 * Ends the event, committing it if recorded and over the threshold.
+	 * 
+	 * @param ticTacToeGame Game of the move.
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark of the move.
+	 * @param moveResult Result of the move.
+	 */
+	void finish(final TicTacToeGame ticTacToeGame, final int xAxisMove, final int yAxisMove,
+			final byte mark, final TicTacToeMoveResult moveResult) {
+		
+		end();
+		
+		if (shouldCommit()) {
+			
+			this.tableSize = ticTacToeGame.getTableSize();
+			this.xAxisMove = xAxisMove;
+			this.yAxisMove = yAxisMove;
+			this.mark = TicTacToeMark.toText(mark);
+			this.accepted = moveResult.isValidMove();
+			this.result = moveResult.name();
+			
+			commit();
+			
+		}
+		
+	}
+
+}
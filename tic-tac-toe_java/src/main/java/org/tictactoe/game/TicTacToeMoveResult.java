@@ -0,0 +1,60 @@
+package org.tictactoe.game;
+
+/**
+ * Result of a move attempt, either the game status after a valid move or the
+ * reason why the move is not valid.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+public enum TicTacToeMoveResult {
+
+	CONTINUE_NEXT_MOVE(TicTacToeGameStatus.CONTINUE_NEXT_MOVE), 
+	WINNER(TicTacToeGameStatus.WINNER), 
+	DRAW(TicTacToeGameStatus.DRAW), 
+	GAME_ALREADY_FINISHED(TicTacToeGameStatus.GAME_ALREADY_FINISHED),
+	MOVE_OUT_OF_RANGE(null), 
+	POSITION_ALREADY_TAKEN(null), 
+	NOT_VALID_MARK(null), 
+	UNEXPECTED_MARK(null);
+
+	/**
+	 * Reference to the game status of a valid move.
+	 */
+	private final TicTacToeGameStatus gameStatus;
+
+	/**
+	 * The constructor.
+	 * 
+	 * @param gameStatus Game status of a valid move; null for not valid moves.
+	 */
+	private TicTacToeMoveResult(final TicTacToeGameStatus gameStatus) {
+
+		this.gameStatus = gameStatus;
+
+	}
+
+	/**
+	 * Verifies if the move was accepted by the game.
+	 * 
+	 * @return True if the result holds a game status; False if the move is 
+	 *         not valid.
+	 */
+	public boolean isValidMove() {
+
+		return gameStatus != null;
+
+	}
+
+	/**
+	 * Gets the game status of a valid move.
+	 * 
+	 * @return The game status; null if the move is not valid.
+	 */
+	public TicTacToeGameStatus getGameStatus() {
+
+		return gameStatus;
+
+	}
+
+}
@@ -0,0 +1,234 @@
+package org.tictactoe.game;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Symmetries of the tic-tac-toe tables: the 4 rotations and 4 reflections
+ * mapping a square table onto itself, so positions equal but for their
+ * orientation share a single canonical form.
+ * <p>
+ * Transforms are table driven: the box every box is moved to, by transform,
+ * is computed once per table size. The tables of sizes up to 64x64 are
+ * cached; bigger tables compute them on every canonicalization.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeSymmetry {
+
+	/**
+	 * Number of transforms; transform 0 is the identity.
+	 */
+	public static final int TRANSFORMS = 8;
+
+	/**
+	 * Biggest table size whose transforms are cached.
+	 */
+	private static final int MAX_CACHED_TABLE_SIZE = 64;
+
+	/**
+	 * Inverse of every transform: the rotations by 90 and 270 degrees undo each
+	 * other, every other transform undoes itself.
+	 */
+	private static final int [] INVERSE_TRANSFORMS = {0, 3, 2, 1, 4, 5, 6, 7};
+
+	/**
+	 * Reference to the cached transforms by table size.
+	 */
+	private static final AtomicReferenceArray<int []> CACHED_TRANSFORMS =
+			new AtomicReferenceArray<int []>(MAX_CACHED_TABLE_SIZE + 1);
+
+	/**
+	 * Not instantiable.
+	 */
+	private TicTacToeSymmetry() {
+
+	}
+
+	/**
+	 * Gets the canonical form of the position of a game: the smallest of its 8
+	 * transforms, comparing the marks box by box.
+	 *
+	 * @param ticTacToeGame Game to canonicalize; not modified.
+	 * @return The canonical position, with the transform from the game to it.
+	 */
+	public static TicTacToeCanonicalPosition canonicalize(final TicTacToeGame ticTacToeGame) {
+
+		final int tableSize = ticTacToeGame.getTableSize();
+
+		final int boxes = tableSize * tableSize;
+
+		final byte [] marks = new byte[boxes];
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+				marks[xAxisMove * tableSize + yAxisMove] =
+						ticTacToeGame.getMark(xAxisMove, yAxisMove);
+
+			}
+
+		}
+
+		final int [] transforms = transformsOf(tableSize);
+
+		// The box of the game moved to every box of a transform is found by its
+		// inverse, so the transformed marks are read without copying them.
+		int canonicalTransform = 0;
+
+		for (int transform = 1; transform < TRANSFORMS; transform++) {
+
+			final int offset = INVERSE_TRANSFORMS[transform] * boxes;
+
+			final int canonicalOffset = INVERSE_TRANSFORMS[canonicalTransform] * boxes;
+
+			for (int box = 0; box < boxes; box++) {
+
+				final int mark = marks[transforms[offset + box]];
+
+				final int canonicalMark = marks[transforms[canonicalOffset + box]];
+
+				if (mark != canonicalMark) {
+
+					if (mark < canonicalMark) {
+						canonicalTransform = transform;
+					}
+
+					break;
+
+				}
+
+			}
+
+		}
+
+		final int canonicalOffset = INVERSE_TRANSFORMS[canonicalTransform] * boxes;
+
+		// Two bits per box, 32 boxes per long.
+		final long [] cells = new long[(boxes + 31) >>> 5];
+
+		for (int box = 0; box < boxes; box++) {
+
+			cells[box >>> 5] |= ((long) marks[transforms[canonicalOffset + box]])
+					<< ((box & 31) << 1);
+
+		}
+
+		return new TicTacToeCanonicalPosition(tableSize, ticTacToeGame.getWinLength(),
+				ticTacToeGame.getPreviousMarkUsed(), cells, canonicalTransform);
+
+	}
+
+	/**
+	 * Moves a box by a transform.
+	 *
+	 * @param tableSize Table size.
+	 * @param transform Transform, from 0 to TRANSFORMS - 1.
+	 * @param box Box number, x * tableSize + y.
+	 * @return The box number the box is moved to.
+	 * @throws IllegalArgumentException If the transform or box is out of range.
+	 */
+	public static int transformBox(final int tableSize, final int transform, final int box)
+			throws IllegalArgumentException {
+
+		if ((transform < 0) || (transform >= TRANSFORMS)) {
+			throw new IllegalArgumentException("Invalid transform, should be 0 to 7");
+		}
+
+		if ((box < 0) || (box >= tableSize * tableSize)) {
+			throw new IllegalArgumentException("Invalid box, out of range of the table");
+		}
+
+		return transformsOf(tableSize)[transform * tableSize * tableSize + box];
+
+	}
+
+	/**
+	 * Gets the transform undoing another one.
+	 *
+	 * @param transform Transform, from 0 to TRANSFORMS - 1.
+	 * @return The inverse transform.
+	 * @throws IllegalArgumentException If the transform is out of range.
+	 */
+	public static int inverseOf(final int transform) throws IllegalArgumentException {
+
+		if ((transform < 0) || (transform >= TRANSFORMS)) {
+			throw new IllegalArgumentException("Invalid transform, should be 0 to 7");
+		}
+
+		return INVERSE_TRANSFORMS[transform];
+
+	}
+
+	/**
+	 * Gets the transforms of a table size, caching them if small enough.
+	 *
+	 * @param tableSize Table size.
+	 * @return The box every box is moved to, TRANSFORMS tables one after the
+	 *         other.
+	 */
+	private static int [] transformsOf(final int tableSize) {
+
+		if (tableSize > MAX_CACHED_TABLE_SIZE) {
+			return computeTransforms(tableSize);
+		}
+
+		int [] transforms = CACHED_TRANSFORMS.get(tableSize);
+
+		if (transforms == null) {
+
+			transforms = computeTransforms(tableSize);
+
+			// Concurrent callers compute the same tables, any of them is kept.
+			CACHED_TRANSFORMS.compareAndSet(tableSize, null, transforms);
+
+		}
+
+		return transforms;
+
+	}
+
+	/**
+	 * Computes the transforms of a table size.
+	 *
+	 * @param tableSize Table size.
+	 * @return The box every box is moved to, TRANSFORMS tables one after the
+	 *         other.
+	 */
+	private static int [] computeTransforms(final int tableSize) {
+
+		final int boxes = tableSize * tableSize;
+
+		final int last = tableSize - 1;
+
+		final int [] transforms = new int[TRANSFORMS * boxes];
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+				final int box = xAxisMove * tableSize + yAxisMove;
+
+				// Identity, then rotations by 90, 180 and 270 degrees clockwise.
+				transforms[box] = box;
+				transforms[boxes + box] = yAxisMove * tableSize + (last - xAxisMove);
+				transforms[2 * boxes + box] = (last - xAxisMove) * tableSize + (last - yAxisMove);
+				transforms[3 * boxes + box] = (last - yAxisMove) * tableSize + xAxisMove;
+
+				// Reflections by the vertical axis, the diagonal, the horizontal
+				// axis and the anti-diagonal.
+				transforms[4 * boxes + box] = xAxisMove * tableSize + (last - yAxisMove);
+				transforms[5 * boxes + box] = yAxisMove * tableSize + xAxisMove;
+				transforms[6 * boxes + box] = (last - xAxisMove) * tableSize + yAxisMove;
+				transforms[7 * boxes + box] = (last - yAxisMove) * tableSize + (last - xAxisMove);
+
+			}
+
+		}
+
+		return transforms;
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.tictactoe.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of the winner check of a move placed, lasting the
+ * threshold or more.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+@Name("org.tictactoe.game.WinCheck")
+@Label("Tic-Tac-Toe Win Check")
+@Category("Tic-Tac-Toe")
+@Description("Check of the line, column and diagonals of a move placed")
+@Threshold("1 ms")
+@StackTrace(false)
+final class TicTacToeWinCheckEvent extends jdk.jfr.Event {
+
+	/**
+	 * Reference to the table size of the game.
+	 */
+	@Label("Table Size")
+	int tableSize;
+
+	/**
+	 * Reference to the marks in a row needed to win.
+	 */
+	@Label("Win Length")
+	int winLength;
+
+	/**
+	 * Reference to the win detection mode of the game.
+	 */
+	@Label("Win Detection")
+	String winDetection;
+
+	/**
+	 * Reference to know if the move wins.
+	 */
+	@Label("Winner")
+	boolean winner;
+
+	/**
+	 * Ends the event, committing it if recorded and over the threshold.
+	 * 
+	 * @param ticTacToeGame Game of the move.
+	 * @param winDetection Win detection mode of the game.
+	 * @param winner True if the move wins.
+	 */
+	void finish(final TicTacToeGame ticTacToeGame, 
+			final TicTacToeWinDetection winDetection, final boolean winner) {
+		
+		end();
+		
+		if (shouldCommit()) {
+			
+			this.tableSize = ticTacToeGame.getTableSize();
+			this.winLength = ticTacToeGame.getWinLength();
+			this.winDetection = winDetection.name();
+			this.winner = winner;
+			
+			commit();
+			
+		}
+		
+	}
+
+}
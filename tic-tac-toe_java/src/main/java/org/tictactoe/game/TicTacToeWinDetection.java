@@ -0,0 +1,97 @@
+package org.tictactoe.game;
+
+/**
+ * Win detection modes supported by the game.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+public enum TicTacToeWinDetection {
+
+	/**
+	 * Scans the line, column and diagonals of every move in the table, O(n)
+	 * per move but without extra state.
+	 */
+	LINE_SCAN {
+
+		@Override
+		public TicTacToeWinDetector createDetector(final TicTacToeBoard board) {
+
+			return new LineScanWinDetector(board);
+
+		}
+
+	},
+
+	/**
+	 * Keeps running counts per line, column and diagonal, O(1) per move at
+	 * the cost of two ints per line and column.
+	 */
+	LINE_COUNTERS {
+
+		@Override
+		public TicTacToeWinDetector createDetector(final TicTacToeBoard board) {
+
+			return new LineCounterWinDetector(board.getTableSize());
+
+		}
+
+	},
+
+	/**
+	 * Scans the 4 directions of every move, up to the win length away, O(k)
+	 * per move whatever the table size; the only mode for k-in-a-row games
+	 * whose win length is below the table size.
+	 */
+	LOCAL_WINDOW {
+
+		@Override
+		public TicTacToeWinDetector createDetector(final TicTacToeBoard board) {
+
+			return new LocalWindowWinDetector(board, board.getTableSize());
+
+		}
+
+		@Override
+		public TicTacToeWinDetector createDetector(final TicTacToeBoard board,
+				final int winLength) throws IllegalArgumentException {
+
+			return new LocalWindowWinDetector(board, winLength);
+
+		}
+
+	};
+
+	/**
+	 * Creates a detector of this mode for the given table, a win being a
+	 * whole line, column or diagonal.
+	 * 
+	 * @param board Table where the moves are placed.
+	 * @return The detector.
+	 */
+	public abstract TicTacToeWinDetector createDetector(TicTacToeBoard board);
+
+	/**
+	 * Creates a detector of this mode for the given table, a win being the
+	 * given marks in a row.
+	 * 
+	 * @param board Table where the moves are placed.
+	 * @param winLength Marks in a row needed to win.
+	 * @return The detector.
+	 * @throws IllegalArgumentException If the mode only detects whole lines
+	 *                                  and the win length is not the table 
+	 *                                  size.
+	 */
+	public TicTacToeWinDetector createDetector(final TicTacToeBoard board, 
+			final int winLength) throws IllegalArgumentException {
+
+		if (winLength != board.getTableSize()) {
+			throw new IllegalArgumentException("Invalid win length for " + name() 
+					+ ", should be the table size");
+		}
+
+		return createDetector(board);
+
+	}
+
+}
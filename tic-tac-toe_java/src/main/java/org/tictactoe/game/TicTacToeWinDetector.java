@@ -0,0 +1,44 @@
+package org.tictactoe.game;
+
+/**
+ * Strategy used by the game to verify if a move is the winner one.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+public interface TicTacToeWinDetector {
+
+	/**
+	 * Forgets every move placed, for a new game within the same table.
+	 */
+	void clear();
+
+	/**
+	 * Registers a move just placed in the table.
+	 * 
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark used for the move.
+	 */
+	void placeMove(int xAxisMove, int yAxisMove, byte mark);
+
+	/**
+	 * Forgets a move just taken back from the table, the last one placed.
+	 * 
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark used for the move.
+	 */
+	void removeMove(int xAxisMove, int yAxisMove, byte mark);
+
+	/**
+	 * Verifies if the move recent placed is the winner one.
+	 * 
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark used for the move.
+	 * @return True if it is the winner; False otherwise.
+	 */
+	boolean isWinnerMove(int xAxisMove, int yAxisMove, byte mark);
+
+}
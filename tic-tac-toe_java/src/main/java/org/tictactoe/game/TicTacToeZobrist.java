@@ -0,0 +1,167 @@
+package org.tictactoe.game;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Zobrist keys of the tic-tac-toe positions: a random 64 bits key per box and
+ * mark of every table size, so the hash of a position is the XOR of the keys
+ * of its marks and a move updates it with a single XOR.
+ * <p>
+ * Keys are derived from the table size, box and mark only, so the hashes of
+ * the same position agree between JVMs and nodes. The keys of tables up to
+ * 64x64 are cached; bigger tables compute them on every move.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeZobrist {
+
+	/**
+	 * Biggest table size whose keys are cached.
+	 */
+	private static final int MAX_CACHED_TABLE_SIZE = 64;
+
+	/**
+	 * Increment of the splitmix64 sequence of the keys.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Reference to the cached keys by table size, two per box.
+	 */
+	private static final AtomicReferenceArray<long []> CACHED_KEYS =
+			new AtomicReferenceArray<long []>(MAX_CACHED_TABLE_SIZE + 1);
+
+	/**
+	 * Not instantiable.
+	 */
+	private TicTacToeZobrist() {
+
+	}
+
+	/**
+	 * Gets the key of a mark placed in a box.
+	 *
+	 * @param tableSize Table size.
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @param mark Either TicTacToeMark.X or TicTacToeMark.O.
+	 * @return The key.
+	 */
+	public static long keyOf(final int tableSize, final int xAxisMove, final int yAxisMove,
+			final byte mark) {
+
+		final long index = keyIndex(tableSize, xAxisMove, yAxisMove, mark);
+
+		if (tableSize <= MAX_CACHED_TABLE_SIZE) {
+			return cachedKeysOf(tableSize)[(int) index];
+		}
+
+		return computeKey(tableSize, index);
+
+	}
+
+	/**
+	 * Gets the key of the mark of the last move, folded into the hash of a
+	 * position so the player to move is part of it.
+	 *
+	 * @param tableSize Table size.
+	 * @param previousMark Mark of the last move; TicTacToeMark.EMPTY if none.
+	 * @return The key; zero for TicTacToeMark.EMPTY.
+	 */
+	public static long previousMarkKeyOf(final int tableSize, final byte previousMark) {
+
+		if (previousMark == TicTacToeMark.EMPTY) {
+			return 0;
+		}
+
+		// Indexes after the ones of the boxes.
+		return computeKey(tableSize, 2 * (long) tableSize * tableSize + previousMark);
+
+	}
+
+	/**
+	 * Gets the keys of a table size, two per box, caching them.
+	 *
+	 * @param tableSize Table size, up to MAX_CACHED_TABLE_SIZE.
+	 * @return The keys.
+	 */
+	private static long [] cachedKeysOf(final int tableSize) {
+
+		long [] keys = CACHED_KEYS.get(tableSize);
+
+		if (keys == null) {
+
+			keys = new long[2 * tableSize * tableSize];
+
+			for (int index = 0; index < keys.length; index++) {
+
+				keys[index] = computeKey(tableSize, index);
+
+			}
+
+			// Concurrent callers compute the same keys, any of them is kept.
+			CACHED_KEYS.compareAndSet(tableSize, null, keys);
+
+		}
+
+		return keys;
+
+	}
+
+	/**
+	 * Gets the index of the key of a mark placed in a box.
+	 *
+	 * @param tableSize Table size.
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @param mark Either TicTacToeMark.X or TicTacToeMark.O.
+	 * @return The index.
+	 */
+	private static long keyIndex(final int tableSize, final int xAxisMove,
+			final int yAxisMove, final byte mark) {
+
+		return (((long) xAxisMove * tableSize + yAxisMove) << 1) + (mark - 1);
+
+	}
+
+	/**
+	 * Computes a key, the element of a splitmix64 sequence seeded by the table
+	 * size.
+	 *
+	 * @param tableSize Table size.
+	 * @param index Index of the key.
+	 * @return The key.
+	 */
+	private static long computeKey(final int tableSize, final long index) {
+
+		long key = mix64(tableSize) + (index + 1) * GOLDEN_GAMMA;
+
+		key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+		key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+
+		return key ^ (key >>> 31);
+
+	}
+
+	/**
+	 * Mixes the bits of a value.
+	 *
+	 * @param value Value to mix.
+	 * @return The mixed value.
+	 */
+	private static long mix64(final long value) {
+
+		long mixed = value;
+
+		mixed ^= mixed >>> 33;
+		mixed *= 0xff51afd7ed558ccdL;
+		mixed ^= mixed >>> 33;
+		mixed *= 0xc4ceb9fe1a85ec53L;
+		mixed ^= mixed >>> 33;
+
+		return mixed;
+
+	}
+
+}
@@ -0,0 +1,347 @@
+package org.tictactoe.game.book;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.solver.TicTacToeOutcome;
+
+/**
+ * Memory-mapped book of solved opening positions, written by
+ * OpeningBookGenerator.
+ * <p>
+ * Opening the book only maps the file; lookups binary search the entries in
+ * the mapping, sorted by the key of their position, and never allocate. An
+ * entry is found by {@link #find(TicTacToeGame)} and read by its getters.
+ * <p>
+ * File layout, little endian: a 16 bytes header, magic (int), version (int)
+ * and entries (long), then the entries of 16 bytes: key (long), best box
+ * (int), mark (byte), outcome (byte) and plies to the end (short). The key of
+ * a position holds its marks, two bits per box, the mark of the last move and
+ * the table size, so tables up to 4x4 are supported.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class OpeningBook {
+
+	/**
+	 * Biggest table size of the book positions.
+	 */
+	public static final int MAX_TABLE_SIZE = 4;
+
+	/**
+	 * Value of find when the position is not in the book.
+	 */
+	public static final int NOT_FOUND = -1;
+
+	/**
+	 * Number of bytes of the header.
+	 */
+	static final int HEADER_BYTES = 16;
+
+	/**
+	 * Number of bytes of an entry.
+	 */
+	static final int ENTRY_BYTES = 16;
+
+	/**
+	 * Magic number of the header, "TTOB".
+	 */
+	static final int MAGIC = 0x54544F42;
+
+	/**
+	 * Version of the file layout.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * Offset of the best box within an entry.
+	 */
+	static final int BOX_OFFSET = 8;
+
+	/**
+	 * Offset of the mark within an entry.
+	 */
+	static final int MARK_OFFSET = 12;
+
+	/**
+	 * Offset of the outcome within an entry.
+	 */
+	static final int OUTCOME_OFFSET = 13;
+
+	/**
+	 * Offset of the plies to the end within an entry.
+	 */
+	static final int PLIES_OFFSET = 14;
+
+	/**
+	 * Outcomes by ordinal.
+	 */
+	private static final TicTacToeOutcome [] OUTCOMES = TicTacToeOutcome.values();
+
+	/**
+	 * Reference to the mapping of the whole file.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Reference to the number of entries.
+	 */
+	private final int entries;
+
+	/**
+	 * The constructor, mapping a book file.
+	 *
+	 * @param file Book file.
+	 * @throws IOException If the file can not be mapped or is not a book.
+	 */
+	public OpeningBook(final File file) throws IOException {
+
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+
+		try {
+
+			buffer = randomAccessFile.getChannel().map(
+					FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+
+		} finally {
+
+			randomAccessFile.close();
+
+		}
+
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		if ((buffer.capacity() < HEADER_BYTES) || (buffer.getInt(0) != MAGIC)) {
+			throw new IOException("Not an opening book: " + file);
+		}
+
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("Invalid opening book version, should be " + VERSION
+					+ ": " + file);
+		}
+
+		final long entryCount = buffer.getLong(8);
+
+		if (entryCount * ENTRY_BYTES != buffer.capacity() - HEADER_BYTES) {
+			throw new IOException("Invalid opening book, truncated entries: " + file);
+		}
+
+		entries = (int) entryCount;
+
+	}
+
+	/**
+	 * Finds the entry of the position of a game.
+	 *
+	 * @param ticTacToeGame Game whose position to look up; not modified.
+	 * @return The entry number; NOT_FOUND if not in the book.
+	 */
+	public int find(final TicTacToeGame ticTacToeGame) {
+
+		final int tableSize = ticTacToeGame.getTableSize();
+
+		// Books hold games won by whole lines only.
+		if ((tableSize > MAX_TABLE_SIZE) || (ticTacToeGame.getWinLength() != tableSize)) {
+			return NOT_FOUND;
+		}
+
+		final long key = keyOf(ticTacToeGame);
+
+		int low = 0;
+		int high = entries - 1;
+
+		while (low <= high) {
+
+			final int middle = (low + high) >>> 1;
+
+			final long middleKey = getKey(middle);
+
+			if (middleKey < key) {
+
+				low = middle + 1;
+
+			} else if (middleKey > key) {
+
+				high = middle - 1;
+
+			} else {
+
+				return middle;
+
+			}
+
+		}
+
+		return NOT_FOUND;
+
+	}
+
+	/**
+	 * Gets the X coordinate of the best move of an entry.
+	 *
+	 * @param entry Entry number, found by {@link #find(TicTacToeGame)}.
+	 * @return X coordinate.
+	 */
+	public int getXAxisMove(final int entry) {
+
+		return getBox(entry) >>> 8;
+
+	}
+
+	/**
+	 * Gets the Y coordinate of the best move of an entry.
+	 *
+	 * @param entry Entry number, found by {@link #find(TicTacToeGame)}.
+	 * @return Y coordinate.
+	 */
+	public int getYAxisMove(final int entry) {
+
+		return getBox(entry) & 0xFF;
+
+	}
+
+	/**
+	 * Gets the mark of the best move of an entry.
+	 *
+	 * @param entry Entry number, found by {@link #find(TicTacToeGame)}.
+	 * @return Either TicTacToeMark.X or TicTacToeMark.O.
+	 */
+	public byte getMark(final int entry) {
+
+		return buffer.get(positionOf(entry) + MARK_OFFSET);
+
+	}
+
+	/**
+	 * Gets the outcome of an entry for the player to move.
+	 *
+	 * @param entry Entry number, found by {@link #find(TicTacToeGame)}.
+	 * @return The outcome.
+	 */
+	public TicTacToeOutcome getOutcome(final int entry) {
+
+		return OUTCOMES[buffer.get(positionOf(entry) + OUTCOME_OFFSET)];
+
+	}
+
+	/**
+	 * Gets the plies to the end of an entry with the best play of both
+	 * players.
+	 *
+	 * @param entry Entry number, found by {@link #find(TicTacToeGame)}.
+	 * @return Plies to the end.
+	 */
+	public int getPliesToEnd(final int entry) {
+
+		return buffer.getShort(positionOf(entry) + PLIES_OFFSET);
+
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return Entries.
+	 */
+	public int size() {
+
+		return entries;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return "OpeningBook [entries=" + entries + "]";
+
+	}
+
+	/**
+	 * Gets the key of the position of a game: its marks, two bits per box,
+	 * then the mark of the last move and the table size.
+	 *
+	 * @param ticTacToeGame Game of MAX_TABLE_SIZE or below.
+	 * @return The key.
+	 */
+	static long keyOf(final TicTacToeGame ticTacToeGame) {
+
+		final int tableSize = ticTacToeGame.getTableSize();
+
+		long key = 0;
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+				final int box = xAxisMove * tableSize + yAxisMove;
+
+				key |= ((long) ticTacToeGame.getMark(xAxisMove, yAxisMove)) << (box << 1);
+
+			}
+
+		}
+
+		return key | ((long) ticTacToeGame.getPreviousMarkUsed() << 32)
+				| ((long) tableSize << 34);
+
+	}
+
+	/**
+	 * Packs the best move of an entry, X coordinate in the high byte.
+	 *
+	 * @param xAxisMove X coordinate.
+	 * @param yAxisMove Y coordinate.
+	 * @return The packed move.
+	 */
+	static int packBox(final int xAxisMove, final int yAxisMove) {
+
+		return (xAxisMove << 8) | yAxisMove;
+
+	}
+
+	/**
+	 * Gets the key of an entry.
+	 *
+	 * @param entry Entry number.
+	 * @return The key.
+	 */
+	private long getKey(final int entry) {
+
+		return buffer.getLong(positionOf(entry));
+
+	}
+
+	/**
+	 * Gets the packed best move of an entry.
+	 *
+	 * @param entry Entry number.
+	 * @return The packed move.
+	 */
+	private int getBox(final int entry) {
+
+		return buffer.getInt(positionOf(entry) + BOX_OFFSET);
+
+	}
+
+	/**
+	 * Gets the position of an entry in the file.
+	 *
+	 * @param entry Entry number.
+	 * @return Position of its first byte.
+	 */
+	private static int positionOf(final int entry) {
+
+		return HEADER_BYTES + entry * ENTRY_BYTES;
+
+	}
+
+}
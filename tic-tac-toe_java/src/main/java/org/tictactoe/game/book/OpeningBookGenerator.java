@@ -0,0 +1,284 @@
+package org.tictactoe.game.book;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.solver.TicTacToeSolution;
+import org.tictactoe.game.solver.TicTacToeSolver;
+
+/**
+ * Offline generator of opening books: solves every position reachable within
+ * a number of plies, whoever starts, and writes them sorted by key for
+ * OpeningBook.
+ * <p>
+ * Run as a program, it writes the book of every 3x3 position and of the
+ * first plies of 4x4: {@code OpeningBookGenerator <file> [4x4 plies]}.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class OpeningBookGenerator {
+
+	/**
+	 * Default plies of the 4x4 openings of the generator program.
+	 */
+	public static final int DEFAULT_4X4_PLIES = 3;
+
+	/**
+	 * Bytes written to the file at once.
+	 */
+	private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+	/**
+	 * Reference to the solver of the positions.
+	 */
+	private final TicTacToeSolver solver;
+
+	/**
+	 * Reference to the solution of every position added, by key.
+	 */
+	private final Map<Long, TicTacToeSolution> solutions = new TreeMap<Long, TicTacToeSolution>();
+
+	/**
+	 * The constructor.
+	 *
+	 * @param solver Solver of the positions.
+	 * @throws IllegalArgumentException If the solver is null.
+	 */
+	public OpeningBookGenerator(final TicTacToeSolver solver) throws IllegalArgumentException {
+
+		if (solver == null) {
+			throw new IllegalArgumentException("Invalid solver, should not be null");
+		}
+
+		this.solver = solver;
+
+	}
+
+	/**
+	 * Solves every position of a table size reachable within a number of
+	 * plies and not finished, adding it to the book.
+	 *
+	 * @param tableSize Table size, up to OpeningBook.MAX_TABLE_SIZE.
+	 * @param maxPlies Plies of the deepest positions; the table boxes for
+	 *                 every position.
+	 * @return Number of positions added.
+	 * @throws IllegalArgumentException If the table size or plies are out of
+	 *                                  range.
+	 */
+	public int addPositions(final int tableSize, final int maxPlies)
+			throws IllegalArgumentException {
+
+		if ((tableSize < 1) || (tableSize > OpeningBook.MAX_TABLE_SIZE)) {
+			throw new IllegalArgumentException(
+					"Invalid table size for the opening book, should be 1 to "
+							+ OpeningBook.MAX_TABLE_SIZE);
+		}
+
+		if (maxPlies < 0) {
+			throw new IllegalArgumentException("Invalid plies, should be 0 or above");
+		}
+
+		final int previousSize = solutions.size();
+
+		final int [] path = new int[tableSize * tableSize];
+
+		addPositions(tableSize, path, 0, Math.min(maxPlies, path.length), TicTacToeMark.EMPTY);
+
+		return solutions.size() - previousSize;
+
+	}
+
+	/**
+	 * Gets the number of positions added.
+	 *
+	 * @return Positions added.
+	 */
+	public int size() {
+
+		return solutions.size();
+
+	}
+
+	/**
+	 * Writes the positions added to a book file, replacing it.
+	 *
+	 * @param file Book file.
+	 * @throws IOException If the file can not be written.
+	 */
+	public void write(final File file) throws IOException {
+
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+
+		try {
+
+			randomAccessFile.setLength(0);
+
+			final FileChannel channel = randomAccessFile.getChannel();
+
+			final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+
+			buffer.putInt(OpeningBook.MAGIC);
+			buffer.putInt(OpeningBook.VERSION);
+			buffer.putLong(solutions.size());
+
+			for (Map.Entry<Long, TicTacToeSolution> entry: solutions.entrySet()) {
+
+				if (buffer.remaining() < OpeningBook.ENTRY_BYTES) {
+					flush(buffer, channel);
+				}
+
+				final TicTacToeSolution solution = entry.getValue();
+
+				buffer.putLong(entry.getKey());
+				buffer.putInt(OpeningBook.packBox(solution.getXAxisMove(),
+						solution.getYAxisMove()));
+				buffer.put(solution.getMark());
+				buffer.put((byte) solution.getOutcome().ordinal());
+				buffer.putShort((short) solution.getPliesToEnd());
+
+			}
+
+			flush(buffer, channel);
+
+			channel.force(true);
+
+		} finally {
+
+			randomAccessFile.close();
+
+		}
+
+	}
+
+	/**
+	 * Writes the book of every 3x3 position and of the first plies of 4x4.
+	 *
+	 * @param args Book file, then optionally the plies of 4x4.
+	 * @throws IOException If the file can not be written.
+	 */
+	public static void main(final String [] args) throws IOException {
+
+		if (args.length == 0) {
+
+			System.err.println("Usage: OpeningBookGenerator <file> [4x4 plies, default "
+					+ DEFAULT_4X4_PLIES + "]");
+
+			return;
+
+		}
+
+		final int plies = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_4X4_PLIES;
+
+		final OpeningBookGenerator generator = new OpeningBookGenerator(new TicTacToeSolver());
+
+		final long startNanos = System.nanoTime();
+
+		System.out.println("3x3 positions: " + generator.addPositions(3, 9));
+		System.out.println("4x4 positions: " + generator.addPositions(4, plies));
+
+		generator.write(new File(args[0]));
+
+		System.out.println("Written " + generator.size() + " positions to " + args[0]
+				+ " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+
+	}
+
+	/**
+	 * Adds the position of a line of moves and the ones following it.
+	 *
+	 * @param tableSize Table size.
+	 * @param path Boxes of the moves of the line.
+	 * @param plies Moves of the line.
+	 * @param maxPlies Plies of the deepest positions.
+	 * @param firstMark Mark of the first move of the line.
+	 */
+	private void addPositions(final int tableSize, final int [] path, final int plies,
+			final int maxPlies, final byte firstMark) {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		byte mark = firstMark;
+
+		for (int ply = 0; ply < plies; ply++) {
+
+			ticTacToeGame.tryMove(path[ply] / tableSize, path[ply] % tableSize, mark);
+
+			mark = TicTacToeMark.opponentOf(mark);
+
+		}
+
+		if (ticTacToeGame.isGameFinished()) {
+			return;
+		}
+
+		final Long key = OpeningBook.keyOf(ticTacToeGame);
+
+		// Positions reached by other move orders are already followed.
+		if (solutions.containsKey(key)) {
+			return;
+		}
+
+		solutions.put(key, solver.solve(ticTacToeGame));
+
+		if (plies == maxPlies) {
+			return;
+		}
+
+		for (int box = 0; box < path.length; box++) {
+
+			if (ticTacToeGame.getMark(box / tableSize, box % tableSize) != TicTacToeMark.EMPTY) {
+				continue;
+			}
+
+			path[plies] = box;
+
+			if (plies == 0) {
+
+				// Either player starts.
+				addPositions(tableSize, path, 1, maxPlies, TicTacToeMark.X);
+				addPositions(tableSize, path, 1, maxPlies, TicTacToeMark.O);
+
+			} else {
+
+				addPositions(tableSize, path, plies + 1, maxPlies, firstMark);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Writes the buffered bytes to the file.
+	 *
+	 * @param buffer Buffer to write, cleared after.
+	 * @param channel Channel of the file.
+	 * @throws IOException If the bytes can not be written.
+	 */
+	private static void flush(final ByteBuffer buffer, final FileChannel channel)
+			throws IOException {
+
+		buffer.flip();
+
+		while (buffer.hasRemaining()) {
+
+			channel.write(buffer);
+
+		}
+
+		buffer.clear();
+
+	}
+
+}
@@ -0,0 +1,355 @@
+package org.tictactoe.game.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory-mapped, preallocated file of fixed-width journal records.
+ * <p>
+ * Record layout, 24 bytes: game id (long), X coordinate or table size (int),
+ * Y coordinate (int), type (byte), mark (byte), reserved (short), checksum 
+ * (int). The first record slot holds the header. A slot with type 0 is free,
+ * so the records end at the first free or corrupt slot.
+ * 
+ * @author Leo Gutierrez.
+ *
+ */
+final class JournalSegment {
+
+	/**
+	 * Number of bytes of a record.
+	 */
+	static final int RECORD_BYTES = 24;
+
+	/**
+	 * Type of a free slot.
+	 */
+	static final byte FREE = 0;
+
+	/**
+	 * Type of the record of a game created.
+	 */
+	static final byte GAME_CREATED = 1;
+
+	/**
+	 * Type of the record of a move accepted.
+	 */
+	static final byte MOVE_ACCEPTED = 2;
+
+	/**
+	 * Type of the record of a game reset.
+	 */
+	static final byte GAME_RESET = 3;
+
+	/**
+	 * Type of the record of a game expired.
+	 */
+	static final byte GAME_EXPIRED = 4;
+
+	/**
+	 * Magic number of the header, "TTTJRNL1".
+	 */
+	private static final long MAGIC = 0x5454544A524E4C31L;
+
+	/**
+	 * Offset of the X coordinate within a record.
+	 */
+	private static final int X_OFFSET = 8;
+
+	/**
+	 * Offset of the Y coordinate within a record.
+	 */
+	private static final int Y_OFFSET = 12;
+
+	/**
+	 * Offset of the type within a record.
+	 */
+	private static final int TYPE_OFFSET = 16;
+
+	/**
+	 * Offset of the mark within a record.
+	 */
+	private static final int MARK_OFFSET = 17;
+
+	/**
+	 * Offset of the checksum within a record.
+	 */
+	private static final int CHECKSUM_OFFSET = 20;
+
+	/**
+	 * Reference to the segment file.
+	 */
+	private final File file;
+
+	/**
+	 * Reference to the segment number, from the file name.
+	 */
+	private final long number;
+
+	/**
+	 * Reference to the mapping of the whole file.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Reference to the number of record slots, the header excluded.
+	 */
+	private final int capacity;
+
+	/**
+	 * Reference to the number of records held.
+	 */
+	private int size;
+
+	/**
+	 * The constructor, mapping an existing segment or creating a new one.
+	 * 
+	 * @param file Segment file.
+	 * @param number Segment number.
+	 * @param capacity Number of record slots for a new segment.
+	 * @throws IOException If the file can not be mapped or is not a segment.
+	 */
+	JournalSegment(final File file, final long number, final int capacity) throws IOException {
+
+		this.file = file;
+		this.number = number;
+
+		final boolean newSegment = !file.exists() || (file.length() == 0);
+
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+
+		try {
+
+			final long fileBytes = newSegment 
+					? (long) (capacity + 1) * RECORD_BYTES : randomAccessFile.length();
+
+			buffer = randomAccessFile.getChannel().map(
+					FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+
+		} finally {
+
+			randomAccessFile.close();
+
+		}
+
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		this.capacity = buffer.capacity() / RECORD_BYTES - 1;
+
+		if (newSegment) {
+
+			buffer.putLong(0, MAGIC);
+			buffer.putInt(X_OFFSET, RECORD_BYTES);
+
+		} else {
+
+			if (buffer.getLong(0) != MAGIC) {
+				throw new IOException("Not a journal segment: " + file);
+			}
+
+			while ((size < this.capacity) && isValid(size)) {
+
+				size++;
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Appends a record.
+	 * 
+	 * @param type Type of the record.
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate, or table size.
+	 * @param yAxisMove Y coordinate.
+	 * @param mark Mark of the move.
+	 * @return True if appended; False if the segment is full.
+	 */
+	boolean append(final byte type, final long gameId, final int xAxisMove, 
+			final int yAxisMove, final byte mark) {
+
+		if (size == capacity) {
+			return false;
+		}
+
+		final int position = positionOf(size);
+
+		buffer.putLong(position, gameId);
+		buffer.putInt(position + X_OFFSET, xAxisMove);
+		buffer.putInt(position + Y_OFFSET, yAxisMove);
+		buffer.put(position + MARK_OFFSET, mark);
+		buffer.putInt(position + CHECKSUM_OFFSET, 
+				checksum(type, gameId, xAxisMove, yAxisMove, mark));
+		buffer.put(position + TYPE_OFFSET, type);
+
+		size++;
+
+		return true;
+
+	}
+
+	/**
+	 * Gets the type of the given record.
+	 * 
+	 * @param record Record number.
+	 * @return The type.
+	 */
+	byte getType(final int record) {
+
+		return buffer.get(positionOf(record) + TYPE_OFFSET);
+
+	}
+
+	/**
+	 * Gets the game id of the given record.
+	 * 
+	 * @param record Record number.
+	 * @return The game id.
+	 */
+	long getGameId(final int record) {
+
+		return buffer.getLong(positionOf(record));
+
+	}
+
+	/**
+	 * Gets the X coordinate, or table size, of the given record.
+	 * 
+	 * @param record Record number.
+	 * @return The X coordinate or table size.
+	 */
+	int getXAxisMove(final int record) {
+
+		return buffer.getInt(positionOf(record) + X_OFFSET);
+
+	}
+
+	/**
+	 * Gets the Y coordinate of the given record.
+	 * 
+	 * @param record Record number.
+	 * @return The Y coordinate.
+	 */
+	int getYAxisMove(final int record) {
+
+		return buffer.getInt(positionOf(record) + Y_OFFSET);
+
+	}
+
+	/**
+	 * Gets the mark of the given record.
+	 * 
+	 * @param record Record number.
+	 * @return The mark.
+	 */
+	byte getMark(final int record) {
+
+		return buffer.get(positionOf(record) + MARK_OFFSET);
+
+	}
+
+	/**
+	 * Gets the number of records held.
+	 * 
+	 * @return Records held.
+	 */
+	int size() {
+
+		return size;
+
+	}
+
+	/**
+	 * Gets the segment file.
+	 * 
+	 * @return The file.
+	 */
+	File getFile() {
+
+		return file;
+
+	}
+
+	/**
+	 * Gets the segment number.
+	 * 
+	 * @return The number, ordering the segments oldest first.
+	 */
+	long getNumber() {
+
+		return number;
+
+	}
+
+	/**
+	 * Writes the records appended to the storage device.
+	 */
+	void force() {
+
+		buffer.force();
+
+	}
+
+	/**
+	 * Verifies if the given slot holds a complete record.
+	 * 
+	 * @param record Record number.
+	 * @return True if the type is known and the checksum matches; False
+	 *         otherwise.
+	 */
+	private boolean isValid(final int record) {
+
+		final byte type = getType(record);
+
+		if ((type < GAME_CREATED) || (type > GAME_EXPIRED)) {
+			return false;
+		}
+
+		return buffer.getInt(positionOf(record) + CHECKSUM_OFFSET) == checksum(type, 
+				getGameId(record), getXAxisMove(record), getYAxisMove(record), getMark(record));
+
+	}
+
+	/**
+	 * Gets the position of the given record, after the header.
+	 * 
+	 * @param record Record number.
+	 * @return The byte position.
+	 */
+	private static int positionOf(final int record) {
+
+		return (record + 1) * RECORD_BYTES;
+
+	}
+
+	/**
+	 * Calculates the checksum of a record, to detect records partially 
+	 * written when the process stopped.
+	 * 
+	 * @param type Type of the record.
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate, or table size.
+	 * @param yAxisMove Y coordinate.
+	 * @param mark Mark of the move.
+	 * @return The checksum.
+	 */
+	private static int checksum(final byte type, final long gameId, 
+			final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		long hash = gameId * 0x9E3779B97F4A7C15L;
+
+		hash = (hash ^ xAxisMove) * 0xC2B2AE3D27D4EB4FL;
+		hash = (hash ^ yAxisMove) * 0x165667B19E3779F9L;
+		hash = (hash ^ ((type << 8) | (mark & 0xFF))) * 0x9E3779B97F4A7C15L;
+
+		return (int) (hash ^ (hash >>> 32));
+
+	}
+
+}
@@ -0,0 +1,918 @@
+package org.tictactoe.game.journal;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.tictactoe.game.GameRegistry;
+import org.tictactoe.game.GameRegistryListener;
+import org.tictactoe.game.TicTacToeGame;
+
+/**
+ * Append-only journal of the games of a GameRegistry, so the live games can
+ * be rebuilt after a restart.
+ * <p>
+ * Every change is appended as a fixed-width record to memory-mapped segment
+ * files, rolled when full. Records are forced to the storage device in
+ * groups by a background thread, every given number of records or on 
+ * {@link #sync()}, so a crash loses at most the last group and appends, 
+ * made while the game is locked, never wait for the storage device. 
+ * Typical use:
+ *
+ * <pre>
+ * MoveJournal journal = new MoveJournal(directory);
+ * GameRegistry gameRegistry = new GameRegistry(concurrencyLevel, journal);
+ * journal.replay(gameRegistry);
+ * </pre>
+ *
+ * Games registered are journaled by their table size only, so they should be
+ * registered before any move. Replayed games keep their ids, and the 
+ * registry never generates them again.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class MoveJournal implements GameRegistryListener, Closeable {
+
+	/**
+	 * Default number of records per segment, 24 MB segments.
+	 */
+	public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+
+	/**
+	 * Default number of records forced to the storage device together.
+	 */
+	public static final int DEFAULT_SYNC_BATCH_SIZE = 1024;
+
+	/**
+	 * Prefix of the segment file names.
+	 */
+	private static final String SEGMENT_PREFIX = "journal-";
+
+	/**
+	 * Suffix of the segment file names.
+	 */
+	private static final String SEGMENT_SUFFIX = ".log";
+
+	/**
+	 * Suffix of the segments written by a compaction not yet committed.
+	 */
+	private static final String COMPACTING_SUFFIX = ".compacting";
+
+	/**
+	 * Name of the file committing a compaction.
+	 */
+	private static final String COMPACTION_COMMIT = "compaction.commit";
+
+	/**
+	 * Reference to the directory of the segments.
+	 */
+	private final File directory;
+
+	/**
+	 * Reference to the number of records of the new segments.
+	 */
+	private final int recordsPerSegment;
+
+	/**
+	 * Reference to the number of records forced together.
+	 */
+	private final int syncBatchSize;
+
+	/**
+	 * Reference to the segments, oldest first, the last one the active one.
+	 */
+	private final List<JournalSegment> segments = new ArrayList<JournalSegment>();
+
+	/**
+	 * Reference to the segments with records not forced yet, guarded by the
+	 * journal.
+	 */
+	private final List<JournalSegment> unsyncedSegments = new ArrayList<JournalSegment>();
+
+	/**
+	 * Reference to know if the active segment is in the unsynced segments,
+	 * guarded by the journal.
+	 */
+	private boolean activeSegmentUnsynced;
+
+	/**
+	 * Reference to the records appended since the last sync was requested,
+	 * guarded by the journal.
+	 */
+	private int unsyncedRecords;
+
+	/**
+	 * Reference to the records appended since the journal was opened,
+	 * guarded by the journal.
+	 */
+	private long appendedRecords;
+
+	/**
+	 * Reference to the appended records already forced, guarded by the
+	 * journal.
+	 */
+	private long forcedRecords;
+
+	/**
+	 * Reference to know if the sync thread should force the unsynced
+	 * segments, guarded by the journal.
+	 */
+	private boolean syncRequested;
+
+	/**
+	 * Reference to know if the journal is closed, guarded by the journal.
+	 */
+	private boolean closed;
+
+	/**
+	 * Reference to the failure of the sync thread; null if none.
+	 */
+	private volatile RuntimeException syncFailure;
+
+	/**
+	 * Reference to the thread forcing the records.
+	 */
+	private final Thread syncThread;
+
+	/**
+	 * Reference to know if a replay is in progress, so the changes it makes
+	 * are not appended again.
+	 */
+	private volatile boolean replaying;
+
+	/**
+	 * The constructor, with default segment and sync batch sizes.
+	 *
+	 * @param directory Directory of the segments, created if needed.
+	 * @throws IOException If the segments can not be opened.
+	 */
+	public MoveJournal(final File directory) throws IOException {
+
+		this(directory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_SYNC_BATCH_SIZE);
+
+	}
+
+	/**
+	 * The constructor.
+	 *
+	 * @param directory Directory of the segments, created if needed.
+	 * @param recordsPerSegment Number of records of the new segments.
+	 * @param syncBatchSize Number of records forced to the storage device
+	 *                      together.
+	 * @throws IllegalArgumentException If a size is 0 or less.
+	 * @throws IOException If the segments can not be opened.
+	 */
+	public MoveJournal(final File directory, final int recordsPerSegment,
+			final int syncBatchSize) throws IllegalArgumentException, IOException {
+
+		if (recordsPerSegment < 1) {
+			throw new IllegalArgumentException(
+					"Invalid records per segment, should be 1 or above");
+		}
+
+		if (syncBatchSize < 1) {
+			throw new IllegalArgumentException(
+					"Invalid sync batch size, should be 1 or above");
+		}
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Journal directory can not be created: " + directory);
+		}
+
+		this.directory = directory;
+		this.recordsPerSegment = recordsPerSegment;
+		this.syncBatchSize = syncBatchSize;
+
+		recoverCompaction();
+
+		final long [] segmentNumbers = listSegmentNumbers(SEGMENT_SUFFIX);
+
+		for (long segmentNumber: segmentNumbers) {
+
+			segments.add(new JournalSegment(segmentFile(segmentNumber, SEGMENT_SUFFIX),
+					segmentNumber, recordsPerSegment));
+
+		}
+
+		if (segments.isEmpty()) {
+
+			segments.add(new JournalSegment(segmentFile(0, SEGMENT_SUFFIX), 0, recordsPerSegment));
+
+		}
+
+		syncThread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+
+				syncLoop();
+
+			}
+
+		}, "move-journal-sync");
+
+		syncThread.setDaemon(true);
+
+		syncThread.start();
+
+	}
+
+	/**
+	 * Rebuilds the games journaled into the given registry, which should be
+	 * empty and listened by this journal.
+	 *
+	 * @param gameRegistry Registry to fill.
+	 * @return Number of records replayed.
+	 */
+	public synchronized long replay(final GameRegistry gameRegistry) {
+
+		replaying = true;
+
+		try {
+
+			long records = 0;
+
+			for (JournalSegment segment: segments) {
+
+				final int size = segment.size();
+
+				for (int record = 0; record < size; record++) {
+
+					apply(segment, record, gameRegistry);
+
+				}
+
+				records += size;
+
+			}
+
+			return records;
+
+		} finally {
+
+			replaying = false;
+
+		}
+
+	}
+
+	/**
+	 * Forces every record appended to the storage device, waiting for the
+	 * sync thread; the records of every thread waiting are forced together.
+	 *
+	 * @throws UncheckedIOException If the records can not be forced.
+	 */
+	public synchronized void sync() throws UncheckedIOException {
+
+		final long targetRecords = appendedRecords;
+
+		boolean interrupted = false;
+
+		while (forcedRecords < targetRecords) {
+
+			checkSyncFailure();
+
+			if (closed) {
+
+				// No sync thread any more, forced right here.
+				forceUnsyncedSegments();
+
+				break;
+
+			}
+
+			syncRequested = true;
+
+			notifyAll();
+
+			try {
+
+				wait();
+
+			} catch (InterruptedException exception) {
+
+				interrupted = true;
+
+			}
+
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		checkSyncFailure();
+
+	}
+
+	/**
+	 * Rewrites the journal without the records of the games already finished
+	 * or expired. Appends wait while the journal is compacted.
+	 *
+	 * @throws IOException If the compacted segments can not be written.
+	 */
+	public synchronized void compact() throws IOException {
+
+		rollSegment();
+
+		// Ordered by number, so the compacted segment takes the oldest number.
+		final List<JournalSegment> sealedSegments =
+				new ArrayList<JournalSegment>(segments.subList(0, segments.size() - 1));
+
+		final GameRegistry liveGames = new GameRegistry(1);
+
+		replaying = true;
+
+		try {
+
+			for (JournalSegment segment: sealedSegments) {
+
+				for (int record = 0; record < segment.size(); record++) {
+
+					apply(segment, record, liveGames);
+
+				}
+
+			}
+
+		} finally {
+
+			replaying = false;
+
+		}
+
+		final long compactedNumber = sealedSegments.get(0).getNumber();
+
+		final long [] replacedNumbers = new long[sealedSegments.size()];
+
+		for (int index = 0; index < replacedNumbers.length; index++) {
+
+			replacedNumbers[index] = sealedSegments.get(index).getNumber();
+
+		}
+
+		int liveRecords = 0;
+
+		for (JournalSegment segment: sealedSegments) {
+
+			for (int record = 0; record < segment.size(); record++) {
+
+				if (isLive(segment.getGameId(record), liveGames)) {
+					liveRecords++;
+				}
+
+			}
+
+		}
+
+		// A single segment replaces the sealed ones, so it never overlaps the active one.
+		final JournalSegment compacted = new JournalSegment(
+				segmentFile(compactedNumber, COMPACTING_SUFFIX), compactedNumber,
+				Math.max(1, liveRecords));
+
+		for (JournalSegment segment: sealedSegments) {
+
+			for (int record = 0; record < segment.size(); record++) {
+
+				if (isLive(segment.getGameId(record), liveGames)) {
+
+					compacted.append(segment.getType(record), segment.getGameId(record),
+							segment.getXAxisMove(record), segment.getYAxisMove(record),
+							segment.getMark(record));
+
+				}
+
+			}
+
+		}
+
+		compacted.force();
+
+		writeCompactionCommit(replacedNumbers, compactedNumber);
+
+		recoverCompaction();
+
+		final JournalSegment activeSegment = activeSegment();
+
+		segments.clear();
+
+		segments.add(new JournalSegment(segmentFile(compactedNumber, SEGMENT_SUFFIX),
+				compactedNumber, recordsPerSegment));
+
+		segments.add(activeSegment);
+
+		// Their records are in the compacted segment, already forced.
+		unsyncedSegments.removeAll(sealedSegments);
+
+	}
+
+	/**
+	 * Stops the sync thread and forces every record appended. Records 
+	 * appended afterwards are only forced by {@link #sync()}.
+	 *
+	 * @throws UncheckedIOException If the records can not be forced.
+	 */
+	@Override
+	public void close() throws UncheckedIOException {
+
+		synchronized (this) {
+
+			closed = true;
+
+			notifyAll();
+
+		}
+
+		boolean interrupted = false;
+
+		while (syncThread.isAlive()) {
+
+			try {
+
+				syncThread.join();
+
+			} catch (InterruptedException exception) {
+
+				interrupted = true;
+
+			}
+
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		sync();
+
+	}
+
+	@Override
+	public void gameCreated(final long gameId, final int tableSize) {
+
+		append(JournalSegment.GAME_CREATED, gameId, tableSize, 0, (byte) 0);
+
+	}
+
+	@Override
+	public void moveAccepted(final long gameId, final int xAxisMove,
+			final int yAxisMove, final byte mark) {
+
+		append(JournalSegment.MOVE_ACCEPTED, gameId, xAxisMove, yAxisMove, mark);
+
+	}
+
+	@Override
+	public void gameReset(final long gameId, final int tableSize) {
+
+		append(JournalSegment.GAME_RESET, gameId, tableSize, 0, (byte) 0);
+
+	}
+
+	@Override
+	public void gameExpired(final long gameId) {
+
+		append(JournalSegment.GAME_EXPIRED, gameId, 0, 0, (byte) 0);
+
+	}
+
+	/**
+	 * Appends a record to the active segment, rolling it if full, and asks
+	 * the sync thread to force the records every sync batch size.
+	 *
+	 * @param type Type of the record.
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate, or table size.
+	 * @param yAxisMove Y coordinate.
+	 * @param mark Mark of the move.
+	 * @throws UncheckedIOException If a new segment can not be created.
+	 */
+	private synchronized void append(final byte type, final long gameId,
+			final int xAxisMove, final int yAxisMove, final byte mark)
+					throws UncheckedIOException {
+
+		if (replaying) {
+			return;
+		}
+
+		if (!activeSegment().append(type, gameId, xAxisMove, yAxisMove, mark)) {
+
+			try {
+
+				rollSegment();
+
+			} catch (IOException exception) {
+
+				throw new UncheckedIOException(exception);
+
+			}
+
+			activeSegment().append(type, gameId, xAxisMove, yAxisMove, mark);
+
+		}
+
+		if (!activeSegmentUnsynced) {
+
+			unsyncedSegments.add(activeSegment());
+
+			activeSegmentUnsynced = true;
+
+		}
+
+		appendedRecords++;
+
+		if (++unsyncedRecords >= syncBatchSize) {
+
+			unsyncedRecords = 0;
+
+			syncRequested = true;
+
+			notifyAll();
+
+		}
+
+	}
+
+	/**
+	 * Creates a new active segment; the records of the previous one are 
+	 * forced by the sync thread.
+	 *
+	 * @throws IOException If the new segment can not be created.
+	 */
+	private void rollSegment() throws IOException {
+
+		final long segmentNumber = activeSegment().getNumber() + 1;
+
+		segments.add(new JournalSegment(segmentFile(segmentNumber, SEGMENT_SUFFIX),
+				segmentNumber, recordsPerSegment));
+
+		activeSegmentUnsynced = false;
+
+	}
+
+	/**
+	 * Forces the segments with records not forced yet, in the sync thread, 
+	 * until the journal is closed and every record is forced.
+	 */
+	private void syncLoop() {
+
+		while (true) {
+
+			final JournalSegment [] segmentsToForce;
+
+			final long recordsToForce;
+
+			synchronized (this) {
+
+				while (!syncRequested && !closed) {
+
+					try {
+
+						wait();
+
+					} catch (InterruptedException exception) {
+
+						// Only stopped by closing the journal.
+
+					}
+
+				}
+
+				if (closed && (forcedRecords == appendedRecords)) {
+					return;
+				}
+
+				syncRequested = false;
+
+				segmentsToForce = takeUnsyncedSegments();
+
+				recordsToForce = appendedRecords;
+
+			}
+
+			try {
+
+				// Forced without the journal locked, so appends go on meanwhile.
+				for (JournalSegment segment: segmentsToForce) {
+
+					segment.force();
+
+				}
+
+			} catch (RuntimeException exception) {
+
+				syncFailure = exception;
+
+				synchronized (this) {
+
+					notifyAll();
+
+				}
+
+				return;
+
+			}
+
+			synchronized (this) {
+
+				forcedRecords = Math.max(forcedRecords, recordsToForce);
+
+				notifyAll();
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Forces the segments with records not forced yet, in the calling 
+	 * thread, with the journal locked.
+	 */
+	private void forceUnsyncedSegments() {
+
+		for (JournalSegment segment: takeUnsyncedSegments()) {
+
+			segment.force();
+
+		}
+
+		forcedRecords = appendedRecords;
+
+	}
+
+	/**
+	 * Takes the segments with records not forced yet, with the journal 
+	 * locked.
+	 *
+	 * @return The segments, oldest first.
+	 */
+	private JournalSegment [] takeUnsyncedSegments() {
+
+		final JournalSegment [] segmentsToForce =
+				unsyncedSegments.toArray(new JournalSegment[unsyncedSegments.size()]);
+
+		unsyncedSegments.clear();
+
+		activeSegmentUnsynced = false;
+
+		return segmentsToForce;
+
+	}
+
+	/**
+	 * Verifies the sync thread did not fail.
+	 *
+	 * @throws UncheckedIOException If the sync thread could not force the 
+	 *                              records.
+	 */
+	private void checkSyncFailure() throws UncheckedIOException {
+
+		if (syncFailure != null) {
+			throw new UncheckedIOException(new IOException(
+					"Journal records can not be forced in " + directory, syncFailure));
+		}
+
+	}
+
+	/**
+	 * Gets the segment where the records are appended.
+	 *
+	 * @return The active segment.
+	 */
+	private JournalSegment activeSegment() {
+
+		return segments.get(segments.size() - 1);
+
+	}
+
+	/**
+	 * Applies a record to the given registry.
+	 *
+	 * @param segment Segment of the record.
+	 * @param record Record number.
+	 * @param gameRegistry Registry where the record is applied.
+	 */
+	private static void apply(final JournalSegment segment, final int record,
+			final GameRegistry gameRegistry) {
+
+		final long gameId = segment.getGameId(record);
+
+		switch (segment.getType(record)) {
+
+			case JournalSegment.GAME_CREATED:
+				gameRegistry.registerGame(gameId, new TicTacToeGame(segment.getXAxisMove(record)));
+				break;
+
+			case JournalSegment.MOVE_ACCEPTED:
+				gameRegistry.tryMove(gameId, segment.getXAxisMove(record),
+						segment.getYAxisMove(record), segment.getMark(record));
+				break;
+
+			case JournalSegment.GAME_RESET:
+				// A finished game may have been compacted away before its reset.
+				if (!gameRegistry.resetGame(gameId, segment.getXAxisMove(record))) {
+					gameRegistry.registerGame(gameId,
+							new TicTacToeGame(segment.getXAxisMove(record)));
+				}
+				break;
+
+			default:
+				gameRegistry.expireGame(gameId);
+				break;
+
+		}
+
+	}
+
+	/**
+	 * Verifies if a game is still in play, so its records survive a
+	 * compaction.
+	 *
+	 * @param gameId Id of the game.
+	 * @param liveGames Games rebuilt from the sealed segments.
+	 * @return True if the game is registered and not finished; False otherwise.
+	 */
+	private static boolean isLive(final long gameId, final GameRegistry liveGames) {
+
+		return liveGames.containsGame(gameId) && !liveGames.isGameFinished(gameId);
+
+	}
+
+	/**
+	 * Writes the file committing a compaction, so it is completed even if
+	 * the process stops while replacing the segments.
+	 *
+	 * @param replacedNumbers Numbers of the segments replaced.
+	 * @param compactedNumber Number of the compacted segment.
+	 * @throws IOException If the file can not be written.
+	 */
+	private void writeCompactionCommit(final long [] replacedNumbers,
+			final long compactedNumber) throws IOException {
+
+		final File commitFile = new File(directory, COMPACTION_COMMIT + ".tmp");
+
+		final FileOutputStream fileOutput = new FileOutputStream(commitFile);
+
+		try {
+
+			final DataOutputStream output = new DataOutputStream(fileOutput);
+
+			output.writeInt(replacedNumbers.length);
+
+			for (long segmentNumber: replacedNumbers) {
+
+				output.writeLong(segmentNumber);
+
+			}
+
+			output.writeLong(compactedNumber);
+			output.flush();
+
+			fileOutput.getFD().sync();
+
+		} finally {
+
+			fileOutput.close();
+
+		}
+
+		if (!commitFile.renameTo(new File(directory, COMPACTION_COMMIT))) {
+			throw new IOException("Compaction can not be committed in " + directory);
+		}
+
+	}
+
+	/**
+	 * Completes a committed compaction, replacing the segments compacted, or
+	 * discards the segments of a compaction not committed.
+	 *
+	 * @throws IOException If the segments can not be replaced.
+	 */
+	private void recoverCompaction() throws IOException {
+
+		final File commitFile = new File(directory, COMPACTION_COMMIT);
+
+		if (commitFile.exists()) {
+
+			final long [] replacedNumbers;
+			final long compactedNumber;
+
+			final DataInputStream input = new DataInputStream(new FileInputStream(commitFile));
+
+			try {
+
+				replacedNumbers = new long[input.readInt()];
+
+				for (int index = 0; index < replacedNumbers.length; index++) {
+
+					replacedNumbers[index] = input.readLong();
+
+				}
+
+				compactedNumber = input.readLong();
+
+			} finally {
+
+				input.close();
+
+			}
+
+			final File compactedFile = segmentFile(compactedNumber, COMPACTING_SUFFIX);
+
+			// Once renamed, the segments replaced, its own number included, are deleted.
+			if (compactedFile.exists()) {
+
+				for (long segmentNumber: replacedNumbers) {
+
+					final File segmentFile = segmentFile(segmentNumber, SEGMENT_SUFFIX);
+
+					if (segmentFile.exists() && !segmentFile.delete()) {
+						throw new IOException("Segment can not be deleted: " + segmentFile);
+					}
+
+				}
+
+				if (!compactedFile.renameTo(segmentFile(compactedNumber, SEGMENT_SUFFIX))) {
+					throw new IOException("Compacted segment can not be renamed in " + directory);
+				}
+
+			}
+
+			if (!commitFile.delete()) {
+				throw new IOException("Compaction commit can not be deleted: " + commitFile);
+			}
+
+		} else {
+
+			for (long segmentNumber: listSegmentNumbers(COMPACTING_SUFFIX)) {
+
+				segmentFile(segmentNumber, COMPACTING_SUFFIX).delete();
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Lists the numbers of the segments with the given suffix.
+	 *
+	 * @param suffix Suffix of the segment files.
+	 * @return The segment numbers, sorted.
+	 */
+	private long [] listSegmentNumbers(final String suffix) {
+
+		final String [] names = directory.list();
+
+		if (names == null) {
+			return new long[0];
+		}
+
+		long [] segmentNumbers = new long[names.length];
+
+		int count = 0;
+
+		for (String name: names) {
+
+			if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(suffix)) {
+
+				segmentNumbers[count++] = Long.parseLong(name.substring(
+						SEGMENT_PREFIX.length(), name.length() - suffix.length()));
+
+			}
+
+		}
+
+		segmentNumbers = Arrays.copyOf(segmentNumbers, count);
+
+		Arrays.sort(segmentNumbers);
+
+		return segmentNumbers;
+
+	}
+
+	/**
+	 * Gets the file of the given segment.
+	 *
+	 * @param segmentNumber Segment number.
+	 * @param suffix Suffix of the segment file.
+	 * @return The file.
+	 */
+	private File segmentFile(final long segmentNumber, final String suffix) {
+
+		return new File(directory, String.format("%s%016d%s",
+				SEGMENT_PREFIX, segmentNumber, suffix));
+
+	}
+
+}
@@ -0,0 +1,177 @@
+package org.tictactoe.game.mcts;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move chosen by the Monte Carlo tree search, with the statistics of the
+ * search.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class MonteCarloMove {
+
+	/**
+	 * Reference to the X coordinate of the move.
+	 */
+	private final int xAxisMove;
+
+	/**
+	 * Reference to the Y coordinate of the move.
+	 */
+	private final int yAxisMove;
+
+	/**
+	 * Reference to the mark of the move.
+	 */
+	private final byte mark;
+
+	/**
+	 * Reference to the playouts through the move.
+	 */
+	private final int visits;
+
+	/**
+	 * Reference to the points per playout through the move.
+	 */
+	private final double winRate;
+
+	/**
+	 * Reference to the playouts of the search.
+	 */
+	private final long playouts;
+
+	/**
+	 * Reference to the time of the search.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param xAxisMove X coordinate of the move.
+	 * @param yAxisMove Y coordinate of the move.
+	 * @param mark Mark of the move.
+	 * @param visits Playouts through the move.
+	 * @param winRate Points per playout through the move.
+	 * @param playouts Playouts of the search.
+	 * @param elapsedNanos Time of the search.
+	 */
+	MonteCarloMove(final int xAxisMove, final int yAxisMove, final byte mark,
+			final int visits, final double winRate, final long playouts,
+			final long elapsedNanos) {
+
+		this.xAxisMove = xAxisMove;
+		this.yAxisMove = yAxisMove;
+		this.mark = mark;
+		this.visits = visits;
+		this.winRate = winRate;
+		this.playouts = playouts;
+		this.elapsedNanos = elapsedNanos;
+
+	}
+
+	/**
+	 * Gets the X coordinate of the move.
+	 *
+	 * @return X coordinate.
+	 */
+	public int getXAxisMove() {
+
+		return xAxisMove;
+
+	}
+
+	/**
+	 * Gets the Y coordinate of the move.
+	 *
+	 * @return Y coordinate.
+	 */
+	public int getYAxisMove() {
+
+		return yAxisMove;
+
+	}
+
+	/**
+	 * Gets the mark of the move.
+	 *
+	 * @return Either TicTacToeMark.X or TicTacToeMark.O.
+	 */
+	public byte getMark() {
+
+		return mark;
+
+	}
+
+	/**
+	 * Gets the playouts through the move.
+	 *
+	 * @return Playouts through the move.
+	 */
+	public int getVisits() {
+
+		return visits;
+
+	}
+
+	/**
+	 * Gets the points per playout through the move, 1 per win and 0.5 per
+	 * draw.
+	 *
+	 * @return Rate from 0 to 1.
+	 */
+	public double getWinRate() {
+
+		return winRate;
+
+	}
+
+	/**
+	 * Gets the playouts of the search.
+	 *
+	 * @return Playouts.
+	 */
+	public long getPlayouts() {
+
+		return playouts;
+
+	}
+
+	/**
+	 * Gets the time of the search.
+	 *
+	 * @param unit Unit of the time.
+	 * @return Time of the search.
+	 */
+	public long getElapsedTime(final TimeUnit unit) {
+
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+
+	}
+
+	/**
+	 * Gets the playouts per second of the search, every worker included.
+	 *
+	 * @return Playouts per second.
+	 */
+	public double getPlayoutsPerSecond() {
+
+		return (elapsedNanos == 0) ? 0 : playouts * 1e9 / elapsedNanos;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return "MonteCarloMove [move=(" + xAxisMove + ", " + yAxisMove + "), visits=" + visits
+				+ ", winRate=" + winRate + ", playouts=" + playouts
+				+ ", playoutsPerSecond=" + (long) getPlayoutsPerSecond() + "]";
+
+	}
+
+}
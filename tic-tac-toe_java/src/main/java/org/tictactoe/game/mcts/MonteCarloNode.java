@@ -0,0 +1,304 @@
+package org.tictactoe.game.mcts;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.tictactoe.game.TicTacToeMark;
+
+/**
+ * Node of the Monte Carlo search tree, the position after a move, shared by
+ * every worker.
+ * <p>
+ * The reward is counted in half points for the player of the move: 2 per win
+ * and 1 per draw. A worker going through the node adds a virtual loss, a
+ * visit without reward, so the other workers prefer other paths until its
+ * playout is backed up. Children are created on their first visit, so an
+ * expanded node costs its moves and not a node per move.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class MonteCarloNode {
+
+	/**
+	 * Visits needed to expand a node.
+	 */
+	static final int EXPANSION_VISITS = 2;
+
+	/**
+	 * Updater of the visits.
+	 */
+	private static final AtomicIntegerFieldUpdater<MonteCarloNode> VISITS =
+			AtomicIntegerFieldUpdater.newUpdater(MonteCarloNode.class, "visits");
+
+	/**
+	 * Updater of the reward.
+	 */
+	private static final AtomicLongFieldUpdater<MonteCarloNode> REWARD =
+			AtomicLongFieldUpdater.newUpdater(MonteCarloNode.class, "reward");
+
+	/**
+	 * Reference to the box of the move; -1 for the root.
+	 */
+	private final int box;
+
+	/**
+	 * Reference to the mark of the move.
+	 */
+	private final byte mark;
+
+	/**
+	 * Reference to the visits, virtual losses included.
+	 */
+	private volatile int visits;
+
+	/**
+	 * Reference to the reward of the visits, in half points.
+	 */
+	private volatile long reward;
+
+	/**
+	 * Reference to the boxes of the moves of the node, once expanded.
+	 */
+	private int [] moves;
+
+	/**
+	 * Reference to the children of the moves, created on their first visit.
+	 */
+	private MonteCarloNode [] children;
+
+	/**
+	 * Reference to know if the node is expanded, published after the moves.
+	 */
+	private volatile boolean expanded;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param box Box of the move; -1 for the root.
+	 * @param mark Mark of the move.
+	 */
+	MonteCarloNode(final int box, final byte mark) {
+
+		this.box = box;
+		this.mark = mark;
+
+	}
+
+	/**
+	 * Gets the box of the move.
+	 *
+	 * @return The box number; -1 for the root.
+	 */
+	int getBox() {
+
+		return box;
+
+	}
+
+	/**
+	 * Gets the mark of the move.
+	 *
+	 * @return The mark.
+	 */
+	byte getMark() {
+
+		return mark;
+
+	}
+
+	/**
+	 * Gets the visits, virtual losses included.
+	 *
+	 * @return Visits.
+	 */
+	int getVisits() {
+
+		return visits;
+
+	}
+
+	/**
+	 * Gets the reward of the visits.
+	 *
+	 * @return Reward, in half points.
+	 */
+	long getReward() {
+
+		return reward;
+
+	}
+
+	/**
+	 * Verifies if the node is expanded.
+	 *
+	 * @return True if expanded; False otherwise.
+	 */
+	boolean isExpanded() {
+
+		return expanded;
+
+	}
+
+	/**
+	 * Expands the node with the empty boxes of its position, unless another
+	 * worker already did.
+	 *
+	 * @param playoutBoard Board of the position of the node.
+	 */
+	synchronized void expand(final PlayoutBoard playoutBoard) {
+
+		if (expanded) {
+			return;
+		}
+
+		final int emptyCount = playoutBoard.getEmptyCount();
+
+		moves = new int[emptyCount];
+
+		for (int index = 0; index < emptyCount; index++) {
+
+			moves[index] = playoutBoard.getEmptyBox(index);
+
+		}
+
+		children = new MonteCarloNode[emptyCount];
+
+		expanded = true;
+
+	}
+
+	/**
+	 * Selects the child to visit, by UCT, adding it a virtual loss. The node
+	 * should be expanded.
+	 *
+	 * @param childMark Mark of the moves of the children.
+	 * @param exploration Exploration constant of UCT.
+	 * @return The child; null if the node has no moves.
+	 */
+	MonteCarloNode selectChild(final byte childMark, final double exploration) {
+
+		MonteCarloNode selectedChild = null;
+
+		int selectedIndex = -1;
+
+		double selectedValue = Double.NEGATIVE_INFINITY;
+
+		final double logVisits = Math.log(Math.max(1, visits));
+
+		for (int index = 0; index < moves.length; index++) {
+
+			final MonteCarloNode child = children[index];
+
+			if ((child == null) || (child.visits == 0)) {
+
+				// Not visited yet, first.
+				selectedChild = child;
+				selectedIndex = index;
+
+				break;
+
+			}
+
+			final double childVisits = child.visits;
+
+			final double value = child.reward / (2 * childVisits)
+					+ exploration * Math.sqrt(logVisits / childVisits);
+
+			if (value > selectedValue) {
+
+				selectedChild = child;
+				selectedIndex = index;
+				selectedValue = value;
+
+			}
+
+		}
+
+		if (selectedIndex < 0) {
+			return null;
+		}
+
+		if (selectedChild == null) {
+			selectedChild = childAt(selectedIndex, childMark);
+		}
+
+		VISITS.incrementAndGet(selectedChild);
+
+		return selectedChild;
+
+	}
+
+	/**
+	 * Adds the virtual loss of a worker visiting the root.
+	 */
+	void addVirtualLoss() {
+
+		VISITS.incrementAndGet(this);
+
+	}
+
+	/**
+	 * Backs up the result of a playout through the node, the virtual loss
+	 * already counted as its visit.
+	 *
+	 * @param winnerMark Mark of the winner; TicTacToeMark.EMPTY if a draw.
+	 */
+	void backUp(final byte winnerMark) {
+
+		if (winnerMark == mark) {
+
+			REWARD.addAndGet(this, 2);
+
+		} else if (winnerMark == TicTacToeMark.EMPTY) {
+
+			REWARD.incrementAndGet(this);
+
+		}
+
+	}
+
+	/**
+	 * Gets the most visited child, the move to play.
+	 *
+	 * @return The child; null if none visited.
+	 */
+	MonteCarloNode mostVisitedChild() {
+
+		MonteCarloNode mostVisitedChild = null;
+
+		if (!expanded) {
+			return null;
+		}
+
+		for (MonteCarloNode child: children) {
+
+			if ((child != null) && ((mostVisitedChild == null)
+					|| (child.visits > mostVisitedChild.visits))) {
+				mostVisitedChild = child;
+			}
+
+		}
+
+		return mostVisitedChild;
+
+	}
+
+	/**
+	 * Gets the child of a move, creating it if not visited yet.
+	 *
+	 * @param index Index of the move.
+	 * @param childMark Mark of the move.
+	 * @return The child.
+	 */
+	private synchronized MonteCarloNode childAt(final int index, final byte childMark) {
+
+		if (children[index] == null) {
+			children[index] = new MonteCarloNode(moves[index], childMark);
+		}
+
+		return children[index];
+
+	}
+
+}
@@ -0,0 +1,412 @@
+package org.tictactoe.game.mcts;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+
+/**
+ * Player choosing moves by Monte Carlo tree search (UCT), for tables too big
+ * to be solved, above 5x5.
+ * <p>
+ * Every worker runs playouts from the position of the game on a single search
+ * tree: it descends the tree by UCT adding a virtual loss to every node, so the
+ * other workers spread over other paths, plays random moves on its own board
+ * until the game finishes and backs up the result. The boards of the workers
+ * are copied from the position, so the playouts never allocate.
+ * <p>
+ * The workers run in an ExecutorService, a fixed pool of daemon threads by
+ * default; on JDK 21 and above, Executors.newVirtualThreadPerTaskExecutor()
+ * may be given instead.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class MonteCarloPlayer implements Closeable {
+
+	/**
+	 * Default exploration constant of UCT.
+	 */
+	public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+	/**
+	 * Reference to the executor of the workers.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Reference to know if the executor is owned, and shut down on close.
+	 */
+	private final boolean ownExecutor;
+
+	/**
+	 * Reference to the workers of every search.
+	 */
+	private final int workers;
+
+	/**
+	 * Reference to the exploration constant of UCT.
+	 */
+	private final double exploration;
+
+	/**
+	 * The constructor, with its own fixed pool of daemon threads.
+	 *
+	 * @param workers Workers of every search, and threads of the pool.
+	 * @throws IllegalArgumentException If the workers are less than 1.
+	 */
+	public MonteCarloPlayer(final int workers) throws IllegalArgumentException {
+
+		this(newWorkerPool(workers), true, workers, DEFAULT_EXPLORATION);
+
+	}
+
+	/**
+	 * The constructor, with the executor of the workers, not shut down on
+	 * close.
+	 *
+	 * @param executor Executor of the workers, with a thread per worker.
+	 * @param workers Workers of every search.
+	 * @param exploration Exploration constant of UCT, the higher the wider.
+	 * @throws IllegalArgumentException If the executor is null, the workers are
+	 *                                  less than 1 or the exploration is
+	 *                                  negative.
+	 */
+	public MonteCarloPlayer(final ExecutorService executor, final int workers,
+			final double exploration) throws IllegalArgumentException {
+
+		this(executor, false, workers, exploration);
+
+	}
+
+	/**
+	 * The constructor.
+	 *
+	 * @param executor Executor of the workers.
+	 * @param ownExecutor True to shut down the executor on close.
+	 * @param workers Workers of every search.
+	 * @param exploration Exploration constant of UCT.
+	 * @throws IllegalArgumentException If any argument is not valid.
+	 */
+	private MonteCarloPlayer(final ExecutorService executor, final boolean ownExecutor,
+			final int workers, final double exploration) throws IllegalArgumentException {
+
+		if (executor == null) {
+			throw new IllegalArgumentException("Invalid executor, should not be null");
+		}
+
+		validateWorkers(workers);
+
+		if (!(exploration >= 0)) {
+			throw new IllegalArgumentException("Invalid exploration, should be 0 or above");
+		}
+
+		this.executor = executor;
+		this.ownExecutor = ownExecutor;
+		this.workers = workers;
+		this.exploration = exploration;
+
+	}
+
+	/**
+	 * Chooses the move of the player to move, within a time budget.
+	 *
+	 * @param ticTacToeGame Game to play; not modified.
+	 * @param timeout Time budget.
+	 * @param unit Unit of the time budget.
+	 * @return The move and the statistics of the search.
+	 * @throws IllegalArgumentException If the game is finished.
+	 * @throws InterruptedException If interrupted while waiting the workers.
+	 */
+	public MonteCarloMove chooseMove(final TicTacToeGame ticTacToeGame, final long timeout,
+			final TimeUnit unit) throws IllegalArgumentException, InterruptedException {
+
+		return chooseMove(ticTacToeGame, Long.MAX_VALUE, timeout, unit);
+
+	}
+
+	/**
+	 * Chooses the move of the player to move, within a budget of playouts.
+	 *
+	 * @param ticTacToeGame Game to play; not modified.
+	 * @param playouts Playouts of the search, of every worker together.
+	 * @return The move and the statistics of the search.
+	 * @throws IllegalArgumentException If the game is finished or the playouts
+	 *                                  are less than 1.
+	 * @throws InterruptedException If interrupted while waiting the workers.
+	 */
+	public MonteCarloMove chooseMove(final TicTacToeGame ticTacToeGame, final long playouts)
+			throws IllegalArgumentException, InterruptedException {
+
+		return chooseMove(ticTacToeGame, playouts, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+	}
+
+	/**
+	 * Chooses the move of the player to move, until the budget of playouts or
+	 * time runs out, whatever first.
+	 *
+	 * @param ticTacToeGame Game to play; not modified.
+	 * @param playouts Playouts of the search, of every worker together.
+	 * @param timeout Time budget.
+	 * @param unit Unit of the time budget.
+	 * @return The move and the statistics of the search.
+	 * @throws IllegalArgumentException If the game is finished or the playouts
+	 *                                  are less than 1.
+	 * @throws InterruptedException If interrupted while waiting the workers.
+	 */
+	public MonteCarloMove chooseMove(final TicTacToeGame ticTacToeGame, final long playouts,
+			final long timeout, final TimeUnit unit)
+					throws IllegalArgumentException, InterruptedException {
+
+		if (ticTacToeGame.isGameFinished()) {
+			throw new IllegalArgumentException("Invalid game, should not be finished");
+		}
+
+		if (playouts < 1) {
+			throw new IllegalArgumentException("Invalid playouts, should be 1 or above");
+		}
+
+		final PlayoutBoard rootBoard = PlayoutBoard.of(ticTacToeGame);
+
+		if (rootBoard.getEmptyCount() == 0) {
+			throw new IllegalArgumentException("Invalid game, should have empty boxes");
+		}
+
+		final long startNanos = System.nanoTime();
+
+		final long timeoutNanos = unit.toNanos(timeout);
+
+		final byte previousMark = ticTacToeGame.getPreviousMarkUsed();
+
+		// The root is the move of the previous player, "X" starting the games.
+		final MonteCarloNode root = new MonteCarloNode(-1,
+				(previousMark == TicTacToeMark.EMPTY) ? TicTacToeMark.O : previousMark);
+
+		root.expand(rootBoard);
+
+		final AtomicLong playoutsLeft = new AtomicLong(playouts);
+
+		final List<Callable<Long>> tasks = new ArrayList<Callable<Long>>(workers);
+
+		for (int worker = 0; worker < workers; worker++) {
+
+			tasks.add(new Callable<Long>() {
+
+				@Override
+				public Long call() {
+
+					return runPlayouts(root, rootBoard, playoutsLeft, startNanos,
+							timeoutNanos);
+
+				}
+
+			});
+
+		}
+
+		long playoutsDone = 0;
+
+		for (Future<Long> future: executor.invokeAll(tasks)) {
+
+			try {
+
+				playoutsDone += future.get();
+
+			} catch (ExecutionException e) {
+
+				throw new IllegalStateException("Monte Carlo worker failed", e.getCause());
+
+			}
+
+		}
+
+		final long elapsedNanos = System.nanoTime() - startNanos;
+
+		MonteCarloNode bestChild = root.mostVisitedChild();
+
+		if (bestChild == null) {
+
+			// No playout in time, any empty box.
+			bestChild = new MonteCarloNode(rootBoard.getEmptyBox(0),
+					TicTacToeMark.opponentOf(root.getMark()));
+
+		}
+
+		final int tableSize = rootBoard.getTableSize();
+
+		final int visits = bestChild.getVisits();
+
+		return new MonteCarloMove(bestChild.getBox() / tableSize,
+				bestChild.getBox() % tableSize, bestChild.getMark(), visits,
+				(visits == 0) ? 0 : bestChild.getReward() / (2.0 * visits),
+				playoutsDone, elapsedNanos);
+
+	}
+
+	/**
+	 * Shuts down the pool of the workers, if owned by the player.
+	 */
+	@Override
+	public void close() {
+
+		if (ownExecutor) {
+			executor.shutdownNow();
+		}
+
+	}
+
+	/**
+	 * Runs playouts of a worker until the budget runs out.
+	 *
+	 * @param root Root of the search tree.
+	 * @param rootBoard Board of the position of the root; not modified.
+	 * @param playoutsLeft Playouts left of every worker together.
+	 * @param startNanos System.nanoTime of the start of the search.
+	 * @param timeoutNanos Time budget of the search.
+	 * @return Playouts run by the worker.
+	 */
+	private long runPlayouts(final MonteCarloNode root, final PlayoutBoard rootBoard,
+			final AtomicLong playoutsLeft, final long startNanos, final long timeoutNanos) {
+
+		final PlayoutBoard playoutBoard = new PlayoutBoard(rootBoard.getTableSize(),
+				rootBoard.getWinLength());
+
+		final MonteCarloNode [] path = new MonteCarloNode[rootBoard.getEmptyCount() + 1];
+
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		long playoutsDone = 0;
+
+		while ((playoutsLeft.getAndDecrement() > 0)
+				&& (System.nanoTime() - startNanos < timeoutNanos)) {
+
+			playoutBoard.copyFrom(rootBoard);
+
+			root.addVirtualLoss();
+
+			path[0] = root;
+
+			int pathLength = 1;
+
+			MonteCarloNode node = root;
+
+			byte winnerMark = TicTacToeMark.EMPTY;
+
+			boolean finished = false;
+
+			// Selection down the tree, expanding the nodes visited often enough.
+			while (!finished) {
+
+				if (!node.isExpanded()) {
+
+					if (node.getVisits() < MonteCarloNode.EXPANSION_VISITS) {
+						break;
+					}
+
+					node.expand(playoutBoard);
+
+				}
+
+				final byte markToMove = TicTacToeMark.opponentOf(node.getMark());
+
+				final MonteCarloNode child = node.selectChild(markToMove, exploration);
+
+				if (child == null) {
+
+					finished = true;
+
+					break;
+
+				}
+
+				path[pathLength++] = child;
+
+				node = child;
+
+				if (playoutBoard.play(child.getBox(), markToMove)) {
+
+					winnerMark = markToMove;
+					finished = true;
+
+				} else if (playoutBoard.getEmptyCount() == 0) {
+
+					finished = true;
+
+				}
+
+			}
+
+			if (!finished) {
+				winnerMark = playoutBoard.playout(TicTacToeMark.opponentOf(node.getMark()), random);
+			}
+
+			for (int index = 0; index < pathLength; index++) {
+
+				path[index].backUp(winnerMark);
+
+			}
+
+			playoutsDone++;
+
+		}
+
+		return playoutsDone;
+
+	}
+
+	/**
+	 * Creates the fixed pool of daemon threads of a player.
+	 *
+	 * @param workers Threads of the pool.
+	 * @return The pool.
+	 * @throws IllegalArgumentException If the workers are less than 1.
+	 */
+	private static ExecutorService newWorkerPool(final int workers)
+			throws IllegalArgumentException {
+
+		validateWorkers(workers);
+
+		return Executors.newFixedThreadPool(workers, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(final Runnable runnable) {
+
+				final Thread thread = new Thread(runnable, "monte-carlo-worker");
+
+				thread.setDaemon(true);
+
+				return thread;
+
+			}
+
+		});
+
+	}
+
+	/**
+	 * Validates the workers of a search.
+	 *
+	 * @param workers Workers to validate.
+	 * @throws IllegalArgumentException If the workers are less than 1.
+	 */
+	private static void validateWorkers(final int workers) throws IllegalArgumentException {
+
+		if (workers < 1) {
+			throw new IllegalArgumentException("Invalid workers, should be 1 or above");
+		}
+
+	}
+
+}
@@ -0,0 +1,316 @@
+package org.tictactoe.game.mcts;
+
+import java.util.Random;
+
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+
+/**
+ * Mutable copy of a tic-tac-toe table for the playouts, reused by a worker so
+ * playing moves never allocates.
+ * <p>
+ * The empty boxes are kept in a list with the position of every box in it, so
+ * a random empty box is picked and removed in constant time. When a win is a
+ * whole line, the marks of every player are counted by line, column and
+ * diagonal, so a winner move is detected in constant time; for k-in-a-row
+ * games, the marks in a row around the move are counted, in O(k).
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class PlayoutBoard {
+
+	/**
+	 * X steps of the directions: line, column, diagonal and anti-diagonal.
+	 */
+	private static final int [] X_STEPS = {0, 1, 1, 1};
+
+	/**
+	 * Y steps of the directions: line, column, diagonal and anti-diagonal.
+	 */
+	private static final int [] Y_STEPS = {1, 0, 1, -1};
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the marks in a row needed to win.
+	 */
+	private final int winLength;
+
+	/**
+	 * Reference to the mark of every box.
+	 */
+	private final byte [] marks;
+
+	/**
+	 * Reference to the empty boxes, the first emptyCount ones.
+	 */
+	private final int [] emptyBoxes;
+
+	/**
+	 * Reference to the position of every empty box in emptyBoxes.
+	 */
+	private final int [] emptyPositions;
+
+	/**
+	 * Reference to the number of empty boxes.
+	 */
+	private int emptyCount;
+
+	/**
+	 * Reference to the "X" marks of every line, column and diagonal: lines
+	 * first, then columns, then the diagonals.
+	 */
+	private final int [] xCounts;
+
+	/**
+	 * Reference to the "O" marks of every line, column and diagonal.
+	 */
+	private final int [] oCounts;
+
+	/**
+	 * The constructor, of an empty table.
+	 *
+	 * @param tableSize Table size.
+	 * @param winLength Marks in a row needed to win.
+	 */
+	PlayoutBoard(final int tableSize, final int winLength) {
+
+		this.tableSize = tableSize;
+		this.winLength = winLength;
+
+		final int boxes = tableSize * tableSize;
+
+		marks = new byte[boxes];
+		emptyBoxes = new int[boxes];
+		emptyPositions = new int[boxes];
+
+		for (int box = 0; box < boxes; box++) {
+
+			emptyBoxes[box] = box;
+			emptyPositions[box] = box;
+
+		}
+
+		emptyCount = boxes;
+
+		xCounts = new int[2 * tableSize + 2];
+		oCounts = new int[2 * tableSize + 2];
+
+	}
+
+	/**
+	 * Builds the board of the position of a game.
+	 *
+	 * @param ticTacToeGame Game to copy.
+	 * @return The board.
+	 */
+	static PlayoutBoard of(final TicTacToeGame ticTacToeGame) {
+
+		final int tableSize = ticTacToeGame.getTableSize();
+
+		final PlayoutBoard playoutBoard = new PlayoutBoard(tableSize,
+				ticTacToeGame.getWinLength());
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+				final byte mark = ticTacToeGame.getMark(xAxisMove, yAxisMove);
+
+				if (mark != TicTacToeMark.EMPTY) {
+					playoutBoard.play(xAxisMove * tableSize + yAxisMove, mark);
+				}
+
+			}
+
+		}
+
+		return playoutBoard;
+
+	}
+
+	/**
+	 * Copies another board of the same table size into this one.
+	 *
+	 * @param playoutBoard Board to copy.
+	 */
+	void copyFrom(final PlayoutBoard playoutBoard) {
+
+		System.arraycopy(playoutBoard.marks, 0, marks, 0, marks.length);
+		System.arraycopy(playoutBoard.emptyBoxes, 0, emptyBoxes, 0, emptyBoxes.length);
+		System.arraycopy(playoutBoard.emptyPositions, 0, emptyPositions, 0,
+				emptyPositions.length);
+		System.arraycopy(playoutBoard.xCounts, 0, xCounts, 0, xCounts.length);
+		System.arraycopy(playoutBoard.oCounts, 0, oCounts, 0, oCounts.length);
+
+		emptyCount = playoutBoard.emptyCount;
+
+	}
+
+	/**
+	 * Places a mark in an empty box.
+	 *
+	 * @param box Box number, x * tableSize + y.
+	 * @param mark Either TicTacToeMark.X or TicTacToeMark.O.
+	 * @return True if the move wins; False otherwise.
+	 */
+	boolean play(final int box, final byte mark) {
+
+		marks[box] = mark;
+
+		final int position = emptyPositions[box];
+
+		final int lastBox = emptyBoxes[--emptyCount];
+
+		emptyBoxes[position] = lastBox;
+		emptyPositions[lastBox] = position;
+
+		if (winLength < tableSize) {
+			return isInARow(box, mark);
+		}
+
+		final int [] counts = (mark == TicTacToeMark.X) ? xCounts : oCounts;
+
+		final int xAxisMove = box / tableSize;
+		final int yAxisMove = box - xAxisMove * tableSize;
+
+		boolean winnerMove = ++counts[xAxisMove] == tableSize;
+
+		winnerMove |= ++counts[tableSize + yAxisMove] == tableSize;
+
+		if (xAxisMove == yAxisMove) {
+			winnerMove |= ++counts[2 * tableSize] == tableSize;
+		}
+
+		if (xAxisMove + yAxisMove == tableSize - 1) {
+			winnerMove |= ++counts[2 * tableSize + 1] == tableSize;
+		}
+
+		return winnerMove;
+
+	}
+
+	/**
+	 * Verifies if a move makes winLength marks in a row, scanning its 4
+	 * directions.
+	 *
+	 * @param box Box number of the move.
+	 * @param mark Mark of the move.
+	 * @return True if the move wins; False otherwise.
+	 */
+	private boolean isInARow(final int box, final byte mark) {
+
+		final int xAxisMove = box / tableSize;
+		final int yAxisMove = box - xAxisMove * tableSize;
+
+		for (int direction = 0; direction < X_STEPS.length; direction++) {
+
+			int inARow = 1;
+
+			for (int side = 1; side >= -1; side -= 2) {
+
+				final int xStep = side * X_STEPS[direction];
+				final int yStep = side * Y_STEPS[direction];
+
+				int xAxisBox = xAxisMove + xStep;
+				int yAxisBox = yAxisMove + yStep;
+
+				while ((inARow < winLength)
+						&& (xAxisBox >= 0) && (xAxisBox < tableSize)
+						&& (yAxisBox >= 0) && (yAxisBox < tableSize)
+						&& (marks[xAxisBox * tableSize + yAxisBox] == mark)) {
+
+					inARow++;
+
+					xAxisBox += xStep;
+					yAxisBox += yStep;
+
+				}
+
+			}
+
+			if (inARow >= winLength) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Plays random moves until the game finishes.
+	 *
+	 * @param mark Mark of the player to move.
+	 * @param random Source of the moves.
+	 * @return Mark of the winner; TicTacToeMark.EMPTY if a draw.
+	 */
+	byte playout(final byte mark, final Random random) {
+
+		byte nextMark = mark;
+
+		while (emptyCount > 0) {
+
+			if (play(emptyBoxes[random.nextInt(emptyCount)], nextMark)) {
+				return nextMark;
+			}
+
+			nextMark = TicTacToeMark.opponentOf(nextMark);
+
+		}
+
+		return TicTacToeMark.EMPTY;
+
+	}
+
+	/**
+	 * Gets the table size.
+	 *
+	 * @return Table size.
+	 */
+	int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	/**
+	 * Gets the marks in a row needed to win.
+	 *
+	 * @return Win length.
+	 */
+	int getWinLength() {
+
+		return winLength;
+
+	}
+
+	/**
+	 * Gets the number of empty boxes.
+	 *
+	 * @return Empty boxes.
+	 */
+	int getEmptyCount() {
+
+		return emptyCount;
+
+	}
+
+	/**
+	 * Gets an empty box.
+	 *
+	 * @param index Index from 0 to getEmptyCount() - 1.
+	 * @return The box number.
+	 */
+	int getEmptyBox(final int index) {
+
+		return emptyBoxes[index];
+
+	}
+
+}
@@ -0,0 +1,450 @@
+package org.tictactoe.game.server;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import org.tictactoe.game.GameRegistry;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+/**
+ * Selector loop of a TicTacToeServer thread, accepting connections and 
+ * serving their requests.
+ * <p>
+ * Every read is processed as a batch: the whole frames read are applied in 
+ * order and their responses written at once. The loop owns a direct buffer 
+ * for the reads and another one for the writes, shared by its connections, 
+ * which only keep a partial frame between reads and the responses the 
+ * socket did not take.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class TicTacToeEventLoop implements Runnable {
+
+	/**
+	 * Requests processed per read at most.
+	 */
+	private static final int REQUESTS_PER_READ = 4096;
+
+	/**
+	 * Reference to the games served.
+	 */
+	private final GameRegistry gameRegistry;
+
+	/**
+	 * Reference to the biggest table size of the games created.
+	 */
+	private final int maxTableSize;
+
+	/**
+	 * Reference to the channel accepting the connections.
+	 */
+	private final ServerSocketChannel serverChannel;
+
+	/**
+	 * Reference to the selector of the channels of the loop.
+	 */
+	private final Selector selector;
+
+	/**
+	 * Reference to the buffer of the requests read.
+	 */
+	private final ByteBuffer readBuffer = 
+			ByteBuffer.allocateDirect(REQUESTS_PER_READ * TicTacToeProtocol.REQUEST_SIZE);
+
+	/**
+	 * Reference to the buffer of the responses of a read; never overflows as 
+	 * it holds a response per request read.
+	 */
+	private final ByteBuffer writeBuffer = 
+			ByteBuffer.allocateDirect(REQUESTS_PER_READ * TicTacToeProtocol.RESPONSE_SIZE);
+
+	/**
+	 * Reference to know if the loop should stop.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param gameRegistry Games served.
+	 * @param maxTableSize Biggest table size of the games created.
+	 * @param serverChannel Channel accepting the connections, not blocking.
+	 * @throws IOException If the selector cannot be opened.
+	 */
+	TicTacToeEventLoop(final GameRegistry gameRegistry, final int maxTableSize,
+			final ServerSocketChannel serverChannel) throws IOException {
+
+		this.gameRegistry = gameRegistry;
+		this.maxTableSize = maxTableSize;
+		this.serverChannel = serverChannel;
+		this.selector = Selector.open();
+
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+	}
+
+	@Override
+	public void run() {
+
+		try {
+
+			while (!closed) {
+
+				selector.select();
+
+				final Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+
+				while (selectedKeys.hasNext()) {
+
+					final SelectionKey key = selectedKeys.next();
+
+					selectedKeys.remove();
+
+					if (key.isValid()) {
+						handle(key);
+					}
+
+				}
+
+			}
+
+		} catch (IOException e) {
+
+			// The selector failed; the connections of the loop are closed below.
+
+		} finally {
+
+			closeConnections();
+
+		}
+
+	}
+
+	/**
+	 * Stops the loop, closing its connections.
+	 */
+	void close() {
+
+		closed = true;
+
+		selector.wakeup();
+
+	}
+
+	/**
+	 * Handles a key ready.
+	 *
+	 * @param key The key.
+	 */
+	private void handle(final SelectionKey key) {
+
+		if (key.isAcceptable()) {
+
+			accept();
+
+			return;
+
+		}
+
+		final Connection connection = (Connection) key.attachment();
+
+		try {
+
+			if (key.isWritable()) {
+				flush(connection);
+			}
+
+			if (key.isValid() && key.isReadable()) {
+				read(connection);
+			}
+
+		} catch (IOException | RuntimeException e) {
+
+			// Only this connection is dropped; the loop keeps serving the others.
+			close(connection);
+
+		}
+
+	}
+
+	/**
+	 * Accepts a connection, if no other loop accepted it first.
+	 */
+	private void accept() {
+
+		SocketChannel channel = null;
+
+		try {
+
+			channel = serverChannel.accept();
+
+			if (channel == null) {
+				return;
+			}
+
+			channel.configureBlocking(false);
+
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+
+			final Connection connection = new Connection(channel);
+
+			connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+
+		} catch (IOException e) {
+
+			closeQuietly(channel);
+
+		}
+
+	}
+
+	/**
+	 * Reads the requests of a connection, processes the whole ones and writes
+	 * their responses.
+	 *
+	 * @param connection The connection.
+	 * @throws IOException If the connection failed.
+	 */
+	private void read(final Connection connection) throws IOException {
+
+		readBuffer.clear();
+
+		readBuffer.put(connection.partialRequest, 0, connection.partialRequestLength);
+
+		if (connection.channel.read(readBuffer) < 0) {
+
+			close(connection);
+
+			return;
+
+		}
+
+		readBuffer.flip();
+
+		writeBuffer.clear();
+
+		while (readBuffer.remaining() >= TicTacToeProtocol.REQUEST_SIZE) {
+
+			process(readBuffer, writeBuffer);
+
+		}
+
+		connection.partialRequestLength = readBuffer.remaining();
+
+		readBuffer.get(connection.partialRequest, 0, connection.partialRequestLength);
+
+		writeBuffer.flip();
+
+		connection.channel.write(writeBuffer);
+
+		if (writeBuffer.hasRemaining()) {
+
+			// Stops reading until the client takes the responses left.
+			connection.pendingResponses = ByteBuffer.allocate(writeBuffer.remaining());
+
+			connection.pendingResponses.put(writeBuffer).flip();
+
+			connection.key.interestOps(SelectionKey.OP_WRITE);
+
+		}
+
+	}
+
+	/**
+	 * Writes the responses the socket did not take before.
+	 *
+	 * @param connection The connection.
+	 * @throws IOException If the connection failed.
+	 */
+	private void flush(final Connection connection) throws IOException {
+
+		connection.channel.write(connection.pendingResponses);
+
+		if (!connection.pendingResponses.hasRemaining()) {
+
+			connection.pendingResponses = null;
+
+			connection.key.interestOps(SelectionKey.OP_READ);
+
+		}
+
+	}
+
+	/**
+	 * Processes a request.
+	 *
+	 * @param requests Buffer of the requests, positioned at the request.
+	 * @param responses Buffer to write the response to.
+	 */
+	private void process(final ByteBuffer requests, final ByteBuffer responses) {
+
+		final byte operation = requests.get();
+		final byte mark = requests.get();
+
+		requests.getShort();
+
+		final long gameId = requests.getLong();
+		final int xAxisMove = requests.getInt();
+		final int yAxisMove = requests.getInt();
+
+		switch (operation) {
+
+			case TicTacToeProtocol.MOVE:
+				final TicTacToeMoveResult moveResult =
+						gameRegistry.tryMove(gameId, xAxisMove, yAxisMove, mark);
+
+				responses.putLong(gameId).putInt((moveResult == null)
+						? TicTacToeProtocol.GAME_NOT_FOUND : moveResult.ordinal());
+				break;
+
+			case TicTacToeProtocol.CREATE:
+				if (isValidTableSize(xAxisMove)) {
+					responses.putLong(gameRegistry.createGame(xAxisMove))
+							.putInt(TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal());
+				} else {
+					responses.putLong(0).putInt(TicTacToeProtocol.INVALID_REQUEST);
+				}
+				break;
+
+			case TicTacToeProtocol.RESET:
+				if (!isValidTableSize(xAxisMove)) {
+					responses.putLong(gameId).putInt(TicTacToeProtocol.INVALID_REQUEST);
+				} else if (gameRegistry.resetGame(gameId, xAxisMove)) {
+					responses.putLong(gameId).putInt(TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal());
+				} else {
+					responses.putLong(gameId).putInt(TicTacToeProtocol.GAME_NOT_FOUND);
+				}
+				break;
+
+			default:
+				responses.putLong(gameId).putInt(TicTacToeProtocol.INVALID_REQUEST);
+				break;
+
+		}
+
+	}
+
+	/**
+	 * Verifies if a table size can be served.
+	 *
+	 * @param tableSize Table size.
+	 * @return True if from 3 to the biggest table size; False otherwise.
+	 */
+	private boolean isValidTableSize(final int tableSize) {
+
+		return (tableSize >= 3) && (tableSize <= maxTableSize);
+
+	}
+
+	/**
+	 * Closes a connection.
+	 *
+	 * @param connection The connection.
+	 */
+	private void close(final Connection connection) {
+
+		connection.key.cancel();
+
+		closeQuietly(connection.channel);
+
+	}
+
+	/**
+	 * Closes the connections of the loop and its selector.
+	 */
+	private void closeConnections() {
+
+		for (SelectionKey key: selector.keys()) {
+
+			if (key.channel() != serverChannel) {
+				closeQuietly((SocketChannel) key.channel());
+			}
+
+		}
+
+		try {
+
+			selector.close();
+
+		} catch (IOException e) {
+
+			// Nothing else to release.
+
+		}
+
+	}
+
+	/**
+	 * Closes a channel, ignoring the errors.
+	 *
+	 * @param channel The channel; null if none.
+	 */
+	private static void closeQuietly(final SocketChannel channel) {
+
+		if (channel == null) {
+			return;
+		}
+
+		try {
+
+			channel.close();
+
+		} catch (IOException e) {
+
+			// The connection is dropped anyway.
+
+		}
+
+	}
+
+	/**
+	 * Connection served by the loop.
+	 */
+	private static final class Connection {
+
+		/**
+		 * Reference to the channel of the connection.
+		 */
+		private final SocketChannel channel;
+
+		/**
+		 * Reference to the key of the channel in the selector.
+		 */
+		private SelectionKey key;
+
+		/**
+		 * Reference to the bytes of the last request read, not whole yet.
+		 */
+		private final byte [] partialRequest = new byte[TicTacToeProtocol.REQUEST_SIZE];
+
+		/**
+		 * Reference to the bytes of the last request read.
+		 */
+		private int partialRequestLength;
+
+		/**
+		 * Reference to the responses not written yet; null if none.
+		 */
+		private ByteBuffer pendingResponses;
+
+		/**
+		 * The constructor.
+		 *
+		 * @param channel Channel of the connection.
+		 */
+		private Connection(final SocketChannel channel) {
+
+			this.channel = channel;
+
+		}
+
+	}
+
+}
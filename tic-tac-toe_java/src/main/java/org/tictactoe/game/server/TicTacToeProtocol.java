@@ -0,0 +1,155 @@
+package org.tictactoe.game.server;
+
+import java.nio.ByteBuffer;
+
+import org.tictactoe.game.TicTacToeMoveResult;
+
+/**
+ * Binary protocol of TicTacToeServer: fixed-width big-endian frames, so many
+ * requests can be pipelined in a single write and answered in order.
+ * <p>
+ * Request, REQUEST_SIZE bytes:
+ * <pre>
+ *   byte  operation   CREATE, MOVE or RESET
+ *   byte  mark        TicTacToeMark.X or TicTacToeMark.O, for MOVE
+ *   short reserved    0
+ *   long  gameId      id of the game, ignored by CREATE
+ *   int   xAxisMove   X coordinate for MOVE; table size for CREATE and RESET
+ *   int   yAxisMove   Y coordinate for MOVE
+ * </pre>
+ * Response, RESPONSE_SIZE bytes:
+ * <pre>
+ *   long  gameId      id of the game, the new one for CREATE
+ *   int   result      ordinal of the TicTacToeMoveResult, whose game status
+ *                     is the one of the valid moves; INVALID_REQUEST or
+ *                     GAME_NOT_FOUND
+ * </pre>
+ * CREATE and RESET answer TicTacToeMoveResult.CONTINUE_NEXT_MOVE when done, 
+ * MOVE and RESET GAME_NOT_FOUND for unknown games.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeProtocol {
+
+	/**
+	 * Bytes of a request.
+	 */
+	public static final int REQUEST_SIZE = 20;
+
+	/**
+	 * Bytes of a response.
+	 */
+	public static final int RESPONSE_SIZE = 12;
+
+	/**
+	 * Operation creating a game.
+	 */
+	public static final byte CREATE = 1;
+
+	/**
+	 * Operation placing a move.
+	 */
+	public static final byte MOVE = 2;
+
+	/**
+	 * Operation resetting a game.
+	 */
+	public static final byte RESET = 3;
+
+	/**
+	 * Result of the requests with an unknown operation or an invalid table 
+	 * size.
+	 */
+	public static final int INVALID_REQUEST = -1;
+
+	/**
+	 * Result of the requests on games not registered, or expired.
+	 */
+	public static final int GAME_NOT_FOUND = -2;
+
+	/**
+	 * Reference to the move results, by ordinal.
+	 */
+	private static final TicTacToeMoveResult [] MOVE_RESULTS = TicTacToeMoveResult.values();
+
+	/**
+	 * Not instantiable.
+	 */
+	private TicTacToeProtocol() {
+		
+	}
+
+	/**
+	 * Writes a request creating a game.
+	 *
+	 * @param buffer Buffer to write, with REQUEST_SIZE bytes remaining.
+	 * @param tableSize Table size for the game.
+	 */
+	public static void writeCreate(final ByteBuffer buffer, final int tableSize) {
+
+		writeRequest(buffer, CREATE, (byte) 0, 0, tableSize, 0);
+
+	}
+
+	/**
+	 * Writes a request placing a move.
+	 *
+	 * @param buffer Buffer to write, with REQUEST_SIZE bytes remaining.
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move.
+	 */
+	public static void writeMove(final ByteBuffer buffer, final long gameId, 
+			final int xAxisMove, final int yAxisMove, final byte mark) {
+
+		writeRequest(buffer, MOVE, mark, gameId, xAxisMove, yAxisMove);
+
+	}
+
+	/**
+	 * Writes a request resetting a game.
+	 *
+	 * @param buffer Buffer to write, with REQUEST_SIZE bytes remaining.
+	 * @param gameId Id of the game.
+	 * @param tableSize Table size for the new game.
+	 */
+	public static void writeReset(final ByteBuffer buffer, final long gameId, 
+			final int tableSize) {
+
+		writeRequest(buffer, RESET, (byte) 0, gameId, tableSize, 0);
+
+	}
+
+	/**
+	 * Gets the move result of a response result.
+	 *
+	 * @param result Result of a response.
+	 * @return The move result; null for INVALID_REQUEST and GAME_NOT_FOUND.
+	 */
+	public static TicTacToeMoveResult moveResultOf(final int result) {
+
+		return ((result < 0) || (result >= MOVE_RESULTS.length)) ? null : MOVE_RESULTS[result];
+
+	}
+
+	/**
+	 * Writes a request.
+	 *
+	 * @param buffer Buffer to write.
+	 * @param operation Operation of the request.
+	 * @param mark Mark of the move.
+	 * @param gameId Id of the game.
+	 * @param xAxisMove X coordinate, or table size.
+	 * @param yAxisMove Y coordinate.
+	 */
+	private static void writeRequest(final ByteBuffer buffer, final byte operation,
+			final byte mark, final long gameId, final int xAxisMove, final int yAxisMove) {
+
+		buffer.put(operation).put(mark).putShort((short) 0).putLong(gameId)
+				.putInt(xAxisMove).putInt(yAxisMove);
+
+	}
+
+}
@@ -0,0 +1,204 @@
+package org.tictactoe.game.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+
+import org.tictactoe.game.GameRegistry;
+
+/**
+ * Non-blocking TCP server of the games of a GameRegistry, speaking the binary
+ * TicTacToeProtocol.
+ * <p>
+ * Runs a selector loop per thread, a thread per available processor by 
+ * default; every loop accepts connections from the same server socket and 
+ * serves them until closed. Clients may pipeline as many requests as they 
+ * want, the responses of a connection come in the same order.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class TicTacToeServer implements Closeable {
+
+	/**
+	 * Biggest table size of the games created by default.
+	 */
+	public static final int DEFAULT_MAX_TABLE_SIZE = 1024;
+
+	/**
+	 * Port listened by default by main.
+	 */
+	static final int DEFAULT_PORT = 7070;
+
+	/**
+	 * Connections waiting to be accepted at most.
+	 */
+	private static final int BACKLOG = 1024;
+
+	/**
+	 * Reference to the channel accepting the connections.
+	 */
+	private final ServerSocketChannel serverChannel;
+
+	/**
+	 * Reference to the selector loops.
+	 */
+	private final TicTacToeEventLoop [] eventLoops;
+
+	/**
+	 * Reference to the threads of the loops.
+	 */
+	private final Thread [] threads;
+
+	/**
+	 * The constructor, with a loop per available processor.
+	 *
+	 * @param gameRegistry Games to serve.
+	 * @param address Address to listen; port 0 for any free one.
+	 * @throws IOException If the address cannot be listened.
+	 */
+	public TicTacToeServer(final GameRegistry gameRegistry, final InetSocketAddress address)
+			throws IOException {
+
+		this(gameRegistry, address, Runtime.getRuntime().availableProcessors(),
+				DEFAULT_MAX_TABLE_SIZE);
+
+	}
+
+	/**
+	 * The constructor. The server is listening once built.
+	 *
+	 * @param gameRegistry Games to serve.
+	 * @param address Address to listen; port 0 for any free one.
+	 * @param eventLoops Threads serving the connections.
+	 * @param maxTableSize Biggest table size of the games created or reset by
+	 *                     the clients.
+	 * @throws IOException If the address cannot be listened.
+	 * @throws IllegalArgumentException If the registry is null, the loops are
+	 *                                  0 or less or the biggest table size is
+	 *                                  below 3.
+	 */
+	public TicTacToeServer(final GameRegistry gameRegistry, final InetSocketAddress address,
+			final int eventLoops, final int maxTableSize) 
+					throws IOException, IllegalArgumentException {
+
+		if (gameRegistry == null) {
+			throw new IllegalArgumentException("Invalid game registry, should not be null");
+		}
+
+		if (eventLoops < 1) {
+			throw new IllegalArgumentException("Invalid event loops, should be 1 or above");
+		}
+
+		if (maxTableSize < 3) {
+			throw new IllegalArgumentException("Invalid max table size, should be 3 or above");
+		}
+
+		serverChannel = ServerSocketChannel.open();
+
+		this.eventLoops = new TicTacToeEventLoop[eventLoops];
+
+		this.threads = new Thread[eventLoops];
+
+		try {
+
+			serverChannel.bind(address, BACKLOG);
+
+			serverChannel.configureBlocking(false);
+
+			for (int loop = 0; loop < eventLoops; loop++) {
+
+				this.eventLoops[loop] = 
+						new TicTacToeEventLoop(gameRegistry, maxTableSize, serverChannel);
+
+			}
+
+		} catch (IOException e) {
+
+			serverChannel.close();
+
+			throw e;
+
+		}
+
+		for (int loop = 0; loop < eventLoops; loop++) {
+
+			threads[loop] = new Thread(this.eventLoops[loop], "tic-tac-toe-server-" + loop);
+
+			threads[loop].start();
+
+		}
+
+	}
+
+	/**
+	 * Gets the address listened.
+	 *
+	 * @return The address, with the actual port.
+	 * @throws IOException If the server is closed.
+	 */
+	public InetSocketAddress getLocalAddress() throws IOException {
+
+		return (InetSocketAddress) serverChannel.getLocalAddress();
+
+	}
+
+	/**
+	 * Stops the server, closing every connection, and waits for the loops to
+	 * finish.
+	 *
+	 * @throws IOException If the server socket cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+
+		for (TicTacToeEventLoop eventLoop: eventLoops) {
+
+			eventLoop.close();
+
+		}
+
+		try {
+
+			for (Thread thread: threads) {
+
+				thread.join();
+
+			}
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+		} finally {
+
+			serverChannel.close();
+
+		}
+
+	}
+
+	/**
+	 * Serves the games of a new registry until the process is stopped.
+	 *
+	 * @param args Port to listen, 7070 by default, and the event loops, one 
+	 *             per available processor by default.
+	 * @throws IOException If the port cannot be listened.
+	 */
+	public static void main(final String [] args) throws IOException {
+
+		final int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+		final int eventLoops = (args.length > 1) 
+				? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		final TicTacToeServer server = new TicTacToeServer(new GameRegistry(), 
+				new InetSocketAddress(port), eventLoops, DEFAULT_MAX_TABLE_SIZE);
+
+		System.out.println("Listening on " + server.getLocalAddress() + " with " 
+				+ eventLoops + " event loops");
+
+	}
+
+}
@@ -0,0 +1,494 @@
+package org.tictactoe.game.solver;
+
+/**
+ * Depth-limited negamax search with alpha-beta pruning over bitboard
+ * positions, backed by a transposition table.
+ * <p>
+ * Scores are for the player to move: winner scores are WIN_SCORE minus the
+ * plies to the win, so faster wins score higher; other positions score far
+ * below. A search is used by a single thread; the table may be shared.
+ * <p>
+ * With a split depth, the positions with at least that depth left are
+ * searched in parallel in the ForkJoinPool running the search (young
+ * brothers wait): the first move is searched alone for a bound, then the
+ * other moves are forked at once with that bound. A cutoff cancels the
+ * siblings still running.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class NegamaxSearch {
+
+	/**
+	 * Score of a win on the move.
+	 */
+	static final int WIN_SCORE = 10000;
+
+	/**
+	 * Lowest score of a proven win; 64 plies at most on an 8x8 table.
+	 */
+	static final int PROVEN_WIN_SCORE = WIN_SCORE - 100;
+
+	/**
+	 * Score above any score.
+	 */
+	static final int INFINITE_SCORE = WIN_SCORE + 1;
+
+	/**
+	 * Mask of the number of nodes between verifications of the deadline.
+	 */
+	private static final long DEADLINE_CHECK_MASK = (1 << 12) - 1;
+
+	/**
+	 * Reference to the geometry of the table.
+	 */
+	private final SolverGeometry geometry;
+
+	/**
+	 * Reference to the transposition table.
+	 */
+	private final TranspositionTable transpositionTable;
+
+	/**
+	 * Reference to the System.nanoTime of the deadline.
+	 */
+	private final long deadlineNanos;
+
+	/**
+	 * Reference to the least depth left to search the moves of a position in
+	 * parallel; 0 to search sequentially.
+	 */
+	private final int splitDepth;
+
+	/**
+	 * Reference to the split point of the position searched, to stop when it
+	 * is cancelled; null if none.
+	 */
+	private final SplitPoint splitPoint;
+
+	/**
+	 * Reference to the moves of the position searched at every ply.
+	 */
+	private final int [][] moves;
+
+	/**
+	 * Reference to the number of nodes searched.
+	 */
+	private long nodes;
+
+	/**
+	 * Reference to know if the deadline was reached or the split point
+	 * cancelled.
+	 */
+	private boolean aborted;
+
+	/**
+	 * Reference to the best move of the position searched last at the root.
+	 */
+	private int rootMove = -1;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param geometry Geometry of the table.
+	 * @param transpositionTable Transposition table.
+	 * @param deadlineNanos System.nanoTime of the deadline.
+	 * @param splitDepth Least depth left to search the moves of a position in
+	 *                   parallel; 0 to search sequentially.
+	 * @param splitPoint Split point of the position searched; null if none.
+	 */
+	NegamaxSearch(final SolverGeometry geometry, final TranspositionTable transpositionTable,
+			final long deadlineNanos, final int splitDepth, final SplitPoint splitPoint) {
+
+		this.geometry = geometry;
+		this.transpositionTable = transpositionTable;
+		this.deadlineNanos = deadlineNanos;
+		this.splitDepth = splitDepth;
+		this.splitPoint = splitPoint;
+
+		// Rows allocated on the first search of their ply.
+		moves = new int[geometry.getMoveOrder().length + 1][];
+
+	}
+
+	/**
+	 * Searches a position.
+	 *
+	 * @param own Boxes of the player to move.
+	 * @param opponent Boxes of the opponent.
+	 * @param depth Plies to search.
+	 * @param ply Plies from the root.
+	 * @param alpha Score the player to move is already assured.
+	 * @param beta Score the opponent is already assured, negated.
+	 * @return The score; meaningless if the search is aborted.
+	 */
+	int search(final long own, final long opponent, final int depth, final int ply,
+			final int alpha, final int beta) {
+
+		if (((++nodes & DEADLINE_CHECK_MASK) == 0) && ((System.nanoTime() - deadlineNanos > 0)
+				|| ((splitPoint != null) && splitPoint.isCancelled()))) {
+			aborted = true;
+		}
+
+		if (aborted) {
+			return 0;
+		}
+
+		final long empty = geometry.getFullMask() & ~(own | opponent);
+
+		if (empty == 0) {
+			return 0;
+		}
+
+		final long winnerBoxes = geometry.winnerBoxes(own, empty);
+
+		if (winnerBoxes != 0) {
+
+			setRootMove(ply, Long.numberOfTrailingZeros(winnerBoxes));
+
+			return WIN_SCORE - (ply + 1);
+
+		}
+
+		final long threats = geometry.winnerBoxes(opponent, empty);
+
+		if ((threats & (threats - 1)) != 0) {
+
+			// Only one of the threats can be blocked.
+			setRootMove(ply, Long.numberOfTrailingZeros(threats));
+
+			return -(WIN_SCORE - (ply + 2));
+
+		}
+
+		final int searchDepth = Math.min(depth, Long.bitCount(empty));
+
+		if (searchDepth == 0) {
+			return geometry.evaluate(own, opponent);
+		}
+
+		final long key = geometry.keyOf(own, opponent);
+
+		final long data = transpositionTable.probe(key);
+
+		int tableMove = -1;
+
+		int lowScore = alpha;
+
+		if (data != TranspositionTable.NO_ENTRY) {
+
+			tableMove = TranspositionTable.moveOf(data);
+
+			if ((ply > 0) && (TranspositionTable.depthOf(data) >= searchDepth)) {
+
+				final int score = fromTable(TranspositionTable.scoreOf(data), ply);
+
+				final int bound = TranspositionTable.boundOf(data);
+
+				if ((bound == TranspositionTable.EXACT)
+						|| ((bound == TranspositionTable.LOWER_BOUND) && (score >= beta))
+						|| ((bound == TranspositionTable.UPPER_BOUND) && (score <= alpha))) {
+					return score;
+				}
+
+			}
+
+		}
+
+		// A single threat forces the move.
+		final long candidates = (threats != 0) ? threats : empty;
+
+		if (moves[ply] == null) {
+			moves[ply] = new int[geometry.getMoveOrder().length];
+		}
+
+		final int [] plyMoves = moves[ply];
+
+		final int movesCount = orderMoves(candidates, tableMove, plyMoves);
+
+		int bestScore = -INFINITE_SCORE;
+
+		int bestMove = -1;
+
+		for (int index = 0; index < movesCount; index++) {
+
+			if ((index == 1) && (splitDepth > 0) && (searchDepth >= splitDepth)
+					&& (movesCount > 2)) {
+
+				// The eldest brother gave a bound, the rest are searched in parallel.
+				final long bestOfSiblings = searchSiblings(own, opponent, plyMoves, movesCount,
+						searchDepth - 1, ply + 1, beta, lowScore);
+
+				if (aborted) {
+					return 0;
+				}
+
+				final int score = (int) (bestOfSiblings >> 32);
+
+				if (score > bestScore) {
+
+					bestScore = score;
+
+					bestMove = (int) bestOfSiblings;
+
+				}
+
+				break;
+
+			}
+
+			final int box = plyMoves[index];
+
+			final int score = -search(opponent, own | (1L << box), searchDepth - 1, ply + 1,
+					-beta, -lowScore);
+
+			if (aborted) {
+				return 0;
+			}
+
+			if (score > bestScore) {
+
+				bestScore = score;
+
+				bestMove = box;
+
+				if (score > lowScore) {
+
+					lowScore = score;
+
+					if (lowScore >= beta) {
+						break;
+					}
+
+				}
+
+			}
+
+		}
+
+		final int bound;
+
+		if (bestScore <= alpha) {
+
+			bound = TranspositionTable.UPPER_BOUND;
+
+		} else if (bestScore >= beta) {
+
+			bound = TranspositionTable.LOWER_BOUND;
+
+		} else {
+
+			bound = TranspositionTable.EXACT;
+
+		}
+
+		transpositionTable.store(key, TranspositionTable.pack(
+				toTable(bestScore, ply), searchDepth, bound, bestMove));
+
+		setRootMove(ply, bestMove);
+
+		return bestScore;
+
+	}
+
+	/**
+	 * Lists the moves of a position, the best move of the transposition table
+	 * first and then in the order of the geometry.
+	 *
+	 * @param candidates Boxes of the moves.
+	 * @param tableMove Best move of the transposition table; -1 if none.
+	 * @param plyMoves Array to fill with the moves.
+	 * @return Number of moves.
+	 */
+	private int orderMoves(final long candidates, final int tableMove, final int [] plyMoves) {
+
+		int movesCount = 0;
+
+		if ((tableMove >= 0) && ((candidates & (1L << tableMove)) != 0)) {
+			plyMoves[movesCount++] = tableMove;
+		}
+
+		for (int box: geometry.getMoveOrder()) {
+
+			if ((box != tableMove) && ((candidates & (1L << box)) != 0)) {
+				plyMoves[movesCount++] = box;
+			}
+
+		}
+
+		return movesCount;
+
+	}
+
+	/**
+	 * Searches the moves of a position but the first one in parallel, forking
+	 * a task per move in the current ForkJoinPool.
+	 *
+	 * @param own Boxes of the player to move.
+	 * @param opponent Boxes of the opponent.
+	 * @param plyMoves Moves of the position.
+	 * @param movesCount Number of moves.
+	 * @param depth Plies to search after the moves.
+	 * @param ply Plies from the root after the moves.
+	 * @param beta Score the opponent is already assured, negated.
+	 * @param alpha Score the first move assured.
+	 * @return The best score in the high 32 bits and its move in the low ones.
+	 */
+	private long searchSiblings(final long own, final long opponent, final int [] plyMoves,
+			final int movesCount, final int depth, final int ply, final int beta,
+			final int alpha) {
+
+		final SplitPoint siblingsSplitPoint = new SplitPoint(splitPoint);
+
+		final ParallelSearchTask [] tasks = new ParallelSearchTask[movesCount - 1];
+
+		for (int index = 1; index < movesCount; index++) {
+
+			final ParallelSearchTask task = new ParallelSearchTask(geometry, transpositionTable,
+					deadlineNanos, splitDepth, siblingsSplitPoint, opponent,
+					own | (1L << plyMoves[index]), depth, ply, -beta, -alpha);
+
+			tasks[index - 1] = task;
+
+			task.fork();
+
+		}
+
+		int bestScore = -INFINITE_SCORE;
+
+		int bestMove = -1;
+
+		for (int index = 0; index < tasks.length; index++) {
+
+			final ParallelSearchTask task = tasks[index];
+
+			task.join();
+
+			nodes += task.getNodes();
+
+			if (task.isAborted()) {
+
+				// Stopped by a cutoff of a sibling, or by the deadline.
+				aborted |= !siblingsSplitPoint.isCutOff();
+
+				continue;
+
+			}
+
+			final int score = -task.getScore();
+
+			if (score > bestScore) {
+
+				bestScore = score;
+
+				bestMove = plyMoves[index + 1];
+
+				if (score >= beta) {
+					siblingsSplitPoint.cutOff();
+				}
+
+			}
+
+		}
+
+		return ((long) bestScore << 32) | (bestMove & 0xFFFFFFFFL);
+
+	}
+
+	/**
+	 * Gets the number of nodes searched.
+	 *
+	 * @return Nodes searched.
+	 */
+	long getNodes() {
+
+		return nodes;
+
+	}
+
+	/**
+	 * Verifies if the deadline was reached or the split point cancelled, so the
+	 * last search is not valid.
+	 *
+	 * @return True if aborted; False otherwise.
+	 */
+	boolean isAborted() {
+
+		return aborted;
+
+	}
+
+	/**
+	 * Gets the best move of the position searched last at the root.
+	 *
+	 * @return The box number; -1 if none.
+	 */
+	int getRootMove() {
+
+		return rootMove;
+
+	}
+
+	/**
+	 * Keeps the best move of the root.
+	 *
+	 * @param ply Plies from the root.
+	 * @param box Box number of the move.
+	 */
+	private void setRootMove(final int ply, final int box) {
+
+		if (ply == 0) {
+			rootMove = box;
+		}
+
+	}
+
+	/**
+	 * Converts a score relative to the root to a score relative to the
+	 * position, as stored in the transposition table.
+	 *
+	 * @param score Score relative to the root.
+	 * @param ply Plies from the root.
+	 * @return Score relative to the position.
+	 */
+	private static int toTable(final int score, final int ply) {
+
+		if (score > PROVEN_WIN_SCORE) {
+
+			return score + ply;
+
+		} else if (score < -PROVEN_WIN_SCORE) {
+
+			return score - ply;
+
+		}
+
+		return score;
+
+	}
+
+	/**
+	 * Converts a score stored in the transposition table to a score relative
+	 * to the root.
+	 *
+	 * @param score Score relative to the position.
+	 * @param ply Plies from the root.
+	 * @return Score relative to the root.
+	 */
+	private static int fromTable(final int score, final int ply) {
+
+		if (score > PROVEN_WIN_SCORE) {
+
+			return score - ply;
+
+		} else if (score < -PROVEN_WIN_SCORE) {
+
+			return score + ply;
+
+		}
+
+		return score;
+
+	}
+
+}
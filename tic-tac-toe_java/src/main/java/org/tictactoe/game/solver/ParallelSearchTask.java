@@ -0,0 +1,143 @@
+package org.tictactoe.game.solver;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Search of a position in a ForkJoinPool, splitting its own moves in more
+ * tasks when deep enough.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class ParallelSearchTask extends RecursiveAction {
+
+	/**
+	 * Serial version, tasks are never serialized.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Reference to the search of the position.
+	 */
+	private final transient NegamaxSearch search;
+
+	/**
+	 * Reference to the boxes of the player to move.
+	 */
+	private final long own;
+
+	/**
+	 * Reference to the boxes of the opponent.
+	 */
+	private final long opponent;
+
+	/**
+	 * Reference to the plies to search.
+	 */
+	private final int depth;
+
+	/**
+	 * Reference to the plies from the root.
+	 */
+	private final int ply;
+
+	/**
+	 * Reference to the score the player to move is already assured.
+	 */
+	private final int alpha;
+
+	/**
+	 * Reference to the score the opponent is already assured, negated.
+	 */
+	private final int beta;
+
+	/**
+	 * Reference to the score of the position, once searched.
+	 */
+	private int score;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param geometry Geometry of the table.
+	 * @param transpositionTable Transposition table, shared by every task.
+	 * @param deadlineNanos System.nanoTime of the deadline.
+	 * @param splitDepth Least depth left to search the moves of a position in
+	 *                   parallel.
+	 * @param splitPoint Split point of the parent position; null for the root.
+	 * @param own Boxes of the player to move.
+	 * @param opponent Boxes of the opponent.
+	 * @param depth Plies to search.
+	 * @param ply Plies from the root.
+	 * @param alpha Score the player to move is already assured.
+	 * @param beta Score the opponent is already assured, negated.
+	 */
+	ParallelSearchTask(final SolverGeometry geometry, final TranspositionTable transpositionTable,
+			final long deadlineNanos, final int splitDepth, final SplitPoint splitPoint,
+			final long own, final long opponent, final int depth, final int ply,
+			final int alpha, final int beta) {
+
+		search = new NegamaxSearch(geometry, transpositionTable, deadlineNanos, splitDepth,
+				splitPoint);
+
+		this.own = own;
+		this.opponent = opponent;
+		this.depth = depth;
+		this.ply = ply;
+		this.alpha = alpha;
+		this.beta = beta;
+
+	}
+
+	@Override
+	protected void compute() {
+
+		score = search.search(own, opponent, depth, ply, alpha, beta);
+
+	}
+
+	/**
+	 * Gets the score of the position for the player to move.
+	 *
+	 * @return The score; meaningless if aborted.
+	 */
+	int getScore() {
+
+		return score;
+
+	}
+
+	/**
+	 * Verifies if the search was aborted.
+	 *
+	 * @return True if aborted; False otherwise.
+	 */
+	boolean isAborted() {
+
+		return search.isAborted();
+
+	}
+
+	/**
+	 * Gets the number of nodes searched.
+	 *
+	 * @return Nodes searched.
+	 */
+	long getNodes() {
+
+		return search.getNodes();
+
+	}
+
+	/**
+	 * Gets the best move of the root, if the task searched it.
+	 *
+	 * @return The box number; -1 if none.
+	 */
+	int getRootMove() {
+
+		return search.getRootMove();
+
+	}
+
+}
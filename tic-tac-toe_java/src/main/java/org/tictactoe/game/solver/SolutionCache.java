@@ -0,0 +1,318 @@
+package org.tictactoe.game.solver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.tictactoe.game.TicTacToeCanonicalPosition;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeSymmetry;
+
+/**
+ * Bounded cache of solved positions, keyed on their canonical form so the 8
+ * orientations of a position share a single entry.
+ * <p>
+ * Solutions are stored with their move in the canonical orientation and
+ * moved back to the orientation of the game asking for them. When full, the
+ * entry to evict is found by the CLOCK algorithm: a hand sweeps the entries,
+ * evicting the first one not read since its last pass.
+ * <p>
+ * Every method is synchronized, so a cache may be shared by several threads;
+ * the canonical form is computed before taking the lock.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class SolutionCache {
+
+	/**
+	 * Reference to the slot of every position cached.
+	 */
+	private final Map<TicTacToeCanonicalPosition, Integer> slots;
+
+	/**
+	 * Reference to the position of every slot; null if free.
+	 */
+	private final TicTacToeCanonicalPosition [] positions;
+
+	/**
+	 * Reference to the solution of every slot, in the canonical orientation.
+	 */
+	private final TicTacToeSolution [] solutions;
+
+	/**
+	 * Reference to know if every slot was read since the last pass of the hand.
+	 */
+	private final boolean [] referenced;
+
+	/**
+	 * Reference to the next slot of the hand.
+	 */
+	private int hand;
+
+	/**
+	 * Reference to the number of slots used.
+	 */
+	private int size;
+
+	/**
+	 * Reference to the reads finding the position.
+	 */
+	private long hits;
+
+	/**
+	 * Reference to the reads not finding the position.
+	 */
+	private long misses;
+
+	/**
+	 * Reference to the entries evicted to store others.
+	 */
+	private long evictions;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param capacity Maximum number of positions cached.
+	 * @throws IllegalArgumentException If the capacity is less than 1.
+	 */
+	public SolutionCache(final int capacity) throws IllegalArgumentException {
+
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid capacity, should be 1 or above");
+		}
+
+		slots = new HashMap<TicTacToeCanonicalPosition, Integer>(
+				(int) Math.min(Integer.MAX_VALUE, capacity * 4L / 3 + 1));
+
+		positions = new TicTacToeCanonicalPosition[capacity];
+		solutions = new TicTacToeSolution[capacity];
+		referenced = new boolean[capacity];
+
+	}
+
+	/**
+	 * Gets the solution of the position of a game, in its orientation.
+	 *
+	 * @param ticTacToeGame Game whose position to look up; not modified.
+	 * @return The solution; null if not cached.
+	 */
+	public TicTacToeSolution get(final TicTacToeGame ticTacToeGame) {
+
+		final TicTacToeCanonicalPosition position = TicTacToeSymmetry.canonicalize(ticTacToeGame);
+
+		final TicTacToeSolution canonicalSolution;
+
+		synchronized (this) {
+
+			final Integer slot = slots.get(position);
+
+			if (slot == null) {
+
+				misses++;
+
+				return null;
+
+			}
+
+			hits++;
+
+			referenced[slot] = true;
+
+			canonicalSolution = solutions[slot];
+
+		}
+
+		return orient(canonicalSolution, position, false);
+
+	}
+
+	/**
+	 * Caches the solution of the position of a game, replacing the one of any
+	 * of its orientations.
+	 *
+	 * @param ticTacToeGame Game whose position was solved; not modified.
+	 * @param solution Solution of the position, in the orientation of the game.
+	 * @throws IllegalArgumentException If the solution is null.
+	 */
+	public void put(final TicTacToeGame ticTacToeGame, final TicTacToeSolution solution)
+			throws IllegalArgumentException {
+
+		if (solution == null) {
+			throw new IllegalArgumentException("Invalid solution, should not be null");
+		}
+
+		final TicTacToeCanonicalPosition position = TicTacToeSymmetry.canonicalize(ticTacToeGame);
+
+		final TicTacToeSolution canonicalSolution = orient(solution, position, true);
+
+		synchronized (this) {
+
+			final Integer slot = slots.get(position);
+
+			if (slot != null) {
+
+				positions[slot] = position;
+				solutions[slot] = canonicalSolution;
+
+				return;
+
+			}
+
+			final int freeSlot = (size < positions.length) ? size++ : evict();
+
+			slots.put(position, freeSlot);
+
+			positions[freeSlot] = position;
+			solutions[freeSlot] = canonicalSolution;
+			referenced[freeSlot] = false;
+
+		}
+
+	}
+
+	/**
+	 * Gets the maximum number of positions cached.
+	 *
+	 * @return Capacity.
+	 */
+	public int getCapacity() {
+
+		return positions.length;
+
+	}
+
+	/**
+	 * Gets the number of positions cached.
+	 *
+	 * @return Positions cached.
+	 */
+	public synchronized int size() {
+
+		return size;
+
+	}
+
+	/**
+	 * Gets the reads finding the position, in any orientation.
+	 *
+	 * @return Hits.
+	 */
+	public synchronized long getHits() {
+
+		return hits;
+
+	}
+
+	/**
+	 * Gets the reads not finding the position.
+	 *
+	 * @return Misses.
+	 */
+	public synchronized long getMisses() {
+
+		return misses;
+
+	}
+
+	/**
+	 * Gets the entries evicted to store others.
+	 *
+	 * @return Evictions.
+	 */
+	public synchronized long getEvictions() {
+
+		return evictions;
+
+	}
+
+	/**
+	 * Removes every position and resets the statistics.
+	 */
+	public synchronized void clear() {
+
+		slots.clear();
+
+		Arrays.fill(positions, null);
+		Arrays.fill(solutions, null);
+		Arrays.fill(referenced, false);
+
+		hand = 0;
+		size = 0;
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+
+		return "SolutionCache [capacity=" + positions.length + ", size=" + size + ", hits="
+				+ hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+
+	}
+
+	/**
+	 * Evicts the first slot the hand finds not read since its last pass,
+	 * clearing the reads of the slots it passes. The cache should be full.
+	 *
+	 * @return The slot evicted.
+	 */
+	private int evict() {
+
+		while (referenced[hand]) {
+
+			referenced[hand] = false;
+
+			hand = (hand + 1) % positions.length;
+
+		}
+
+		final int slot = hand;
+
+		hand = (hand + 1) % positions.length;
+
+		slots.remove(positions[slot]);
+
+		evictions++;
+
+		return slot;
+
+	}
+
+	/**
+	 * Moves the move of a solution between the orientation of a game and the
+	 * canonical one.
+	 *
+	 * @param solution Solution to move.
+	 * @param position Canonical position of the game.
+	 * @param toCanonical True to move it to the canonical orientation; False
+	 *                    to move it back to the one of the game.
+	 * @return The moved solution.
+	 */
+	private static TicTacToeSolution orient(final TicTacToeSolution solution,
+			final TicTacToeCanonicalPosition position, final boolean toCanonical) {
+
+		if (!solution.hasMove() || (position.getTransform() == 0)) {
+			return solution;
+		}
+
+		final int tableSize = position.getTableSize();
+
+		final int box = toCanonical
+				? position.toCanonicalBox(solution.getXAxisMove(), solution.getYAxisMove())
+				: position.fromCanonicalBox(solution.getXAxisMove() * tableSize
+						+ solution.getYAxisMove());
+
+		return new TicTacToeSolution(box / tableSize, box % tableSize, solution.getMark(),
+				solution.getOutcome(), solution.getPliesToEnd(), solution.getDepth(),
+				solution.getNodes());
+
+	}
+
+}
@@ -0,0 +1,410 @@
+package org.tictactoe.game.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.tictactoe.game.LongBitTicTacToeBoard;
+
+/**
+ * Precalculated masks of a table size for the solver, whose positions are a
+ * long bitset per player with the box (x, y) as bit number x * tableSize + y.
+ * <p>
+ * Instances are immutable and shared between searches.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class SolverGeometry {
+
+	/**
+	 * X steps of the directions of the winner lines: line, column, diagonal
+	 * and anti-diagonal.
+	 */
+	private static final int [] X_STEPS = {0, 1, 1, 1};
+
+	/**
+	 * Y steps of the directions of the winner lines.
+	 */
+	private static final int [] Y_STEPS = {1, 0, 1, -1};
+
+	/**
+	 * Geometries of every table size and win length supported, by table size
+	 * and win length.
+	 */
+	private static final SolverGeometry [][] GEOMETRIES =
+			new SolverGeometry[LongBitTicTacToeBoard.MAX_TABLE_SIZE + 1][];
+
+	static {
+
+		for (int tableSize = 1; tableSize < GEOMETRIES.length; tableSize++) {
+
+			GEOMETRIES[tableSize] = new SolverGeometry[tableSize + 1];
+
+			for (int winLength = 1; winLength <= tableSize; winLength++) {
+
+				GEOMETRIES[tableSize][winLength] = new SolverGeometry(tableSize, winLength);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Reference to the table size.
+	 */
+	private final int tableSize;
+
+	/**
+	 * Reference to the marks in a row needed to win.
+	 */
+	private final int winLength;
+
+	/**
+	 * Reference to the mask of every box of the table.
+	 */
+	private final long fullMask;
+
+	/**
+	 * Reference to the masks of every winner line: the win length boxes in a
+	 * row of every line, column and diagonal.
+	 */
+	private final long [] lineMasks;
+
+	/**
+	 * Reference to the masks of the winner lines through every box.
+	 */
+	private final long [][] boxLineMasks;
+
+	/**
+	 * Reference to the boxes sorted by the number of winner lines through them,
+	 * the most promising moves first.
+	 */
+	private final int [] moveOrder;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param tableSize Table size.
+	 * @param winLength Marks in a row needed to win.
+	 */
+	private SolverGeometry(final int tableSize, final int winLength) {
+
+		this.tableSize = tableSize;
+		this.winLength = winLength;
+
+		final int boxes = tableSize * tableSize;
+
+		fullMask = (boxes == Long.SIZE) ? -1L : (1L << boxes) - 1;
+
+		final List<Long> lines = new ArrayList<Long>();
+
+		// Every window of winLength boxes starting in the table and ending in it.
+		for (int direction = 0; direction < X_STEPS.length; direction++) {
+
+			for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+				for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+					final int xAxisEnd = xAxisMove + X_STEPS[direction] * (winLength - 1);
+					final int yAxisEnd = yAxisMove + Y_STEPS[direction] * (winLength - 1);
+
+					if ((xAxisEnd >= tableSize) || (yAxisEnd < 0) || (yAxisEnd >= tableSize)) {
+						continue;
+					}
+
+					long line = 0;
+
+					for (int box = 0; box < winLength; box++) {
+
+						line |= bitOf(xAxisMove + X_STEPS[direction] * box,
+								yAxisMove + Y_STEPS[direction] * box);
+
+					}
+
+					lines.add(line);
+
+				}
+
+			}
+
+		}
+
+		lineMasks = new long[lines.size()];
+
+		for (int line = 0; line < lineMasks.length; line++) {
+
+			lineMasks[line] = lines.get(line);
+
+		}
+
+		boxLineMasks = new long[boxes][];
+
+		final Integer [] boxesOrder = new Integer[boxes];
+
+		for (int box = 0; box < boxes; box++) {
+
+			long [] boxLines = new long[lineMasks.length];
+
+			int count = 0;
+
+			for (long lineMask: lineMasks) {
+
+				if ((lineMask & (1L << box)) != 0) {
+					boxLines[count++] = lineMask;
+				}
+
+			}
+
+			boxLineMasks[box] = Arrays.copyOf(boxLines, count);
+
+			boxesOrder[box] = box;
+
+		}
+
+		Arrays.sort(boxesOrder, new Comparator<Integer>() {
+
+			@Override
+			public int compare(final Integer box, final Integer otherBox) {
+
+				final int lines = boxLineMasks[otherBox].length - boxLineMasks[box].length;
+
+				return (lines != 0) ? lines : centerDistance(box) - centerDistance(otherBox);
+
+			}
+
+		});
+
+		moveOrder = new int[boxes];
+
+		for (int box = 0; box < boxes; box++) {
+
+			moveOrder[box] = boxesOrder[box];
+
+		}
+
+	}
+
+	/**
+	 * Gets the geometry of a table size and win length.
+	 *
+	 * @param tableSize Table size.
+	 * @param winLength Marks in a row needed to win.
+	 * @return The geometry.
+	 * @throws IllegalArgumentException If the table size is above 8 or the win
+	 *                                  length above the table size.
+	 */
+	static SolverGeometry of(final int tableSize, final int winLength)
+			throws IllegalArgumentException {
+
+		if ((tableSize < 1) || (tableSize >= GEOMETRIES.length)) {
+			throw new IllegalArgumentException(
+					"Invalid table size for the solver, should be 8 or below");
+		}
+
+		if ((winLength < 1) || (winLength > tableSize)) {
+			throw new IllegalArgumentException(
+					"Invalid win length for the solver, should be the table size or below");
+		}
+
+		return GEOMETRIES[tableSize][winLength];
+
+	}
+
+	/**
+	 * Gets the table size.
+	 *
+	 * @return Table size.
+	 */
+	int getTableSize() {
+
+		return tableSize;
+
+	}
+
+	/**
+	 * Gets the marks in a row needed to win.
+	 *
+	 * @return Win length.
+	 */
+	int getWinLength() {
+
+		return winLength;
+
+	}
+
+	/**
+	 * Gets the mask of every box of the table.
+	 *
+	 * @return The mask.
+	 */
+	long getFullMask() {
+
+		return fullMask;
+
+	}
+
+	/**
+	 * Gets the boxes, the most promising moves first.
+	 *
+	 * @return The boxes; shared, not to be modified.
+	 */
+	int [] getMoveOrder() {
+
+		return moveOrder;
+
+	}
+
+	/**
+	 * Gets the bit of a box.
+	 *
+	 * @param xAxisMove X coordinate of the box.
+	 * @param yAxisMove Y coordinate of the box.
+	 * @return The bit.
+	 */
+	long bitOf(final int xAxisMove, final int yAxisMove) {
+
+		return 1L << (xAxisMove * tableSize + yAxisMove);
+
+	}
+
+	/**
+	 * Verifies if a move completes a winner line.
+	 *
+	 * @param bits Boxes of the player, the move included.
+	 * @param box Box of the move.
+	 * @return True if the move wins; False otherwise.
+	 */
+	boolean isWinnerMove(final long bits, final int box) {
+
+		for (long lineMask: boxLineMasks[box]) {
+
+			if ((bits & lineMask) == lineMask) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Verifies if a player has a winner line.
+	 *
+	 * @param bits Boxes of the player.
+	 * @return True if a line is complete; False otherwise.
+	 */
+	boolean hasWinnerLine(final long bits) {
+
+		for (long lineMask: lineMasks) {
+
+			if ((bits & lineMask) == lineMask) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Gets the empty boxes where a player completes a winner line.
+	 *
+	 * @param bits Boxes of the player.
+	 * @param empty Empty boxes.
+	 * @return The winner boxes.
+	 */
+	long winnerBoxes(final long bits, final long empty) {
+
+		long winnerBoxes = 0;
+
+		for (long lineMask: lineMasks) {
+
+			final long missing = lineMask & ~bits;
+
+			// A single box missing, and empty.
+			if ((missing != 0) && ((missing & (missing - 1)) == 0)) {
+				winnerBoxes |= missing & empty;
+			}
+
+		}
+
+		return winnerBoxes;
+
+	}
+
+	/**
+	 * Estimates a position not searched to the end, from the lines still open
+	 * for every player.
+	 *
+	 * @param own Boxes of the player to move.
+	 * @param opponent Boxes of the opponent.
+	 * @return Score for the player to move, far below any winner score.
+	 */
+	int evaluate(final long own, final long opponent) {
+
+		int score = 0;
+
+		for (long lineMask: lineMasks) {
+
+			final int ownCount = Long.bitCount(own & lineMask);
+			final int opponentCount = Long.bitCount(opponent & lineMask);
+
+			if (opponentCount == 0) {
+
+				score += ownCount * ownCount;
+
+			} else if (ownCount == 0) {
+
+				score -= opponentCount * opponentCount;
+
+			}
+
+		}
+
+		return score;
+
+	}
+
+	/**
+	 * Gets the key of a position for the transposition table.
+	 *
+	 * @param own Boxes of the player to move.
+	 * @param opponent Boxes of the opponent.
+	 * @return The key.
+	 */
+	long keyOf(final long own, final long opponent) {
+
+		long key = (own * 0x9E3779B97F4A7C15L)
+				^ Long.rotateLeft(opponent * 0xC2B2AE3D27D4EB4FL, 31) ^ (tableSize | (winLength << 8));
+
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+
+		return key;
+
+	}
+
+	/**
+	 * Gets the distance of a box to the center of the table, doubled so it is
+	 * an integer.
+	 *
+	 * @param box Box number.
+	 * @return Manhattan distance, doubled.
+	 */
+	private int centerDistance(final int box) {
+
+		final int last = tableSize - 1;
+
+		return Math.abs(2 * (box / tableSize) - last) + Math.abs(2 * (box % tableSize) - last);
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.tictactoe.game.solver;
+
+/**
+ * Position whose moves are searched in parallel, cancelled when one of the
+ * moves gives a cutoff so the others stop early.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+final class SplitPoint {
+
+	/**
+	 * Reference to the split point of an ancestor position; null if none.
+	 */
+	private final SplitPoint parent;
+
+	/**
+	 * Reference to know if a move of this position gave a cutoff.
+	 */
+	private volatile boolean cutOff;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param parent Split point of an ancestor position; null if none.
+	 */
+	SplitPoint(final SplitPoint parent) {
+
+		this.parent = parent;
+
+	}
+
+	/**
+	 * Marks a cutoff, cancelling the moves still searched.
+	 */
+	void cutOff() {
+
+		cutOff = true;
+
+	}
+
+	/**
+	 * Verifies if a move of this position gave a cutoff.
+	 *
+	 * @return True if cut off; False otherwise.
+	 */
+	boolean isCutOff() {
+
+		return cutOff;
+
+	}
+
+	/**
+	 * Verifies if this position or any ancestor was cut off, so the search
+	 * below is useless.
+	 *
+	 * @return True if cancelled; False otherwise.
+	 */
+	boolean isCancelled() {
+
+		for (SplitPoint splitPoint = this; splitPoint != null; splitPoint = splitPoint.parent) {
+
+			if (splitPoint.cutOff) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+}
@@ -0,0 +1,32 @@
+package org.tictactoe.game.solver;
+
+/**
+ * Outcome of a position for the player to move, with perfect play of both
+ * players.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public enum TicTacToeOutcome {
+
+	/**
+	 * The player to move wins.
+	 */
+	WIN,
+
+	/**
+	 * Nobody wins.
+	 */
+	DRAW,
+
+	/**
+	 * The player to move loses.
+	 */
+	LOSS,
+
+	/**
+	 * Not proven within the time budget.
+	 */
+	UNKNOWN
+
+}
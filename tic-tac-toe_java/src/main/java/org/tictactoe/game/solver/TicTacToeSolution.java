@@ -0,0 +1,189 @@
+package org.tictactoe.game.solver;
+
+/**
+ * Best move found by the solver for a position, and its outcome.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TicTacToeSolution {
+
+	/**
+	 * Coordinate of a missing move.
+	 */
+	public static final int NO_MOVE = -1;
+
+	/**
+	 * Reference to the X coordinate of the best move.
+	 */
+	private final int xAxisMove;
+
+	/**
+	 * Reference to the Y coordinate of the best move.
+	 */
+	private final int yAxisMove;
+
+	/**
+	 * Reference to the mark of the player to move.
+	 */
+	private final byte mark;
+
+	/**
+	 * Reference to the outcome for the player to move.
+	 */
+	private final TicTacToeOutcome outcome;
+
+	/**
+	 * Reference to the plies to the end of a proven win or loss.
+	 */
+	private final int pliesToEnd;
+
+	/**
+	 * Reference to the depth of the last search completed.
+	 */
+	private final int depth;
+
+	/**
+	 * Reference to the number of positions searched.
+	 */
+	private final long nodes;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param xAxisMove X coordinate of the best move; NO_MOVE if none.
+	 * @param yAxisMove Y coordinate of the best move; NO_MOVE if none.
+	 * @param mark Mark of the player to move.
+	 * @param outcome Outcome for the player to move.
+	 * @param pliesToEnd Plies to the end of a proven win or loss; -1 otherwise.
+	 * @param depth Depth of the last search completed.
+	 * @param nodes Number of positions searched.
+	 */
+	TicTacToeSolution(final int xAxisMove, final int yAxisMove, final byte mark,
+			final TicTacToeOutcome outcome, final int pliesToEnd, final int depth,
+			final long nodes) {
+
+		this.xAxisMove = xAxisMove;
+		this.yAxisMove = yAxisMove;
+		this.mark = mark;
+		this.outcome = outcome;
+		this.pliesToEnd = pliesToEnd;
+		this.depth = depth;
+		this.nodes = nodes;
+
+	}
+
+	/**
+	 * Verifies if there is a move, false if the game is already finished.
+	 *
+	 * @return True if there is a best move; False otherwise.
+	 */
+	public boolean hasMove() {
+
+		return xAxisMove != NO_MOVE;
+
+	}
+
+	/**
+	 * Gets the X coordinate of the best move.
+	 *
+	 * @return X coordinate; NO_MOVE if none.
+	 */
+	public int getXAxisMove() {
+
+		return xAxisMove;
+
+	}
+
+	/**
+	 * Gets the Y coordinate of the best move.
+	 *
+	 * @return Y coordinate; NO_MOVE if none.
+	 */
+	public int getYAxisMove() {
+
+		return yAxisMove;
+
+	}
+
+	/**
+	 * Gets the mark of the player to move.
+	 *
+	 * @return Either TicTacToeMark.X or TicTacToeMark.O.
+	 */
+	public byte getMark() {
+
+		return mark;
+
+	}
+
+	/**
+	 * Gets the outcome for the player to move.
+	 *
+	 * @return The outcome; TicTacToeOutcome.UNKNOWN if not proven.
+	 */
+	public TicTacToeOutcome getOutcome() {
+
+		return outcome;
+
+	}
+
+	/**
+	 * Verifies if the outcome is proven.
+	 *
+	 * @return True if proven; False otherwise.
+	 */
+	public boolean isProven() {
+
+		return outcome != TicTacToeOutcome.UNKNOWN;
+
+	}
+
+	/**
+	 * Gets the plies to the end of a proven win or loss, moves of both
+	 * players.
+	 *
+	 * @return Plies to the end; -1 if not a proven win or loss.
+	 */
+	public int getPliesToEnd() {
+
+		return pliesToEnd;
+
+	}
+
+	/**
+	 * Gets the depth of the last search completed.
+	 *
+	 * @return Plies searched.
+	 */
+	public int getDepth() {
+
+		return depth;
+
+	}
+
+	/**
+	 * Gets the number of positions searched.
+	 *
+	 * @return Positions searched.
+	 */
+	public long getNodes() {
+
+		return nodes;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return "TicTacToeSolution [move=(" + xAxisMove + ", " + yAxisMove + "), outcome="
+				+ outcome + ", pliesToEnd=" + pliesToEnd + ", depth=" + depth
+				+ ", nodes=" + nodes + "]";
+
+	}
+
+}
@@ -0,0 +1,363 @@
+package org.tictactoe.game.solver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+
+/**
+ * Game-tree solver of tic-tac-toe positions up to 8x8, won by whole lines or
+ * by the win length of the game in a row, finding the best move and, when the
+ * search reaches it, the proven outcome.
+ * <p>
+ * Positions are a long bitboard per player. The search is a negamax with
+ * alpha-beta pruning and iterative deepening: the best move of every depth is
+ * tried first in the next one through the transposition table, then the boxes
+ * crossed by more lines. A 3x3 table is solved instantly; bigger ones are
+ * searched deeper until the time budget runs out.
+ * <p>
+ * Every solve is independent, so a solver may be used by several threads,
+ * sharing the transposition table.
+ * <p>
+ * Given a ForkJoinPool, every search is parallel: the positions with enough
+ * depth left search their first move alone and then the other moves at once
+ * in the pool (young brothers wait), every task sharing the transposition
+ * table.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public class TicTacToeSolver {
+
+	/**
+	 * Default number of entries of the transposition table, 16 MB.
+	 */
+	public static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+
+	/**
+	 * Default least depth left to search the moves of a position in parallel.
+	 */
+	public static final int DEFAULT_SPLIT_DEPTH = 8;
+
+	/**
+	 * Reference to the transposition table.
+	 */
+	private final TranspositionTable transpositionTable;
+
+	/**
+	 * Reference to the pool of the parallel searches; null to search
+	 * sequentially.
+	 */
+	private final ForkJoinPool forkJoinPool;
+
+	/**
+	 * Reference to the least depth left to search the moves of a position in
+	 * parallel.
+	 */
+	private final int splitDepth;
+
+	/**
+	 * The constructor, with a transposition table of the default capacity.
+	 */
+	public TicTacToeSolver() {
+
+		this(new TranspositionTable(DEFAULT_TABLE_CAPACITY));
+
+	}
+
+	/**
+	 * The constructor.
+	 *
+	 * @param transpositionTable Transposition table to use, which may be shared
+	 *                           with other solvers.
+	 * @throws IllegalArgumentException If the table is null.
+	 */
+	public TicTacToeSolver(final TranspositionTable transpositionTable)
+			throws IllegalArgumentException {
+
+		this(transpositionTable, null, DEFAULT_SPLIT_DEPTH);
+
+	}
+
+	/**
+	 * The constructor, for parallel searches.
+	 *
+	 * @param transpositionTable Transposition table to use, which may be shared
+	 *                           with other solvers.
+	 * @param forkJoinPool Pool of the parallel searches; null to search
+	 *                     sequentially.
+	 * @param splitDepth Least depth left to search the moves of a position in
+	 *                   parallel, the lower the more tasks.
+	 * @throws IllegalArgumentException If the table is null or the split depth
+	 *                                  is 1 or less.
+	 */
+	public TicTacToeSolver(final TranspositionTable transpositionTable,
+			final ForkJoinPool forkJoinPool, final int splitDepth)
+					throws IllegalArgumentException {
+
+		if (transpositionTable == null) {
+			throw new IllegalArgumentException(
+					"Invalid transposition table, should not be null");
+		}
+
+		if (splitDepth < 2) {
+			throw new IllegalArgumentException("Invalid split depth, should be 2 or above");
+		}
+
+		this.transpositionTable = transpositionTable;
+		this.forkJoinPool = forkJoinPool;
+		this.splitDepth = splitDepth;
+
+	}
+
+	/**
+	 * Solves the position of a game, with no time limit.
+	 *
+	 * @param ticTacToeGame Game to solve; not modified.
+	 * @return The best move and the outcome.
+	 * @throws IllegalArgumentException If the table size is above 8.
+	 */
+	public TicTacToeSolution solve(final TicTacToeGame ticTacToeGame)
+			throws IllegalArgumentException {
+
+		return solve(ticTacToeGame, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+	}
+
+	/**
+	 * Solves the position of a game, within a time budget.
+	 *
+	 * @param ticTacToeGame Game to solve; not modified.
+	 * @param timeout Time budget.
+	 * @param unit Unit of the time budget.
+	 * @return The best move of the deepest search completed and the outcome,
+	 *         TicTacToeOutcome.UNKNOWN if not proven in time.
+	 * @throws IllegalArgumentException If the table size is above 8.
+	 */
+	public TicTacToeSolution solve(final TicTacToeGame ticTacToeGame, final long timeout,
+			final TimeUnit unit) throws IllegalArgumentException {
+
+		final SolverGeometry geometry = SolverGeometry.of(ticTacToeGame.getTableSize(),
+				ticTacToeGame.getWinLength());
+
+		final byte previousMark = ticTacToeGame.getPreviousMarkUsed();
+
+		final byte mark = (previousMark == TicTacToeMark.EMPTY)
+				? TicTacToeMark.X : TicTacToeMark.opponentOf(previousMark);
+
+		final int tableSize = geometry.getTableSize();
+
+		long own = 0;
+		long opponent = 0;
+
+		for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+			for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+				final byte boxMark = ticTacToeGame.getMark(xAxisMove, yAxisMove);
+
+				if (boxMark == mark) {
+
+					own |= geometry.bitOf(xAxisMove, yAxisMove);
+
+				} else if (boxMark != TicTacToeMark.EMPTY) {
+
+					opponent |= geometry.bitOf(xAxisMove, yAxisMove);
+
+				}
+
+			}
+
+		}
+
+		return solve(geometry, own, opponent, mark, deadlineOf(timeout, unit));
+
+	}
+
+	/**
+	 * Solves a bitboard position, deepening the search until it is proven or
+	 * the deadline is reached.
+	 *
+	 * @param geometry Geometry of the table.
+	 * @param own Boxes of the player to move.
+	 * @param opponent Boxes of the opponent.
+	 * @param mark Mark of the player to move.
+	 * @param deadlineNanos System.nanoTime of the deadline.
+	 * @return The solution.
+	 */
+	private TicTacToeSolution solve(final SolverGeometry geometry, final long own,
+			final long opponent, final byte mark, final long deadlineNanos) {
+
+		final long empty = geometry.getFullMask() & ~(own | opponent);
+
+		if (geometry.hasWinnerLine(opponent)) {
+			return solution(geometry, -1, mark, TicTacToeOutcome.LOSS, 0, 0, 0);
+		}
+
+		if (empty == 0) {
+			return solution(geometry, -1, mark, TicTacToeOutcome.DRAW, -1, 0, 0);
+		}
+
+		final int emptyCount = Long.bitCount(empty);
+
+		final NegamaxSearch search = new NegamaxSearch(geometry, transpositionTable,
+				deadlineNanos, 0, null);
+
+		long nodes = 0;
+
+		int bestMove = firstEmptyBox(geometry, empty);
+
+		int bestScore = 0;
+
+		int completedDepth = 0;
+
+		for (int depth = 1; depth <= emptyCount; depth++) {
+
+			final int score;
+
+			final int rootMove;
+
+			if (forkJoinPool == null) {
+
+				score = search.search(own, opponent, depth, 0,
+						-NegamaxSearch.INFINITE_SCORE, NegamaxSearch.INFINITE_SCORE);
+
+				nodes = search.getNodes();
+
+				if (search.isAborted()) {
+					break;
+				}
+
+				rootMove = search.getRootMove();
+
+			} else {
+
+				final ParallelSearchTask task = new ParallelSearchTask(geometry,
+						transpositionTable, deadlineNanos, splitDepth, null, own, opponent,
+						depth, 0, -NegamaxSearch.INFINITE_SCORE, NegamaxSearch.INFINITE_SCORE);
+
+				forkJoinPool.invoke(task);
+
+				nodes += task.getNodes();
+
+				if (task.isAborted()) {
+					break;
+				}
+
+				score = task.getScore();
+
+				rootMove = task.getRootMove();
+
+			}
+
+			bestMove = rootMove;
+
+			bestScore = score;
+
+			completedDepth = depth;
+
+			if (Math.abs(score) > NegamaxSearch.PROVEN_WIN_SCORE) {
+				break;
+			}
+
+		}
+
+		final TicTacToeOutcome outcome;
+
+		int pliesToEnd = -1;
+
+		if (bestScore > NegamaxSearch.PROVEN_WIN_SCORE) {
+
+			outcome = TicTacToeOutcome.WIN;
+
+			pliesToEnd = NegamaxSearch.WIN_SCORE - bestScore;
+
+		} else if (bestScore < -NegamaxSearch.PROVEN_WIN_SCORE) {
+
+			outcome = TicTacToeOutcome.LOSS;
+
+			pliesToEnd = NegamaxSearch.WIN_SCORE + bestScore;
+
+		} else if (completedDepth == emptyCount) {
+
+			outcome = TicTacToeOutcome.DRAW;
+
+		} else {
+
+			outcome = TicTacToeOutcome.UNKNOWN;
+
+		}
+
+		return solution(geometry, bestMove, mark, outcome, pliesToEnd, completedDepth, nodes);
+
+	}
+
+	/**
+	 * Builds a solution.
+	 *
+	 * @param geometry Geometry of the table.
+	 * @param box Box of the best move; -1 if none.
+	 * @param mark Mark of the player to move.
+	 * @param outcome Outcome for the player to move.
+	 * @param pliesToEnd Plies to the end of a proven win or loss; -1 otherwise.
+	 * @param depth Depth of the last search completed.
+	 * @param nodes Number of positions searched.
+	 * @return The solution.
+	 */
+	private static TicTacToeSolution solution(final SolverGeometry geometry, final int box,
+			final byte mark, final TicTacToeOutcome outcome, final int pliesToEnd,
+			final int depth, final long nodes) {
+
+		if (box < 0) {
+			return new TicTacToeSolution(TicTacToeSolution.NO_MOVE, TicTacToeSolution.NO_MOVE,
+					mark, outcome, pliesToEnd, depth, nodes);
+		}
+
+		final int tableSize = geometry.getTableSize();
+
+		return new TicTacToeSolution(box / tableSize, box % tableSize, mark, outcome,
+				pliesToEnd, depth, nodes);
+
+	}
+
+	/**
+	 * Gets the most promising empty box, the move played if no search completes.
+	 *
+	 * @param geometry Geometry of the table.
+	 * @param empty Empty boxes.
+	 * @return The box number.
+	 */
+	private static int firstEmptyBox(final SolverGeometry geometry, final long empty) {
+
+		for (int box: geometry.getMoveOrder()) {
+
+			if ((empty & (1L << box)) != 0) {
+				return box;
+			}
+
+		}
+
+		return -1;
+
+	}
+
+	/**
+	 * Gets the deadline of a time budget.
+	 *
+	 * @param timeout Time budget.
+	 * @param unit Unit of the time budget.
+	 * @return System.nanoTime of the deadline, saturated.
+	 */
+	private static long deadlineOf(final long timeout, final TimeUnit unit) {
+
+		final long timeoutNanos = unit.toNanos(timeout);
+
+		final long now = System.nanoTime();
+
+		// Far enough, but never overflowing the comparison with System.nanoTime.
+		return now + Math.min(timeoutNanos, Long.MAX_VALUE >>> 1);
+
+	}
+
+}
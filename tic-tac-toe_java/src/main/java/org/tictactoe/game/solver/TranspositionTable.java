@@ -0,0 +1,219 @@
+package org.tictactoe.game.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size transposition table of the solver, shareable between threads
+ * without locks.
+ * <p>
+ * Every entry is two longs, the key XOR the data and the data, so an entry
+ * torn by concurrent writes fails the key verification and is read as a miss.
+ * The data packs the score, the depth searched, the bound of the score and the
+ * best move.
+ *
+ * @author Leo Gutierrez.
+ *
+ */
+public final class TranspositionTable {
+
+	/**
+	 * Data of a missing entry; stored data is never zero.
+	 */
+	static final long NO_ENTRY = 0;
+
+	/**
+	 * Bound of an exact score.
+	 */
+	static final int EXACT = 1;
+
+	/**
+	 * Bound of a score that is a lower bound, the search failed high.
+	 */
+	static final int LOWER_BOUND = 2;
+
+	/**
+	 * Bound of a score that is an upper bound, the search failed low.
+	 */
+	static final int UPPER_BOUND = 3;
+
+	/**
+	 * Offset added to the scores so they are packed unsigned.
+	 */
+	private static final int SCORE_OFFSET = 1 << 15;
+
+	/**
+	 * Reference to the entries, two longs each.
+	 */
+	private final AtomicLongArray entries;
+
+	/**
+	 * Reference to the mask of the entry of a key.
+	 */
+	private final int mask;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param capacity Number of entries, rounded up to a power of 2; 16 bytes
+	 *                 each.
+	 * @throws IllegalArgumentException If the capacity is 0 or less, or above
+	 *                                  2^29.
+	 */
+	public TranspositionTable(final int capacity) throws IllegalArgumentException {
+
+		if ((capacity < 1) || (capacity > (1 << 29))) {
+			throw new IllegalArgumentException(
+					"Invalid transposition table capacity, should be between 1 and 2^29");
+		}
+
+		final int entriesCount = Integer.highestOneBit(capacity - 1) << 1;
+
+		mask = Math.max(1, entriesCount) - 1;
+
+		entries = new AtomicLongArray((mask + 1) << 1);
+
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return Entries of the table.
+	 */
+	public int getCapacity() {
+
+		return mask + 1;
+
+	}
+
+	/**
+	 * Removes every entry.
+	 */
+	public void clear() {
+
+		for (int index = 0; index < entries.length(); index++) {
+
+			entries.lazySet(index, 0);
+
+		}
+
+	}
+
+	/**
+	 * Gets the data stored for the given position.
+	 *
+	 * @param key Key of the position.
+	 * @return The data; TranspositionTable.NO_ENTRY if not stored.
+	 */
+	long probe(final long key) {
+
+		final int index = indexOf(key);
+
+		final long data = entries.get(index + 1);
+
+		if ((entries.get(index) ^ data) != key) {
+			return NO_ENTRY;
+		}
+
+		return data;
+
+	}
+
+	/**
+	 * Stores the data of the given position, unless a deeper search of the same
+	 * position is already stored.
+	 *
+	 * @param key Key of the position.
+	 * @param data Data packed with TranspositionTable.pack.
+	 */
+	void store(final long key, final long data) {
+
+		final int index = indexOf(key);
+
+		final long storedData = entries.get(index + 1);
+
+		if (((entries.get(index) ^ storedData) == key) && (depthOf(storedData) > depthOf(data))) {
+			return;
+		}
+
+		entries.lazySet(index, key ^ data);
+		entries.lazySet(index + 1, data);
+
+	}
+
+	/**
+	 * Packs the data of an entry.
+	 *
+	 * @param score Score, from -2^15 to 2^15 - 1.
+	 * @param depth Depth searched, from 0 to 255.
+	 * @param bound Bound of the score.
+	 * @param move Best move; -1 if none.
+	 * @return The data, never zero.
+	 */
+	static long pack(final int score, final int depth, final int bound, final int move) {
+
+		return (score + SCORE_OFFSET) | ((long) depth << 16) | ((long) bound << 24)
+				| ((long) (move + 1) << 32);
+
+	}
+
+	/**
+	 * Gets the score of the data of an entry.
+	 *
+	 * @param data Data of the entry.
+	 * @return The score.
+	 */
+	static int scoreOf(final long data) {
+
+		return (int) (data & 0xFFFF) - SCORE_OFFSET;
+
+	}
+
+	/**
+	 * Gets the depth of the data of an entry.
+	 *
+	 * @param data Data of the entry.
+	 * @return The depth searched.
+	 */
+	static int depthOf(final long data) {
+
+		return (int) ((data >>> 16) & 0xFF);
+
+	}
+
+	/**
+	 * Gets the bound of the data of an entry.
+	 *
+	 * @param data Data of the entry.
+	 * @return Either EXACT, LOWER_BOUND or UPPER_BOUND.
+	 */
+	static int boundOf(final long data) {
+
+		return (int) ((data >>> 24) & 0xFF);
+
+	}
+
+	/**
+	 * Gets the best move of the data of an entry.
+	 *
+	 * @param data Data of the entry.
+	 * @return The box number of the move; -1 if none.
+	 */
+	static int moveOf(final long data) {
+
+		return (int) ((data >>> 32) & 0xFF) - 1;
+
+	}
+
+	/**
+	 * Gets the index of the first long of the entry of a key.
+	 *
+	 * @param key Key of the position.
+	 * @return The index.
+	 */
+	private int indexOf(final long key) {
+
+		return ((int) (key ^ (key >>> 32)) & mask) << 1;
+
+	}
+
+}
@@ -0,0 +1,271 @@
+package org.tictactoe.game.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.ConcurrentTicTacToeGame;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+public class ConcurrentTicTacToeGameTest {
+
+	/**
+	 * Threads racing in the stress tests, half of "X" and half of "O".
+	 */
+	private static final int THREADS = 4;
+
+	@Test
+	public void testSameResultsThanTicTacToeGame() {
+
+		final Random random = new Random(11);
+
+		final int [][] tableSizesAndWinLengths = {{3, 3}, {4, 4}, {5, 5}, {7, 4}};
+
+		for (int [] tableSizeAndWinLength: tableSizesAndWinLengths) {
+
+			final int tableSize = tableSizeAndWinLength[0];
+
+			final int winLength = tableSizeAndWinLength[1];
+
+			for (int gameNumber = 0; gameNumber < 200; gameNumber++) {
+
+				final TicTacToeGame ticTacToeGame = (winLength == tableSize)
+						? new TicTacToeGame(tableSize) : new TicTacToeGame(tableSize, winLength);
+
+				final ConcurrentTicTacToeGame concurrentGame =
+						new ConcurrentTicTacToeGame(tableSize, winLength);
+
+				// Random moves, the not valid ones included.
+				for (int move = 0; move < 4 * tableSize * tableSize; move++) {
+
+					final int xAxisMove = random.nextInt(tableSize + 1);
+					final int yAxisMove = random.nextInt(tableSize + 1);
+					final String mark = random.nextBoolean() ? "X" : "O";
+
+					Assert.assertEquals(ticTacToeGame.tryMove(xAxisMove, yAxisMove, mark),
+							concurrentGame.tryMove(xAxisMove, yAxisMove, mark));
+
+				}
+
+				Assert.assertEquals(ticTacToeGame.getMoveCount(), concurrentGame.getMoveCount());
+
+				Assert.assertEquals(ticTacToeGame.isGameFinished(), concurrentGame.isGameFinished());
+
+			}
+
+		}
+
+	}
+
+	@Test(expected = NotValidMoveException.class)
+	public void testNotValidMove() throws NotValidMoveException {
+
+		final ConcurrentTicTacToeGame concurrentGame = new ConcurrentTicTacToeGame(3);
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, concurrentGame.move(1, 1, "O"));
+
+		concurrentGame.move(0, 0, "O");
+
+	}
+
+	@Test
+	public void testRacingMovesNeitherDoubleClaimedNorLost() throws Exception {
+
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		try {
+
+			for (int round = 0; round < 500; round++) {
+
+				final int tableSize = 3 + round % 2;
+
+				final ConcurrentTicTacToeGame concurrentGame = new ConcurrentTicTacToeGame(tableSize);
+
+				final Map<Integer, TicTacToeMoveResult> acceptedMoves =
+						new ConcurrentHashMap<Integer, TicTacToeMoveResult>();
+
+				final CyclicBarrier startBarrier = new CyclicBarrier(THREADS);
+
+				final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+
+				for (int thread = 0; thread < THREADS; thread++) {
+
+					final byte mark = ((thread & 1) == 0) ? TicTacToeMark.X : TicTacToeMark.O;
+
+					futures.add(executor.submit(new Callable<Integer>() {
+
+						@Override
+						public Integer call() throws Exception {
+
+							final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+							int doubleClaims = 0;
+
+							startBarrier.await();
+
+							while (!concurrentGame.isGameFinished()) {
+
+								final int box = random.nextInt(tableSize * tableSize);
+
+								final TicTacToeMoveResult moveResult =
+										concurrentGame.tryMove(box / tableSize, box % tableSize, mark);
+
+								if (moveResult.isValidMove()
+										&& (moveResult != TicTacToeMoveResult.GAME_ALREADY_FINISHED)
+										&& (acceptedMoves.put(box, moveResult) != null)) {
+									doubleClaims++;
+								}
+
+								if (moveResult == TicTacToeMoveResult.UNEXPECTED_MARK) {
+									// Not its turn, lets the opponent move on a single core.
+									Thread.yield();
+								}
+
+							}
+
+							return doubleClaims;
+
+						}
+
+					}));
+
+				}
+
+				for (Future<Integer> future: futures) {
+
+					Assert.assertEquals(Integer.valueOf(0), future.get());
+
+				}
+
+				Assert.assertEquals(acceptedMoves.size(), concurrentGame.getMoveCount());
+
+				// Replayed in the order accepted, every move has the same result.
+				final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+				int finishingMoves = 0;
+
+				for (int index = 0; index < concurrentGame.getMoveCount(); index++) {
+
+					final int box = concurrentGame.getMoveBox(index);
+
+					final int xAxisMove = box / tableSize;
+					final int yAxisMove = box % tableSize;
+
+					final TicTacToeMoveResult moveResult = acceptedMoves.get(box);
+
+					Assert.assertEquals(moveResult, ticTacToeGame.tryMove(xAxisMove, yAxisMove,
+							concurrentGame.getMark(xAxisMove, yAxisMove)));
+
+					if (moveResult != TicTacToeMoveResult.CONTINUE_NEXT_MOVE) {
+						finishingMoves++;
+					}
+
+				}
+
+				Assert.assertEquals(1, finishingMoves);
+
+				Assert.assertTrue(ticTacToeGame.isGameFinished());
+
+			}
+
+		} finally {
+
+			executor.shutdownNow();
+
+		}
+
+	}
+
+	@Test
+	public void testRacingWinnersDecidedOnce() throws Exception {
+
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		try {
+
+			for (int round = 0; round < 1000; round++) {
+
+				/*
+				 *  |X|X| |
+				 *  |O|O| |
+				 *  | | | |
+				 *
+				 * "X" races twice for its winner box, "O" out of turn for its own.
+				 */
+
+				final ConcurrentTicTacToeGame concurrentGame = new ConcurrentTicTacToeGame(3);
+
+				concurrentGame.move(0, 0, "X");
+				concurrentGame.move(1, 0, "O");
+				concurrentGame.move(0, 1, "X");
+				concurrentGame.move(1, 1, "O");
+
+				final CyclicBarrier startBarrier = new CyclicBarrier(THREADS);
+
+				final List<Future<TicTacToeMoveResult>> futures =
+						new ArrayList<Future<TicTacToeMoveResult>>();
+
+				final int [][] moves = {{0, 2}, {1, 2}, {0, 2}, {2, 2}};
+
+				for (int thread = 0; thread < THREADS; thread++) {
+
+					final int [] move = moves[thread];
+
+					final String mark = ((thread & 1) == 0) ? "X" : "O";
+
+					futures.add(executor.submit(new Callable<TicTacToeMoveResult>() {
+
+						@Override
+						public TicTacToeMoveResult call() throws Exception {
+
+							startBarrier.await();
+
+							return concurrentGame.tryMove(move[0], move[1], mark);
+
+						}
+
+					}));
+
+				}
+
+				int winners = 0;
+
+				for (Future<TicTacToeMoveResult> future: futures) {
+
+					if (future.get() == TicTacToeMoveResult.WINNER) {
+						winners++;
+					}
+
+				}
+
+				Assert.assertEquals(1, winners);
+
+				Assert.assertEquals(5, concurrentGame.getMoveCount());
+
+				Assert.assertTrue(concurrentGame.isGameFinished());
+
+			}
+
+		} finally {
+
+			executor.shutdownNow();
+
+		}
+
+	}
+
+}
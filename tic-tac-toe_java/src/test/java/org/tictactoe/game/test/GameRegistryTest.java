@@ -0,0 +1,215 @@
+package org.tictactoe.game.test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.GameRegistry;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+public class GameRegistryTest {
+
+	@Test
+	public void testGameLifecycle() throws NotValidMoveException {
+
+		final int tableSize = 3;
+
+		final GameRegistry gameRegistry = new GameRegistry();
+
+		final long gameId = gameRegistry.createGame(tableSize);
+
+		Assert.assertTrue(gameRegistry.containsGame(gameId));
+
+		Assert.assertEquals(1, gameRegistry.getActiveGames());
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, gameRegistry.move(gameId, 0, 0, "X"));
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, gameRegistry.move(gameId, 1, 0, "O"));
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, gameRegistry.move(gameId, 0, 1, "X"));
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, gameRegistry.move(gameId, 1, 1, "O"));
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, gameRegistry.move(gameId, 0, 2, "X"));
+
+		Assert.assertEquals(0, gameRegistry.getActiveGames());
+
+		Assert.assertEquals(1, gameRegistry.getFinishedGames());
+
+		Assert.assertTrue(gameRegistry.resetGame(gameId, tableSize));
+
+		Assert.assertEquals(1, gameRegistry.getActiveGames());
+
+		Assert.assertTrue(gameRegistry.expireGame(gameId));
+
+		Assert.assertFalse(gameRegistry.expireGame(gameId));
+
+		Assert.assertEquals(0, gameRegistry.getActiveGames());
+
+		Assert.assertEquals(1, gameRegistry.getExpiredGames());
+
+		Assert.assertNull(gameRegistry.tryMove(gameId, 2, 2, TicTacToeMark.O));
+
+	}
+
+	@Test(expected=NotValidMoveException.class)
+	public void testGameNotFound() throws NotValidMoveException {
+
+		new GameRegistry().move(1, 0, 0, "X");
+
+	}
+
+	@Test
+	public void testBulkCreateAndExpire() {
+
+		final int tableSize = 3;
+
+		final GameRegistry gameRegistry = new GameRegistry(2);
+
+		final long [] gameIds = new long[10000];
+
+		gameRegistry.createGames(tableSize, gameIds);
+
+		Assert.assertEquals(gameIds.length, gameRegistry.getGameCount());
+
+		Assert.assertTrue(gameRegistry.registerGame(gameIds[gameIds.length - 1] + 1,
+				new TicTacToeGame(tableSize)));
+
+		Assert.assertFalse(gameRegistry.registerGame(gameIds[0], new TicTacToeGame(tableSize)));
+
+		final long [] expiredIds = new long[gameIds.length / 2];
+
+		System.arraycopy(gameIds, 0, expiredIds, 0, expiredIds.length);
+
+		Assert.assertEquals(expiredIds.length, gameRegistry.expireGames(expiredIds));
+
+		for (int index = 0; index < gameIds.length; index++) {
+
+			Assert.assertEquals(index >= expiredIds.length, gameRegistry.containsGame(gameIds[index]));
+
+		}
+
+		Assert.assertEquals(0, gameRegistry.expireIdleGames(1, TimeUnit.HOURS));
+
+		Assert.assertEquals(gameIds.length - expiredIds.length + 1,
+				gameRegistry.expireIdleGames(0, TimeUnit.NANOSECONDS));
+
+		Assert.assertEquals(0, gameRegistry.getGameCount());
+
+		Assert.assertEquals(0, gameRegistry.getActiveGames());
+
+		Assert.assertEquals(gameIds.length + 1, gameRegistry.getExpiredGames());
+
+	}
+
+	@Test
+	public void testBulkCreateAroundRegisteredIds() {
+
+		final int tableSize = 3;
+
+		final GameRegistry gameRegistry = new GameRegistry(4);
+
+		final long firstGameId = gameRegistry.createGame(tableSize);
+
+		// Ids registered are never given to the games created afterwards.
+		Assert.assertTrue(gameRegistry.registerGame(firstGameId + 2, new TicTacToeGame(tableSize)));
+		Assert.assertTrue(gameRegistry.registerGame(firstGameId + 5, new TicTacToeGame(tableSize)));
+
+		final long [] gameIds = new long[8];
+
+		gameRegistry.createGames(tableSize, gameIds);
+
+		final Set<Long> distinctIds = new HashSet<Long>();
+
+		for (long gameId: gameIds) {
+
+			Assert.assertTrue(gameRegistry.containsGame(gameId));
+
+			Assert.assertTrue(distinctIds.add(gameId));
+
+		}
+
+		Assert.assertFalse(distinctIds.contains(firstGameId + 2));
+		Assert.assertFalse(distinctIds.contains(firstGameId + 5));
+
+		Assert.assertEquals(gameIds.length + 3, gameRegistry.getGameCount());
+
+		Assert.assertEquals(gameIds.length + 3, gameRegistry.getActiveGames());
+
+		Assert.assertEquals(gameIds.length, gameRegistry.expireGames(gameIds));
+
+		Assert.assertEquals(3, gameRegistry.getActiveGames());
+
+	}
+
+	@Test
+	public void testConcurrentMovesOnSameGame() throws Exception {
+
+		final int tableSize = 8;
+
+		final int threadsCount = 4;
+
+		final GameRegistry gameRegistry = new GameRegistry();
+
+		final long gameId = gameRegistry.createGame(tableSize);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+
+		final List<Future<Integer>> acceptedMoves = new ArrayList<Future<Integer>>();
+
+		for (int thread = 0; thread < threadsCount; thread++) {
+
+			final byte mark = (thread % 2 == 0) ? TicTacToeMark.X : TicTacToeMark.O;
+
+			acceptedMoves.add(executor.submit(new Callable<Integer>() {
+
+				@Override
+				public Integer call() {
+
+					int accepted = 0;
+
+					for (int box = 0; box < tableSize * tableSize; box++) {
+
+						final TicTacToeMoveResult moveResult = gameRegistry.tryMove(gameId,
+								box / tableSize, box % tableSize, mark);
+
+						if (moveResult.isValidMove()
+								&& (moveResult != TicTacToeMoveResult.GAME_ALREADY_FINISHED)) {
+							accepted++;
+						}
+
+					}
+
+					return accepted;
+
+				}
+
+			}));
+
+		}
+
+		int totalAccepted = 0;
+
+		for (Future<Integer> accepted: acceptedMoves) {
+
+			totalAccepted += accepted.get();
+
+		}
+
+		executor.shutdown();
+
+		Assert.assertTrue(totalAccepted <= tableSize * tableSize);
+
+		Assert.assertEquals(1, gameRegistry.getFinishedGames() + gameRegistry.getActiveGames());
+
+	}
+
+}
@@ -0,0 +1,159 @@
+package org.tictactoe.game.test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+import org.tictactoe.game.mcts.MonteCarloMove;
+import org.tictactoe.game.mcts.MonteCarloPlayer;
+
+public class MonteCarloPlayerTest {
+
+	@Test
+	public void testTakesTheWin() throws InterruptedException {
+
+		/*
+		 *  |X|X| |
+		 *  |O|O| |
+		 *  | | | |
+		 */
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 0, TicTacToeMark.O);
+		ticTacToeGame.tryMove(0, 1, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+
+		final MonteCarloPlayer player = new MonteCarloPlayer(1);
+
+		try {
+
+			final MonteCarloMove move = player.chooseMove(ticTacToeGame, 5000);
+
+			Assert.assertEquals(TicTacToeMark.X, move.getMark());
+			Assert.assertEquals(0, move.getXAxisMove());
+			Assert.assertEquals(2, move.getYAxisMove());
+
+		} finally {
+
+			player.close();
+
+		}
+
+	}
+
+	@Test
+	public void testBlocksTheThreat() throws InterruptedException {
+
+		/*
+		 *  |X|X| |
+		 *  | |O| |
+		 *  | | | |
+		 */
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+		ticTacToeGame.tryMove(0, 1, TicTacToeMark.X);
+
+		final MonteCarloPlayer player = new MonteCarloPlayer(2);
+
+		try {
+
+			final MonteCarloMove move = player.chooseMove(ticTacToeGame, 20000);
+
+			Assert.assertEquals(TicTacToeMark.O, move.getMark());
+			Assert.assertEquals(0, move.getXAxisMove());
+			Assert.assertEquals(2, move.getYAxisMove());
+
+		} finally {
+
+			player.close();
+
+		}
+
+	}
+
+	@Test
+	public void testPlayoutBudget() throws InterruptedException {
+
+		final MonteCarloPlayer player = new MonteCarloPlayer(3);
+
+		try {
+
+			final MonteCarloMove move = player.chooseMove(new TicTacToeGame(7), 1000);
+
+			Assert.assertEquals(1000, move.getPlayouts());
+
+			Assert.assertEquals(TicTacToeMark.X, move.getMark());
+
+			Assert.assertTrue(move.getPlayoutsPerSecond() > 0);
+
+		} finally {
+
+			player.close();
+
+		}
+
+	}
+
+	@Test
+	public void testTimeBudget() throws InterruptedException {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(9);
+
+		ticTacToeGame.tryMove(4, 4, TicTacToeMark.X);
+
+		final MonteCarloPlayer player = new MonteCarloPlayer(2);
+
+		try {
+
+			final MonteCarloMove move = player.chooseMove(ticTacToeGame, 100,
+					TimeUnit.MILLISECONDS);
+
+			Assert.assertTrue(move.getPlayouts() > 0);
+
+			Assert.assertTrue(move.getElapsedTime(TimeUnit.MILLISECONDS) < 5000);
+
+			Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(
+					move.getXAxisMove(), move.getYAxisMove(), move.getMark()));
+
+		} finally {
+
+			player.close();
+
+		}
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFinishedGame() throws InterruptedException {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 0, TicTacToeMark.O);
+		ticTacToeGame.tryMove(0, 1, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+		ticTacToeGame.tryMove(0, 2, TicTacToeMark.X);
+
+		final MonteCarloPlayer player = new MonteCarloPlayer(1);
+
+		try {
+
+			player.chooseMove(ticTacToeGame, 100);
+
+		} finally {
+
+			player.close();
+
+		}
+
+	}
+
+}
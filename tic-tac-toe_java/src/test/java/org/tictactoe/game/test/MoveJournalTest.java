@@ -0,0 +1,167 @@
+package org.tictactoe.game.test;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.tictactoe.game.GameRegistry;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+import org.tictactoe.game.journal.MoveJournal;
+
+public class MoveJournalTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testReplayAfterReopen() throws IOException {
+
+		final int tableSize = 3;
+
+		final File directory = temporaryFolder.newFolder("journal");
+
+		// Small segments, so the journal rolls several times.
+		MoveJournal journal = new MoveJournal(directory, 4, 3);
+
+		GameRegistry gameRegistry = new GameRegistry(1, journal);
+
+		final long playingGameId = gameRegistry.createGame(tableSize);
+
+		final long expiredGameId = gameRegistry.createGame(tableSize);
+
+		gameRegistry.tryMove(playingGameId, 0, 0, TicTacToeMark.X);
+		gameRegistry.tryMove(playingGameId, 0, 0, TicTacToeMark.O);
+		gameRegistry.tryMove(playingGameId, 1, 1, TicTacToeMark.O);
+		gameRegistry.tryMove(expiredGameId, 2, 2, TicTacToeMark.X);
+
+		gameRegistry.expireGame(expiredGameId);
+
+		journal.close();
+
+		journal = new MoveJournal(directory, 4, 3);
+
+		gameRegistry = new GameRegistry(1, journal);
+
+		Assert.assertEquals(6, journal.replay(gameRegistry));
+
+		Assert.assertTrue(gameRegistry.containsGame(playingGameId));
+
+		Assert.assertFalse(gameRegistry.containsGame(expiredGameId));
+
+		Assert.assertEquals(TicTacToeMoveResult.POSITION_ALREADY_TAKEN,
+				gameRegistry.tryMove(playingGameId, 1, 1, TicTacToeMark.X));
+
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE,
+				gameRegistry.tryMove(playingGameId, 2, 0, TicTacToeMark.X));
+
+		journal.close();
+
+		Assert.assertEquals(7, new MoveJournal(directory, 4, 3).replay(new GameRegistry(1)));
+
+	}
+
+	@Test
+	public void testCompaction() throws IOException {
+
+		final int tableSize = 3;
+
+		final File directory = temporaryFolder.newFolder("journal");
+
+		MoveJournal journal = new MoveJournal(directory, 8, 1);
+
+		final GameRegistry gameRegistry = new GameRegistry(1, journal);
+
+		final long finishedGameId = gameRegistry.createGame(tableSize);
+
+		final long playingGameId = gameRegistry.createGame(tableSize);
+
+		gameRegistry.tryMove(finishedGameId, 0, 0, TicTacToeMark.X);
+		gameRegistry.tryMove(finishedGameId, 1, 0, TicTacToeMark.O);
+		gameRegistry.tryMove(finishedGameId, 0, 1, TicTacToeMark.X);
+		gameRegistry.tryMove(finishedGameId, 1, 1, TicTacToeMark.O);
+		gameRegistry.tryMove(finishedGameId, 0, 2, TicTacToeMark.X);
+
+		gameRegistry.tryMove(playingGameId, 1, 1, TicTacToeMark.X);
+
+		journal.compact();
+
+		gameRegistry.tryMove(playingGameId, 0, 0, TicTacToeMark.O);
+
+		journal.close();
+
+		journal = new MoveJournal(directory, 8, 1);
+
+		final GameRegistry replayedRegistry = new GameRegistry(1, journal);
+
+		Assert.assertEquals(3, journal.replay(replayedRegistry));
+
+		Assert.assertFalse(replayedRegistry.containsGame(finishedGameId));
+
+		Assert.assertEquals(TicTacToeMoveResult.UNEXPECTED_MARK,
+				replayedRegistry.tryMove(playingGameId, 2, 2, TicTacToeMark.O));
+
+		journal.close();
+
+	}
+
+	@Test
+	public void testReplayAfterRepeatedCompactions() throws IOException {
+
+		final int tableSize = 3;
+
+		final File directory = temporaryFolder.newFolder("journal");
+
+		MoveJournal journal = new MoveJournal(directory, 4, 2);
+
+		GameRegistry gameRegistry = new GameRegistry(1, journal);
+
+		final long playingGameId = gameRegistry.createGame(tableSize);
+
+		final long expiredGameId = gameRegistry.createGame(tableSize);
+
+		gameRegistry.tryMove(playingGameId, 1, 1, TicTacToeMark.X);
+
+		journal.compact();
+
+		gameRegistry.expireGame(expiredGameId);
+
+		journal.compact();
+
+		final long lateGameId = gameRegistry.createGame(tableSize);
+
+		gameRegistry.tryMove(lateGameId, 0, 0, TicTacToeMark.O);
+
+		journal.compact();
+
+		journal.close();
+
+		journal = new MoveJournal(directory, 4, 2);
+
+		gameRegistry = new GameRegistry(1, journal);
+
+		// The creation and the move of the games still in play.
+		Assert.assertEquals(4, journal.replay(gameRegistry));
+
+		Assert.assertTrue(gameRegistry.containsGame(playingGameId));
+
+		Assert.assertTrue(gameRegistry.containsGame(lateGameId));
+
+		Assert.assertFalse(gameRegistry.containsGame(expiredGameId));
+
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE,
+				gameRegistry.tryMove(lateGameId, 1, 1, TicTacToeMark.X));
+
+		// New games never take the ids of the replayed ones.
+		Assert.assertTrue(gameRegistry.createGame(tableSize) > lateGameId);
+
+		journal.close();
+
+		Assert.assertEquals(6, new MoveJournal(directory, 4, 2).replay(new GameRegistry(1)));
+
+	}
+
+}
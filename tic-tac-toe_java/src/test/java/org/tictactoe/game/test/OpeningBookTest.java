@@ -0,0 +1,106 @@
+package org.tictactoe.game.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.book.OpeningBook;
+import org.tictactoe.game.book.OpeningBookGenerator;
+import org.tictactoe.game.solver.TicTacToeOutcome;
+import org.tictactoe.game.solver.TicTacToeSolution;
+import org.tictactoe.game.solver.TicTacToeSolver;
+
+public class OpeningBookTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testBookAnswersAsTheSolver() throws IOException {
+
+		final TicTacToeSolver solver = new TicTacToeSolver();
+
+		final OpeningBookGenerator generator = new OpeningBookGenerator(solver);
+
+		final int positions3x3 = generator.addPositions(3, 9);
+
+		final int positions4x4 = generator.addPositions(4, 1);
+
+		// Empty table, then 16 first moves of either player.
+		Assert.assertEquals(33, positions4x4);
+
+		final File file = temporaryFolder.newFile("openings.book");
+
+		generator.write(file);
+
+		final OpeningBook openingBook = new OpeningBook(file);
+
+		Assert.assertEquals(positions3x3 + positions4x4, openingBook.size());
+
+		final int emptyEntry = openingBook.find(new TicTacToeGame(3));
+
+		Assert.assertEquals(TicTacToeOutcome.DRAW, openingBook.getOutcome(emptyEntry));
+
+		final Random random = new Random(42);
+
+		for (int game = 0; game < 200; game++) {
+
+			final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+			byte mark = random.nextBoolean() ? TicTacToeMark.X : TicTacToeMark.O;
+
+			final int moves = random.nextInt(9);
+
+			for (int move = 0; (move < moves) && !ticTacToeGame.isGameFinished(); move++) {
+
+				if (ticTacToeGame.tryMove(random.nextInt(3), random.nextInt(3), mark).isValidMove()) {
+					mark = TicTacToeMark.opponentOf(mark);
+				}
+
+			}
+
+			final int entry = openingBook.find(ticTacToeGame);
+
+			if (ticTacToeGame.isGameFinished()) {
+
+				Assert.assertEquals(OpeningBook.NOT_FOUND, entry);
+
+				continue;
+
+			}
+
+			final TicTacToeSolution solution = solver.solve(ticTacToeGame);
+
+			Assert.assertTrue(entry != OpeningBook.NOT_FOUND);
+			Assert.assertEquals(solution.getOutcome(), openingBook.getOutcome(entry));
+			Assert.assertEquals(solution.getPliesToEnd(), openingBook.getPliesToEnd(entry));
+			Assert.assertEquals(solution.getMark(), openingBook.getMark(entry));
+			Assert.assertEquals(TicTacToeMark.EMPTY, ticTacToeGame.getMark(
+					openingBook.getXAxisMove(entry), openingBook.getYAxisMove(entry)));
+
+		}
+
+		final TicTacToeGame deepGame = new TicTacToeGame(4);
+
+		deepGame.tryMove(0, 0, TicTacToeMark.X);
+		deepGame.tryMove(1, 1, TicTacToeMark.O);
+
+		Assert.assertEquals(OpeningBook.NOT_FOUND, openingBook.find(deepGame));
+		Assert.assertEquals(OpeningBook.NOT_FOUND, openingBook.find(new TicTacToeGame(5)));
+
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotABook() throws IOException {
+
+		new OpeningBook(temporaryFolder.newFile("empty.book"));
+
+	}
+
+}
@@ -0,0 +1,203 @@
+package org.tictactoe.game.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.PersistentTicTacToeBoard;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+public class PersistentTicTacToeBoardTest {
+
+	@Test
+	public void testSameStatusThanTicTacToeGame() throws NotValidMoveException {
+
+		final Random random = new Random(25);
+
+		final int [][] tableSizesAndWinLengths = {{3, 3}, {4, 4}, {7, 4}, {40, 5}};
+
+		for (int [] tableSizeAndWinLength: tableSizesAndWinLengths) {
+
+			final int tableSize = tableSizeAndWinLength[0];
+
+			final int winLength = tableSizeAndWinLength[1];
+
+			for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+
+				final TicTacToeGame ticTacToeGame = (winLength == tableSize)
+						? new TicTacToeGame(tableSize) : new TicTacToeGame(tableSize, winLength);
+
+				final List<PersistentTicTacToeBoard> boards = new ArrayList<PersistentTicTacToeBoard>();
+
+				final List<int []> moves = new ArrayList<int []>();
+
+				boards.add(new PersistentTicTacToeBoard(tableSize, winLength));
+
+				byte mark = TicTacToeMark.X;
+
+				while (!ticTacToeGame.isGameFinished()) {
+
+					final int xAxisMove = random.nextInt(tableSize);
+					final int yAxisMove = random.nextInt(tableSize);
+
+					if (ticTacToeGame.getMark(xAxisMove, yAxisMove) != TicTacToeMark.EMPTY) {
+						continue;
+					}
+
+					final TicTacToeMoveResult moveResult = ticTacToeGame.tryMove(xAxisMove, yAxisMove, mark);
+
+					final PersistentTicTacToeBoard board =
+							boards.get(boards.size() - 1).withMove(xAxisMove, yAxisMove, mark);
+
+					Assert.assertEquals(moveResult.getGameStatus(), board.getGameStatus());
+
+					boards.add(board);
+
+					moves.add(new int [] {xAxisMove, yAxisMove, mark});
+
+					mark = TicTacToeMark.opponentOf(mark);
+
+				}
+
+				// Every position kept is as it was after its move.
+				for (int index = 0; index < boards.size(); index++) {
+
+					final PersistentTicTacToeBoard board = boards.get(index);
+
+					Assert.assertEquals(index, board.getMoveCount());
+
+					for (int move = 0; move < moves.size(); move++) {
+
+						final int [] placed = moves.get(move);
+
+						Assert.assertEquals((move < index) ? placed[2] : TicTacToeMark.EMPTY,
+								board.getMark(placed[0], placed[1]));
+
+					}
+
+				}
+
+				// A position in the middle, taken back as a game, plays on the same.
+				final int middle = moves.size() / 2;
+
+				final TicTacToeGame middleGame = boards.get(middle).toTicTacToeGame();
+
+				Assert.assertEquals(middle, middleGame.getMoveCount());
+
+				for (int move = middle; move < moves.size(); move++) {
+
+					final int [] placed = moves.get(move);
+
+					Assert.assertEquals(boards.get(move + 1).getGameStatus(),
+							middleGame.tryMove(placed[0], placed[1], (byte) placed[2]).getGameStatus());
+
+				}
+
+				// The finished game, taken as a position, is the last one.
+				final PersistentTicTacToeBoard lastBoard = PersistentTicTacToeBoard.of(ticTacToeGame);
+
+				Assert.assertEquals(boards.get(boards.size() - 1).getGameStatus(), lastBoard.getGameStatus());
+
+				Assert.assertEquals(ticTacToeGame.getMoveCount(), lastBoard.getMoveCount());
+
+			}
+
+		}
+
+	}
+
+	@Test
+	public void testBigSparseTable() throws NotValidMoveException {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(1000, 5);
+
+		ticTacToeGame.move(0, 0, "X");
+		ticTacToeGame.move(999, 999, "O");
+		ticTacToeGame.move(500, 17, "X");
+
+		final PersistentTicTacToeBoard board = PersistentTicTacToeBoard.of(ticTacToeGame);
+
+		Assert.assertEquals(TicTacToeMark.O, board.getMark(999, 999));
+		Assert.assertEquals(TicTacToeMark.EMPTY, board.getMark(999, 998));
+		Assert.assertEquals(TicTacToeMark.X, board.getPreviousMarkUsed());
+
+		final PersistentTicTacToeBoard nextBoard = board.withMove(500, 18, "O");
+
+		Assert.assertEquals(TicTacToeMark.EMPTY, board.getMark(500, 18));
+
+		final TicTacToeGame nextGame = nextBoard.toTicTacToeGame();
+
+		Assert.assertEquals(4, nextGame.getMoveCount());
+		Assert.assertEquals(5, nextGame.getWinLength());
+		Assert.assertEquals(TicTacToeMark.O, nextGame.getMark(500, 18));
+		Assert.assertEquals(TicTacToeMark.X, nextGame.getMark(500, 17));
+		Assert.assertEquals(TicTacToeMoveResult.UNEXPECTED_MARK, nextGame.tryMove(1, 1, "O"));
+
+	}
+
+	@Test
+	public void testFullTableWonByLastMove() throws NotValidMoveException {
+
+		/*
+		 *  |X|O|X|
+		 *  |X|O|O|
+		 *  |X|X|O|
+		 *
+		 * "X" fills the table winning its first column.
+		 */
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+		ticTacToeGame.move(0, 0, "X");
+		ticTacToeGame.move(0, 1, "O");
+		ticTacToeGame.move(0, 2, "X");
+		ticTacToeGame.move(1, 1, "O");
+		ticTacToeGame.move(1, 0, "X");
+		ticTacToeGame.move(1, 2, "O");
+		ticTacToeGame.move(2, 1, "X");
+		ticTacToeGame.move(2, 2, "O");
+
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, ticTacToeGame.move(2, 0, "X"));
+
+		Assert.assertEquals(TicTacToeGameStatus.WINNER,
+				PersistentTicTacToeBoard.of(ticTacToeGame).getGameStatus());
+
+	}
+
+	@Test
+	public void testMoveAfterFinished() throws NotValidMoveException {
+
+		final PersistentTicTacToeBoard board = new PersistentTicTacToeBoard(3)
+				.withMove(0, 0, "X").withMove(1, 0, "O")
+				.withMove(0, 1, "X").withMove(1, 1, "O")
+				.withMove(0, 2, "X");
+
+		Assert.assertTrue(board.isGameFinished());
+
+		Assert.assertSame(board, board.withMove(2, 2, "O"));
+
+		Assert.assertTrue(board.toTicTacToeGame().isGameFinished());
+
+	}
+
+	@Test(expected = NotValidMoveException.class)
+	public void testNotValidMove() throws NotValidMoveException {
+
+		new PersistentTicTacToeBoard(3).withMove(1, 1, "X").withMove(1, 1, "O");
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidWinLength() {
+
+		new PersistentTicTacToeBoard(3, 4);
+
+	}
+
+}
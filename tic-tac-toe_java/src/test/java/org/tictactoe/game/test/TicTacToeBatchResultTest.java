@@ -0,0 +1,97 @@
+package org.tictactoe.game.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeBatchResult;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+public class TicTacToeBatchResultTest {
+
+	@Test
+	public void testValidBatch() {
+
+		final int tableSize = 3;
+
+		/*
+		 *  |X|X|X|
+		 *  |O|O| |
+		 *  | | | |
+		 */
+
+		final int [] xAxisMoves = {0, 1, 0, 1, 0};
+		final int [] yAxisMoves = {0, 0, 1, 1, 2};
+		final byte [] marks = {TicTacToeMark.X, TicTacToeMark.O, TicTacToeMark.X,
+				TicTacToeMark.O, TicTacToeMark.X};
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		final TicTacToeBatchResult batchResult = new TicTacToeBatchResult();
+
+		Assert.assertSame(batchResult,
+				ticTacToeGame.applyMoves(xAxisMoves, yAxisMoves, marks, 0, 4, batchResult));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, batchResult.getGameStatus());
+
+		Assert.assertEquals(4, batchResult.getAppliedMoves());
+
+		ticTacToeGame.applyMoves(xAxisMoves, yAxisMoves, marks, 4, 1, batchResult);
+
+		Assert.assertTrue(batchResult.isValidBatch());
+
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, batchResult.getGameStatus());
+
+		Assert.assertEquals(TicTacToeBatchResult.NO_NOT_VALID_MOVE, batchResult.getNotValidMoveIndex());
+
+		Assert.assertNull(batchResult.getNotValidMoveResult());
+
+	}
+
+	@Test
+	public void testNotValidMoveInBatch() {
+
+		final int tableSize = 3;
+
+		final int [] xAxisMoves = {0, 1, 1, 2};
+		final int [] yAxisMoves = {0, 1, 1, 2};
+		final byte [] marks = {TicTacToeMark.X, TicTacToeMark.O, TicTacToeMark.X,
+				TicTacToeMark.X};
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		final TicTacToeBatchResult batchResult =
+				ticTacToeGame.applyMoves(xAxisMoves, yAxisMoves, marks, new TicTacToeBatchResult());
+
+		Assert.assertFalse(batchResult.isValidBatch());
+
+		Assert.assertEquals(2, batchResult.getNotValidMoveIndex());
+
+		Assert.assertEquals(TicTacToeMoveResult.POSITION_ALREADY_TAKEN, batchResult.getNotValidMoveResult());
+
+		Assert.assertEquals(2, batchResult.getAppliedMoves());
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, batchResult.getGameStatus());
+
+		Assert.assertEquals(2, ticTacToeGame.getMoveCount());
+
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testArraysOfDifferentLengths() {
+
+		new TicTacToeGame(3).applyMoves(new int[2], new int[1], new byte[2],
+				new TicTacToeBatchResult());
+
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRangeOverflowingInt() {
+
+		new TicTacToeGame(3).applyMoves(new int[2], new int[2], new byte[2], 1,
+				Integer.MAX_VALUE, new TicTacToeBatchResult());
+
+	}
+
+}
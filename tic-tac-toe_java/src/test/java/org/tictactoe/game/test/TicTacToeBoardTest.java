@@ -0,0 +1,211 @@
+package org.tictactoe.game.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.LongArrayBitTicTacToeBoard;
+import org.tictactoe.game.LongBitTicTacToeBoard;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.OffHeapTicTacToeBoard;
+import org.tictactoe.game.TicTacToeBoard;
+import org.tictactoe.game.TicTacToeBoardStorage;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeWinDetection;
+
+public class TicTacToeBoardTest {
+
+	@Test
+	public void testLongBitBoard() {
+
+		for (int tableSize = 3; tableSize <= LongBitTicTacToeBoard.MAX_TABLE_SIZE; tableSize++) {
+
+			verifyBoard(new LongBitTicTacToeBoard(tableSize));
+
+		}
+
+	}
+
+	@Test
+	public void testLongArrayBitBoard() {
+
+		final int [] tableSizes = {3, 8, 9, 63, 64, 65, 130};
+
+		for (int tableSize: tableSizes) {
+
+			verifyBoard(new LongArrayBitTicTacToeBoard(tableSize));
+
+		}
+
+	}
+
+	@Test
+	public void testOffHeapBoard() {
+
+		final int [] tableSizes = {3, 31, 32, 33, 100};
+
+		for (int tableSize: tableSizes) {
+
+			verifyBoard(new OffHeapTicTacToeBoard(tableSize));
+
+		}
+
+	}
+
+	@Test
+	public void testLargeOffHeapGame() throws NotValidMoveException {
+
+		final int tableSize = 20000;
+
+		final TicTacToeWinDetection [] winDetections = TicTacToeWinDetection.values();
+
+		for (TicTacToeWinDetection winDetection: winDetections) {
+
+			final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize,
+					TicTacToeBoardStorage.OFF_HEAP, winDetection);
+
+			TicTacToeGameStatus gameStatus = TicTacToeGameStatus.CONTINUE_NEXT_MOVE;
+
+			for (int xAxisMove = 0; xAxisMove < tableSize; xAxisMove++) {
+
+				gameStatus = ticTacToeGame.move(xAxisMove, tableSize - 1, "X");
+
+				if (xAxisMove < tableSize - 1) {
+
+					Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, gameStatus);
+
+					ticTacToeGame.move(xAxisMove, 0, "O");
+
+				}
+
+			}
+
+			Assert.assertEquals(TicTacToeGameStatus.WINNER, gameStatus);
+
+			Assert.assertEquals(2L * tableSize - 1, ticTacToeGame.getMoveCount());
+
+		}
+
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testLongBitBoardTooBig() {
+
+		new LongBitTicTacToeBoard(LongBitTicTacToeBoard.MAX_TABLE_SIZE + 1);
+
+	}
+
+	@Test
+	public void testCrossToRightWinnerInBigTable() throws NotValidMoveException {
+
+		final int tableSize = 4;
+
+		/*
+		 *  |O| | |X|
+		 *  |O| |X| |
+		 *  |O|X| | |
+		 *  |X| | | |
+		 */
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(0, 3, "X"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(0, 0, "O"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(3, 0, "X"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(1, 0, "O"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(2, 1, "X"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(2, 0, "O"));
+
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, ticTacToeGame.move(1, 2, "X"));
+
+		Assert.assertEquals("[O,  ,  , X]\n[O,  , X,  ]\n[O, X,  ,  ]\n[X,  ,  ,  ]\n",
+				ticTacToeGame.toString());
+
+	}
+
+	/**
+	 * Fills every line, column and diagonal of the given board verifying the
+	 * completion queries on the way.
+	 *
+	 * @param board Empty board to verify.
+	 */
+	private void verifyBoard(final TicTacToeBoard board) {
+
+		final int tableSize = board.getTableSize();
+
+		for (int index = 0; index < tableSize; index++) {
+
+			Assert.assertFalse(board.isLineComplete(index, TicTacToeMark.X));
+
+			Assert.assertFalse(board.isColumnComplete(index, TicTacToeMark.O));
+
+		}
+
+		for (int yAxisMove = 0; yAxisMove < tableSize; yAxisMove++) {
+
+			board.setMark(tableSize - 1, yAxisMove, TicTacToeMark.X);
+
+		}
+
+		Assert.assertTrue(board.isLineComplete(tableSize - 1, TicTacToeMark.X));
+
+		Assert.assertFalse(board.isLineComplete(tableSize - 1, TicTacToeMark.O));
+
+		for (int xAxisMove = 0; xAxisMove < tableSize - 1; xAxisMove++) {
+
+			board.setMark(xAxisMove, tableSize - 1, TicTacToeMark.O);
+
+		}
+
+		Assert.assertFalse(board.isColumnComplete(tableSize - 1, TicTacToeMark.O));
+
+		Assert.assertEquals(TicTacToeMark.X, board.getMark(tableSize - 1, tableSize - 1));
+
+		Assert.assertEquals(TicTacToeMark.O, board.getMark(0, tableSize - 1));
+
+		board.clear();
+
+		Assert.assertEquals(TicTacToeMark.EMPTY, board.getMark(tableSize - 1, 0));
+
+		for (int index = 0; index < tableSize; index++) {
+
+			board.setMark(index, 0, TicTacToeMark.O);
+
+			board.setMark(index, index, TicTacToeMark.O);
+
+		}
+
+		Assert.assertTrue(board.isColumnComplete(0, TicTacToeMark.O));
+
+		Assert.assertTrue(board.isCrossToLeftComplete(TicTacToeMark.O));
+
+		Assert.assertFalse(board.isCrossToLeftComplete(TicTacToeMark.X));
+
+		board.clear();
+
+		for (int index = 0; index < tableSize; index++) {
+
+			board.setMark(index, tableSize - 1 - index, TicTacToeMark.X);
+
+		}
+
+		Assert.assertTrue(board.isCrossToRightComplete(TicTacToeMark.X));
+
+		Assert.assertFalse(board.isCrossToLeftComplete(TicTacToeMark.X));
+
+		board.clearMark(0, tableSize - 1);
+
+		Assert.assertEquals(TicTacToeMark.EMPTY, board.getMark(0, tableSize - 1));
+
+		Assert.assertEquals(TicTacToeMark.X, board.getMark(1, tableSize - 2));
+
+		Assert.assertFalse(board.isCrossToRightComplete(TicTacToeMark.X));
+
+	}
+
+}
@@ -0,0 +1,123 @@
+package org.tictactoe.game.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+public class TicTacToeFlightRecorderTest {
+
+	@Test
+	public void testEventsRecorded() throws IOException {
+
+		final File recordingFile = File.createTempFile("tictactoe", ".jfr");
+
+		final List<RecordedEvent> events;
+
+		try {
+
+			final Recording recording = new Recording();
+
+			try {
+
+				recording.enable("org.tictactoe.game.GameReset").withThreshold(null);
+				recording.enable("org.tictactoe.game.Move").withThreshold(null);
+				recording.enable("org.tictactoe.game.WinCheck").withThreshold(null);
+				recording.enable("org.tictactoe.game.GameFinished");
+
+				recording.start();
+
+				final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+				Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(0, 0, "X"));
+				Assert.assertEquals(TicTacToeMoveResult.POSITION_ALREADY_TAKEN, ticTacToeGame.tryMove(0, 0, "O"));
+				Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(1, 0, "O"));
+				Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(0, 1, "X"));
+				Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(1, 1, "O"));
+				Assert.assertEquals(TicTacToeMoveResult.WINNER, ticTacToeGame.tryMove(0, 2, "X"));
+
+				ticTacToeGame.resetGame(5);
+
+				recording.stop();
+
+				recording.dump(recordingFile.toPath());
+
+			} finally {
+
+				recording.close();
+
+			}
+
+			events = RecordingFile.readAllEvents(recordingFile.toPath());
+
+		} finally {
+
+			recordingFile.delete();
+
+		}
+
+		final List<RecordedEvent> resetEvents = eventsOf(events, "org.tictactoe.game.GameReset");
+
+		Assert.assertEquals(2, resetEvents.size());
+		Assert.assertTrue(resetEvents.get(0).getBoolean("created"));
+		Assert.assertEquals(3, resetEvents.get(0).getInt("tableSize"));
+		Assert.assertFalse(resetEvents.get(1).getBoolean("created"));
+		Assert.assertTrue(resetEvents.get(1).getBoolean("tableAllocated"));
+		Assert.assertEquals(5, resetEvents.get(1).getInt("tableSize"));
+
+		final List<RecordedEvent> moveEvents = eventsOf(events, "org.tictactoe.game.Move");
+
+		Assert.assertEquals(6, moveEvents.size());
+		Assert.assertFalse(moveEvents.get(1).getBoolean("accepted"));
+		Assert.assertEquals("POSITION_ALREADY_TAKEN", moveEvents.get(1).getString("result"));
+		Assert.assertEquals("WINNER", moveEvents.get(5).getString("result"));
+
+		final List<RecordedEvent> winCheckEvents = eventsOf(events, "org.tictactoe.game.WinCheck");
+
+		Assert.assertEquals(5, winCheckEvents.size());
+		Assert.assertTrue(winCheckEvents.get(4).getBoolean("winner"));
+
+		final List<RecordedEvent> finishedEvents = eventsOf(events, "org.tictactoe.game.GameFinished");
+
+		Assert.assertEquals(1, finishedEvents.size());
+		Assert.assertEquals("WINNER", finishedEvents.get(0).getString("gameStatus"));
+		Assert.assertEquals("X", finishedEvents.get(0).getString("lastMark"));
+		Assert.assertEquals(5, finishedEvents.get(0).getLong("moveCount"));
+
+	}
+
+	/**
+	 * Gets the events of a type, in recording order.
+	 *
+	 * @param events Events recorded.
+	 * @param name Name of the type.
+	 * @return The events of the type.
+	 */
+	private List<RecordedEvent> eventsOf(final List<RecordedEvent> events, final String name) {
+
+		final List<RecordedEvent> eventsOfType = new ArrayList<RecordedEvent>();
+
+		for (RecordedEvent event: events) {
+
+			if (name.equals(event.getEventType().getName())) {
+				eventsOfType.add(event);
+			}
+
+		}
+
+		eventsOfType.sort((first, second) -> first.getStartTime().compareTo(second.getStartTime()));
+
+		return eventsOfType;
+
+	}
+
+}
@@ -0,0 +1,195 @@
+package org.tictactoe.game.test;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeBoardStorage;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameCodec;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+import org.tictactoe.game.TicTacToeWinDetection;
+
+public class TicTacToeGameCodecTest {
+
+	@Test
+	public void testRoundTrip() {
+
+		final int tableSize = 5;
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(4, 4, TicTacToeMark.O);
+		ticTacToeGame.tryMove(2, 3, TicTacToeMark.X);
+
+		final ByteBuffer buffer = ByteBuffer.allocate(TicTacToeGameCodec.encodedSize(tableSize));
+
+		TicTacToeGameCodec.encode(ticTacToeGame, buffer);
+
+		Assert.assertFalse(buffer.hasRemaining());
+
+		buffer.flip();
+
+		final TicTacToeGame decodedGame = TicTacToeGameCodec.decode(buffer,
+				TicTacToeBoardStorage.OFF_HEAP, TicTacToeWinDetection.LINE_COUNTERS);
+
+		Assert.assertFalse(buffer.hasRemaining());
+
+		Assert.assertEquals(ticTacToeGame.toString(), decodedGame.toString());
+
+		Assert.assertEquals(3, decodedGame.getMoveCount());
+
+		Assert.assertEquals(TicTacToeMoveResult.UNEXPECTED_MARK,
+				decodedGame.tryMove(1, 1, TicTacToeMark.X));
+
+		/*
+		 *  |X|X|X|X|X|
+		 *  | |O|O|O| |
+		 *  | | | |X| |
+		 *  |O| | | | |
+		 *  | | | | |O|
+		 */
+
+		decodedGame.tryMove(1, 1, TicTacToeMark.O);
+		decodedGame.tryMove(0, 1, TicTacToeMark.X);
+		decodedGame.tryMove(1, 2, TicTacToeMark.O);
+		decodedGame.tryMove(0, 2, TicTacToeMark.X);
+		decodedGame.tryMove(1, 3, TicTacToeMark.O);
+		decodedGame.tryMove(0, 3, TicTacToeMark.X);
+		decodedGame.tryMove(3, 0, TicTacToeMark.O);
+
+		Assert.assertEquals(TicTacToeMoveResult.WINNER, decodedGame.tryMove(0, 4, TicTacToeMark.X));
+
+		buffer.clear();
+
+		TicTacToeGameCodec.encode(decodedGame, buffer);
+
+		buffer.flip();
+
+		final TicTacToeGame reusedGame = TicTacToeGameCodec.decode(buffer, new TicTacToeGame(3));
+
+		Assert.assertEquals(tableSize, reusedGame.getTableSize());
+
+		Assert.assertTrue(reusedGame.isGameFinished());
+
+		Assert.assertEquals(TicTacToeMoveResult.GAME_ALREADY_FINISHED,
+				reusedGame.tryMove(4, 0, TicTacToeMark.O));
+
+	}
+
+	@Test
+	public void testKInARowRoundTrip() {
+
+		final int tableSize = 7;
+
+		final int winLength = 4;
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize, winLength);
+
+		/*
+		 *  |X|X|X| | | | |
+		 *  |O|O|O| | | | |
+		 */
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 0, TicTacToeMark.O);
+		ticTacToeGame.tryMove(0, 1, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+		ticTacToeGame.tryMove(0, 2, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 2, TicTacToeMark.O);
+
+		final ByteBuffer buffer = ByteBuffer.allocate(TicTacToeGameCodec.encodedSize(tableSize));
+
+		TicTacToeGameCodec.encode(ticTacToeGame, buffer);
+
+		buffer.flip();
+
+		final TicTacToeGame decodedGame = TicTacToeGameCodec.decode(buffer);
+
+		Assert.assertEquals(winLength, decodedGame.getWinLength());
+
+		Assert.assertEquals(TicTacToeMoveResult.WINNER, decodedGame.tryMove(0, 3, TicTacToeMark.X));
+
+		// Into a game of another win length, the game is not changed.
+		buffer.rewind();
+
+		final TicTacToeGame wholeLineGame = new TicTacToeGame(tableSize);
+
+		try {
+
+			TicTacToeGameCodec.decode(buffer, wholeLineGame);
+
+			Assert.fail("Snapshot decoded into a game of another win length");
+
+		} catch (IllegalArgumentException exception) {
+
+			Assert.assertEquals(0, wholeLineGame.getMoveCount());
+
+		}
+
+		final TicTacToeGame reusedGame =
+				TicTacToeGameCodec.decode(buffer, new TicTacToeGame(5, winLength));
+
+		Assert.assertEquals(TicTacToeMoveResult.WINNER, reusedGame.tryMove(0, 3, TicTacToeMark.X));
+
+	}
+
+	@Test
+	public void testNotValidSnapshots() {
+
+		final int tableSize = 3;
+
+		final ByteBuffer buffer = ByteBuffer.allocate(TicTacToeGameCodec.encodedSize(tableSize));
+
+		TicTacToeGameCodec.encode(new TicTacToeGame(tableSize), buffer);
+
+		buffer.flip();
+
+		buffer.put(TicTacToeGameCodec.HEADER_BYTES + 1, (byte) 0x30);
+
+		final TicTacToeGame targetGame = new TicTacToeGame(4);
+
+		targetGame.tryMove(0, 0, TicTacToeMark.X);
+
+		try {
+
+			TicTacToeGameCodec.decode(buffer, targetGame);
+
+			Assert.fail("Not valid mark decoded");
+
+		} catch (IllegalArgumentException exception) {
+
+			Assert.assertEquals("Invalid snapshot, not valid mark", exception.getMessage());
+
+		}
+
+		// Validated before the game is touched.
+		Assert.assertEquals(4, targetGame.getTableSize());
+
+		Assert.assertEquals(TicTacToeMark.X, targetGame.getMark(0, 0));
+
+		Assert.assertEquals(1, targetGame.getMoveCount());
+
+		buffer.rewind();
+
+		buffer.limit(buffer.limit() - 1);
+
+		try {
+
+			TicTacToeGameCodec.decode(buffer);
+
+			Assert.fail("Truncated snapshot decoded");
+
+		} catch (IllegalArgumentException exception) {
+
+			Assert.assertEquals("Invalid snapshot, truncated boxes", exception.getMessage());
+
+		}
+
+		Assert.assertEquals(0, buffer.position());
+
+	}
+
+}
@@ -0,0 +1,71 @@
+package org.tictactoe.game.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGamePool;
+import org.tictactoe.game.TicTacToeGameStatus;
+
+public class TicTacToeGamePoolTest {
+
+	@Test
+	public void testRecycledGames() throws NotValidMoveException {
+
+		final int tableSize = 3;
+
+		final TicTacToeGamePool gamePool = new TicTacToeGamePool(1);
+
+		final TicTacToeGame ticTacToeGame = gamePool.acquire(tableSize);
+
+		final TicTacToeGame otherGame = gamePool.acquire(tableSize);
+
+		Assert.assertEquals(2, gamePool.getMisses());
+
+		ticTacToeGame.move(1, 1, "X");
+
+		Assert.assertTrue(gamePool.release(ticTacToeGame));
+
+		Assert.assertFalse(gamePool.release(otherGame));
+
+		Assert.assertEquals(1, gamePool.getDiscarded());
+
+		Assert.assertEquals(1, gamePool.getIdleGames(tableSize));
+
+		final TicTacToeGame recycledGame = gamePool.acquire(tableSize);
+
+		Assert.assertSame(ticTacToeGame, recycledGame);
+
+		Assert.assertEquals(1, gamePool.getHits());
+
+		Assert.assertEquals(0, recycledGame.getMoveCount());
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, recycledGame.move(1, 1, "X"));
+
+		Assert.assertNotSame(recycledGame, gamePool.acquire(tableSize + 1));
+
+		Assert.assertEquals(0, gamePool.getIdleGames(tableSize + 1));
+
+	}
+
+	@Test
+	public void testResetToOtherTableSize() throws NotValidMoveException {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+		ticTacToeGame.move(0, 0, "X");
+
+		ticTacToeGame.resetGame(4);
+
+		Assert.assertEquals(4, ticTacToeGame.getTableSize());
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(3, 3, "X"));
+
+		ticTacToeGame.resetGame(4);
+
+		Assert.assertEquals("[ ,  ,  ,  ]\n[ ,  ,  ,  ]\n[ ,  ,  ,  ]\n[ ,  ,  ,  ]\n",
+				ticTacToeGame.toString());
+
+	}
+
+}
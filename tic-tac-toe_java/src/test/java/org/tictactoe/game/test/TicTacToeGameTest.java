@@ -1,10 +1,18 @@
 package org.tictactoe.game.test;
 
+import java.nio.ByteBuffer;
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeBoardStorage;
 import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameCodec;
 import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+import org.tictactoe.game.TicTacToeWinDetection;
 
 public class TicTacToeGameTest {
 
@@ -361,4 +369,331 @@ public class TicTacToeGameTest {
 		Assert.assertEquals(TicTacToeGameStatus.DRAW, gameStatus);
 		
 	}
+	
+	@Test
+	public void testEmptyBoxes() throws NotValidMoveException {
+		
+		final int tableSize = 3;
+		
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+		
+		ticTacToeGame.move(1, 1, "X");
+		
+		Assert.assertEquals(8, ticTacToeGame.getEmptyBoxCount());
+		
+		ticTacToeGame.move(0, 2, "O");
+		
+		Assert.assertEquals(7, ticTacToeGame.getEmptyBoxCount());
+		
+		final boolean [] seen = new boolean[tableSize * tableSize];
+		
+		for (int index = 0; index < ticTacToeGame.getEmptyBoxCount(); index++) {
+			
+			final int box = ticTacToeGame.getEmptyBox(index);
+			
+			Assert.assertFalse(seen[box]);
+			
+			Assert.assertEquals(TicTacToeMark.EMPTY, 
+					ticTacToeGame.getMark(box / tableSize, box % tableSize));
+			
+			seen[box] = true;
+			
+		}
+		
+		final int [] visited = new int[1];
+		
+		ticTacToeGame.forEachEmptyBox(box -> visited[0]++);
+		
+		Assert.assertEquals(7, visited[0]);
+		
+		ticTacToeGame.resetGame(tableSize);
+		
+		Assert.assertEquals(9, ticTacToeGame.getEmptyBoxCount());
+		
+	}
+	
+	@Test
+	public void testRandomEmptyBoxPlayout() {
+		
+		final int tableSize = 1000;
+		
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize, 5);
+		
+		final Random random = new Random(11);
+		
+		byte mark = TicTacToeMark.X;
+		
+		int moves = 0;
+		
+		while (!ticTacToeGame.isGameFinished() && (moves < 20000)) {
+			
+			final int box = ticTacToeGame.randomEmptyBox(random);
+			
+			Assert.assertTrue(ticTacToeGame.tryMove(box / tableSize, box % tableSize, 
+					mark).isValidMove());
+			
+			mark = TicTacToeMark.opponentOf(mark);
+			
+			moves++;
+			
+		}
+		
+		Assert.assertEquals(tableSize * tableSize - ticTacToeGame.getMoveCount(), 
+				ticTacToeGame.getEmptyBoxCount());
+		
+	}
+	
+	@Test
+	public void testUndoRedo() throws NotValidMoveException {
+		
+		final int tableSize = 3;
+		
+		/*
+		 *  |X|X|X|
+		 *  |O|O| |
+		 *  | | | |
+		 */
+		
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize, 
+				TicTacToeBoardStorage.BITBOARD, TicTacToeWinDetection.LINE_COUNTERS);
+		
+		// No history unless enabled.
+		ticTacToeGame.move(2, 0, "X");
+		
+		Assert.assertFalse(ticTacToeGame.undo());
+		
+		ticTacToeGame.resetGame(tableSize);
+		
+		ticTacToeGame.enableHistory(16);
+		
+		Assert.assertFalse(ticTacToeGame.undo());
+		
+		final long emptyHash = ticTacToeGame.getPositionHash();
+		
+		ticTacToeGame.move(0, 0, "X");
+		
+		final long firstMoveHash = ticTacToeGame.getPositionHash();
+		
+		ticTacToeGame.move(1, 0, "O");
+		ticTacToeGame.move(0, 1, "X");
+		ticTacToeGame.move(1, 1, "O");
+		
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, ticTacToeGame.move(0, 2, "X"));
+		
+		Assert.assertEquals(4, ticTacToeGame.getEmptyBoxCount());
+		
+		Assert.assertTrue(ticTacToeGame.undo());
+		
+		Assert.assertFalse(ticTacToeGame.isGameFinished());
+		
+		Assert.assertEquals(4, ticTacToeGame.getMoveCount());
+		
+		Assert.assertEquals(TicTacToeMark.O, ticTacToeGame.getPreviousMarkUsed());
+		
+		Assert.assertEquals(TicTacToeMark.EMPTY, ticTacToeGame.getMark(0, 2));
+		
+		Assert.assertEquals(5, ticTacToeGame.getEmptyBoxCount());
+		
+		// The same box wins again, the win detection state restored.
+		Assert.assertTrue(ticTacToeGame.redo());
+		
+		Assert.assertFalse(ticTacToeGame.redo());
+		
+		Assert.assertTrue(ticTacToeGame.isGameFinished());
+		
+		Assert.assertTrue(ticTacToeGame.undo());
+		
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, ticTacToeGame.move(0, 2, "X"));
+		
+		for (int move = 0; move < 4; move++) {
+			
+			Assert.assertTrue(ticTacToeGame.undo());
+			
+		}
+		
+		Assert.assertEquals(firstMoveHash, ticTacToeGame.getPositionHash());
+		
+		Assert.assertEquals(TicTacToeMark.X, ticTacToeGame.getPreviousMarkUsed());
+		
+		// A new move drops the moves that could be redone.
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(2, 2, "O"));
+		
+		Assert.assertFalse(ticTacToeGame.redo());
+		
+		Assert.assertTrue(ticTacToeGame.undo());
+		
+		Assert.assertTrue(ticTacToeGame.undo());
+		
+		Assert.assertFalse(ticTacToeGame.undo());
+		
+		Assert.assertEquals(emptyHash, ticTacToeGame.getPositionHash());
+		
+		Assert.assertEquals(9, ticTacToeGame.getEmptyBoxCount());
+		
+		// Either player may start again.
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(1, 1, "O"));
+		
+		final ByteBuffer buffer = ByteBuffer.allocate(TicTacToeGameCodec.encodedSize(tableSize));
+		
+		TicTacToeGameCodec.encode(ticTacToeGame, buffer);
+		
+		buffer.flip();
+		
+		final TicTacToeGame decodedGame = TicTacToeGameCodec.decode(buffer);
+		
+		decodedGame.enableHistory(16);
+		
+		// The marks of a snapshot are not moves to undo.
+		Assert.assertFalse(decodedGame.undo());
+		
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, decodedGame.move(0, 0, "X"));
+		
+		Assert.assertTrue(decodedGame.undo());
+		
+		Assert.assertFalse(decodedGame.undo());
+		
+		Assert.assertEquals(TicTacToeMark.O, decodedGame.getPreviousMarkUsed());
+		
+	}
+	
+	@Test
+	public void testBoundedHistory() throws NotValidMoveException {
+		
+		final int tableSize = 4;
+		
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+		
+		ticTacToeGame.move(0, 0, "X");
+		
+		// Starts after the moves already placed, keeping the last 3 moves.
+		ticTacToeGame.enableHistory(3);
+		
+		Assert.assertEquals(3, ticTacToeGame.getHistoryCapacity());
+		
+		ticTacToeGame.move(1, 0, "O");
+		ticTacToeGame.move(0, 1, "X");
+		
+		final long hash = ticTacToeGame.getPositionHash();
+		
+		ticTacToeGame.move(1, 1, "O");
+		ticTacToeGame.move(0, 2, "X");
+		ticTacToeGame.move(1, 2, "O");
+		
+		for (int move = 0; move < 3; move++) {
+			
+			Assert.assertTrue(ticTacToeGame.undo());
+			
+		}
+		
+		Assert.assertFalse(ticTacToeGame.undo());
+		
+		Assert.assertEquals(hash, ticTacToeGame.getPositionHash());
+		
+		Assert.assertEquals(TicTacToeMark.X, ticTacToeGame.getPreviousMarkUsed());
+		
+		for (int move = 0; move < 3; move++) {
+			
+			Assert.assertTrue(ticTacToeGame.redo());
+			
+		}
+		
+		Assert.assertFalse(ticTacToeGame.redo());
+		
+		Assert.assertEquals(TicTacToeMark.O, ticTacToeGame.getMark(1, 2));
+		
+		ticTacToeGame.disableHistory();
+		
+		Assert.assertEquals(0, ticTacToeGame.getHistoryCapacity());
+		
+		Assert.assertFalse(ticTacToeGame.undo());
+		
+		try {
+			
+			ticTacToeGame.enableHistory(0);
+			
+			Assert.fail("History enabled without capacity");
+			
+		} catch (IllegalArgumentException exception) {
+			
+			Assert.assertEquals("Invalid history capacity, should be greater than 0", 
+					exception.getMessage());
+			
+		}
+		
+	}
+	
+	@Test
+	public void testUndoEveryStorageAndDetection() {
+		
+		final Random random = new Random(5);
+		
+		for (TicTacToeBoardStorage boardStorage: TicTacToeBoardStorage.values()) {
+			
+			for (TicTacToeWinDetection winDetection: TicTacToeWinDetection.values()) {
+				
+				final int tableSize = 5;
+				
+				final TicTacToeGame ticTacToeGame = 
+						new TicTacToeGame(tableSize, boardStorage, winDetection);
+				
+				ticTacToeGame.enableHistory(tableSize * tableSize);
+				
+				for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+					
+					ticTacToeGame.resetGame(tableSize);
+					
+					// Plays a random game, taking back and placing again some moves.
+					byte mark = TicTacToeMark.X;
+					
+					while (!ticTacToeGame.isGameFinished()) {
+						
+						final int box = ticTacToeGame.randomEmptyBox(random);
+						
+						final long hash = ticTacToeGame.getPositionHash();
+						
+						final TicTacToeMoveResult moveResult = 
+								ticTacToeGame.tryMove(box / tableSize, box % tableSize, mark);
+						
+						if (random.nextInt(3) == 0) {
+							
+							Assert.assertTrue(ticTacToeGame.undo());
+							
+							Assert.assertEquals(hash, ticTacToeGame.getPositionHash());
+							
+							Assert.assertEquals(moveResult, ticTacToeGame.tryMove(
+									box / tableSize, box % tableSize, mark));
+							
+						}
+						
+						mark = TicTacToeMark.opponentOf(mark);
+						
+					}
+					
+					final long moveCount = ticTacToeGame.getMoveCount();
+					
+					while (ticTacToeGame.undo()) {
+						
+						Assert.assertFalse(ticTacToeGame.isGameFinished());
+						
+					}
+					
+					Assert.assertEquals(tableSize * tableSize, ticTacToeGame.getEmptyBoxCount());
+					
+					while (ticTacToeGame.redo()) {
+						
+						Assert.assertEquals(ticTacToeGame.getMoveCount() == moveCount, 
+								ticTacToeGame.isGameFinished());
+						
+					}
+					
+					Assert.assertEquals(moveCount, ticTacToeGame.getMoveCount());
+					
+				}
+				
+			}
+			
+		}
+		
+	}
+	
 }
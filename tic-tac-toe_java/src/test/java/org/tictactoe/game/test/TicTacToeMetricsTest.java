@@ -0,0 +1,139 @@
+package org.tictactoe.game.test;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeLatencySnapshot;
+import org.tictactoe.game.TicTacToeMetrics;
+import org.tictactoe.game.TicTacToeMetricsSnapshot;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+public class TicTacToeMetricsTest {
+
+	@Test
+	public void testCountersAndLatencies() {
+
+		final TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+		// Not measured before the metrics are set.
+		ticTacToeGame.tryMove(5, 5, "X");
+
+		ticTacToeGame.setMetrics(metrics);
+
+		Assert.assertSame(metrics, ticTacToeGame.getMetrics());
+
+		Assert.assertEquals(TicTacToeMoveResult.MOVE_OUT_OF_RANGE, ticTacToeGame.tryMove(3, 0, "X"));
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(0, 0, "X"));
+		Assert.assertEquals(TicTacToeMoveResult.POSITION_ALREADY_TAKEN, ticTacToeGame.tryMove(0, 0, "O"));
+		Assert.assertEquals(TicTacToeMoveResult.UNEXPECTED_MARK, ticTacToeGame.tryMove(1, 1, "X"));
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(1, 0, "O"));
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(0, 1, "X"));
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(1, 1, "O"));
+		Assert.assertEquals(TicTacToeMoveResult.WINNER, ticTacToeGame.tryMove(0, 2, "X"));
+
+		// A second game sharing the metrics.
+		final TicTacToeGame otherGame = new TicTacToeGame(4);
+
+		otherGame.setMetrics(metrics);
+
+		Assert.assertEquals(TicTacToeMoveResult.NOT_VALID_MARK, otherGame.tryMove(0, 0, "Z"));
+
+		final TicTacToeMetricsSnapshot snapshot = metrics.snapshot();
+
+		Assert.assertEquals(9, snapshot.getMoveCount());
+		Assert.assertEquals(4, snapshot.getNotValidMoveCount());
+		Assert.assertEquals(1, snapshot.getMoveCount(TicTacToeMoveResult.MOVE_OUT_OF_RANGE));
+		Assert.assertEquals(1, snapshot.getMoveCount(TicTacToeMoveResult.POSITION_ALREADY_TAKEN));
+		Assert.assertEquals(1, snapshot.getMoveCount(TicTacToeMoveResult.UNEXPECTED_MARK));
+		Assert.assertEquals(1, snapshot.getMoveCount(TicTacToeMoveResult.NOT_VALID_MARK));
+		Assert.assertEquals(4, snapshot.getMoveCount(TicTacToeMoveResult.CONTINUE_NEXT_MOVE));
+		Assert.assertEquals(1, snapshot.getMoveCount(TicTacToeMoveResult.WINNER));
+
+		final TicTacToeLatencySnapshot moveLatencies = snapshot.getMoveLatencies();
+
+		Assert.assertEquals(9, moveLatencies.getTotalCount());
+		Assert.assertTrue(moveLatencies.getPercentile(50) <= moveLatencies.getPercentile(99));
+		Assert.assertTrue(moveLatencies.getPercentile(100) <= moveLatencies.getMaxValue());
+
+		// A winner check per move placed.
+		Assert.assertEquals(5, snapshot.getWinCheckLatencies().getTotalCount());
+
+		final Map<String, Number> values = snapshot.toMap();
+
+		Assert.assertEquals(1L, values.get("moves.WINNER"));
+		Assert.assertEquals(9L, values.get("move.latency.count"));
+		Assert.assertTrue(values.containsKey("winCheck.latency.p99.9"));
+
+		// The snapshot does not change with the moves after it.
+		ticTacToeGame.setMetrics(null);
+
+		ticTacToeGame.resetGame(3);
+
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(0, 0, "X"));
+
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, otherGame.tryMove(0, 0, "X"));
+
+		Assert.assertEquals(9, snapshot.getMoveCount());
+
+		Assert.assertEquals(10, metrics.snapshot().getMoveCount());
+
+	}
+
+	@Test
+	public void testConcurrentMoves() throws InterruptedException {
+
+		final TicTacToeMetrics metrics = new TicTacToeMetrics();
+
+		final Thread [] threads = new Thread[4];
+
+		for (int thread = 0; thread < threads.length; thread++) {
+
+			threads[thread] = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+
+					final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+					ticTacToeGame.setMetrics(metrics);
+
+					for (int move = 0; move < 10000; move++) {
+
+						ticTacToeGame.tryMove(-1, 0, "X");
+
+					}
+
+				}
+
+			});
+
+			threads[thread].start();
+
+		}
+
+		for (Thread thread: threads) {
+
+			thread.join();
+
+		}
+
+		final TicTacToeMetricsSnapshot snapshot = metrics.snapshot();
+
+		Assert.assertEquals(40000, snapshot.getMoveCount(TicTacToeMoveResult.MOVE_OUT_OF_RANGE));
+
+		Assert.assertEquals(40000, snapshot.getMoveLatencies().getTotalCount());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPercentile() {
+
+		new TicTacToeMetrics().snapshot().getMoveLatencies().getPercentile(101);
+
+	}
+
+}
@@ -0,0 +1,114 @@
+package org.tictactoe.game.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+
+public class TicTacToeMoveResultTest {
+
+	@Test
+	public void testNotValidMoves() {
+
+		final int tableSize = 3;
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		Assert.assertEquals(TicTacToeMoveResult.MOVE_OUT_OF_RANGE,
+				ticTacToeGame.tryMove(3, 0, TicTacToeMark.X));
+
+		Assert.assertEquals(TicTacToeMoveResult.MOVE_OUT_OF_RANGE,
+				ticTacToeGame.tryMove(0, -1, TicTacToeMark.X));
+
+		Assert.assertEquals(TicTacToeMoveResult.NOT_VALID_MARK,
+				ticTacToeGame.tryMove(0, 0, "L"));
+
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE,
+				ticTacToeGame.tryMove(0, 0, TicTacToeMark.X));
+
+		Assert.assertEquals(TicTacToeMoveResult.POSITION_ALREADY_TAKEN,
+				ticTacToeGame.tryMove(0, 0, TicTacToeMark.O));
+
+		Assert.assertEquals(TicTacToeMoveResult.UNEXPECTED_MARK,
+				ticTacToeGame.tryMove(1, 1, TicTacToeMark.X));
+
+		Assert.assertFalse(TicTacToeMoveResult.UNEXPECTED_MARK.isValidMove());
+
+		Assert.assertNull(TicTacToeMoveResult.UNEXPECTED_MARK.getGameStatus());
+
+	}
+
+	@Test
+	public void testValidMoves() {
+
+		final int tableSize = 3;
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 0, TicTacToeMark.O);
+		ticTacToeGame.tryMove(0, 1, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+
+		final TicTacToeMoveResult moveResult = ticTacToeGame.tryMove(0, 2, TicTacToeMark.X);
+
+		Assert.assertEquals(TicTacToeMoveResult.WINNER, moveResult);
+
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, moveResult.getGameStatus());
+
+		Assert.assertEquals(TicTacToeMoveResult.GAME_ALREADY_FINISHED,
+				ticTacToeGame.tryMove(2, 2, TicTacToeMark.O));
+
+	}
+
+	@Test
+	public void testNotValidMoveMessages() {
+
+		final int tableSize = 3;
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		Assert.assertEquals("Move out of range", notValidMoveMessage(ticTacToeGame, 0, 3, "X"));
+
+		Assert.assertEquals("Not valid mark 'L'", notValidMoveMessage(ticTacToeGame, 0, 0, "L"));
+
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE,
+				ticTacToeGame.tryMove(0, 0, "O"));
+
+		Assert.assertEquals("Position already taken", notValidMoveMessage(ticTacToeGame, 0, 0, "X"));
+
+		Assert.assertEquals("Invalid mark, 'X' was expected instead",
+				notValidMoveMessage(ticTacToeGame, 1, 1, "O"));
+
+	}
+
+	/**
+	 * Plays a not valid move and gets the message of the exception thrown.
+	 *
+	 * @param ticTacToeGame Game to play.
+	 * @param xAxisMove X coordinate for the move.
+	 * @param yAxisMove Y coordinate for the move.
+	 * @param mark Mark to place in the move.
+	 * @return The exception message; null if the move was valid.
+	 */
+	private String notValidMoveMessage(final TicTacToeGame ticTacToeGame,
+			final int xAxisMove, final int yAxisMove, final String mark) {
+
+		try {
+
+			ticTacToeGame.move(xAxisMove, yAxisMove, mark);
+
+		} catch (NotValidMoveException exception) {
+
+			return exception.getMessage();
+
+		}
+
+		return null;
+
+	}
+
+}
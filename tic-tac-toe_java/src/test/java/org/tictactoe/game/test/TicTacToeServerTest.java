@@ -0,0 +1,306 @@
+package org.tictactoe.game.test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.GameRegistry;
+import org.tictactoe.game.GameRegistryListener;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+import org.tictactoe.game.server.TicTacToeProtocol;
+import org.tictactoe.game.server.TicTacToeServer;
+
+public class TicTacToeServerTest {
+
+	@Test
+	public void testPipelinedMoves() throws IOException {
+
+		final GameRegistry gameRegistry = new GameRegistry();
+
+		final TicTacToeServer server = new TicTacToeServer(gameRegistry,
+				new InetSocketAddress("127.0.0.1", 0), 2, TicTacToeServer.DEFAULT_MAX_TABLE_SIZE);
+
+		try {
+
+			final SocketChannel channel = SocketChannel.open(server.getLocalAddress());
+
+			try {
+
+				final ByteBuffer requests = ByteBuffer.allocate(64 * TicTacToeProtocol.REQUEST_SIZE);
+
+				final ByteBuffer responses = ByteBuffer.allocate(64 * TicTacToeProtocol.RESPONSE_SIZE);
+
+				TicTacToeProtocol.writeCreate(requests, 3);
+
+				send(channel, requests);
+
+				receive(channel, responses, 1);
+
+				final long gameId = responses.getLong();
+
+				Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE,
+						TicTacToeProtocol.moveResultOf(responses.getInt()));
+
+				Assert.assertTrue(gameRegistry.containsGame(gameId));
+
+				/*
+				 *  |X|X|X|
+				 *  |O|O| |
+				 *  | | | |
+				 */
+
+				TicTacToeProtocol.writeMove(requests, gameId, 0, 0, TicTacToeMark.X);
+				TicTacToeProtocol.writeMove(requests, gameId, 1, 0, TicTacToeMark.O);
+				TicTacToeProtocol.writeMove(requests, gameId, 1, 0, TicTacToeMark.X);
+				TicTacToeProtocol.writeMove(requests, gameId, 0, 1, TicTacToeMark.X);
+				TicTacToeProtocol.writeMove(requests, gameId, 1, 1, TicTacToeMark.O);
+				TicTacToeProtocol.writeMove(requests, gameId, 0, 2, TicTacToeMark.X);
+				TicTacToeProtocol.writeMove(requests, gameId + 1000, 0, 0, TicTacToeMark.X);
+				TicTacToeProtocol.writeReset(requests, gameId, 4);
+				TicTacToeProtocol.writeMove(requests, gameId, 3, 3, TicTacToeMark.O);
+				TicTacToeProtocol.writeCreate(requests, 2);
+
+				// Sent in pieces not aligned to the frames.
+				requests.flip();
+
+				while (requests.hasRemaining()) {
+
+					final ByteBuffer piece = requests.slice();
+
+					piece.limit(Math.min(piece.limit(), 7));
+
+					requests.position(requests.position() + piece.remaining());
+
+					while (piece.hasRemaining()) {
+						channel.write(piece);
+					}
+
+				}
+
+				requests.clear();
+
+				final int [] expectedResults = {
+						TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal(),
+						TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal(),
+						TicTacToeMoveResult.POSITION_ALREADY_TAKEN.ordinal(),
+						TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal(),
+						TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal(),
+						TicTacToeMoveResult.WINNER.ordinal(),
+						TicTacToeProtocol.GAME_NOT_FOUND,
+						TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal(),
+						TicTacToeMoveResult.CONTINUE_NEXT_MOVE.ordinal()};
+
+				receive(channel, responses, expectedResults.length + 1);
+
+				for (int expectedResult: expectedResults) {
+
+					responses.getLong();
+
+					Assert.assertEquals(expectedResult, responses.getInt());
+
+				}
+
+				Assert.assertEquals(0, responses.getLong());
+
+				Assert.assertEquals(TicTacToeProtocol.INVALID_REQUEST, responses.getInt());
+
+			} finally {
+
+				channel.close();
+
+			}
+
+		} finally {
+
+			server.close();
+
+		}
+
+	}
+
+	@Test
+	public void testManyConnections() throws IOException {
+
+		final TicTacToeServer server = new TicTacToeServer(new GameRegistry(),
+				new InetSocketAddress("127.0.0.1", 0));
+
+		try {
+
+			final SocketChannel [] channels = new SocketChannel[50];
+
+			final ByteBuffer requests = ByteBuffer.allocate(TicTacToeProtocol.REQUEST_SIZE);
+
+			final ByteBuffer responses = ByteBuffer.allocate(TicTacToeProtocol.RESPONSE_SIZE);
+
+			for (int connection = 0; connection < channels.length; connection++) {
+
+				channels[connection] = SocketChannel.open(server.getLocalAddress());
+
+				TicTacToeProtocol.writeCreate(requests, 3);
+
+				send(channels[connection], requests);
+
+			}
+
+			for (SocketChannel channel: channels) {
+
+				receive(channel, responses, 1);
+
+				Assert.assertTrue(responses.getLong() > 0);
+
+				channel.close();
+
+			}
+
+		} finally {
+
+			server.close();
+
+		}
+
+	}
+
+	@Test
+	public void testFailedRequestClosesOnlyItsConnection() throws IOException {
+
+		final GameRegistry gameRegistry = new GameRegistry(1, new GameRegistryListener() {
+
+			@Override
+			public void gameCreated(final long gameId, final int tableSize) {
+
+				if (tableSize == 7) {
+					throw new IllegalStateException("Listener failed");
+				}
+
+			}
+
+			@Override
+			public void moveAccepted(final long gameId, final int xAxisMove, final int yAxisMove,
+					final byte mark) {
+
+			}
+
+			@Override
+			public void gameReset(final long gameId, final int tableSize) {
+
+			}
+
+			@Override
+			public void gameExpired(final long gameId) {
+
+			}
+
+		});
+
+		final TicTacToeServer server = new TicTacToeServer(gameRegistry,
+				new InetSocketAddress("127.0.0.1", 0), 1, TicTacToeServer.DEFAULT_MAX_TABLE_SIZE);
+
+		try {
+
+			final SocketChannel channel = SocketChannel.open(server.getLocalAddress());
+
+			final SocketChannel failingChannel = SocketChannel.open(server.getLocalAddress());
+
+			try {
+
+				final ByteBuffer requests = ByteBuffer.allocate(TicTacToeProtocol.REQUEST_SIZE);
+
+				final ByteBuffer responses = ByteBuffer.allocate(TicTacToeProtocol.RESPONSE_SIZE);
+
+				TicTacToeProtocol.writeCreate(requests, 3);
+
+				send(channel, requests);
+
+				receive(channel, responses, 1);
+
+				final long gameId = responses.getLong();
+
+				TicTacToeProtocol.writeCreate(requests, 7);
+
+				send(failingChannel, requests);
+
+				responses.clear();
+
+				Assert.assertEquals(-1, failingChannel.read(responses));
+
+				TicTacToeProtocol.writeMove(requests, gameId, 1, 1, TicTacToeMark.X);
+
+				send(channel, requests);
+
+				receive(channel, responses, 1);
+
+				Assert.assertEquals(gameId, responses.getLong());
+
+				Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE,
+						TicTacToeProtocol.moveResultOf(responses.getInt()));
+
+			} finally {
+
+				channel.close();
+
+				failingChannel.close();
+
+			}
+
+		} finally {
+
+			server.close();
+
+		}
+
+	}
+
+	/**
+	 * Sends the requests written in a buffer, clearing it.
+	 *
+	 * @param channel Channel to send.
+	 * @param requests Buffer of the requests.
+	 * @throws IOException If the channel failed.
+	 */
+	private void send(final SocketChannel channel, final ByteBuffer requests)
+			throws IOException {
+
+		requests.flip();
+
+		while (requests.hasRemaining()) {
+
+			channel.write(requests);
+
+		}
+
+		requests.clear();
+
+	}
+
+	/**
+	 * Receives responses into a buffer, ready to get them.
+	 *
+	 * @param channel Channel to receive.
+	 * @param responses Buffer of the responses.
+	 * @param count Responses to receive.
+	 * @throws IOException If the channel failed or was closed.
+	 */
+	private void receive(final SocketChannel channel, final ByteBuffer responses,
+			final int count) throws IOException {
+
+		responses.clear();
+
+		responses.limit(count * TicTacToeProtocol.RESPONSE_SIZE);
+
+		while (responses.hasRemaining()) {
+
+			if (channel.read(responses) < 0) {
+				throw new IOException("Connection closed");
+			}
+
+		}
+
+		responses.flip();
+
+	}
+
+}
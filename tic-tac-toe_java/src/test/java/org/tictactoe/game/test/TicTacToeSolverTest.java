@@ -0,0 +1,165 @@
+package org.tictactoe.game.test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeMoveResult;
+import org.tictactoe.game.solver.TicTacToeOutcome;
+import org.tictactoe.game.solver.TicTacToeSolution;
+import org.tictactoe.game.solver.TicTacToeSolver;
+import org.tictactoe.game.solver.TranspositionTable;
+
+public class TicTacToeSolverTest {
+
+	@Test
+	public void testEmptyTableIsADraw() {
+
+		final TicTacToeSolution solution = new TicTacToeSolver().solve(new TicTacToeGame(3));
+
+		Assert.assertEquals(TicTacToeOutcome.DRAW, solution.getOutcome());
+
+		Assert.assertEquals(TicTacToeMark.X, solution.getMark());
+
+		Assert.assertTrue(solution.hasMove());
+
+	}
+
+	@Test
+	public void testWinAndLoss() {
+
+		/*
+		 *  |X| | |
+		 *  | |O| |
+		 *  | | |X|
+		 */
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(3);
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+		ticTacToeGame.tryMove(2, 2, TicTacToeMark.X);
+
+		final TicTacToeSolver solver = new TicTacToeSolver(new TranspositionTable(1 << 10));
+
+		// O must take a side, a corner loses to a fork.
+		TicTacToeSolution solution = solver.solve(ticTacToeGame);
+
+		Assert.assertEquals(TicTacToeOutcome.DRAW, solution.getOutcome());
+
+		Assert.assertEquals(TicTacToeMark.O, solution.getMark());
+
+		Assert.assertEquals(1, (solution.getXAxisMove() + solution.getYAxisMove()) % 2);
+
+		ticTacToeGame.tryMove(0, 2, TicTacToeMark.O);
+
+		solution = solver.solve(ticTacToeGame);
+
+		Assert.assertEquals(TicTacToeOutcome.WIN, solution.getOutcome());
+
+		Assert.assertEquals(3, solution.getPliesToEnd());
+
+		ticTacToeGame.tryMove(solution.getXAxisMove(), solution.getYAxisMove(), TicTacToeMark.X);
+
+		solution = solver.solve(ticTacToeGame);
+
+		Assert.assertEquals(TicTacToeOutcome.LOSS, solution.getOutcome());
+
+		while (!ticTacToeGame.isGameFinished()) {
+
+			solution = solver.solve(ticTacToeGame);
+
+			ticTacToeGame.tryMove(solution.getXAxisMove(), solution.getYAxisMove(),
+					solution.getMark());
+
+		}
+
+		Assert.assertEquals(TicTacToeOutcome.LOSS, solver.solve(ticTacToeGame).getOutcome());
+
+		Assert.assertFalse(solver.solve(ticTacToeGame).hasMove());
+
+	}
+
+	@Test
+	public void testParallelSearch() {
+
+		final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+		try {
+
+			final TicTacToeSolver solver = new TicTacToeSolver(
+					new TranspositionTable(TicTacToeSolver.DEFAULT_TABLE_CAPACITY), forkJoinPool, 4);
+
+			final TicTacToeGame ticTacToeGame = new TicTacToeGame(4);
+
+			Assert.assertEquals(TicTacToeOutcome.DRAW, solver.solve(ticTacToeGame).getOutcome());
+
+			/*
+			 *  |X|X|X| |
+			 *  |O|O|O| |
+			 *  | | | | |
+			 *  | | | | |
+			 */
+
+			for (int yAxisMove = 0; yAxisMove < 3; yAxisMove++) {
+
+				ticTacToeGame.tryMove(0, yAxisMove, TicTacToeMark.X);
+				ticTacToeGame.tryMove(1, yAxisMove, TicTacToeMark.O);
+
+			}
+
+			final TicTacToeSolution solution = solver.solve(ticTacToeGame);
+
+			Assert.assertEquals(TicTacToeOutcome.WIN, solution.getOutcome());
+
+			Assert.assertEquals(0, solution.getXAxisMove());
+
+			Assert.assertEquals(3, solution.getYAxisMove());
+
+		} finally {
+
+			forkJoinPool.shutdown();
+
+		}
+
+	}
+
+	@Test
+	public void testTimeBudget() {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(4);
+
+		final long start = System.nanoTime();
+
+		final TicTacToeSolution solution =
+				new TicTacToeSolver().solve(ticTacToeGame, 200, TimeUnit.MILLISECONDS);
+
+		Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+		Assert.assertTrue(solution.getDepth() > 0);
+
+		Assert.assertEquals(TicTacToeMoveResult.CONTINUE_NEXT_MOVE, ticTacToeGame.tryMove(
+				solution.getXAxisMove(), solution.getYAxisMove(), solution.getMark()));
+
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTableTooBig() {
+
+		new TicTacToeSolver().solve(new TicTacToeGame(9));
+
+	}
+
+	@Test
+	public void testThreeInARowOnFourByFourIsAWin() {
+
+		final TicTacToeSolution solution = new TicTacToeSolver().solve(new TicTacToeGame(4, 3));
+
+		Assert.assertEquals(TicTacToeOutcome.WIN, solution.getOutcome());
+
+	}
+
+}
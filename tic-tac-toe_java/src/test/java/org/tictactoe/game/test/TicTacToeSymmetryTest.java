@@ -0,0 +1,161 @@
+package org.tictactoe.game.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeCanonicalPosition;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeMark;
+import org.tictactoe.game.TicTacToeSymmetry;
+import org.tictactoe.game.solver.SolutionCache;
+import org.tictactoe.game.solver.TicTacToeSolution;
+import org.tictactoe.game.solver.TicTacToeSolver;
+
+public class TicTacToeSymmetryTest {
+
+	@Test
+	public void testOrientationsShareTheCanonicalForm() {
+
+		final int tableSize = 4;
+
+		final TicTacToeCanonicalPosition expected =
+				TicTacToeSymmetry.canonicalize(newGame(tableSize, 0));
+
+		for (int transform = 1; transform < TicTacToeSymmetry.TRANSFORMS; transform++) {
+
+			final TicTacToeCanonicalPosition position =
+					TicTacToeSymmetry.canonicalize(newGame(tableSize, transform));
+
+			Assert.assertEquals(expected, position);
+			Assert.assertEquals(expected.hashCode(), position.hashCode());
+
+			for (int box = 0; box < tableSize * tableSize; box++) {
+
+				Assert.assertEquals(box, position.fromCanonicalBox(
+						position.toCanonicalBox(box / tableSize, box % tableSize)));
+
+			}
+
+		}
+
+		final TicTacToeGame otherGame = newGame(tableSize, 0);
+
+		otherGame.tryMove(3, 3, TicTacToeMark.O);
+
+		Assert.assertFalse(expected.equals(TicTacToeSymmetry.canonicalize(otherGame)));
+
+	}
+
+	@Test
+	public void testInverseTransforms() {
+
+		for (int transform = 0; transform < TicTacToeSymmetry.TRANSFORMS; transform++) {
+
+			for (int box = 0; box < 25; box++) {
+
+				final int movedBox = TicTacToeSymmetry.transformBox(5, transform, box);
+
+				Assert.assertEquals(box, TicTacToeSymmetry.transformBox(5,
+						TicTacToeSymmetry.inverseOf(transform), movedBox));
+
+			}
+
+		}
+
+	}
+
+	@Test
+	public void testCacheMovesSolutionsToEveryOrientation() {
+
+		final TicTacToeSolver solver = new TicTacToeSolver();
+
+		final SolutionCache solutionCache = new SolutionCache(4);
+
+		final TicTacToeGame ticTacToeGame = newGame(3, 0);
+
+		final TicTacToeSolution solution = solver.solve(ticTacToeGame);
+
+		Assert.assertNull(solutionCache.get(ticTacToeGame));
+
+		solutionCache.put(ticTacToeGame, solution);
+
+		for (int transform = 0; transform < TicTacToeSymmetry.TRANSFORMS; transform++) {
+
+			final TicTacToeGame rotatedGame = newGame(3, transform);
+
+			final TicTacToeSolution cachedSolution = solutionCache.get(rotatedGame);
+
+			final int expectedBox = TicTacToeSymmetry.transformBox(3, transform,
+					solution.getXAxisMove() * 3 + solution.getYAxisMove());
+
+			Assert.assertEquals(expectedBox / 3, cachedSolution.getXAxisMove());
+			Assert.assertEquals(expectedBox % 3, cachedSolution.getYAxisMove());
+			Assert.assertEquals(solution.getOutcome(), cachedSolution.getOutcome());
+
+		}
+
+		Assert.assertEquals(1, solutionCache.size());
+		Assert.assertEquals(TicTacToeSymmetry.TRANSFORMS, solutionCache.getHits());
+		Assert.assertEquals(1, solutionCache.getMisses());
+
+	}
+
+	@Test
+	public void testCacheEvictsNotReadPositions() {
+
+		final TicTacToeSolver solver = new TicTacToeSolver();
+
+		final SolutionCache solutionCache = new SolutionCache(2);
+
+		final TicTacToeGame cornerGame = new TicTacToeGame(3);
+		cornerGame.tryMove(0, 0, TicTacToeMark.X);
+
+		final TicTacToeGame sideGame = new TicTacToeGame(3);
+		sideGame.tryMove(0, 1, TicTacToeMark.X);
+
+		final TicTacToeGame centerGame = new TicTacToeGame(3);
+		centerGame.tryMove(1, 1, TicTacToeMark.X);
+
+		solutionCache.put(cornerGame, solver.solve(cornerGame));
+		solutionCache.put(sideGame, solver.solve(sideGame));
+
+		// The corner is read, so the side is evicted by the center.
+		Assert.assertNotNull(solutionCache.get(cornerGame));
+
+		solutionCache.put(centerGame, solver.solve(centerGame));
+
+		Assert.assertEquals(2, solutionCache.size());
+		Assert.assertEquals(1, solutionCache.getEvictions());
+
+		Assert.assertNotNull(solutionCache.get(cornerGame));
+		Assert.assertNull(solutionCache.get(sideGame));
+		Assert.assertNotNull(solutionCache.get(centerGame));
+
+	}
+
+	/**
+	 * Creates a game with an asymmetric position, moved by a transform.
+	 *
+	 * @param tableSize Table size, 3 or above.
+	 * @param transform Transform of the position.
+	 * @return The game.
+	 */
+	private static TicTacToeGame newGame(final int tableSize, final int transform) {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		final int [] boxes = {0, 1, tableSize + 2};
+		final byte [] marks = {TicTacToeMark.X, TicTacToeMark.O, TicTacToeMark.X};
+
+		for (int index = 0; index < boxes.length; index++) {
+
+			final int box = TicTacToeSymmetry.transformBox(tableSize, transform, boxes[index]);
+
+			ticTacToeGame.tryMove(box / tableSize, box % tableSize, marks[index]);
+
+		}
+
+		return ticTacToeGame;
+
+	}
+
+}
@@ -0,0 +1,185 @@
+package org.tictactoe.game.test;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.NotValidMoveException;
+import org.tictactoe.game.TicTacToeBoardStorage;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameStatus;
+import org.tictactoe.game.TicTacToeWinDetection;
+
+public class TicTacToeWinDetectionTest {
+
+	@Test
+	public void testLineCountersWinner() throws NotValidMoveException {
+
+		final int tableSize = 3;
+
+		/*
+		 *  |X|O| |
+		 *  |O|X| |
+		 *  | | |X|
+		 */
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize,
+				TicTacToeBoardStorage.BITBOARD, TicTacToeWinDetection.LINE_COUNTERS);
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(0, 0, "X"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(0, 1, "O"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(1, 1, "X"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(1, 0, "O"));
+
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, ticTacToeGame.move(2, 2, "X"));
+
+		ticTacToeGame.resetGame(tableSize);
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE, ticTacToeGame.move(2, 2, "X"));
+
+	}
+
+	@Test
+	public void testSameResultsThanLineScan() throws NotValidMoveException {
+
+		final int [] tableSizes = {3, 4, 5, 9};
+
+		final Random random = new Random(7);
+
+		for (int tableSize: tableSizes) {
+
+			for (int gameNumber = 0; gameNumber < 200; gameNumber++) {
+
+				final TicTacToeGame lineScanGame = new TicTacToeGame(tableSize,
+						TicTacToeBoardStorage.BITBOARD, TicTacToeWinDetection.LINE_SCAN);
+
+				final TicTacToeGame lineCountersGame = new TicTacToeGame(tableSize,
+						TicTacToeBoardStorage.BITBOARD, TicTacToeWinDetection.LINE_COUNTERS);
+
+				final TicTacToeGame localWindowGame = new TicTacToeGame(tableSize,
+						TicTacToeBoardStorage.BITBOARD, TicTacToeWinDetection.LOCAL_WINDOW);
+
+				final int [] boxes = shuffledBoxes(tableSize, random);
+
+				String mark = "X";
+
+				for (int box: boxes) {
+
+					final int xAxisMove = box / tableSize;
+					final int yAxisMove = box % tableSize;
+
+					final TicTacToeGameStatus gameStatus =
+							lineScanGame.move(xAxisMove, yAxisMove, mark);
+
+					Assert.assertEquals(gameStatus,
+							lineCountersGame.move(xAxisMove, yAxisMove, mark));
+
+					Assert.assertEquals(gameStatus,
+							localWindowGame.move(xAxisMove, yAxisMove, mark));
+
+					if (gameStatus != TicTacToeGameStatus.CONTINUE_NEXT_MOVE) {
+						break;
+					}
+
+					mark = "X".equals(mark) ? "O" : "X";
+
+				}
+
+			}
+
+		}
+
+	}
+
+	@Test
+	public void testKInARowWinner() throws NotValidMoveException {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(15, 5);
+
+		Assert.assertEquals(5, ticTacToeGame.getWinLength());
+
+		// "X" on the diagonal from (3, 9) down to the left, "O" far away.
+		for (int move = 0; move < 4; move++) {
+
+			Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE,
+					ticTacToeGame.move(3 + move, 9 - move, "X"));
+
+			Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE,
+					ticTacToeGame.move(14, move, "O"));
+
+		}
+
+		// Five in a row, completed from the other end.
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, ticTacToeGame.move(2, 10, "X"));
+
+		ticTacToeGame.resetGame(15);
+
+		// Four in a row and a gap is not a win.
+		for (int move = 0; move < 4; move++) {
+
+			Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE,
+					ticTacToeGame.move(0, move, "X"));
+
+			Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE,
+					ticTacToeGame.move(14, 2 * move, "O"));
+
+		}
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE,
+				ticTacToeGame.move(0, 5, "X"));
+
+		Assert.assertEquals(TicTacToeGameStatus.CONTINUE_NEXT_MOVE,
+				ticTacToeGame.move(13, 0, "O"));
+
+		Assert.assertEquals(TicTacToeGameStatus.WINNER, ticTacToeGame.move(0, 4, "X"));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLineScanNeedsWholeLines() {
+
+		new TicTacToeGame(15, TicTacToeBoardStorage.BITBOARD, TicTacToeWinDetection.LINE_SCAN, 5);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTableBelowWinLength() {
+
+		new TicTacToeGame(5, 5).resetGame(4);
+
+	}
+
+	/**
+	 * Gets every box of a table in random order.
+	 *
+	 * @param tableSize Table size.
+	 * @param random Random source.
+	 * @return Box numbers, x * tableSize + y.
+	 */
+	private int [] shuffledBoxes(final int tableSize, final Random random) {
+
+		final int [] boxes = new int[tableSize * tableSize];
+
+		for (int box = 0; box < boxes.length; box++) {
+
+			boxes[box] = box;
+
+		}
+
+		for (int box = boxes.length - 1; box > 0; box--) {
+
+			final int swap = random.nextInt(box + 1);
+			final int aux = boxes[box];
+			boxes[box] = boxes[swap];
+			boxes[swap] = aux;
+
+		}
+
+		return boxes;
+
+	}
+
+}
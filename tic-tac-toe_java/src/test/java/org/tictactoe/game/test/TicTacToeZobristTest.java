@@ -0,0 +1,95 @@
+package org.tictactoe.game.test;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tictactoe.game.TicTacToeGame;
+import org.tictactoe.game.TicTacToeGameCodec;
+import org.tictactoe.game.TicTacToeMark;
+
+public class TicTacToeZobristTest {
+
+	@Test
+	public void testTranspositionsHashEqual() {
+
+		for (int tableSize: new int[] {3, 100}) {
+
+			final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+			final TicTacToeGame transposedGame = new TicTacToeGame(tableSize);
+
+			Assert.assertEquals(0, ticTacToeGame.getPositionHash());
+
+			ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+			ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+			ticTacToeGame.tryMove(2, 2, TicTacToeMark.X);
+
+			transposedGame.tryMove(2, 2, TicTacToeMark.X);
+			transposedGame.tryMove(1, 1, TicTacToeMark.O);
+
+			Assert.assertNotEquals(ticTacToeGame.getPositionHash(), transposedGame.getPositionHash());
+
+			transposedGame.tryMove(0, 0, TicTacToeMark.X);
+
+			Assert.assertEquals(ticTacToeGame.getPositionHash(), transposedGame.getPositionHash());
+
+			transposedGame.resetGame(tableSize);
+
+			Assert.assertEquals(0, transposedGame.getPositionHash());
+
+		}
+
+	}
+
+	@Test
+	public void testPlayerToMoveIsHashed() {
+
+		final TicTacToeGame xStartedGame = new TicTacToeGame(3);
+
+		final TicTacToeGame oStartedGame = new TicTacToeGame(3);
+
+		xStartedGame.tryMove(0, 0, TicTacToeMark.X);
+		xStartedGame.tryMove(1, 1, TicTacToeMark.O);
+
+		oStartedGame.tryMove(1, 1, TicTacToeMark.O);
+		oStartedGame.tryMove(0, 0, TicTacToeMark.X);
+
+		Assert.assertEquals(xStartedGame.toString(), oStartedGame.toString());
+
+		Assert.assertNotEquals(xStartedGame.getPositionHash(), oStartedGame.getPositionHash());
+
+		Assert.assertEquals(positionOf(3).getPositionHash(), xStartedGame.getPositionHash());
+
+		Assert.assertNotEquals(positionOf(3).getPositionHash(), positionOf(4).getPositionHash());
+
+	}
+
+	@Test
+	public void testSnapshotKeepsHash() {
+
+		final TicTacToeGame ticTacToeGame = positionOf(5);
+
+		final ByteBuffer buffer = ByteBuffer.allocate(TicTacToeGameCodec.encodedSize(5));
+
+		TicTacToeGameCodec.encode(ticTacToeGame, buffer);
+
+		buffer.flip();
+
+		Assert.assertEquals(ticTacToeGame.getPositionHash(),
+				TicTacToeGameCodec.decode(buffer).getPositionHash());
+
+	}
+
+	private static TicTacToeGame positionOf(final int tableSize) {
+
+		final TicTacToeGame ticTacToeGame = new TicTacToeGame(tableSize);
+
+		ticTacToeGame.tryMove(0, 0, TicTacToeMark.X);
+		ticTacToeGame.tryMove(1, 1, TicTacToeMark.O);
+
+		return ticTacToeGame;
+
+	}
+
+}